@@ -0,0 +1,52 @@
+package ApplicationLayer.DTO;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class DailySalesDTO {
+    @JsonProperty("date")
+    private final LocalDate date;
+    @JsonProperty("revenue")
+    private final double revenue;
+    @JsonProperty("units")
+    private final long units;
+    @JsonProperty("orderCount")
+    private final long orderCount;
+    @JsonProperty("buyerCount")
+    private final long buyerCount;
+
+    @JsonCreator
+    public DailySalesDTO(LocalDate date, double revenue, long units, long orderCount, long buyerCount) {
+        this.date = date;
+        this.revenue = revenue;
+        this.units = units;
+        this.orderCount = orderCount;
+        this.buyerCount = buyerCount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getBuyerCount() {
+        return buyerCount;
+    }
+
+    public double getAverageBasket() {
+        return orderCount == 0 ? 0 : revenue / orderCount;
+    }
+}
@@ -0,0 +1,46 @@
+package ApplicationLayer.DTO;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ProductSalesDTO {
+    @JsonProperty("productId")
+    private final int productId;
+    @JsonProperty("name")
+    private final String name;
+    @JsonProperty("revenue")
+    private final double revenue;
+    @JsonProperty("units")
+    private final long units;
+    @JsonProperty("orderCount")
+    private final long orderCount;
+
+    @JsonCreator
+    public ProductSalesDTO(int productId, String name, double revenue, long units, long orderCount) {
+        this.productId = productId;
+        this.name = name;
+        this.revenue = revenue;
+        this.units = units;
+        this.orderCount = orderCount;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+}
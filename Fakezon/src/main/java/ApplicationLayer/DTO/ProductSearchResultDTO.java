@@ -0,0 +1,95 @@
+package ApplicationLayer.DTO;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import ApplicationLayer.Enums.PCategory;
+
+public class ProductSearchResultDTO {
+
+    @JsonProperty("products")
+    private final List<StoreProductDTO> products;
+
+    @JsonProperty("page")
+    private final int page;
+
+    @JsonProperty("size")
+    private final int size;
+
+    @JsonProperty("totalElements")
+    private final long totalElements;
+
+    @JsonProperty("totalPages")
+    private final int totalPages;
+
+    @JsonProperty("categoryCounts")
+    private final Map<PCategory, Long> categoryCounts; // ignores the category filter
+
+    @JsonProperty("storeCounts")
+    private final Map<Integer, Long> storeCounts; // ignores the store filter
+
+    @JsonProperty("minPrice")
+    private final Double minPrice;
+
+    @JsonProperty("maxPrice")
+    private final Double maxPrice;
+
+    @JsonCreator
+    public ProductSearchResultDTO(@JsonProperty("products") List<StoreProductDTO> products,
+            @JsonProperty("page") int page,
+            @JsonProperty("size") int size,
+            @JsonProperty("totalElements") long totalElements,
+            @JsonProperty("categoryCounts") Map<PCategory, Long> categoryCounts,
+            @JsonProperty("storeCounts") Map<Integer, Long> storeCounts,
+            @JsonProperty("minPrice") Double minPrice,
+            @JsonProperty("maxPrice") Double maxPrice) {
+        this.products = products;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = size == 0 ? 0 : (int) ((totalElements + size - 1) / size);
+        this.categoryCounts = categoryCounts;
+        this.storeCounts = storeCounts;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public List<StoreProductDTO> getProducts() {
+        return products;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public Map<PCategory, Long> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public Map<Integer, Long> getStoreCounts() {
+        return storeCounts;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+}
@@ -0,0 +1,84 @@
+package ApplicationLayer.DTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// A store's sales over a date range, both ends included. Revenue is what buyers paid, after
+// discounts; the product revenues are at the prices on the order lines.
+public class StoreSalesDTO {
+    @JsonProperty("storeId")
+    private final int storeId;
+    @JsonProperty("from")
+    private final LocalDate from;
+    @JsonProperty("to")
+    private final LocalDate to;
+    @JsonProperty("revenue")
+    private final double revenue;
+    @JsonProperty("units")
+    private final long units;
+    @JsonProperty("orderCount")
+    private final long orderCount;
+    @JsonProperty("buyerCount")
+    private final long buyerCount;
+    @JsonProperty("days")
+    private final List<DailySalesDTO> days;
+    @JsonProperty("topProducts")
+    private final List<ProductSalesDTO> topProducts;
+
+    @JsonCreator
+    public StoreSalesDTO(int storeId, LocalDate from, LocalDate to, double revenue, long units, long orderCount,
+            long buyerCount, List<DailySalesDTO> days, List<ProductSalesDTO> topProducts) {
+        this.storeId = storeId;
+        this.from = from;
+        this.to = to;
+        this.revenue = revenue;
+        this.units = units;
+        this.orderCount = orderCount;
+        this.buyerCount = buyerCount;
+        this.days = days;
+        this.topProducts = topProducts;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getBuyerCount() {
+        return buyerCount;
+    }
+
+    public double getAverageBasket() {
+        return orderCount == 0 ? 0 : revenue / orderCount;
+    }
+
+    public List<DailySalesDTO> getDays() {
+        return days;
+    }
+
+    public List<ProductSalesDTO> getTopProducts() {
+        return topProducts;
+    }
+}
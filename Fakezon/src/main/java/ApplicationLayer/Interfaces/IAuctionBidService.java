@@ -0,0 +1,29 @@
+package ApplicationLayer.Interfaces;
+
+import DomainLayer.Model.helpers.AuctionBook;
+
+public interface IAuctionBidService {
+    // true if the bid is now the highest; false if it is not higher, or the bidder already held the highest bid.
+    // Stored shortly after; whoever was outbid is told once it is.
+    boolean placeBid(int storeId, int userId, int productId, double amount);
+
+    void closeAuction(int storeId, int productId); // no more bids; the highest one is stored before this returns
+
+    void discardAuction(int storeId, int productId); // the auction was replaced or removed; the next bid reads it again
+
+    AuctionBook.State getHighestBid(int storeId, int productId); // null if no bid went through here since it was read
+
+    void flush(); // stores every accepted bid now
+
+    void clearAllData();
+
+    int getQueueDepth(); // accepted bids waiting to be stored
+
+    long getAcceptedCount();
+
+    long getRejectedCount(); // not higher than the highest bid, or too late
+
+    long getStoredCount();
+
+    long getFailedCount(); // could not be stored; the closing auction still stores its highest bid
+}
@@ -0,0 +1,13 @@
+package ApplicationLayer.Interfaces;
+
+import java.time.LocalDateTime;
+
+public interface IAuctionTimerService {
+    void scheduleAuctionEnd(int storeId, int productId, LocalDateTime endTime); // replaces an existing deadline for the same auction
+
+    void cancelAuctionEnd(int storeId, int productId);
+
+    int reschedulePendingAuctions(); // reloads deadlines of all pending auctions from the DB, returns how many were scheduled
+
+    int getPendingCount();
+}
@@ -0,0 +1,19 @@
+package ApplicationLayer.Interfaces;
+
+import DomainLayer.Model.helpers.UserNotification;
+
+public interface INotificationPipeline {
+    void submit(UserNotification notification); // stored (and pushed if asked) shortly after; never dropped
+
+    int getQueueDepth(); // notifications waiting to be stored
+
+    long getDeliveredCount(); // stored, and pushed where asked
+
+    long getCoalescedCount(); // duplicates folded into an identical notification of the same batch
+
+    long getFailedCount(); // could not be stored
+
+    double getAverageLatencyMillis(); // from submit until stored and pushed
+
+    double getMaxLatencyMillis();
+}
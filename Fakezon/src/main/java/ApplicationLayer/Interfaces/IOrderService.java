@@ -1,10 +1,12 @@
 package ApplicationLayer.Interfaces;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
+import DomainLayer.Enums.OrderState;
 import DomainLayer.Enums.PaymentMethod;
 import DomainLayer.Interfaces.IOrder;
 
@@ -18,6 +20,11 @@ public interface IOrderService {
     List<IOrder> getOrdersByUserId(int userId);
     List<Integer> getOrderProductIds(int orderId);
     List<IOrder> getOrdersByStoreId(int storeId);
+    List<IOrder> getOrdersByStoreId(int storeId, int page, int size);
+    List<IOrder> getOrdersByStoreId(int storeId, LocalDateTime from, LocalDateTime to, int page, int size);
+    List<IOrder> getOrdersByUserId(int userId, int page, int size);
+    List<IOrder> getOrdersByState(OrderState state, int page, int size);
+    List<IOrder> searchOrders(String keyword, int page, int size);
     void addOrderCart(Map<StoreDTO, Map<StoreProductDTO,Boolean>> cart,Map<Integer,Double> prices, int userId, String address, PaymentMethod paymentMethod, int paymentTransactionId, int deliveryTransactionId);
     void clearAllData();
 }
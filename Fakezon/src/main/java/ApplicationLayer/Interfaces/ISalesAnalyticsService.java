@@ -0,0 +1,21 @@
+package ApplicationLayer.Interfaces;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import ApplicationLayer.DTO.StoreSalesDTO;
+import DomainLayer.Interfaces.IOrder;
+
+public interface ISalesAnalyticsService {
+    void recordOrders(Collection<IOrder> orders); // stored orders, queued in the current transaction and rolled up once it commits
+
+    StoreSalesDTO getStoreSales(int storeId, LocalDate from, LocalDate to, int topProducts); // read from the rollups only
+
+    void flush(); // returns once every order recorded so far is in the rollups or left pending for a retry
+
+    int getQueueDepth(); // orders committed but not yet rolled up, those given up on included
+
+    long getFailedCount(); // orders whose rollup could not be written after every retry
+
+    void clearAllData();
+}
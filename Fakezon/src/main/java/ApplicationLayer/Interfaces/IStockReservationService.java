@@ -0,0 +1,12 @@
+package ApplicationLayer.Interfaces;
+
+import java.util.Map;
+
+import DomainLayer.Model.StoreProductKey;
+
+public interface IStockReservationService {
+    // all-or-nothing: if one line can not be reserved nothing stays reserved. returns line -> reserved
+    Map<StoreProductKey, Boolean> reserve(Map<Integer, Map<Integer, Integer>> cart);
+
+    void release(Map<Integer, Map<Integer, Integer>> cart); // compensation for a reservation that will not be sold
+}
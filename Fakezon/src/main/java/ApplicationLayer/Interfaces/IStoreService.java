@@ -10,6 +10,7 @@ import java.util.function.Predicate;
 
 import ApplicationLayer.Response;
 import ApplicationLayer.DTO.AuctionProductDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
@@ -18,6 +19,7 @@ import DomainLayer.Enums.StoreManagerPermission;
 import DomainLayer.Model.Cart;
 import DomainLayer.Model.Offer;
 import DomainLayer.Model.ProductRating;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
 import DomainLayer.Model.helpers.UserMsg;
 
 import java.time.LocalDate;
@@ -47,6 +49,12 @@ public interface IStoreService {
 
   StoreProductDTO getProductFromStore(int productId, int storeId);
 
+  ProductSearchResultDTO searchStoreProducts(ProductSearchCriteria criteria);
+
+  List<StoreProductDTO> getTopRatedProducts(int limit);
+
+  List<StoreDTO> getTopRatedStores(int limit);
+
   // --- Product Management ---
   StoreProductDTO addProductToStore(int storeId, int requesterId, int productId, String name, double basePrice, int quantity, PCategory category);
 
@@ -103,6 +111,8 @@ public interface IStoreService {
 
   void returnProductsToStores(int userId, Map<Integer,Map<Integer,Integer>> products);
 
+  void confirmProductsInStores(int userId, Map<Integer,Map<Integer,Integer>> purchased); // consumes won auctions / accepted offers after a successful purchase
+
   List<ProductRating> getStoreProductRatings(int storeId, int productID);
 
   Response<Map<Integer, UserMsg>> getMessagesFromUsers(int storeId, int userId);
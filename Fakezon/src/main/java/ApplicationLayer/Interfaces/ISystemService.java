@@ -16,9 +16,11 @@ import ApplicationLayer.DTO.CartItemInfoDTO;
 import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.ProductDTO;
 import ApplicationLayer.DTO.ProductRatingDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.Response;
 import DomainLayer.Enums.PaymentMethod;
@@ -134,6 +136,10 @@ public interface ISystemService {
 
     Response<List<OrderDTO>> getAllStoreOrders(int storeId, int userId);
 
+    Response<List<OrderDTO>> getAllStoreOrders(int storeId, int userId, int page, int size);
+
+    Response<StoreSalesDTO> getStoreSales(int storeId, int userId, LocalDate from, LocalDate to);
+
     Response<String> acceptAssignment(int storeId, int userId);
 
     Response<String> declineAssignment(int storeId, int userId);
@@ -144,6 +150,12 @@ public interface ISystemService {
 
     Response<List<StoreProductDTO>> getTopRatedProducts(int limit);
 
+    Response<List<StoreDTO>> getTopRatedStores(int limit);
+
+    // One page of open-store products matching every given filter, with category/store/price facets
+    Response<ProductSearchResultDTO> searchStoreProducts(String keyword, String category, Double minPrice,
+            Double maxPrice, Double minProductRating, Double minStoreRating, Integer storeId, int page, int size);
+
     Response<Boolean> deleteOrder(int orderId, int userId);
 
     Response<OrderDTO> viewOrder(int orderId, int userId);
@@ -1,8 +1,70 @@
 package ApplicationLayer.Services;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class AppConfig {
 
+    // Spring Boot only creates its default executor when no other one is declared, so keep it
+    // explicitly for plain @Async methods
+    @Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Runs the UserEventListener handlers
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${notifications.executor.core-size:2}") int coreSize,
+            @Value("${notifications.executor.max-size:8}") int maxSize,
+            @Value("${notifications.executor.queue-capacity:1000}") int queueCapacity) {
+        return boundedExecutor("notify-", coreSize, maxSize, queueCapacity);
+    }
+
+    // Sends the web socket frames of stored notifications
+    @Bean
+    public ThreadPoolTaskExecutor notificationPushExecutor(
+            @Value("${notifications.push.core-size:2}") int coreSize,
+            @Value("${notifications.push.max-size:4}") int maxSize,
+            @Value("${notifications.push.queue-capacity:1000}") int queueCapacity) {
+        return boundedExecutor("notify-push-", coreSize, maxSize, queueCapacity);
+    }
+
+    // Prices the baskets of a multi-store checkout in parallel
+    @Bean
+    public ThreadPoolTaskExecutor checkoutExecutor(
+            @Value("${checkout.executor.core-size:4}") int coreSize,
+            @Value("${checkout.executor.max-size:8}") int maxSize,
+            @Value("${checkout.executor.queue-capacity:200}") int queueCapacity) {
+        return boundedExecutor("checkout-", coreSize, maxSize, queueCapacity);
+    }
+
+    // Writes the sales rollups; one thread, so rollup rows have a single writer
+    @Bean
+    public ThreadPoolTaskExecutor analyticsExecutor(
+            @Value("${analytics.executor.queue-capacity:1000}") int queueCapacity) {
+        return boundedExecutor("analytics-", 1, 1, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int coreSize, int maxSize,
+            int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        // When full, the submitting thread runs the task itself: publishers slow down, nothing is dropped
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
 }
@@ -0,0 +1,264 @@
+package ApplicationLayer.Services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import ApplicationLayer.Interfaces.IAuctionBidService;
+import DomainLayer.IRepository.IAuctionBidRepository;
+import DomainLayer.Model.AuctionBid;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.AuctionBook;
+import DomainLayer.Model.helpers.AuctionEvents.AuctionGotHigherBidEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Takes auction bids without loading or saving the Store.
+ * Each auction has an in-memory book, read from the database on its first bid, whose highest
+ * bid is raised by compare-and-set, so concurrent bidders never fail on the Store version.
+ * Accepted bids go to a journal that one daemon thread stores in batches; the outbid bidders
+ * are told once their batch is committed. Closing an auction stores its highest bid before
+ * the auction end reads it.
+ */
+@Service
+public class AuctionBidService implements IAuctionBidService {
+    private static final Logger logger = LoggerFactory.getLogger(AuctionBidService.class);
+
+    private final IAuctionBidRepository bidRepository;
+    private final ApplicationEventPublisher publisher;
+    private final ConcurrentHashMap<StoreProductKey, AuctionBook> books = new ConcurrentHashMap<>();
+    private final BlockingQueue<AuctionBid> journal;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final Object writeLock = new Object(); // one batch is stored at a time
+    private List<AuctionBid> taken = new ArrayList<>(); // taken off the journal by the writer, guarded by writeLock
+    private volatile Thread worker;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Autowired
+    public AuctionBidService(IAuctionBidRepository bidRepository, ApplicationEventPublisher publisher,
+            @Value("${auction.bids.queue.capacity:100000}") int queueCapacity,
+            @Value("${auction.bids.batch.size:500}") int batchSize,
+            @Value("${auction.bids.batch.linger-ms:20}") long lingerMillis) {
+        if (queueCapacity <= 0 || batchSize <= 0 || lingerMillis < 0) {
+            throw new IllegalArgumentException("Invalid auction bid journal settings");
+        }
+        this.bidRepository = bidRepository;
+        this.publisher = publisher;
+        this.journal = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+    }
+
+    @Override
+    public boolean placeBid(int storeId, int userId, int productId, double amount) {
+        AuctionBook book = book(storeId, productId);
+        LocalDateTime now = LocalDateTime.now();
+        AuctionBook.State previous;
+        try {
+            previous = book.placeBid(userId, amount, now);
+        } catch (IllegalArgumentException e) {
+            rejected.increment();
+            throw e;
+        }
+        if (previous == null) {
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        append(new AuctionBid(storeId, productId, userId, amount, now, previous.getUserId()));
+        return true;
+    }
+
+    private AuctionBook book(int storeId, int productId) {
+        StoreProductKey key = new StoreProductKey(storeId, productId);
+        AuctionBook book = books.get(key);
+        if (book != null) {
+            return book;
+        }
+        AuctionProduct auction = bidRepository.findAuction(storeId, productId);
+        if (auction == null) {
+            if (!bidRepository.storeExists(storeId)) {
+                throw new IllegalArgumentException("Store not found");
+            }
+            throw new IllegalArgumentException(
+                    "Product with ID: " + productId + " does not exist in store ID: " + storeId);
+        }
+        AuctionBook loaded = new AuctionBook(storeId, productId, auction.getUserIDHighestBid(),
+                auction.getCurrentHighestBid(), auction.getEndTime(), auction.isDone());
+        AuctionBook raced = books.putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    @Override
+    public void closeAuction(int storeId, int productId) {
+        AuctionBook book = books.get(new StoreProductKey(storeId, productId));
+        if (book == null) {
+            return; // no bid went through here, the stored highest bid is current
+        }
+        AuctionBook.State last = book.close();
+        flush();
+        // a bid accepted just before closing may not have reached the journal yet
+        if (last.getUserId() != -1) {
+            bidRepository.raiseHighestBid(storeId, productId, last.getUserId(), last.getAmount());
+        }
+        logger.info("Auction of product " + productId + " in store " + storeId + " closed at " + last.getAmount());
+    }
+
+    @Override
+    public void discardAuction(int storeId, int productId) {
+        books.remove(new StoreProductKey(storeId, productId));
+    }
+
+    @Override
+    public AuctionBook.State getHighestBid(int storeId, int productId) {
+        AuctionBook book = books.get(new StoreProductKey(storeId, productId));
+        return book == null ? null : book.getState();
+    }
+
+    private void append(AuctionBid bid) {
+        if (journal.offer(bid)) {
+            ensureStarted();
+            return;
+        }
+        // Journal is full: store this one on the caller's thread instead of losing it
+        List<AuctionBid> single = new ArrayList<>();
+        single.add(bid);
+        store(single);
+    }
+
+    @Override
+    public void flush() {
+        synchronized (writeLock) {
+            List<AuctionBid> batch = takeBatch(Integer.MAX_VALUE);
+            if (!batch.isEmpty()) {
+                store(batch);
+            }
+        }
+    }
+
+    // Whatever the writer already took, then the journal in order
+    private List<AuctionBid> takeBatch(int max) {
+        List<AuctionBid> batch = taken;
+        taken = new ArrayList<>();
+        journal.drainTo(batch, Math.max(0, max - batch.size()));
+        return batch;
+    }
+
+    private void ensureStarted() {
+        if (worker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null) {
+                Thread t = new Thread(this::run, "auction-bid-writer");
+                t.setDaemon(true);
+                t.start();
+                worker = t;
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                AuctionBid first = journal.take();
+                synchronized (writeLock) {
+                    taken.add(first); // where flush finds it while the writer lingers
+                }
+                if (lingerMillis > 0 && journal.size() < batchSize - 1) {
+                    Thread.sleep(lingerMillis); // let a burst of bids gather into one batch
+                }
+                synchronized (writeLock) {
+                    List<AuctionBid> batch = takeBatch(batchSize);
+                    if (!batch.isEmpty()) {
+                        store(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("AuctionBidService - failed to store batch: " + e.getMessage());
+            }
+        }
+        flush();
+    }
+
+    private void store(List<AuctionBid> batch) {
+        synchronized (writeLock) {
+            try {
+                bidRepository.appendBids(batch);
+                stored.add(batch.size());
+            } catch (Exception e) {
+                failed.add(batch.size());
+                logger.error("AuctionBidService - failed to store " + batch.size() + " bids: " + e.getMessage());
+                return;
+            }
+        }
+        for (AuctionBid bid : batch) {
+            if (bid.getOutbidUserId() != -1) {
+                publisher.publishEvent(new AuctionGotHigherBidEvent(bid.getStoreId(), bid.getProductId(),
+                        bid.getOutbidUserId(), bid.getAmount()));
+            }
+        }
+    }
+
+    @Override
+    public void clearAllData() {
+        synchronized (writeLock) {
+            journal.clear();
+            taken.clear();
+            books.clear();
+            bidRepository.clearAllData();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return journal.size();
+    }
+
+    @Override
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getStoredCount() {
+        return stored.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+}
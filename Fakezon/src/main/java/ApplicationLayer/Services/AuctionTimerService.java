@@ -0,0 +1,160 @@
+package ApplicationLayer.Services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import ApplicationLayer.Interfaces.IAuctionTimerService;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.AuctionEvents.AuctionSaveEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single application-wide timer for auction deadlines.
+ * One daemon thread drains a DelayQueue and publishes an AuctionSaveEvent when an auction ends,
+ * so loading a Store never starts a thread of its own.
+ */
+@Service
+public class AuctionTimerService implements IAuctionTimerService {
+    private static final Logger logger = LoggerFactory.getLogger(AuctionTimerService.class);
+
+    private final IStoreRepository storeRepository;
+    private final ApplicationEventPublisher publisher;
+    private final DelayQueue<AuctionDeadline> deadlines = new DelayQueue<>();
+    private final Map<StoreProductKey, AuctionDeadline> pending = new ConcurrentHashMap<>(); // latest deadline per auction
+    private volatile Thread worker;
+
+    public AuctionTimerService(IStoreRepository storeRepository, ApplicationEventPublisher publisher) {
+        this.storeRepository = storeRepository;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void scheduleAuctionEnd(int storeId, int productId, LocalDateTime endTime) {
+        if (endTime == null) {
+            throw new IllegalArgumentException("Auction end time can not be null");
+        }
+        StoreProductKey key = new StoreProductKey(storeId, productId);
+        AuctionDeadline deadline = new AuctionDeadline(key,
+                endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        AuctionDeadline previous = pending.put(key, deadline);
+        if (previous != null) {
+            deadlines.remove(previous);
+        }
+        deadlines.add(deadline);
+        ensureStarted();
+        logger.info("Auction end scheduled for product " + productId + " in store " + storeId + " at " + endTime);
+    }
+
+    @Override
+    public void cancelAuctionEnd(int storeId, int productId) {
+        AuctionDeadline previous = pending.remove(new StoreProductKey(storeId, productId));
+        if (previous != null) {
+            deadlines.remove(previous);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            int count = reschedulePendingAuctions();
+            logger.info("AuctionTimerService - rescheduled " + count + " pending auctions");
+        } catch (Exception e) {
+            logger.error("AuctionTimerService - failed to reschedule pending auctions: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int reschedulePendingAuctions() {
+        int count = 0;
+        for (AuctionProduct auction : storeRepository.getPendingAuctionProducts()) {
+            if (auction.getEndTime() == null) { // created before deadlines were persisted
+                logger.warn("Auction " + auction.getId() + " has no persisted end time, skipping");
+                continue;
+            }
+            scheduleAuctionEnd(auction.getStoreProduct().getStoreId(), auction.getStoreProduct().getSproductID(),
+                    auction.getEndTime());
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void ensureStarted() {
+        if (worker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null) {
+                Thread t = new Thread(this::run, "auction-timer");
+                t.setDaemon(true);
+                t.start();
+                worker = t;
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                AuctionDeadline deadline = deadlines.take();
+                if (!pending.remove(deadline.key, deadline)) {
+                    continue; // cancelled or rescheduled in the meantime
+                }
+                publisher.publishEvent(new AuctionSaveEvent(deadline.key.getStoreId(), deadline.key.getSproductId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("AuctionTimerService - failed to end auction: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    private static final class AuctionDeadline implements Delayed {
+        private final StoreProductKey key;
+        private final long endMillis;
+
+        AuctionDeadline(StoreProductKey key, long endMillis) {
+            this.key = key;
+            this.endMillis = endMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(endMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof AuctionDeadline) {
+                return Long.compare(endMillis, ((AuctionDeadline) other).endMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
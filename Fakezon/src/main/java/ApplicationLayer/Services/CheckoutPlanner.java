@@ -0,0 +1,88 @@
+package ApplicationLayer.Services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.Cart;
+import DomainLayer.Model.Store;
+
+/**
+ * Loads every store of a cart in one go and prices the baskets, which are independent of
+ * each other, in parallel.
+ *
+ * Everything that touches the persistence session (loading the stores and whatever pricing
+ * reads lazily) stays on the calling thread; the executor only runs Store.calcAmount on stores
+ * that are already loaded.
+ */
+public class CheckoutPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutPlanner.class);
+
+    private final IStoreRepository storeRepository;
+    private final Executor executor;
+
+    public CheckoutPlanner(IStoreRepository storeRepository, Executor executor) {
+        this.storeRepository = storeRepository;
+        this.executor = executor;
+    }
+
+    /** The stores by ID, loaded together with what the profile names; throws if any of them does not exist. */
+    public Map<Integer, Store> loadStores(Iterable<Integer> storeIds, StoreFetchProfile profile) {
+        List<Integer> ids = new ArrayList<>();
+        storeIds.forEach(ids::add);
+        Map<Integer, Store> stores = new HashMap<>();
+        for (Store store : storeRepository.findAllById(ids, profile)) {
+            stores.put(store.getId(), store);
+        }
+        for (Integer storeId : ids) {
+            if (!stores.containsKey(storeId)) {
+                logger.error("CheckoutPlanner - Store not found: " + storeId);
+                throw new IllegalArgumentException("Store not found");
+            }
+        }
+        return stores;
+    }
+
+    /** Price of each store's basket in the cart, after its discounts, by store ID; stores come from loadStores. */
+    public Map<Integer, Double> priceBaskets(int userId, Cart cart, LocalDate dob, Map<Integer, Store> stores) {
+        Map<Integer, Map<Integer, Integer>> baskets = cart.getAllProducts();
+        Map<Integer, Double> prices = new HashMap<>();
+        if (baskets.size() == 1) {
+            Map.Entry<Integer, Map<Integer, Integer>> basket = baskets.entrySet().iterator().next();
+            prices.put(basket.getKey(), stores.get(basket.getKey()).calcAmount(userId, basket.getValue(), dob, cart));
+            return prices;
+        }
+
+        Map<Integer, CompletableFuture<Double>> pending = new HashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> basket : baskets.entrySet()) {
+            Store store = stores.get(basket.getKey());
+            store.prepareForPricing(userId);
+            pending.put(basket.getKey(), CompletableFuture.supplyAsync(
+                    () -> store.calcAmount(userId, basket.getValue(), dob, cart), executor));
+        }
+        try {
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw unwrap(e); // the basket's own exception, as when the stores were priced one by one
+        }
+        for (Map.Entry<Integer, CompletableFuture<Double>> price : pending.entrySet()) {
+            prices.put(price.getKey(), price.getValue().join());
+        }
+        return prices;
+    }
+
+    private static RuntimeException unwrap(CompletionException error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,229 @@
+package ApplicationLayer.Services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ApplicationLayer.Interfaces.INotificationPipeline;
+import ApplicationLayer.Interfaces.INotificationWebSocketHandler;
+import DomainLayer.IRepository.IUserRepository;
+import DomainLayer.Model.helpers.UserNotification;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stores and pushes user notifications in batches.
+ * Event handlers only enqueue; one daemon thread drains the queue, drops duplicates within a
+ * batch, stores the batch with one insert per table and hands the web socket frames to a
+ * separate executor.
+ */
+@Service
+public class NotificationPipeline implements INotificationPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private final IUserRepository userRepository;
+    private final INotificationWebSocketHandler wsHandler;
+    private final Executor pushExecutor;
+    private final BlockingQueue<UserNotification> queue;
+    private final int batchSize;
+    private final long lingerMillis;
+    private volatile Thread worker;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @Autowired
+    public NotificationPipeline(IUserRepository userRepository, INotificationWebSocketHandler wsHandler,
+            @Qualifier("notificationPushExecutor") Executor pushExecutor,
+            @Value("${notifications.queue.capacity:10000}") int queueCapacity,
+            @Value("${notifications.batch.size:200}") int batchSize,
+            @Value("${notifications.batch.linger-ms:5}") long lingerMillis) {
+        if (queueCapacity <= 0 || batchSize <= 0 || lingerMillis < 0) {
+            throw new IllegalArgumentException("Invalid notification pipeline settings");
+        }
+        this.userRepository = userRepository;
+        this.wsHandler = wsHandler;
+        this.pushExecutor = pushExecutor;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+    }
+
+    @Override
+    public void submit(UserNotification notification) {
+        if (notification == null) {
+            throw new IllegalArgumentException("Notification can not be null");
+        }
+        if (queue.offer(notification)) {
+            ensureStarted();
+            return;
+        }
+        // Queue is full: store this one on the caller's thread instead of losing it
+        List<UserNotification> single = new ArrayList<>();
+        single.add(notification);
+        process(single);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        long count = delivered.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / (count * 1_000_000.0);
+    }
+
+    @Override
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    private void ensureStarted() {
+        if (worker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null) {
+                Thread t = new Thread(this::run, "notification-writer");
+                t.setDaemon(true);
+                t.start();
+                worker = t;
+            }
+        }
+    }
+
+    private void run() {
+        List<UserNotification> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                if (lingerMillis > 0 && queue.size() < batchSize - 1) {
+                    Thread.sleep(lingerMillis); // let a burst of events gather into one batch
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                process(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("NotificationPipeline - failed to process batch: " + e.getMessage());
+                batch.clear();
+            }
+        }
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            process(batch);
+        }
+    }
+
+    private void process(List<UserNotification> batch) {
+        List<UserNotification> unique = coalesce(batch);
+        List<UserNotification> stored = unique;
+        try {
+            userRepository.addMessages(unique);
+        } catch (Exception e) {
+            logger.warn("NotificationPipeline - storing " + unique.size() + " notifications failed, retrying one by one: "
+                    + e.getMessage());
+            stored = new ArrayList<>();
+            for (UserNotification notification : unique) {
+                try {
+                    List<UserNotification> single = new ArrayList<>();
+                    single.add(notification);
+                    userRepository.addMessages(single);
+                    stored.add(notification);
+                } catch (Exception ex) {
+                    failed.increment();
+                    logger.error("NotificationPipeline - failed to store notification for user "
+                            + notification.getUserId() + ": " + ex.getMessage());
+                }
+            }
+        }
+        logger.debug("NotificationPipeline - stored " + stored.size() + " notifications, queue depth " + queue.size());
+        push(stored);
+    }
+
+    private List<UserNotification> coalesce(List<UserNotification> batch) {
+        Set<List<Object>> seen = new HashSet<>();
+        List<UserNotification> unique = new ArrayList<>(batch.size());
+        for (UserNotification notification : batch) {
+            if (seen.add(notification.coalesceKey())) {
+                unique.add(notification);
+            } else {
+                coalesced.increment();
+            }
+        }
+        return unique;
+    }
+
+    // One task per user, so a user's frames of a batch go out in order
+    private void push(List<UserNotification> stored) {
+        Map<Integer, List<UserNotification>> byUser = new LinkedHashMap<>();
+        for (UserNotification notification : stored) {
+            if (notification.isPush()) {
+                byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+            } else {
+                recordDelivered(notification);
+            }
+        }
+        byUser.forEach((userId, notifications) -> pushExecutor.execute(() -> {
+            for (UserNotification notification : notifications) {
+                try {
+                    wsHandler.broadcast(String.valueOf(userId), notification.getMessage().getMessage());
+                } catch (Exception e) {
+                    logger.error("NotificationPipeline - failed to push notification to user " + userId + ": "
+                            + e.getMessage());
+                }
+                recordDelivered(notification);
+            }
+        }));
+    }
+
+    private void recordDelivered(UserNotification notification) {
+        long latency = System.nanoTime() - notification.getCreatedAtNanos();
+        delivered.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+}
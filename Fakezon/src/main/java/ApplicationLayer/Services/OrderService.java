@@ -1,16 +1,18 @@
 package ApplicationLayer.Services;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.Interfaces.IOrderService;
+import ApplicationLayer.Interfaces.ISalesAnalyticsService;
 import DomainLayer.Enums.OrderState;
 import DomainLayer.Enums.PaymentMethod;
 import DomainLayer.Interfaces.IOrder;
@@ -23,10 +25,17 @@ public class OrderService implements IOrderService {
 
     private final IOrderRepository orderRepository;
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private final ISalesAnalyticsService salesAnalytics; // null when built by hand: no rollups are kept
 
     public OrderService(IOrderRepository orderRepository) {
-        this.orderRepository = orderRepository;
+        this(orderRepository, null);
+    }
 
+    @Autowired
+    public OrderService(IOrderRepository orderRepository, ISalesAnalyticsService salesAnalytics) {
+        this.orderRepository = orderRepository;
+        this.salesAnalytics = salesAnalytics;
     }
 
     @Override
@@ -52,15 +61,21 @@ public class OrderService implements IOrderService {
 
     @Override
     public List<IOrder> searchOrders(String keyword) {
-        List<IOrder> orders = new ArrayList<>();
-        for (IOrder order : orderRepository.getAllOrders()) {
-            if (order.getAddress().contains(keyword) || order.getState().toString().contains(keyword)
-                    || order.getPaymentMethod().toString().contains(keyword)
-                    || order.getProductIds().toString().contains(keyword)) {
-                orders.add(order);
-            }
-        }
-        return orders;
+        // every match, a page at a time; a short page is the last one
+        List<IOrder> matches = new ArrayList<>();
+        List<IOrder> page;
+        int pageNumber = 0;
+        do {
+            page = orderRepository.searchOrders(keyword, pageNumber++, MAX_PAGE_SIZE);
+            matches.addAll(page);
+        } while (page.size() == MAX_PAGE_SIZE);
+        return matches;
+    }
+
+    @Override
+    public List<IOrder> searchOrders(String keyword, int page, int size) {
+        checkPageSize(size);
+        return orderRepository.searchOrders(keyword, page, size);
     }
 
     @Override
@@ -98,21 +113,44 @@ public class OrderService implements IOrderService {
 
     @Override
     public List<IOrder> getOrdersByStoreId(int storeId) {
-        Collection<IOrder> orders = orderRepository.getAllOrders();
-        List<IOrder> storeOrders = new ArrayList<>();
-        for(IOrder order : orders) {
-            if(order.getStoreId() == storeId) {
-                storeOrders.add(order);
-            }
-        }
-        return storeOrders;
+        return new ArrayList<>(orderRepository.getOrdersByStoreId(storeId));
+    }
+
+    @Override
+    public List<IOrder> getOrdersByStoreId(int storeId, int page, int size) {
+        checkPageSize(size);
+        return orderRepository.getOrdersByStoreId(storeId, page, size);
+    }
+
+    @Override
+    public List<IOrder> getOrdersByStoreId(int storeId, LocalDateTime from, LocalDateTime to, int page, int size) {
+        checkPageSize(size);
+        return orderRepository.getOrdersByStoreId(storeId, from, to, page, size);
+    }
+
+    @Override
+    public List<IOrder> getOrdersByUserId(int userId, int page, int size) {
+        checkPageSize(size);
+        return orderRepository.getOrdersByUserId(userId, page, size);
+    }
 
+    @Override
+    public List<IOrder> getOrdersByState(OrderState state, int page, int size) {
+        checkPageSize(size);
+        return orderRepository.getOrdersByState(state, page, size);
+    }
 
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            logger.error("OrderService - Invalid page size: " + size);
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
     @Override
     public void addOrderCart(Map<StoreDTO, Map<StoreProductDTO,Boolean>> cart,Map<Integer,Double> prices, int userId, String address, PaymentMethod paymentMethod, int paymentTransactionId, int deliveryTransactionId) {
         try {
+            List<IOrder> orders = new ArrayList<>(cart.size());
             for (Map.Entry<StoreDTO, Map<StoreProductDTO,Boolean>> entry : cart.entrySet()) {
                 StoreDTO store = entry.getKey();
                 Map<StoreProductDTO,Boolean> products = entry.getValue();
@@ -127,7 +165,13 @@ public class OrderService implements IOrderService {
                 
                 double price = prices.get(store.getStoreId());
                 Order order = new Order(userId, store.getStoreId(), OrderState.SHIPPED, orderedProducts, address, paymentMethod, price,paymentTransactionId,deliveryTransactionId);
-                orderRepository.addOrder(order);
+                orders.add(order);
+            }
+            if (!orders.isEmpty()) {
+                orderRepository.addOrders(orders); // one batched write for the whole checkout
+                if (salesAnalytics != null) {
+                    salesAnalytics.recordOrders(orders);
+                }
             }
 
         } catch (IllegalArgumentException e) {
@@ -139,6 +183,9 @@ public class OrderService implements IOrderService {
     @Override
     public void clearAllData() {
         orderRepository.clearAllData();
+        if (salesAnalytics != null) {
+            salesAnalytics.clearAllData();
+        }
     }
 
     @Override
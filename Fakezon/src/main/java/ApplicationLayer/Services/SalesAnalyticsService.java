@@ -0,0 +1,306 @@
+package ApplicationLayer.Services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ApplicationLayer.DTO.DailySalesDTO;
+import ApplicationLayer.DTO.ProductSalesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
+import ApplicationLayer.Interfaces.ISalesAnalyticsService;
+import DomainLayer.IRepository.ISalesRollupRepository;
+import DomainLayer.Interfaces.IOrder;
+import DomainLayer.Model.OrderedProduct;
+import DomainLayer.Model.ProductSalesDay;
+import DomainLayer.Model.StoreBuyerDay;
+import DomainLayer.Model.StoreSalesDay;
+import DomainLayer.Model.helpers.ProductSalesTotal;
+
+/**
+ * Keeps per-store, per-product and per-buyer daily sales rollups, so store reports read a row
+ * per day instead of every order.
+ * Orders are queued in a pending table inside the transaction that creates them, so a crash or a
+ * failed write cannot lose one. Once that transaction commits, a single writer on the analytics
+ * executor folds the pending orders into one delta per rollup row, a batch at a time, and writes
+ * them and removes the orders from the pending table in one transaction. Reports may trail the
+ * orders by that one write.
+ * When a batch fails its orders are written one by one; those that still fail stay pending and
+ * the writer runs again after a backoff that doubles with each failed run. An order is given up
+ * (left pending and counted as failed) after MAX_ATTEMPTS failures.
+ * At startup orders written before the rollups existed are queued once, and whatever a previous
+ * run left pending is written.
+ */
+@Service
+public class SalesAnalyticsService implements ISalesAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_BACKOFF_DOUBLINGS = 6;
+
+    private final ISalesRollupRepository rollupRepository;
+    private final Executor executor;
+    private final long retryBackoffMillis;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private int failedRuns; // in a row, guarded by writeLock
+    private boolean retryScheduled; // guarded by writeLock
+    private final LongAdder failed = new LongAdder();
+
+    public SalesAnalyticsService(ISalesRollupRepository rollupRepository, Executor executor) {
+        this(rollupRepository, executor, 1000);
+    }
+
+    @Autowired
+    public SalesAnalyticsService(ISalesRollupRepository rollupRepository,
+            @Qualifier("analyticsExecutor") Executor executor,
+            @Value("${analytics.retry.backoff-ms:1000}") long retryBackoffMillis) {
+        if (retryBackoffMillis < 0) {
+            throw new IllegalArgumentException("Invalid analytics retry backoff");
+        }
+        this.rollupRepository = rollupRepository;
+        this.executor = executor;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            int queued = rollupRepository.backfillPendingOrders();
+            if (queued > 0) {
+                logger.info("SalesAnalyticsService - queued " + queued + " existing orders for the sales rollups");
+            }
+        } catch (Exception e) {
+            logger.error("SalesAnalyticsService - failed to queue existing orders: " + e.getMessage());
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void recordOrders(Collection<IOrder> orders) {
+        List<Integer> orderIds = new ArrayList<>(orders.size());
+        for (IOrder order : orders) {
+            orderIds.add(order.getId());
+        }
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        rollupRepository.addPendingOrders(orderIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleDrain();
+                }
+            });
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    // at most one run waits on the executor; it picks up everything pending when it starts
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Override
+    public StoreSalesDTO getStoreSales(int storeId, LocalDate from, LocalDate to, int topProducts) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (topProducts < 0) {
+            throw new IllegalArgumentException("Invalid number of top products");
+        }
+        List<DailySalesDTO> days = new ArrayList<>();
+        double revenue = 0;
+        long units = 0;
+        long orderCount = 0;
+        for (StoreSalesDay day : rollupRepository.getStoreSalesDays(storeId, from, to)) {
+            days.add(new DailySalesDTO(day.getSalesDate(), day.getRevenue(), day.getUnits(), day.getOrderCount(),
+                    day.getBuyerCount()));
+            revenue += day.getRevenue();
+            units += day.getUnits();
+            orderCount += day.getOrderCount();
+        }
+        List<ProductSalesDTO> products = new ArrayList<>();
+        if (topProducts > 0) {
+            for (ProductSalesTotal product : rollupRepository.getTopProducts(storeId, from, to, topProducts)) {
+                products.add(new ProductSalesDTO(product.getProductId(), product.getProductName(), product.getRevenue(),
+                        product.getUnits(), product.getOrderCount()));
+            }
+        }
+        long buyers = orderCount == 0 ? 0 : rollupRepository.countBuyers(storeId, from, to);
+        return new StoreSalesDTO(storeId, from, to, revenue, units, orderCount, buyers, days, products);
+    }
+
+    // Writers take the lock before reading the pending orders, so once flush holds it no earlier batch is still being written
+    @Override
+    public void flush() {
+        drain();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return (int) rollupRepository.countPendingOrders();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void clearAllData() {
+        synchronized (writeLock) {
+            rollupRepository.clearAllData();
+        }
+    }
+
+    private void drain() {
+        synchronized (writeLock) {
+            drainScheduled.set(false); // orders committed from here on schedule another run
+            boolean complete;
+            try {
+                complete = writePending();
+            } catch (Exception e) {
+                logger.warn("SalesAnalyticsService - reading the pending orders failed: " + e.getMessage());
+                complete = false;
+            }
+            if (complete) {
+                failedRuns = 0;
+            } else {
+                scheduleRetry();
+            }
+        }
+    }
+
+    // false when some orders failed and are still pending
+    private boolean writePending() {
+        List<Integer> orderIds;
+        while (!(orderIds = rollupRepository.getPendingOrderIds(BATCH_SIZE, MAX_ATTEMPTS)).isEmpty()) {
+            Map<Integer, OrderSale> batch = new LinkedHashMap<>();
+            for (IOrder order : rollupRepository.getOrders(orderIds)) {
+                batch.put(order.getId(), new OrderSale(order));
+            }
+            try {
+                write(batch.values(), orderIds);
+            } catch (Exception e) {
+                logger.warn("SalesAnalyticsService - rolling up " + orderIds.size() + " orders failed, retrying one by one: "
+                        + e.getMessage());
+                if (!writeOneByOne(batch, orderIds)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean writeOneByOne(Map<Integer, OrderSale> batch, List<Integer> orderIds) {
+        boolean complete = true;
+        for (Integer orderId : orderIds) {
+            OrderSale sale = batch.get(orderId); // null once the order was deleted: only its pending row goes
+            try {
+                write(sale == null ? List.of() : List.of(sale), List.of(orderId));
+            } catch (Exception e) {
+                complete = false;
+                if (rollupRepository.recordFailedAttempt(orderId) >= MAX_ATTEMPTS) {
+                    failed.increment();
+                    logger.error("SalesAnalyticsService - failed to roll up order " + orderId + " after " + MAX_ATTEMPTS
+                            + " attempts, leaving it pending: " + e.getMessage());
+                }
+            }
+        }
+        return complete;
+    }
+
+    private void scheduleRetry() {
+        failedRuns++;
+        if (retryScheduled) {
+            return;
+        }
+        retryScheduled = true;
+        long backoff = retryBackoffMillis * (1L << Math.min(failedRuns - 1, MAX_BACKOFF_DOUBLINGS));
+        CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            synchronized (writeLock) {
+                retryScheduled = false;
+            }
+            drain();
+        });
+    }
+
+    private void write(Collection<OrderSale> batch, List<Integer> orderIds) {
+        Map<List<Object>, StoreSalesDay> storeDays = new LinkedHashMap<>();
+        Map<List<Object>, ProductSalesDay> productDays = new LinkedHashMap<>();
+        Map<List<Object>, StoreBuyerDay> buyers = new LinkedHashMap<>();
+        for (OrderSale sale : batch) {
+            long units = 0;
+            for (SaleLine line : sale.lines) {
+                units += line.quantity;
+                productDays.computeIfAbsent(List.of(sale.storeId, sale.date, line.productId),
+                        key -> new ProductSalesDay(sale.storeId, sale.date, line.productId, line.name))
+                        .add(line.name, line.price * line.quantity, line.quantity, 1);
+            }
+            storeDays.computeIfAbsent(List.of(sale.storeId, sale.date), key -> new StoreSalesDay(sale.storeId, sale.date))
+                    .add(sale.total, units, 1, 0);
+            buyers.putIfAbsent(List.of(sale.storeId, sale.date, sale.userId),
+                    new StoreBuyerDay(sale.storeId, sale.date, sale.userId));
+        }
+        rollupRepository.addSales(storeDays.values(), productDays.values(), buyers.values(), orderIds);
+        logger.debug("SalesAnalyticsService - rolled up " + batch.size() + " orders into " + storeDays.size()
+                + " store days and " + productDays.size() + " product days");
+    }
+
+    private static final class OrderSale {
+        private final int storeId;
+        private final int userId;
+        private final LocalDate date;
+        private final double total;
+        private final List<SaleLine> lines = new ArrayList<>();
+
+        private OrderSale(IOrder order) {
+            this.storeId = order.getStoreId();
+            this.userId = order.getUserId();
+            this.date = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+            this.total = order.getTotalPrice();
+            if (order.getProducts() != null) {
+                for (OrderedProduct product : order.getProducts()) {
+                    lines.add(new SaleLine(product.getProductId(), product.getName(), product.getPrice(), product.getQuantity()));
+                }
+            }
+        }
+    }
+
+    private static final class SaleLine {
+        private final int productId;
+        private final String name;
+        private final double price;
+        private final int quantity;
+
+        private SaleLine(int productId, String name, double price, int quantity) {
+            this.productId = productId;
+            this.name = name;
+            this.price = price;
+            this.quantity = quantity;
+        }
+    }
+}
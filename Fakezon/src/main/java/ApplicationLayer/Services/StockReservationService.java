@@ -0,0 +1,86 @@
+package ApplicationLayer.Services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import ApplicationLayer.Interfaces.IStockReservationService;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.StoreProductKey;
+
+/**
+ * Reserves stock with atomic conditional decrements on the store_products rows instead of
+ * loading, mutating and saving the whole Store aggregate, so concurrent checkouts of the same
+ * product wait on a single row instead of failing on the Store @Version.
+ */
+@Service
+public class StockReservationService implements IStockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    // lines are always locked in the same order so two carts can not deadlock on each other
+    private static final Comparator<StoreProductKey> LOCK_ORDER = Comparator
+            .comparingInt(StoreProductKey::getStoreId)
+            .thenComparingInt(StoreProductKey::getSproductId);
+
+    private final IStoreRepository storeRepository;
+
+    public StockReservationService(IStoreRepository storeRepository) {
+        this.storeRepository = storeRepository;
+    }
+
+    @Override
+    public Map<StoreProductKey, Boolean> reserve(Map<Integer, Map<Integer, Integer>> cart) {
+        Map<StoreProductKey, Integer> lines = toLines(cart);
+        List<StoreProductKey> ordered = new ArrayList<>(lines.keySet());
+        ordered.sort(LOCK_ORDER);
+
+        Map<StoreProductKey, Boolean> result = new HashMap<>();
+        Map<StoreProductKey, Integer> reserved = new LinkedHashMap<>();
+        boolean allReserved = true;
+        for (StoreProductKey key : ordered) {
+            int quantity = lines.get(key);
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than 0 for product " + key.getSproductId());
+            }
+            if (storeRepository.decrementStockIfAvailable(key.getStoreId(), key.getSproductId(), quantity)) {
+                reserved.put(key, quantity);
+                result.put(key, true);
+            } else {
+                result.put(key, false);
+                allReserved = false;
+            }
+        }
+        if (!allReserved) {
+            logger.info("Stock reservation failed, releasing " + reserved.size() + " reserved lines");
+            releaseLines(reserved);
+        }
+        return result;
+    }
+
+    @Override
+    public void release(Map<Integer, Map<Integer, Integer>> cart) {
+        releaseLines(toLines(cart));
+    }
+
+    private void releaseLines(Map<StoreProductKey, Integer> lines) {
+        for (Map.Entry<StoreProductKey, Integer> line : lines.entrySet()) {
+            storeRepository.incrementStock(line.getKey().getStoreId(), line.getKey().getSproductId(), line.getValue());
+        }
+    }
+
+    private Map<StoreProductKey, Integer> toLines(Map<Integer, Map<Integer, Integer>> cart) {
+        Map<StoreProductKey, Integer> lines = new HashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> basket : cart.entrySet()) {
+            for (Map.Entry<Integer, Integer> product : basket.getValue().entrySet()) {
+                lines.merge(new StoreProductKey(basket.getKey(), product.getKey()), product.getValue(), Integer::sum);
+            }
+        }
+        return lines;
+    }
+}
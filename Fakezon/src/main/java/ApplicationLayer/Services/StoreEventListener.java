@@ -5,6 +5,8 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import ApplicationLayer.Interfaces.IAuctionBidService;
+import DomainLayer.Enums.StoreFetchProfile;
 import DomainLayer.IRepository.IStoreRepository;
 import DomainLayer.Model.Store;
 import DomainLayer.Model.helpers.AssignmentEvent;
@@ -18,18 +20,22 @@ public class StoreEventListener {
     private final IStoreRepository storeRepository;
     private final NotificationWebSocketHandler wsHandler; //web socket
     private final ApplicationEventPublisher publisher;
+    private final IAuctionBidService auctionBids;
 
-    public StoreEventListener(IStoreRepository storeRepository, NotificationWebSocketHandler wsHandler, ApplicationEventPublisher publisher) {
+    public StoreEventListener(IStoreRepository storeRepository, NotificationWebSocketHandler wsHandler, ApplicationEventPublisher publisher,
+            IAuctionBidService auctionBids) {
         this.storeRepository = storeRepository;
         this.wsHandler = wsHandler;
         this.publisher = publisher;
+        this.auctionBids = auctionBids;
     }
 
     @Async
     @EventListener
     @Transactional
     public void handleSaveAuction(AuctionSaveEvent event) {
-        Store store = storeRepository.findById(event.getStoreId());
+        auctionBids.closeAuction(event.getStoreId(), event.getProductId()); // stores the highest bid before it is read
+        Store store = storeRepository.findById(event.getStoreId(), StoreFetchProfile.PRODUCTS);
         if (store == null) {
             // Handle the case where the store is not found
             return;
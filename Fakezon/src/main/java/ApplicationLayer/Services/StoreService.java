@@ -10,36 +10,52 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.method.P;
 import org.springframework.transaction.annotation.Transactional;
 
 import ApplicationLayer.Response;
 import ApplicationLayer.DTO.AuctionProductDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Enums.PCategory;
+import ApplicationLayer.Interfaces.IAuctionBidService;
+import ApplicationLayer.Interfaces.IAuctionTimerService;
+import ApplicationLayer.Interfaces.IStockReservationService;
 import ApplicationLayer.Interfaces.IStoreService;
+import DomainLayer.Enums.StoreFetchProfile;
 import DomainLayer.Enums.StoreManagerPermission;
+import DomainLayer.IRepository.IStoreProductRepository;
 import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.AuctionProduct;
 import DomainLayer.Model.Basket;
 import DomainLayer.Model.Cart;
 import DomainLayer.Model.Offer;
 import DomainLayer.Model.ProductRating;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
+import DomainLayer.Model.helpers.ProductSearchHit;
+import DomainLayer.Model.helpers.ProductSearchPage;
 
 import DomainLayer.Model.Registered;
 
 import DomainLayer.Model.Store;
 import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.StoreProductKey;
 import DomainLayer.Model.User;
+import DomainLayer.Model.helpers.AuctionBook;
 import DomainLayer.Model.helpers.StoreMsg;
+import DomainLayer.Model.helpers.StoreProductView;
 import DomainLayer.Model.helpers.UserMsg;
 
 import org.springframework.stereotype.Service;
@@ -49,10 +65,40 @@ public class StoreService implements IStoreService {
     private final IStoreRepository storeRepository;
     private static final Logger logger = LoggerFactory.getLogger(StoreService.class);
     private final ApplicationEventPublisher publisher;
+    private final IAuctionTimerService auctionTimer;
+    private final IStockReservationService stockReservation;
+    private final CheckoutPlanner checkoutPlanner;
+    private final IStoreProductRepository storeProductReads; // null when built by hand: browse reads then load the Store
+    private final IAuctionBidService auctionBids; // null when built by hand: bids then go through the Store
 
     public StoreService(IStoreRepository storeRepository, ApplicationEventPublisher publisher) {
+        this(storeRepository, publisher, null, new StockReservationService(storeRepository));
+    }
+
+    public StoreService(IStoreRepository storeRepository, ApplicationEventPublisher publisher,
+            IAuctionTimerService auctionTimer, IStockReservationService stockReservation) {
+        this(storeRepository, publisher, auctionTimer, stockReservation, Runnable::run);
+    }
+
+    public StoreService(IStoreRepository storeRepository, ApplicationEventPublisher publisher,
+            IAuctionTimerService auctionTimer, IStockReservationService stockReservation, Executor checkoutExecutor) {
+        this(storeRepository, publisher, auctionTimer, stockReservation, checkoutExecutor, null, null);
+    }
+
+    // checkoutExecutor prices the baskets of a multi-store cart; storeProductReads serves isStoreOpen,
+    // getProductFromStore and checkIfProductsInStores row by row
+    @Autowired
+    public StoreService(IStoreRepository storeRepository, ApplicationEventPublisher publisher,
+            IAuctionTimerService auctionTimer, IStockReservationService stockReservation,
+            @Qualifier("checkoutExecutor") Executor checkoutExecutor, IStoreProductRepository storeProductReads,
+            IAuctionBidService auctionBids) {
         this.storeRepository = storeRepository;
         this.publisher = publisher;
+        this.auctionTimer = auctionTimer;
+        this.stockReservation = stockReservation;
+        this.checkoutPlanner = new CheckoutPlanner(storeRepository, checkoutExecutor);
+        this.storeProductReads = storeProductReads;
+        this.auctionBids = auctionBids;
 
         // FOR UI PUT IN COMMENT IF NOT NEEDED!
 
@@ -65,10 +111,31 @@ public class StoreService implements IStoreService {
         }
     }
 
+    // The read repository caches product pages and open flags; writes drop what they changed
+    private void evictReads(int storeId, int productId) {
+        if (storeProductReads != null) {
+            storeProductReads.evictProduct(storeId, productId);
+        }
+    }
+
+    private void evictReads(int storeId) {
+        if (storeProductReads != null) {
+            storeProductReads.evictStore(storeId);
+        }
+    }
+
+    private void evictReads(Map<Integer, Map<Integer, Integer>> cart) {
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
+            for (int productId : entry.getValue().keySet()) {
+                evictReads(entry.getKey(), productId);
+            }
+        }
+    }
+
     // should store service catch the errors? who's printing to console??
     @Override
     public void addStoreOwner(int storeId, int requesterId, int newOwnerId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("addStoreOwner - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -80,7 +147,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public List<Integer> getStoreOwners(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             throw new IllegalArgumentException("Store not found");
         }
@@ -90,7 +157,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public HashMap<Integer, List<StoreManagerPermission>> getStoreManagers(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("getStoreManagers - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -121,15 +188,37 @@ public class StoreService implements IStoreService {
                 store.getAverageRating());
     }
 
+    // Listings only show the cached average, so the per-user ratings are left out
+    private StoreDTO toStoreListingDTO(Store store) {
+        Collection<StoreProductDTO> storeProductDTOs = store.getStoreProducts().values().stream()
+                .map(sp -> new StoreProductDTO(sp))
+                .collect(Collectors.toList());
+        return new StoreDTO(
+                store.getId(),
+                store.getName(),
+                store.getStoreFounderID(),
+                store.isOpen(),
+                storeProductDTOs,
+                new HashMap<>(),
+                store.getAverageRating());
+    }
+
     public StoreProductDTO toStoreProductDTO(StoreProduct storeProduct) {
         return new StoreProductDTO(storeProduct);
     }
+
+    private StoreProductDTO toStoreProductDTO(StoreProductView view, int quantity) {
+        return new StoreProductDTO(view.getProductId(), view.getName(), view.getBasePrice(), quantity,
+                view.getAverageRating(), view.getStoreId(), view.getCategory());
+    }
     // --- Store Info Methods ---
 
-    @Transactional
+    // A missing store is reported by the caller; the read changed nothing, so it need not undo the
+    // caller's transaction
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
     @Override
     public StoreDTO viewStore(int storeId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("viewStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -141,7 +230,14 @@ public class StoreService implements IStoreService {
     @Override
     public List<StoreDTO> getAllStores() {
         return storeRepository.getAllStores().stream()
-                .map(this::toStoreDTO)
+                .map(this::toStoreListingDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<StoreDTO> getTopRatedStores(int limit) {
+        return storeRepository.findTopRatedStores(limit).stream()
+                .map(this::toStoreListingDTO)
                 .collect(Collectors.toList());
     }
 
@@ -151,7 +247,7 @@ public class StoreService implements IStoreService {
 
         return storeRepository.getAllStores().stream()
                 .filter(store -> store.getName().contains(keyword))
-                .map(this::toStoreDTO)
+                .map(this::toStoreListingDTO)
                 .collect(Collectors.toList());
     }
 
@@ -159,7 +255,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void closeStore(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("closeStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -167,12 +263,13 @@ public class StoreService implements IStoreService {
         setPublisher(store);
         store.closeStore(requesterId);
         storeRepository.save(store);
+        evictReads(storeId);
         logger.info("Store closed: " + storeId + " by user: " + requesterId);
     }
 
     @Override
     public void closeStoreByAdmin(int storeId, int adminId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("closeStoreByAdmin - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -180,6 +277,7 @@ public class StoreService implements IStoreService {
         setPublisher(store);
         store.closeStoreByAdmin(adminId);
         storeRepository.save(store);
+        evictReads(storeId);
         logger.info("Store closed by admin: " + storeId + " by admin: " + adminId);
     }
 
@@ -193,7 +291,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add store product " + productId
                     + " to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
             if (store == null) {
                 logger.error("Store Service - addProductToStore - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -202,6 +300,7 @@ public class StoreService implements IStoreService {
             logger.info("Store product added: " + productId + " to store: " + storeId + " by user: " + requesterId);
             StoreProductDTO result = store.addStoreProduct(requesterId, productId, name, basePrice, quantity, category);
             storeRepository.save(store);
+            evictReads(storeId, productId);
             return result;
         } catch (Exception e) {
             logger.error("StoreService - failed to add store product " + e.getMessage());
@@ -215,13 +314,14 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to update store product " + productId
                     + " in store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
             if (store == null) {
                 logger.error("Store Service - updateProductToStore - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
             }
             store.editStoreProduct(requesterId, productId, name, basePrice, quantity);
             storeRepository.save(store);
+            evictReads(storeId, productId);
         } catch (Exception e) {
             logger.error("StoreService - failed to update store product " + e.getMessage());
             throw e;
@@ -233,13 +333,21 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to remove store product " + productId
                     + " from store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
             if (store == null) {
                 logger.error("Store Service - removeProductFromStore - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
             }
             store.removeStoreProduct(requesterId, productId);
             storeRepository.save(store);
+            evictReads(storeId, productId);
+            storeRepository.removeFromProductRanking(storeId, productId);
+            if (auctionTimer != null) {
+                auctionTimer.cancelAuctionEnd(storeId, productId);
+            }
+            if (auctionBids != null) {
+                auctionBids.discardAuction(storeId, productId);
+            }
         } catch (Exception e) {
             logger.error("StoreService - failed to remove store product " + e.getMessage());
             throw e;
@@ -248,25 +356,31 @@ public class StoreService implements IStoreService {
 
     @Override
     public void addStoreRating(int storeId, int userId, double rating, String comment) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         if (store == null) {
             logger.error("addStoreRating - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
         }
         store.addRating(userId, rating, comment);
         storeRepository.save(store);
+        storeRepository.updateStoreRanking(storeId, store.getAverageRating());
         logger.info("Store rating added: " + storeId + " by user: " + userId + " with rating: " + rating);
     }
 
     @Override
     public void addStoreProductRating(int storeId, int productId, int userId, double rating, String comment) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("addStoreProductRating - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
         }
         store.addStoreProductRating(userId, productId, rating, comment);
         storeRepository.save(store);
+        evictReads(storeId, productId);
+        StoreProduct rated = store.getStoreProduct(productId);
+        if (rated != null) {
+            storeRepository.updateProductRanking(storeId, productId, rated.getAverageRating());
+        }
         logger.info("Store product rating added: " + productId + " by user: " + userId + " with rating: " + rating);
     }
 
@@ -275,7 +389,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to remove store owner " + ownerId
                     + " from store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
             if (store == null) {
                 logger.error("Store Service - removeStoreOwner - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -292,7 +406,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public StoreRolesDTO getStoreRoles(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("getStoreRoles - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -306,7 +420,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add store manager " + newManagerId
                     + " to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
             if (store == null) {
                 logger.error("Store Service - addStoreManager - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -326,7 +440,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add store manager permissions to "
                     + managerId + " in store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
             if (store == null) {
                 logger.error("Store Service - addStoreManagerPermissions - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -346,7 +460,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to remove store manager permissions from "
                     + managerId + " in store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
             if (store == null) {
                 logger.error("Store Service - removeStoreManagerPermissions - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -365,7 +479,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to remove store manager " + managerId
                     + " from store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
             if (store == null) {
                 logger.error("Store Service - removeStoreManager - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -403,7 +517,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void receivingMessage(int storeId, int userId, String message) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.INBOX);
         if (store == null) {
             logger.error("receivingMessage - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -415,7 +529,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void sendMessageToUser(int managerId, int storeId, int userId, String message) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("sendMessage - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -426,7 +540,15 @@ public class StoreService implements IStoreService {
 
     @Override
     public boolean isStoreOpen(int storeId) {
-        Store store = storeRepository.findById(storeId);
+        if (storeProductReads != null) {
+            Boolean open = storeProductReads.isStoreOpen(storeId);
+            if (open == null) {
+                logger.error("isStoreOpen - Store not found: " + storeId);
+                throw new IllegalArgumentException("Store not found");
+            }
+            return open;
+        }
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         if (store == null) {
             logger.error("isStoreOpen - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -437,7 +559,19 @@ public class StoreService implements IStoreService {
 
     @Override
     public StoreProductDTO getProductFromStore(int productId, int storeId) {
-        Store store = storeRepository.findById(storeId);
+        if (storeProductReads != null) {
+            StoreProductView view = storeProductReads.findByKey(storeId, productId);
+            if (view == null) {
+                if (storeProductReads.isStoreOpen(storeId) == null) {
+                    logger.error("getProductFromStore - Store not found: " + storeId);
+                    throw new IllegalArgumentException("Store not found");
+                }
+                throw new IllegalArgumentException(
+                        "Product with ID: " + productId + " does not exist in store ID: " + storeId);
+            }
+            return toStoreProductDTO(view, view.getQuantity());
+        }
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("getProductFromStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -451,9 +585,30 @@ public class StoreService implements IStoreService {
         return toStoreProductDTO(product);
     }
 
+    @Override
+    public ProductSearchResultDTO searchStoreProducts(ProductSearchCriteria criteria) {
+        ProductSearchPage page = storeRepository.searchStoreProducts(criteria);
+        List<StoreProductDTO> products = new ArrayList<>();
+        for (ProductSearchHit hit : page.getHits()) {
+            products.add(new StoreProductDTO(hit.getProductId(), hit.getName(), hit.getBasePrice(), hit.getQuantity(),
+                    hit.getAverageRating(), hit.getStoreId(), hit.getCategory()));
+        }
+        return new ProductSearchResultDTO(products, criteria.getPage(), criteria.getSize(), page.getTotalElements(),
+                page.getCategoryCounts(), page.getStoreCounts(), page.getMinPrice(), page.getMaxPrice());
+    }
+
+    @Override
+    public List<StoreProductDTO> getTopRatedProducts(int limit) {
+        List<StoreProductDTO> products = new ArrayList<>();
+        for (StoreProduct product : storeRepository.findTopRatedProducts(limit)) {
+            products.add(toStoreProductDTO(product));
+        }
+        return products;
+    }
+
     public void addAuctionProductToStore(int storeId, int requesterId, int productID, double basePrice,
             int MinutesToEnd) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("addAuctionProductToStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -462,6 +617,14 @@ public class StoreService implements IStoreService {
         try {
             store.addAuctionProduct(requesterId, productID, basePrice, MinutesToEnd);
             storeRepository.save(store);
+            evictReads(storeId, productID);
+            if (auctionBids != null) {
+                auctionBids.discardAuction(storeId, productID); // a book left from an earlier auction of the product
+            }
+            AuctionProduct auction = store.getAuctionProduct(productID);
+            if (auctionTimer != null && auction != null) {
+                auctionTimer.scheduleAuctionEnd(storeId, productID, auction.getEndTime());
+            }
             logger.info("Auction product added to store: " + storeId + " by user: " + requesterId + " with product ID: "
                     + productID);
         } catch (IllegalArgumentException e) {
@@ -471,7 +634,16 @@ public class StoreService implements IStoreService {
     }
 
     public void addBidOnAuctionProductInStore(int storeId, int requesterId, int productID, double bid) {
-        Store store = storeRepository.findById(storeId);
+        if (auctionBids != null) {
+            if (!auctionBids.placeBid(storeId, requesterId, productID, bid)) {
+                logger.error("addBidOnAuctionProductInStore - Bid not valid: " + bid);
+                throw new IllegalArgumentException("Bid not valid");
+            }
+            logger.info("Bid added to auction product in store: " + storeId + " by user: " + requesterId
+                    + " with product ID: " + productID + " and bid: " + bid);
+            return;
+        }
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("addBidOnAuctionProductInStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -493,7 +665,7 @@ public class StoreService implements IStoreService {
     }
 
     public void isValidPurchaseActionForUserInStore(int storeId, int requesterId, int productId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("isValidPurchaseActionForUserInStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -511,40 +683,41 @@ public class StoreService implements IStoreService {
     }
 
     public List<AuctionProductDTO> getAuctionProductsFromStore(int storeId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("getAuctionProductsFromStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
         }
         setPublisher(store);
         List<AuctionProductDTO> auctionProducts = store.getAuctionProducts().stream()
-                .map(AuctionProductDTO::new)
+                .map(auction -> toAuctionProductDTO(storeId, auction))
                 .collect(Collectors.toList());
         logger.info("Auction products retrieved from store: " + storeId);
         return auctionProducts;
     }
 
+    // The bid book is ahead of the stored highest bid until its batch is written
+    private AuctionProductDTO toAuctionProductDTO(int storeId, AuctionProduct auction) {
+        StoreProduct product = auction.getStoreProduct();
+        AuctionBook.State highest = auctionBids == null ? null
+                : auctionBids.getHighestBid(storeId, product.getSproductID());
+        if (highest == null || highest.getAmount() <= auction.getCurrentHighestBid()) {
+            return new AuctionProductDTO(auction);
+        }
+        return new AuctionProductDTO(product.getSproductID(), product.getName(), product.getBasePrice(),
+                highest.getAmount(), product.getAverageRating(), product.getCategory(), auction.isDone());
+    }
+
     @Override
     public Map<Integer, Double> calcAmount(int userId, Cart cart, LocalDate dob) {
-        Map<Integer, Double> prices = new HashMap<>();
-        for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.getAllProducts().entrySet()) {
-            int storeId = entry.getKey();
-            Map<Integer, Integer> basket = entry.getValue();
-            Store store = storeRepository.findById(storeId);
-            if (store == null) {
-                logger.error("calcAmount - Store not found: " + storeId);
-                throw new IllegalArgumentException("Store not found");
-            }
-            setPublisher(store);
-            double storeAmount = store.calcAmount(userId, basket, dob, cart);
-            prices.put(storeId, storeAmount);
-        }
-        return prices;
+        Map<Integer, Store> stores = checkoutPlanner.loadStores(cart.getAllProducts().keySet(), StoreFetchProfile.PRICING);
+        stores.values().forEach(this::setPublisher);
+        return checkoutPlanner.priceBaskets(userId, cart, dob, stores);
     }
 
     @Override
     public boolean canViewOrders(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("canViewOrders - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -555,7 +728,7 @@ public class StoreService implements IStoreService {
 
     @Transactional
     public boolean acceptAssignment(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         boolean isowner;
         if (store == null) {
             logger.error("acceptAssignment - Store not found: " + storeId);
@@ -576,7 +749,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void declineAssignment(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("declineAssignment - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -595,7 +768,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public List<Integer> getPendingOwners(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("getPendingOwners - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -613,7 +786,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public List<Integer> getPendingManagers(int storeId, int requesterId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("getPendingManagers - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -632,25 +805,65 @@ public class StoreService implements IStoreService {
     @Override
     public Map<StoreDTO, Map<StoreProductDTO, Boolean>> checkIfProductsInStores(
             int userID, Map<Integer, Map<Integer, Integer>> cart) {
+        if (storeProductReads != null) {
+            return checkCartRows(cart);
+        }
         Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = new HashMap<>();
         for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
             int storeId = entry.getKey();
             Map<Integer, Integer> products = entry.getValue();
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
             setPublisher(store);
             if (store == null) {
                 logger.error("checkIfProductsInStores - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
             }
             Map<StoreProductDTO, Boolean> storeProducts = store.checkIfProductsInStore(userID, products);
-            result.put(toStoreDTO(store), storeProducts);
+            result.put(toStoreListingDTO(store), storeProducts);
+        }
+        return result;
+    }
+
+    // checkIfProductsInStores from the store and product rows: two queries for the whole cart. The store
+    // DTOs list only the cart's products, not the whole catalogue as the listing DTOs do.
+    private Map<StoreDTO, Map<StoreProductDTO, Boolean>> checkCartRows(Map<Integer, Map<Integer, Integer>> cart) {
+        Map<Integer, Store> stores = new HashMap<>();
+        for (Store store : storeRepository.findAllById(cart.keySet(), StoreFetchProfile.HEADER)) {
+            stores.put(store.getId(), store);
+        }
+        List<StoreProductKey> keys = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
+            for (int productId : entry.getValue().keySet()) {
+                keys.add(new StoreProductKey(entry.getKey(), productId));
+            }
+        }
+        Map<StoreProductKey, StoreProductView> views = storeProductReads.findAllByKeys(keys);
+
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = new HashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
+            int storeId = entry.getKey();
+            Store store = stores.get(storeId);
+            if (store == null) {
+                logger.error("checkIfProductsInStores - Store not found: " + storeId);
+                throw new IllegalArgumentException("Store not found");
+            }
+            Map<StoreProductDTO, Boolean> storeProducts = new HashMap<>();
+            for (Map.Entry<Integer, Integer> product : entry.getValue().entrySet()) {
+                StoreProductView view = views.get(new StoreProductKey(storeId, product.getKey()));
+                if (view != null) {
+                    int quantity = Math.min(product.getValue(), view.getQuantity());
+                    storeProducts.put(toStoreProductDTO(view, quantity), quantity == product.getValue());
+                }
+            }
+            result.put(new StoreDTO(storeId, store.getName(), store.getStoreFounderID(), store.isOpen(),
+                    new ArrayList<>(storeProducts.keySet()), new HashMap<>(), store.getAverageRating()), storeProducts);
         }
         return result;
     }
 
     @Override
     public Response<Map<Integer, UserMsg>> getMessagesFromUsers(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.INBOX);
         if (store == null) {
             logger.error("getMessagesFromUsers - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -676,7 +889,7 @@ public class StoreService implements IStoreService {
     public void init() {
         logger.info("store service init");
         storeRepository.addStore(new Store("store1001", 1001, publisher, 1001));
-        Store uiStore = storeRepository.findById(1001);
+        Store uiStore = storeRepository.findById(1001, StoreFetchProfile.ROLES);
         setPublisher(uiStore);
         uiStore.addStoreOwner(1001, 1002);
         uiStore.acceptAssignment(1002);
@@ -687,49 +900,79 @@ public class StoreService implements IStoreService {
         storeRepository.save(uiStore);
     }
 
+    // reserves the stock through the stock reservation service - the stores are only read, never saved,
+    // so concurrent checkouts don't fail on the Store version
     @Override
     public Map<StoreDTO, Map<StoreProductDTO, Boolean>> decrementProductsInStores(
             int userID, Map<Integer, Map<Integer, Integer>> cart) {
+        Map<Integer, Store> stores = checkoutPlanner.loadStores(cart.keySet(), StoreFetchProfile.PRODUCTS);
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
+            Store store = stores.get(entry.getKey());
+            for (int productId : entry.getValue().keySet()) {
+                store.getStoreProduct(productId); // throws if the product is not in the store
+                AuctionProduct auction = store.getAuctionProduct(productId);
+                // an auctioned product is sold only to its winner, once the auction is over
+                if (auction != null && (auction.getUserIDHighestBid() != userID || !auction.isDone())) {
+                    logger.error("decrementProductsInStores - user " + userID + " has not won the auction of product "
+                            + productId + " in store " + entry.getKey());
+                    throw new IllegalArgumentException("Product with ID: " + productId
+                            + " is on auction and can only be bought by the winner once the auction ends");
+                }
+            }
+        }
+        Map<StoreProductKey, Boolean> reserved = stockReservation.reserve(cart);
+        evictReads(cart);
         Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = new HashMap<>();
         for (Map.Entry<Integer, Map<Integer, Integer>> entry : cart.entrySet()) {
-            int storeId = entry.getKey();
-            Map<Integer, Integer> products = entry.getValue();
-            Store store = storeRepository.findById(storeId);
-            setPublisher(store);
-            if (store == null) {
-                logger.error("decrementProductsInStores - Store not found: " + storeId);
-                throw new IllegalArgumentException("Store not found");
+            Store store = stores.get(entry.getKey());
+            Map<StoreProductDTO, Boolean> storeProducts = new HashMap<>();
+            for (Map.Entry<Integer, Integer> product : entry.getValue().entrySet()) {
+                StoreProduct storeProduct = store.getStoreProduct(product.getKey());
+                boolean ok = Boolean.TRUE.equals(reserved.get(new StoreProductKey(entry.getKey(), product.getKey())));
+                int quantity = ok ? product.getValue() : Math.min(product.getValue(), storeProduct.getQuantity());
+                storeProducts.put(new StoreProductDTO(storeProduct, quantity), ok);
             }
-            Map<StoreProductDTO, Boolean> storeProducts = store.decrementProductsInStore(userID, products);
-            storeRepository.save(store);
-            result.put(toStoreDTO(store), storeProducts);
+            result.put(toStoreListingDTO(store), storeProducts);
         }
         return result;
     }
 
     public void returnProductsToStores(int userId, Map<Integer, Map<Integer, Integer>> products) {
-        for (Map.Entry<Integer, Map<Integer, Integer>> entry : products.entrySet()) {
+        stockReservation.release(products);
+        evictReads(products);
+        logger.info("returnProductsToStores - released stock of user " + userId + " in stores " + products.keySet());
+    }
+
+    @Override
+    public void confirmProductsInStores(int userId, Map<Integer, Map<Integer, Integer>> purchased) {
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : purchased.entrySet()) {
             int storeId = entry.getKey();
-            Map<Integer, Integer> productsInStore = entry.getValue();
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             if (store == null) {
-                logger.error("returnProductsToStores - Store not found: " + storeId);
+                logger.error("confirmProductsInStores - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
             }
             setPublisher(store);
-            store.returnProductsToStore(userId, productsInStore);
-            storeRepository.save(store);
+            if (store.consumePurchasedDeals(userId, entry.getValue().keySet())) {
+                storeRepository.save(store);
+            }
         }
     }
 
     @Override
     public void clearAllData() {
         storeRepository.clearAllData();
+        if (storeProductReads != null) {
+            storeProductReads.evictAll();
+        }
+        if (auctionBids != null) {
+            auctionBids.clearAllData();
+        }
     }
 
     @Override
     public List<ProductRating> getStoreProductRatings(int storeId, int productID) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRODUCTS);
         if (store == null) {
             logger.error("returnProductsToStores - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -746,7 +989,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add simple discount with products scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             if (store == null) {
                 logger.error("Store Service - addSimpleDiscountWithProductsScope - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -766,7 +1009,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add simple discount with store scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             if (store == null) {
                 logger.error("Store Service - addSimpleDiscountWithStoreScope - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -787,7 +1030,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add condition discount with products scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             if (store == null) {
                 logger.error("Store Service - addConditionDiscountWithProductsScope - Store not found: " + storeId);
                 throw new IllegalArgumentException("Store not found");
@@ -809,7 +1052,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add condition discount with store scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addConditionDiscountWithStoreScope - Store not found: " + storeId);
@@ -830,7 +1073,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add AND discount with products scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addAndDiscountWithProductsScope - Store not found: " + storeId);
@@ -851,7 +1094,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add AND discount with store scope to store "
                     + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addAndDiscountWithStoreScope - Store not found: " + storeId);
@@ -872,7 +1115,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add OR discount with products scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addOrDiscountWithProductsScope - Store not found: " + storeId);
@@ -893,7 +1136,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add OR discount with store scope to store "
                     + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addOrDiscountWithStoreScope - Store not found: " + storeId);
@@ -914,7 +1157,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId
                     + " trying to add XOR discount with products scope to store " + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addXorDiscountWithProductsScope - Store not found: " + storeId);
@@ -935,7 +1178,7 @@ public class StoreService implements IStoreService {
         try {
             logger.info("Store Service - User " + requesterId + " trying to add XOR discount with store scope to store "
                     + storeId);
-            Store store = storeRepository.findById(storeId);
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
             setPublisher(store);
             if (store == null) {
                 logger.error("Store Service - addXorDiscountWithStoreScope - Store not found: " + storeId);
@@ -952,7 +1195,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public boolean isStoreOwner(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         setPublisher(store);
         if (store == null) {
             logger.error("isStoreOwner - Store not found: " + storeId);
@@ -963,7 +1206,7 @@ public class StoreService implements IStoreService {
 
     @Override // returns null if not manager
     public List<StoreManagerPermission> isStoreManager(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         setPublisher(store);
         if (store == null) {
             logger.error("isStoreOwner - Store not found: " + storeId);
@@ -974,7 +1217,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void openStore(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
         if (store == null) {
             logger.error("openStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -982,11 +1225,12 @@ public class StoreService implements IStoreService {
         setPublisher(store);
         store.openStore(userId);
         storeRepository.save(store);
+        evictReads(storeId);
     }
 
     @Override
     public void placeOfferOnStoreProduct(int storeId, int userId, int productId, double offerAmount) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("placeOfferOnStoreProduct - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -998,7 +1242,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void acceptOfferOnStoreProduct(int storeId, int ownerId, int userId, int productId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("acceptOfferOnStoreProduct - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1010,7 +1254,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void declineOfferOnStoreProduct(int storeId, int ownerId, int userId, int productId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("declineOfferOnStoreProduct - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1022,7 +1266,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void counterOffer(int storeId, int ownerId, int userId, int productId, double offerAmount) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("counterOffer - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1034,7 +1278,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void acceptCounterOffer(int storeId, int userId, int productId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("acceptCounterOffer - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1046,7 +1290,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public void declineCounterOffer(int storeId, int userId, int productId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("declineCounterOffer - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1058,7 +1302,7 @@ public class StoreService implements IStoreService {
 
     @Override
     public List<Offer> getUserOffers(int storeId, int userId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
         if (store == null) {
             logger.error("getUserOffers - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
@@ -1070,12 +1314,13 @@ public class StoreService implements IStoreService {
     // only for testing purposes
     @Override
     public void removeStore(int storeId) {
-        Store store = storeRepository.findById(storeId);
+        Store store = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         if (store == null) {
             logger.error("removeStore - Store not found: " + storeId);
             throw new IllegalArgumentException("Store not found");
         }
         storeRepository.delete(storeId);
+        evictReads(storeId);
         logger.info("Store removed: " + storeId);
     }
 }
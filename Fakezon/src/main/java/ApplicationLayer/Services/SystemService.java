@@ -4,7 +4,10 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import DomainLayer.Interfaces.*;
@@ -20,37 +23,37 @@ import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.OrderedProductDTO;
 import ApplicationLayer.DTO.ProductDTO;
 import ApplicationLayer.DTO.ProductRatingDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Interfaces.INotificationWebSocketHandler;
 import ApplicationLayer.Interfaces.IOrderService;
 import ApplicationLayer.Interfaces.IProductService;
+import ApplicationLayer.Interfaces.ISalesAnalyticsService;
 import ApplicationLayer.Interfaces.IStoreService;
 import ApplicationLayer.Interfaces.ISystemService;
 import ApplicationLayer.Interfaces.IUserService;
 import ApplicationLayer.Response;
 import DomainLayer.Enums.PaymentMethod;
 import DomainLayer.Enums.StoreManagerPermission;
-import DomainLayer.IRepository.IProductRepository;
 import DomainLayer.IRepository.IRegisteredRole;
-import DomainLayer.IRepository.IStoreRepository;
-import DomainLayer.IRepository.IUserRepository;
 
 import DomainLayer.Model.Basket;
 
 import DomainLayer.Interfaces.IAuthenticator;
 import DomainLayer.Interfaces.IDelivery;
 import DomainLayer.Interfaces.IOrder;
-import DomainLayer.Interfaces.IOrderRepository;
 import DomainLayer.Interfaces.IPayment;
 import DomainLayer.Model.Cart;
 import DomainLayer.Model.Offer;
 import DomainLayer.Model.OrderedProduct;
 import DomainLayer.Model.ProductRating;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
 import DomainLayer.Model.Registered;
 import DomainLayer.Model.StoreFounder;
 import DomainLayer.Model.StoreManager;
@@ -61,7 +64,11 @@ import DomainLayer.Model.helpers.UserMsg;
 import InfrastructureLayer.Adapters.AuthenticatorAdapter;
 import InfrastructureLayer.Adapters.DeliveryAdapter;
 import InfrastructureLayer.Adapters.PaymentAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
@@ -78,20 +85,19 @@ public class SystemService implements ISystemService {
     private static final Logger logger = LoggerFactory.getLogger(SystemService.class);
     private final ApplicationEventPublisher publisher;
     private final INotificationWebSocketHandler notificationWebSocketHandler;
+    private TransactionTemplate checkoutTransactions; // null when built by hand: checkout steps then run inline
+    private final ISalesAnalyticsService salesAnalytics; // null when built by hand: no store sales reports
 
-     @Autowired 
-    public SystemService(IStoreRepository storeRepository, IUserRepository userRepository,
-                         IProductRepository productRepository, IOrderRepository orderRepository,
-                         ApplicationEventPublisher publisher, INotificationWebSocketHandler notificationWebSocketHandler) {
-        this.publisher = publisher;
-        this.notificationWebSocketHandler = notificationWebSocketHandler;
-        this.storeService = new StoreService(storeRepository, publisher);
-        this.userService = new UserService(userRepository);
-        this.productService = new ProductService(productRepository);
-        this.orderService = new OrderService(orderRepository);
-        this.deliveryService = new DeliveryAdapter();
-        this.authenticatorService = new AuthenticatorAdapter(userService);
-        this.paymentService = new PaymentAdapter();
+    // The services are the application's beans, each wired with its own collaborators
+    @Autowired
+    public SystemService(IStoreService storeService, IUserService userService, IProductService productService,
+                         IOrderService orderService, ApplicationEventPublisher publisher,
+                         INotificationWebSocketHandler notificationWebSocketHandler,
+                         ISalesAnalyticsService salesAnalytics, PlatformTransactionManager transactionManager) {
+        this(storeService, userService, productService, orderService, new DeliveryAdapter(),
+                new AuthenticatorAdapter(userService), new PaymentAdapter(), publisher, notificationWebSocketHandler,
+                salesAnalytics);
+        this.checkoutTransactions = new TransactionTemplate(transactionManager);
         // USED BY UI - PUT IN A COMMENT IF NOT NEEDED
         //init();
     }
@@ -101,6 +107,16 @@ public class SystemService implements ISystemService {
             IOrderService orderService,
             IDelivery deliveryService, IAuthenticator authenticatorService, IPayment paymentService,
             ApplicationEventPublisher publisher, INotificationWebSocketHandler notificationWebSocketHandler) {
+        this(storeService, userService, productService, orderService, deliveryService, authenticatorService,
+                paymentService, publisher, notificationWebSocketHandler, null);
+    }
+
+    // The largest constructor, so @InjectMocks builds through it with the mocks it has
+    public SystemService(IStoreService storeService, IUserService userService, IProductService productService,
+            IOrderService orderService,
+            IDelivery deliveryService, IAuthenticator authenticatorService, IPayment paymentService,
+            ApplicationEventPublisher publisher, INotificationWebSocketHandler notificationWebSocketHandler,
+            ISalesAnalyticsService salesAnalytics) {
         this.publisher = publisher;
         this.notificationWebSocketHandler = notificationWebSocketHandler;
         this.storeService = storeService;
@@ -110,6 +126,17 @@ public class SystemService implements ISystemService {
         this.deliveryService = deliveryService;
         this.authenticatorService = authenticatorService;
         this.paymentService = paymentService;
+        this.salesAnalytics = salesAnalytics;
+    }
+
+    // A failed request undoes whatever it changed. Marking the request's own transaction makes that
+    // rollback expected; left to the store service that failed, the commit would throw instead.
+    private static void rollbackRequest() {
+        try {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } catch (NoTransactionException e) {
+            // called directly rather than through the Spring proxy, as the unit tests do
+        }
     }
 
     @Override
@@ -639,6 +666,7 @@ public class SystemService implements ISystemService {
             return new Response<>(null, "Store manager added successfully", true, null, null);
         } catch (Exception e) {
             logger.error("System service - failed to add manager to store " + e.getMessage());
+            rollbackRequest();
             return new Response<>(null, "Error during adding store manager: " + e.getMessage(), false, ErrorType.INTERNAL_ERROR, null);
         }
     }
@@ -988,125 +1016,203 @@ public class SystemService implements ISystemService {
         }
     }
 
+    /**
+     * Checkout as a saga of three steps, so no database connection is held while the external
+     * systems answer: reserve the cart (price it, take the stock) in one short transaction, pay
+     * and deliver outside any transaction, then confirm the stock, record the order and clear the
+     * cart in a second transaction. A failed step undoes the ones before it by cancelling the
+     * delivery, refunding the payment and returning the products to the stores.
+     */
     @Override
-    @Transactional
     public Response<String> purchaseCart(int userId, String country, LocalDate dob, PaymentMethod paymentMethod,
             String deliveryMethod,
             String cardNumber, String cardHolder, String expDate, String cvv, String address,
             String recipient, String packageDetails) {
-        Map<Integer, Double> prices = null;// storeId,price from store
-        double totalPrice = 0;
-        Cart cart = null;
-        boolean returnProductInCaseOfError = false;//so the return will happen only ones
-        
-        Map<StoreDTO, Map<StoreProductDTO, Boolean>> validCartDTO = null;
+        logger.info("System service - user " + userId + " trying to purchase cart");
+        Response<CheckoutReservation> reserved;
         try {
-            logger.info("System service - user " + userId + " trying to purchase cart");
-            cart = this.userService.getUserCart(userId);
-            if (cart.getAllProducts().isEmpty()) {
-                logger.error("System Service - Cart is empty: " + userId);
-                return new Response<String>(null, "Cart is empty", false, ErrorType.INVALID_INPUT, null);
-            }
-            if (isValidCountryCode(country)) {
-                logger.info("System Service - Country code is valid: " + country);
-            } else {
-                logger.error("System Service - Invalid country code: " + country);
-                return new Response<String>(null, "Invalid country code", false, ErrorType.INVALID_INPUT, null);
-            }
-            Optional<User> user = this.userService.getAnyUserById(userId);
-            if (!user.isPresent()) {
-                logger.error("System Service - User not found: " + userId);
-                return new Response<String>(null, "User not found", false, ErrorType.INVALID_INPUT, null);
-            }
+            reserved = inCheckoutTransaction(() -> reserveCart(userId, country, dob));
         } catch (Exception e) {
             logger.error("System Service - Error during purchase cart: " + e.getMessage());
             return new Response<String>(null, "Error during purchase cart: " + e.getMessage(), false,
                     ErrorType.INTERNAL_ERROR, null);
         }
+        if (!reserved.isSuccess()) {
+            return new Response<String>(null, reserved.getMessage(), false, reserved.getErrorType(), null);
+        }
+        CheckoutReservation reservation = reserved.getData();
+
+        int paymentTransactionId;
+        try {
+            paymentTransactionId = this.paymentService
+                    .payAsync(cardNumber, cardHolder, expDate, cvv, reservation.totalPrice, userId).join();
+        } catch (Exception e) {
+            Throwable cause = completionCause(e);
+            logger.error("System Service - Error during payment: " + cause.getMessage());
+            releaseReservation(userId, reservation);
+            return new Response<String>(null, "Error during payment: " + cause.getMessage(), false,
+                    ErrorType.INTERNAL_ERROR, null);
+        }
+        if (paymentTransactionId == -1) {
+            releaseReservation(userId, reservation);
+            return new Response<String>(null, "Payment failed", false, ErrorType.INVALID_INPUT, null);
+        }
+        logger.info("System Service - User " + userId + " cart purchased successfully, payment method: "
+                + paymentMethod);
+
+        int deliveryTransactionId;
         try {
-            prices = this.storeService.calcAmount(userId, cart, dob);
-            validCartDTO = this.storeService.decrementProductsInStores(userId, cart.getAllProducts());
+            deliveryTransactionId = this.deliveryService.deliverAsync(country, address, recipient, packageDetails).join();
         } catch (Exception e) {
-            logger.error("System Service - Error during purchase cart - decrementProductsInStores: " + e.getMessage());
+            logger.error("System Service - Error during delivery: " + completionCause(e).getMessage());
+            deliveryTransactionId = -1;
+        }
+        if (deliveryTransactionId == -1) {
+            compensate(userId, reservation, paymentTransactionId, -1);
+            return new Response<String>(null, "Delivery failed", false, ErrorType.INVALID_INPUT, null);
+        }
+        logger.info("System Service - User " + userId + " cart delivered to: " + recipient + " at address: "
+                + address);
+
+        int deliveryId = deliveryTransactionId;
+        try {
+            inCheckoutTransaction(() -> {
+                this.storeService.confirmProductsInStores(userId, reservation.validCart);
+                this.orderService.addOrderCart(reservation.validCartDTO, reservation.prices, userId, address,
+                        paymentMethod, paymentTransactionId, deliveryId);
+                this.userService.clearUserCart(userId);
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("System Service - Error completing purchase for user " + userId + ": " + e.getMessage());
+            compensate(userId, reservation, paymentTransactionId, deliveryId);
             return new Response<String>(null, "Error during purchase cart: " + e.getMessage(), false,
                     ErrorType.INTERNAL_ERROR, null);
         }
+
+        return new Response<String>("Cart purchased successfully", "Cart purchased successfully", true, null, null);
+    }
+
+    // What the first checkout step took from the stores, kept until the purchase is committed or undone
+    private static final class CheckoutReservation {
+        private final Map<Integer, Double> prices; // storeId,price from store
+        private final Map<StoreDTO, Map<StoreProductDTO, Boolean>> validCartDTO;
+        private final Map<Integer, Map<Integer, Integer>> validCart;
+        private final double totalPrice;
+
+        private CheckoutReservation(Map<Integer, Double> prices, Map<StoreDTO, Map<StoreProductDTO, Boolean>> validCartDTO,
+                Map<Integer, Map<Integer, Integer>> validCart) {
+            this.prices = prices;
+            this.validCartDTO = validCartDTO;
+            this.validCart = validCart;
+            this.totalPrice = prices.values().stream().mapToDouble(Double::doubleValue).sum();
+        }
+    }
+
+    private Response<CheckoutReservation> reserveCart(int userId, String country, LocalDate dob) {
+        Cart cart = this.userService.getUserCart(userId);
+        if (cart.getAllProducts().isEmpty()) {
+            logger.error("System Service - Cart is empty: " + userId);
+            return new Response<CheckoutReservation>(null, "Cart is empty", false, ErrorType.INVALID_INPUT, null);
+        }
+        if (isValidCountryCode(country)) {
+            logger.info("System Service - Country code is valid: " + country);
+        } else {
+            logger.error("System Service - Invalid country code: " + country);
+            return new Response<CheckoutReservation>(null, "Invalid country code", false, ErrorType.INVALID_INPUT, null);
+        }
+        Optional<User> user = this.userService.getAnyUserById(userId);
+        if (!user.isPresent()) {
+            logger.error("System Service - User not found: " + userId);
+            return new Response<CheckoutReservation>(null, "User not found", false, ErrorType.INVALID_INPUT, null);
+        }
+        Map<Integer, Double> prices = this.storeService.calcAmount(userId, cart, dob);
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> validCartDTO = this.storeService.decrementProductsInStores(userId, cart.getAllProducts());
         Map<Integer, Map<Integer, Integer>> validCart = convertStoreCartToUserCatt(validCartDTO);
         for (Map.Entry<StoreDTO, Map<StoreProductDTO, Boolean>> entry : validCartDTO.entrySet()) {
-            Map<StoreProductDTO, Boolean> products = entry.getValue();
-            for (Map.Entry<StoreProductDTO, Boolean> productEntry : products.entrySet()) {
-                StoreProductDTO storeProduct = productEntry.getKey();
+            for (Map.Entry<StoreProductDTO, Boolean> productEntry : entry.getValue().entrySet()) {
                 if (productEntry.getValue() == false) {
-                    logger.error("System Service - Product is not available: " + storeProduct.getName());
+                    logger.error("System Service - Product is not available: " + productEntry.getKey().getName());
                     userService.setCart(userId, validCart);
-                    returnProductInCaseOfError = true;
-                    return new Response<String>(null, "Product is not available: " + storeProduct.getName(), false,
-                            ErrorType.INVALID_INPUT, null);
+                    return new Response<CheckoutReservation>(null, "Product is not available: " + productEntry.getKey().getName(),
+                            false, ErrorType.INVALID_INPUT, null);
                 }
             }
         }
         //if payment/delivery won't work
         userService.setCart(userId, validCart);
-        totalPrice = prices.values().stream().mapToDouble(Double::doubleValue).sum();
-        logger.info("System Service - User " + userId + " cart price: " + totalPrice);
-        int paymentTransactionId = -1;
-        try {
-            paymentTransactionId = this.paymentService.pay(cardNumber, cardHolder, expDate, cvv, totalPrice,userId);
-            if (paymentTransactionId != -1)
-                logger.info("System Service - User " + userId + " cart purchased successfully, payment method: "
-                        + paymentMethod);
-            else {
-                if (!returnProductInCaseOfError) {
-                    storeService.returnProductsToStores(userId, validCart);
-                    returnProductInCaseOfError = true;
-                }
+        CheckoutReservation reservation = new CheckoutReservation(prices, validCartDTO, validCart);
+        logger.info("System Service - User " + userId + " cart price: " + reservation.totalPrice);
+        return new Response<CheckoutReservation>(reservation, "Cart reserved", true, null, null);
+    }
 
-                return new Response<String>(null, "Payment failed", false, ErrorType.INVALID_INPUT, null);
-        }} catch (Exception e) {
-            logger.error("System Service - Error during payment: " + e.getMessage());
-            if (!returnProductInCaseOfError) {
-                storeService.returnProductsToStores(userId, validCart);
-                returnProductInCaseOfError = true;
+    // Cancels the delivery (-1: none was made) and refunds the payment while the products go back to the stores
+    private void compensate(int userId, CheckoutReservation reservation, int paymentTransactionId, int deliveryTransactionId) {
+        CompletableFuture<Integer> cancel = null;
+        if (deliveryTransactionId != -1) {
+            try {
+                cancel = this.deliveryService.cancelAsync(deliveryTransactionId);
+            } catch (Exception e) {
+                cancel = CompletableFuture.failedFuture(e);
             }
-            return new Response<String>(null, "Error during payment: " + e.getMessage(), false,
-                    ErrorType.INTERNAL_ERROR, null);
         }
-        int deliveryTransactionId = -1;
-        try {
-            deliveryTransactionId = this.deliveryService.deliver(country, address, recipient, packageDetails);
-            if (deliveryTransactionId != -1)  
-                logger.info("System Service - User " + userId + " cart delivered to: " + recipient + " at address: "
-                        + address);
-            else {
-                if (paymentTransactionId != -1) { // Only refund if payment was successful
-                    int refundResult = this.paymentService.refund(paymentTransactionId);
-                    if (refundResult == 1) {
-                        logger.info("System Service - User " + userId + " cart purchase failed, refund issued for Payment Transaction ID: " + paymentTransactionId);
-                    } else {
-                        logger.error("System Service - User " + userId + " cart purchase failed, refund FAILED for Payment Transaction ID: " + paymentTransactionId + ". Manual intervention needed!");
-                    }
-                }
-                if (!returnProductInCaseOfError) {
-                    storeService.returnProductsToStores(userId, validCart);
-                    returnProductInCaseOfError = true;
-                }
-                return new Response<String>(null, "Delivery failed", false, ErrorType.INVALID_INPUT, null);
-            }
+        CompletableFuture<Integer> refund;
+        try {
+            refund = this.paymentService.refundAsync(paymentTransactionId);
         } catch (Exception e) {
-            this.paymentService.refund(paymentTransactionId);
-            if (!returnProductInCaseOfError) {
-                storeService.returnProductsToStores(userId, validCart);
-                returnProductInCaseOfError = true;
+            refund = CompletableFuture.failedFuture(e);
+        }
+        releaseReservation(userId, reservation);
+        if (cancel != null) {
+            int cancelResult;
+            try {
+                cancelResult = cancel.join();
+            } catch (Exception e) {
+                logger.error("System Service - Error during delivery cancellation: " + completionCause(e).getMessage());
+                cancelResult = -1;
             }
-            logger.error("System Service - Error during delivery: " + e.getMessage());
-            logger.info("System Service - User " + userId + " cart purchase failed, refund issued to: " + cardHolder
-                    + " at card number: " + cardNumber);
+            if (cancelResult == 1) {
+                logger.info("System Service - User " + userId + " cart purchase failed, delivery cancelled for Delivery Transaction ID: " + deliveryTransactionId);
+            } else {
+                logger.error("System Service - User " + userId + " cart purchase failed, cancelling FAILED for Delivery Transaction ID: " + deliveryTransactionId + ". Manual intervention needed!");
+            }
+        }
+        int refundResult;
+        try {
+            refundResult = refund.join();
+        } catch (Exception e) {
+            logger.error("System Service - Error during refund: " + completionCause(e).getMessage());
+            refundResult = -1;
+        }
+        if (refundResult == 1) {
+            logger.info("System Service - User " + userId + " cart purchase failed, refund issued for Payment Transaction ID: " + paymentTransactionId);
+        } else {
+            logger.error("System Service - User " + userId + " cart purchase failed, refund FAILED for Payment Transaction ID: " + paymentTransactionId + ". Manual intervention needed!");
         }
+    }
 
-        this.orderService.addOrderCart(validCartDTO, prices, userId, address, paymentMethod, paymentTransactionId, deliveryTransactionId);
-        this.userService.clearUserCart(userId);
+    private void releaseReservation(int userId, CheckoutReservation reservation) {
+        try {
+            inCheckoutTransaction(() -> {
+                this.storeService.returnProductsToStores(userId, reservation.validCart);
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("System Service - User " + userId + " cart purchase failed, returning products to stores FAILED: "
+                    + e.getMessage() + ". Manual intervention needed!");
+        }
+    }
 
-        return new Response<String>("Cart purchased successfully", "Cart purchased successfully", true, null, null);
+    // Runs a checkout step in its own transaction, or in the caller's one if there is; inline without a transaction manager
+    private <T> T inCheckoutTransaction(Supplier<T> step) {
+        if (checkoutTransactions == null) {
+            return step.get();
+        }
+        return checkoutTransactions.execute(status -> step.get());
+    }
+
+    private static Throwable completionCause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     @Override
@@ -1128,46 +1234,7 @@ public class SystemService implements ISystemService {
     public Response<List<StoreProductDTO>> getTopRatedProducts(int limit) {
         try {
             logger.info("System service - fetching top " + limit + " rated products");
-
-            // 1. Fetch all products
-            List<ProductDTO> allProducts = productService.getAllProducts();
-
-            // 2. Create a list to store products with their ratings
-            List<StoreProductDTO> ratedProducts = new ArrayList<>();
-            List<StoreProductDTO> nonRatedProducts = new ArrayList<>();
-
-            // 3. For each product, get its StoreProductDTO from each store it's in
-            for (ProductDTO product : allProducts) {
-                for (Integer storeId : product.getStoreIds()) {
-                    try {
-                        StoreProductDTO storeProduct = storeService.getProductFromStore(product.getId(), storeId);
-                        // Only add products that have ratings
-                        if (!Double.isNaN(storeProduct.getAverageRating())) {
-                            ratedProducts.add(storeProduct);
-                        } else {
-                            nonRatedProducts.add(storeProduct);
-                        }
-                    } catch (Exception e) {
-                        // Skip if product not found in store or other errors
-                        logger.warn("Could not retrieve product " + product.getId() + " from store " + storeId + ": "
-                                + e.getMessage());
-                    }
-                }
-            }
-
-            // 4. Sort products by average rating (highest first)
-            ratedProducts.sort((p1, p2) -> Double.compare(p2.getAverageRating(), p1.getAverageRating()));
-            int nonRatedToAdd = limit - ratedProducts.size();
-            // If there are fewer rated products than the limit, add non-rated products
-            if (nonRatedToAdd > 0) {
-                for (int i = 0; i < nonRatedToAdd && i < nonRatedProducts.size(); i++) {
-                    ratedProducts.add(nonRatedProducts.get(i));
-                }
-            }
-            // 5. Return top 'limit' products (or all if there are fewer than 'limit')
-            int resultSize = Math.min(limit, ratedProducts.size());
-            List<StoreProductDTO> topRatedProducts = ratedProducts.subList(0, resultSize);
-
+            List<StoreProductDTO> topRatedProducts = storeService.getTopRatedProducts(limit);
             return new Response<>(topRatedProducts, "Top rated products retrieved successfully", true, null, null);
         } catch (Exception e) {
             logger.error("System Service - Error while fetching top rated products: " + e.getMessage());
@@ -1176,6 +1243,20 @@ public class SystemService implements ISystemService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Response<List<StoreDTO>> getTopRatedStores(int limit) {
+        try {
+            logger.info("System service - fetching top " + limit + " rated stores");
+            List<StoreDTO> stores = storeService.getTopRatedStores(limit);
+            return new Response<>(stores, "Top rated stores retrieved successfully", true, null, null);
+        } catch (Exception e) {
+            logger.error("System Service - Error while fetching top rated stores: " + e.getMessage());
+            return new Response<>(null, "Error fetching top rated stores: " + e.getMessage(), false,
+                    ErrorType.INTERNAL_ERROR, null);
+        }
+    }
+
     @Transactional(readOnly = true)
     public OrderDTO createOrderDTO(IOrder order) {
         List<OrderedProductDTO> productDTOS = new ArrayList<>();
@@ -1208,6 +1289,53 @@ public class SystemService implements ISystemService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Response<List<OrderDTO>> getAllStoreOrders(int storeId, int userId, int page, int size) {
+        try {
+            logger.info("System service - user " + userId + " trying to get page " + page + " of orders from " + storeId);
+            if (!storeService.canViewOrders(storeId, userId)) {
+                return new Response<List<OrderDTO>>(null,
+                        "user " + userId + " has insufficient permissions to view orders from store " + storeId, false,
+                        ErrorType.INVALID_INPUT, null);
+            }
+            List<IOrder> storeOrders = orderService.getOrdersByStoreId(storeId, page, size);
+            List<OrderDTO> storeOrdersDTOs = new ArrayList<>();
+            for (IOrder order : storeOrders) {
+                storeOrdersDTOs.add(createOrderDTO(order));
+            }
+            return new Response<List<OrderDTO>>(storeOrdersDTOs, "success", true, null, null);
+        } catch (IllegalArgumentException e) {
+            return new Response<List<OrderDTO>>(null, e.getMessage(), false, ErrorType.INVALID_INPUT, null);
+        } catch (Exception e) {
+            return new Response<List<OrderDTO>>(null, e.getMessage(), false, ErrorType.INTERNAL_ERROR, null);
+        }
+    }
+
+    @Override
+    public Response<StoreSalesDTO> getStoreSales(int storeId, int userId, LocalDate from, LocalDate to) {
+        try {
+            logger.info("System service - user " + userId + " trying to get sales of store " + storeId + " from " + from
+                    + " to " + to);
+            if (salesAnalytics == null) {
+                return new Response<>(null, "Sales reports are not available", false, ErrorType.INTERNAL_ERROR, null);
+            }
+            if (!storeService.canViewOrders(storeId, userId)) {
+                return new Response<>(null,
+                        "user " + userId + " has insufficient permissions to view sales of store " + storeId, false,
+                        ErrorType.INVALID_INPUT, null);
+            }
+            StoreSalesDTO sales = salesAnalytics.getStoreSales(storeId, from, to, 10);
+            return new Response<>(sales, "success", true, null, null);
+        } catch (IllegalArgumentException e) {
+            logger.error("System Service - Error during getting store sales: " + e.getMessage());
+            return new Response<>(null, e.getMessage(), false, ErrorType.INVALID_INPUT, null);
+        } catch (Exception e) {
+            logger.error("System Service - Error during getting store sales: " + e.getMessage());
+            return new Response<>(null, "Error during getting store sales", false, ErrorType.INTERNAL_ERROR, null);
+        }
+    }
+
     @Override
     @Transactional
     public Response<String> acceptAssignment(int storeId, int userId) {
@@ -1228,9 +1356,11 @@ public class SystemService implements ISystemService {
             return new Response<String>("success", "success", true, null, null);
         } catch (IllegalArgumentException e) {
             logger.error("system service - acceptAssignment failed: " + e.getMessage());
+            rollbackRequest();
             return new Response<String>(null, e.getMessage(), false, ErrorType.INVALID_INPUT, null);
         } catch (Exception e) {
             logger.error("system service - acceptAssignment failed: " + e.getMessage());
+            rollbackRequest();
             return new Response<String>(null, e.getMessage(), false, ErrorType.INTERNAL_ERROR, null);
         }
     }
@@ -1734,6 +1864,31 @@ public class SystemService implements ISystemService {
         }
     }
 
+    @Override
+    public Response<ProductSearchResultDTO> searchStoreProducts(String keyword, String category, Double minPrice,
+            Double maxPrice, Double minProductRating, Double minStoreRating, Integer storeId, int page, int size) {
+        try {
+            PCategory categoryEnum = null;
+            if (category != null && !category.isBlank()) {
+                categoryEnum = isCategoryValid(category);
+                if (categoryEnum == null) {
+                    logger.error("System Service - Invalid category: " + category);
+                    return new Response<>(null, "Invalid category", false, ErrorType.INVALID_INPUT, null);
+                }
+            }
+            ProductSearchCriteria criteria = new ProductSearchCriteria(keyword, categoryEnum, minPrice, maxPrice,
+                    minProductRating, minStoreRating, storeId, page, size);
+            ProductSearchResultDTO result = storeService.searchStoreProducts(criteria);
+            return new Response<>(result, "Products retrieved successfully", true, null, null);
+        } catch (IllegalArgumentException e) {
+            logger.error("System Service - Invalid product search: " + e.getMessage());
+            return new Response<>(null, e.getMessage(), false, ErrorType.INVALID_INPUT, null);
+        } catch (Exception e) {
+            logger.error("System Service - Error during product search: " + e.getMessage());
+            return new Response<>(null, "Error during product search", false, ErrorType.INTERNAL_ERROR, null);
+        }
+    }
+
     @Override
     @Transactional
     public Response<Void> userLogout(int userID) {
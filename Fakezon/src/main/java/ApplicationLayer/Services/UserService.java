@@ -497,10 +497,8 @@ public class UserService implements IUserService {
     public boolean removeMsgById(int userId, int msgId) {
         Optional<Registered> optionalUser = userRepository.findRegisteredById(userId);
         if (optionalUser.isPresent()) {
-            Registered user = optionalUser.get();
-            boolean removed = user.removeMsgById(msgId);
+            boolean removed = userRepository.removeMessage(userId, msgId);
             if (removed) {
-                userRepository.save(user);
                 logger.info("Message with ID " + msgId + " removed from user ID " + userId);
             } else {
                 logger.warn("Message with ID " + msgId + " not found for user ID " + userId);
@@ -859,8 +857,7 @@ public class UserService implements IUserService {
         Optional<Registered> user = userRepository.findRegisteredById(userId);
         logger.info("Trying to remove assignment message");
         if(user.isPresent()){
-            user.get().removeAssignmentMessage(storeId);
-            userRepository.save(user.get());
+            userRepository.removeAssignmentMessages(userId, storeId);
         }
         else{
             logger.error("User not found while removeAssignmentMessage");
@@ -2,13 +2,14 @@ package ApplicationLayer;
 
 import DomainLayer.Model.Registered;
 import DomainLayer.Model.StoreOwner;
+import DomainLayer.Enums.MessageBox;
 import DomainLayer.Enums.RoleName;
-import DomainLayer.IRepository.IRegisteredRole;
 import DomainLayer.IRepository.IUserRepository;
 import DomainLayer.Model.helpers.AssignmentEvent;
 import DomainLayer.Model.helpers.ClosingStoreEvent;
 import DomainLayer.Model.helpers.ResponseFromStoreEvent;
 import DomainLayer.Model.helpers.StoreMsg;
+import DomainLayer.Model.helpers.UserNotification;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionApprovedBidEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionDeclinedBidEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionEndedToOwnersEvent;
@@ -20,7 +21,7 @@ import DomainLayer.Model.helpers.OfferEvents.OfferAcceptedByAll;
 import DomainLayer.Model.helpers.OfferEvents.OfferAcceptedSingleOwnerEvent;
 import DomainLayer.Model.helpers.OfferEvents.OfferDeclinedEvent;
 import DomainLayer.Model.helpers.OfferEvents.OfferReceivedEvent;
-import InfrastructureLayer.Adapters.NotificationWebSocketHandler;
+import ApplicationLayer.Interfaces.INotificationPipeline;
 
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -28,22 +29,23 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.AbstractMap.SimpleEntry;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 
 @Component
 public class UserEventListener {
 
+    private static final List<RoleName> OWNER_ROLES = List.of(RoleName.STORE_OWNER, RoleName.STORE_FOUNDER);
+
     private final IUserRepository userRepository;
-    private final NotificationWebSocketHandler wsHandler; // web socket
+    private final INotificationPipeline notifications; // stores the messages and pushes them over the web socket
 
-    public UserEventListener(IUserRepository userRepository, NotificationWebSocketHandler wsHandler) {
+    public UserEventListener(IUserRepository userRepository, INotificationPipeline notifications) {
         this.userRepository = userRepository;
-        this.wsHandler = wsHandler;
+        this.notifications = notifications;
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleAssignmentEvent(AssignmentEvent event) {
@@ -53,18 +55,12 @@ public class UserEventListener {
             System.out.println("@@@@@@@@@@@@@@@ FOUND USER " + user.get().getUserId() + "@@@@@@@@@@@@@");
             String msg = "Please approve or decline this role: " + event.getRoleName() + " for store "
                     + event.getStoreId();
-            user.get().addAssignmentMessage(
-                    new StoreMsg(event.getStoreId(), -1, msg, null, event.getUserId()));
-            userRepository.save(user.get());
-            System.out.println("@@@@@@@@@@@@@@@ SAVED @@@@@@@@@@@@@");
-
-            if (user.get().isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(event.getUserId()), msg);
-            }
+            deliver(user.get(), new StoreMsg(event.getStoreId(), -1, msg, null, event.getUserId()),
+                    MessageBox.ASSIGNMENT);
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
 
@@ -73,75 +69,57 @@ public class UserEventListener {
         List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getId());
         for (Registered registeredUser : users) {
             String msg = "Store " + event.getId() + " is now closed.";
-            registeredUser.addMessageFromStore(new StoreMsg(event.getId(), -1, msg, null, registeredUser.getUserId()));
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser, new StoreMsg(event.getId(), -1, msg, null, registeredUser.getUserId()),
+            MessageBox.STORE);
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
 
     public void handleResponseFromStore(ResponseFromStoreEvent event) {
         Optional<Registered> user = userRepository.findRegisteredById(event.getUserId());
         user.ifPresent(registeredUser -> {
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), -1, event.getMessage(), null, event.getUserId()));
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), event.getMessage());
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), -1, event.getMessage(), null, event.getUserId()),
+                    MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
 
     public void handleAuctionEndedToOwnersEvent(AuctionEndedToOwnersEvent event) {
-        // As requested, fetching all users with roles in the store
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        // As requested, fetching the store's owners
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "Auction ended for product " + event.getProductID() + ". Highest bid was "
-                        + event.getCurrentHighestBid() +
-                        " by user " + event.getUserIDHighestBid() + ".";
-                registeredUser.addMessageFromStore(
-                        new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()));
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            String msg = "Auction ended for product " + event.getProductID() + ". Highest bid was "
+                    + event.getCurrentHighestBid() +
+                    " by user " + event.getUserIDHighestBid() + ".";
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleAuctionFailedToOwnersEvent(AuctionFailedToOwnersEvent event) {
-        // As requested, fetching all users with roles in the store
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        // As requested, fetching the store's owners
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "Auction failed for product " + event.getProductID() + ". Base price was "
-                        + event.getBasePrice() + ". " + event.getMessage();
-                registeredUser.addMessageFromStore(
-                        new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()));
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            String msg = "Auction failed for product " + event.getProductID() + ". Base price was "
+                    + event.getBasePrice() + ". " + event.getMessage();
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleApprovedBidOnAuctionEvent(AuctionApprovedBidEvent event) {
@@ -151,17 +129,15 @@ public class UserEventListener {
             String msg = "We are pleased to inform you that your bid has won the auction on product: "
                     + event.getProductID() + ", at a price of: " + event.getCurrentHighestBid()
                     + "! The product has been added to your shopping cart, please purchase it as soon as possible.";
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()));
             registeredUser.addToBasketQuantity(event.getStoreId(), event.getStoreProductDTO().getProductId(), 1);
             userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleAuctionGotHigherBidEvent(AuctionGotHigherBidEvent event) {
@@ -173,16 +149,13 @@ public class UserEventListener {
         user.ifPresent(registeredUser -> {
             String msg = "Your auction bid on product: " + event.getProductID()
                     + " was rejected due to a higher bid of: " + event.getCurrentHighestBid() + ".";
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()));
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleDeclinedBidOnAuctionEvent(AuctionDeclinedBidEvent event) {
@@ -193,83 +166,60 @@ public class UserEventListener {
         user.ifPresent(registeredUser -> {
             String msg = "We regret to inform you that the offer for product: " + event.getProductID()
                     + " was declined because product is out of store";
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()));
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductID(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleOfferReceivedEvent(OfferReceivedEvent event) {
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        List<Registered> users = ownersOf(event.getStoreId());
         System.out.println("@@@@@@@@@@@ OFFER RECIEVED @@@@@@@@@@@@@@@@@@@@@");
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "Received an offer for product " + event.getProductId() + ". Offer is: $"
-                        + event.getOfferAmount() +
-                        " by user " + event.getUserId() + " in Store " + event.getStoreId()
-                        + ". Please approve or decline this offer.";
-                System.out.println("@@@@@@@@@@@ MSG SENT @@@@@@@@@@@@@@@@@@@@@");
-                registeredUser.addOfferMessage(new StoreMsg(event.getStoreId(), event.getProductId(), msg,
-                        event.getUserId(), registeredUser.getUserId()));
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            String msg = "Received an offer for product " + event.getProductId() + ". Offer is: $"
+                    + event.getOfferAmount() +
+                    " by user " + event.getUserId() + " in Store " + event.getStoreId()
+                    + ". Please approve or decline this offer.";
+            System.out.println("@@@@@@@@@@@ MSG SENT @@@@@@@@@@@@@@@@@@@@@");
+            deliver(registeredUser, new StoreMsg(event.getStoreId(), event.getProductId(), msg,
+                    event.getUserId(), registeredUser.getUserId()), MessageBox.OFFER);
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleOfferAcceptedSingleOwnerEvent(OfferAcceptedSingleOwnerEvent event) {
         System.out.println("@@@@@@@@@@@ OFFER ACCEPTED SINGLE @@@@@@@@@@@@@@@@@@@@@");
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
             if (registeredUser.getUserId() != event.getOwnerId()) {
-                HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-                if (isOwner(roles, event.getStoreId())) {
-                    String msg = "Owner " + event.getOwnerId() + " accepted an offer for product "
-                            + event.getProductId() + " in Store " + event.getStoreId() + ". Offer is: $"
-                            + event.getOfferAmount() +
-                            " by user " + event.getUserId() + ".";
-                    registeredUser.addMessageFromStore(new StoreMsg(event.getStoreId(), event.getProductId(), msg, null,
-                            registeredUser.getUserId()));
-                    userRepository.save(registeredUser);
-                    if (registeredUser.isLoggedIn()) {
-                        wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                    }
-                }
+                String msg = "Owner " + event.getOwnerId() + " accepted an offer for product "
+                        + event.getProductId() + " in Store " + event.getStoreId() + ". Offer is: $"
+                        + event.getOfferAmount() +
+                        " by user " + event.getUserId() + ".";
+                deliver(registeredUser, new StoreMsg(event.getStoreId(), event.getProductId(), msg, null,
+                        registeredUser.getUserId()), MessageBox.STORE);
             }
         }
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleOfferAcceptedByAll(OfferAcceptedByAll event) {
         System.out.println("@@@@@@@@@@@ OFFER ACCEPTED ALL @@@@@@@@@@@@@@@@@@@@@");
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "An Offer for product " + event.getProductId() + " in Store " + event.getStoreId()
-                        + " was accepted by all owners. Offer is: $" + event.getOfferAmount() +
-                        " by user " + event.getUserId() + ".";
-                registeredUser.addMessageFromStore(
-                        new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()));
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            String msg = "An Offer for product " + event.getProductId() + " in Store " + event.getStoreId()
+                    + " was accepted by all owners. Offer is: $" + event.getOfferAmount() +
+                    " by user " + event.getUserId() + ".";
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         }
 
         Optional<Registered> user = userRepository.findRegisteredById(event.getUserId());
@@ -277,53 +227,42 @@ public class UserEventListener {
             String msg = "We are pleased to inform you that your offer on product: " + event.getProductId()
                     + ", has been approved at a price of: " + event.getOfferAmount()
                     + "! The product has been added to your shopping cart, please purchase it as soon as possible.";
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()));
             registeredUser.addToBasketQuantity(event.getStoreId(), event.getProductId(), 1);
             userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleOfferDeclinedEvent(OfferDeclinedEvent event) {
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "An Offer for product " + event.getProductId() + " in Store " + event.getStoreId()
-                        + " was Declined by " + event.getDeclinedBy() + ". Offer was: $" + event.getOfferAmount() +
-                        " by user " + event.getUserId() + ".";
+            String msg = "An Offer for product " + event.getProductId() + " in Store " + event.getStoreId()
+                    + " was Declined by " + event.getDeclinedBy() + ". Offer was: $" + event.getOfferAmount() +
+                    " by user " + event.getUserId() + ".";
 
-                registeredUser.removeOfferMessage(event.getStoreId(), event.getProductId(), event.getUserId());
-                StoreMsg msgObj = new StoreMsg(event.getStoreId(), event.getProductId(), msg, null,
-                        registeredUser.getUserId());
-                registeredUser.addMessageFromStore(msgObj);
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            userRepository.removeOfferMessage(registeredUser.getUserId(), event.getStoreId(), event.getProductId(),
+                    event.getUserId());
+            StoreMsg msgObj = new StoreMsg(event.getStoreId(), event.getProductId(), msg, null,
+                    registeredUser.getUserId());
+            deliver(registeredUser, msgObj, MessageBox.STORE);
         }
         Optional<Registered> user = userRepository.findRegisteredById(event.getUserId());
         user.ifPresent(registeredUser -> {
             String msg = "We regret to inform you that the offer for product: " + event.getProductId()
                     + " was declined by the store.";
-            registeredUser.addMessageFromStore(
-                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()));
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         });
 
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleCounterOfferEvent(CounterOfferEvent event) {
@@ -334,38 +273,32 @@ public class UserEventListener {
             StoreMsg storeMsg = new StoreMsg(event.getStoreId(), event.getProductId(), msg, null,
                     registeredUser.getUserId());
             storeMsg.setCounterOffer(); // for ui purposes
-            registeredUser.addMessageFromStore(storeMsg);
-            userRepository.save(registeredUser);
-            if (registeredUser.isLoggedIn()) {
-                wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-            }
+            deliver(registeredUser, storeMsg, MessageBox.STORE);
         });
     }
 
-    @Async
+    @Async("notificationExecutor")
     @EventListener
     @Transactional
     public void handleCounterOfferDeclineEvent(CounterOfferDeclineEvent event) {
-        List<Registered> users = userRepository.UsersWithRolesInStoreId(event.getStoreId());
+        List<Registered> users = ownersOf(event.getStoreId());
         for (Registered registeredUser : users) {
-            HashMap<Integer, IRegisteredRole> roles = registeredUser.getAllRoles();
-            if (isOwner(roles, event.getStoreId())) {
-                String msg = "User " + event.getUserId() + " Declined your Store's (ID " + event.getStoreId()
-                        + ") Counter Offer of $" + event.getOfferAmount() +
-                        " on Product " + event.getProductId();
-                registeredUser.addMessageFromStore(
-                        new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()));
-                userRepository.save(registeredUser);
-                if (registeredUser.isLoggedIn()) {
-                    wsHandler.broadcast(String.valueOf(registeredUser.getUserId()), msg);
-                }
-            }
+            String msg = "User " + event.getUserId() + " Declined your Store's (ID " + event.getStoreId()
+                    + ") Counter Offer of $" + event.getOfferAmount() +
+                    " on Product " + event.getProductId();
+            deliver(registeredUser,
+                    new StoreMsg(event.getStoreId(), event.getProductId(), msg, null, registeredUser.getUserId()),
+                    MessageBox.STORE);
         }
     }
 
-    private boolean isOwner(HashMap<Integer, IRegisteredRole> roles, int storeId) {
-        return roles.containsKey(storeId) && (roles.get(storeId).getRoleName() == RoleName.STORE_OWNER
-                || roles.get(storeId).getRoleName() == RoleName.STORE_FOUNDER);
+    private void deliver(Registered user, StoreMsg message, MessageBox box) {
+        notifications.submit(new UserNotification(message, box, user.isLoggedIn()));
+    }
+
+    // The store's owners and founder, read by role rather than loading every role holder and filtering
+    private List<Registered> ownersOf(int storeId) {
+        return userRepository.findByStoreIdAndRole(storeId, OWNER_ROLES);
     }
 
 }
\ No newline at end of file
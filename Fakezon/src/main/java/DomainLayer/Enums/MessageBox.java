@@ -0,0 +1,8 @@
+package DomainLayer.Enums;
+
+// Which of a registered user's message lists a StoreMsg belongs to
+public enum MessageBox {
+    STORE,
+    ASSIGNMENT,
+    OFFER
+}
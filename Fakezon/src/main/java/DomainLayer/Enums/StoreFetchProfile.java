@@ -0,0 +1,10 @@
+package DomainLayer.Enums;
+
+// What a store read loads up front (see StoreRepository); anything else is still loaded on first use
+public enum StoreFetchProfile {
+    HEADER,   // the stores row only: name, founder, open flag, rating totals
+    PRODUCTS, // + store products
+    PRICING,  // + store products, discount policies and auctions (offers are read per user)
+    ROLES,    // + owners and managers
+    INBOX     // + messages from users, and the owners and managers allowed to read them
+}
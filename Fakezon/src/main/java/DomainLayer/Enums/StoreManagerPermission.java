@@ -1,10 +1,40 @@
 package DomainLayer.Enums;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+// Stored as a bitmask by ordinal (see Store) - only ever add new permissions at the end
 public enum StoreManagerPermission {
     INVENTORY,
     PURCHASE_POLICY,
     DISCOUNT_POLICY,
     REQUESTS_REPLY,
     VIEW_ROLES,
-    VIEW_PURCHASES
+    VIEW_PURCHASES;
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & mask()) != 0;
+    }
+
+    public static int toMask(Collection<StoreManagerPermission> perms) {
+        int mask = 0;
+        for (StoreManagerPermission perm : perms) {
+            mask |= perm.mask();
+        }
+        return mask;
+    }
+
+    public static EnumSet<StoreManagerPermission> fromMask(int mask) {
+        EnumSet<StoreManagerPermission> perms = EnumSet.noneOf(StoreManagerPermission.class);
+        for (StoreManagerPermission perm : values()) {
+            if (perm.isIn(mask)) {
+                perms.add(perm);
+            }
+        }
+        return perms;
+    }
 }
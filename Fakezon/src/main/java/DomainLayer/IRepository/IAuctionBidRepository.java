@@ -0,0 +1,18 @@
+package DomainLayer.IRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+import DomainLayer.Model.AuctionBid;
+import DomainLayer.Model.AuctionProduct;
+
+public interface IAuctionBidRepository {
+    // Appends the bids to the journal and raises each auction's stored highest bid to its best one, in one transaction
+    void appendBids(Collection<AuctionBid> bids);
+    // Only moves the stored highest bid up, so writers racing on the same auction can not lower it
+    void raiseHighestBid(int storeId, int productId, int userId, double amount);
+    AuctionProduct findAuction(int storeId, int productId); // the latest auction of the product, null if none
+    boolean storeExists(int storeId);
+    List<AuctionBid> getBids(int storeId, int productId); // oldest first
+    void clearAllData();
+}
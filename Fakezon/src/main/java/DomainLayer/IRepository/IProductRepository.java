@@ -1,6 +1,7 @@
 package DomainLayer.IRepository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import ApplicationLayer.Enums.PCategory;
@@ -14,6 +15,7 @@ public interface IProductRepository {
     IProduct getProductById(int productId);
     Collection<IProduct> getAllProducts(); 
     Collection<IProduct> searchProducts(String keyword); 
+    List<Integer> searchProductIds(String keyword); // same matches as searchProducts, without loading them
     Collection<IProduct> getProductsByCategory(PCategory category); // Get all products in a specific category
     Collection<IProduct> searchProductsByName(String name); // Search products by name
     void clearAllData();
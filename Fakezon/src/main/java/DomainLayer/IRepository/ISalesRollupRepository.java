@@ -0,0 +1,30 @@
+package DomainLayer.IRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import DomainLayer.Interfaces.IOrder;
+import DomainLayer.Model.ProductSalesDay;
+import DomainLayer.Model.StoreBuyerDay;
+import DomainLayer.Model.StoreSalesDay;
+import DomainLayer.Model.helpers.ProductSalesTotal;
+
+public interface ISalesRollupRepository {
+    void addPendingOrders(Collection<Integer> orderIds); // joins the caller's transaction, so they commit with the orders
+    List<Integer> getPendingOrderIds(int limit, int maxAttempts); // oldest first, those failed maxAttempts times left out
+    List<IOrder> getOrders(Collection<Integer> orderIds); // with their products; deleted orders left out
+    int recordFailedAttempt(int orderId); // returns the order's failed attempts so far
+    long countPendingOrders();
+    // Queues every stored order when nothing was ever rolled up or queued (rollups added to an existing database); returns how many
+    int backfillPendingOrders();
+    // Adds each store and product day onto the stored row with the same key, creating it if missing, and removes the
+    // rolled up orders from the pending ones in the same transaction.
+    // Buyers already recorded for their store and day are skipped; each new one raises that day's buyer count.
+    void addSales(Collection<StoreSalesDay> storeDays, Collection<ProductSalesDay> productDays, Collection<StoreBuyerDay> buyers,
+            Collection<Integer> rolledUpOrderIds);
+    List<StoreSalesDay> getStoreSalesDays(int storeId, LocalDate from, LocalDate to); // by date, days without sales left out
+    List<ProductSalesTotal> getTopProducts(int storeId, LocalDate from, LocalDate to, int limit); // by revenue, highest first
+    long countBuyers(int storeId, LocalDate from, LocalDate to); // distinct over the whole range
+    void clearAllData();
+}
@@ -0,0 +1,21 @@
+package DomainLayer.IRepository;
+
+import java.util.Collection;
+import java.util.Map;
+
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.StoreProductView;
+
+// Read side of the store products for browsing - rows straight from the tables, no Store is loaded.
+// findByKey and isStoreOpen may be served from a cache, so a product page can show stock a little behind;
+// findAllByKeys backs the cart check before checkout and always reads the database.
+public interface IStoreProductRepository {
+    StoreProductView findByKey(int storeId, int productId); // null if the store has no such product
+    Map<StoreProductKey, StoreProductView> findAllByKeys(Collection<StoreProductKey> keys); // one query; missing keys are left out
+    Boolean isStoreOpen(int storeId); // null if there is no such store
+
+    // Called after writes; the next read of what was evicted goes to the database
+    void evictProduct(int storeId, int productId);
+    void evictStore(int storeId); // the open flag and every product of the store
+    void evictAll();
+}
@@ -1,14 +1,32 @@
 package DomainLayer.IRepository;
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.Offer;
 import DomainLayer.Model.Store;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
+import DomainLayer.Model.helpers.ProductSearchPage;
 import java.util.Collection;
+import java.util.List;
 
 public interface IStoreRepository {
-    Store findById(int storeID);
+    Store findById(int storeID, StoreFetchProfile profile); // loads what the profile names, one query per collection
+    List<Store> findAllById(Collection<Integer> storeIds, StoreFetchProfile profile); // same queries for all the stores; unknown IDs are skipped
+    List<Offer> findOffers(int storeID, int userId); // every offer the user has in the store, any status
     Store findByName(String storeName);
     Collection<Store> getAllStores();
     void addStore(Store store);
     void save(Store store);
     void delete(int storeID);
     Collection<Store> getTop10Stores();
+    List<Store> findTopRatedStores(int limit); // highest average first, then unrated ones to fill the limit
+    void updateStoreRanking(int storeId, double averageRating); // applied once the transaction commits
     void clearAllData();
+    Collection<AuctionProduct> getPendingAuctionProducts(); // auctions that were not marked done yet
+    boolean decrementStockIfAvailable(int storeId, int productId, int quantity); // atomic, false if not enough stock
+    void incrementStock(int storeId, int productId, int quantity);
+    ProductSearchPage searchStoreProducts(ProductSearchCriteria criteria); // open stores only, one page plus facet counts
+    List<StoreProduct> findTopRatedProducts(int limit); // highest average first, then unrated ones to fill the limit
+    void updateProductRanking(int storeId, int productId, double averageRating); // applied once the transaction commits
+    void removeFromProductRanking(int storeId, int productId);
 }
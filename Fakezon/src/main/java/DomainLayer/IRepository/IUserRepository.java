@@ -1,11 +1,14 @@
 package DomainLayer.IRepository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import DomainLayer.Enums.RoleName;
 import DomainLayer.Model.Registered;
 import DomainLayer.Model.User;
+import DomainLayer.Model.helpers.UserNotification;
 
 public interface IUserRepository {
     Optional<Registered> findByUserName(String email);
@@ -24,6 +27,15 @@ public interface IUserRepository {
 
     List<Registered> UsersWithRolesInStoreId(int storeID);
 
+    /**
+     * Find the users holding one of the given roles in a store
+     * 
+     * @param storeID The ID of the store
+     * @param roles   The role names to match
+     * @return The matching users
+     */
+    List<Registered> findByStoreIdAndRole(int storeID, Collection<RoleName> roles);
+
     Optional<User> findAllById(int userID); // Added method to find user by ID as String
 
     /**
@@ -175,6 +187,33 @@ public interface IUserRepository {
      */
     User save(User user);
 
+    /**
+     * Store messages for any number of registered users in one go, without loading the users
+     * 
+     * @param notifications The messages to store, each with the mailbox it goes to; the
+     *                      generated message IDs are set on the messages
+     */
+    void addMessages(List<UserNotification> notifications);
+
+    /**
+     * Take a message out of the user's store, assignment or offer mailbox, leaving the rest of
+     * the mailboxes as stored (messages added since the user was loaded included)
+     *
+     * @return true if the user had the message
+     */
+    boolean removeMessage(int userId, int msgId);
+
+    /**
+     * Take the store's assignment messages out of the user's assignment mailbox
+     */
+    void removeAssignmentMessages(int userId, int storeId);
+
+    /**
+     * Take the user's oldest message about an offer by offeredBy on the store's product out of
+     * the offer mailbox
+     */
+    void removeOfferMessage(int userId, int storeId, int productId, int offeredBy);
+
     /**
      * Get the next available userId from the registered_users table
      * @return next available userId (max+1)
@@ -1,5 +1,13 @@
 package DomainLayer.Interfaces;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IDelivery {
     int deliver(String country, String address, String recipient, String packageDetails);
+
+    // Same result as deliver, completed when the delivery system answers; the caller's thread is never blocked
+    CompletableFuture<Integer> deliverAsync(String country, String address, String recipient, String packageDetails);
+
+    // Cancels the package of a delivery transaction; 1 when cancelled, -1 otherwise
+    CompletableFuture<Integer> cancelAsync(int transactionId);
 }
@@ -1,5 +1,6 @@
 package DomainLayer.Interfaces;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -23,4 +24,5 @@ public interface IOrder {
     double getTotalPrice();
     int getPaymentTransactionId();
     int getDeliveryTransactionId();
+    LocalDateTime getCreatedAt();
 }
@@ -1,9 +1,14 @@
 package DomainLayer.Interfaces;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+
+import DomainLayer.Enums.OrderState;
 
 public interface IOrderRepository {
         void addOrder(IOrder Order);
+        void addOrders(Collection<IOrder> orders);
         void deleteOrder(int orderId);
         IOrder getOrder(int orderId);
         void clearAllData();
@@ -11,5 +16,13 @@ public interface IOrderRepository {
         
         Collection<IOrder> getAllOrders();
         Collection<IOrder> getOrdersByUserId(int userId);
+        Collection<IOrder> getOrdersByStoreId(int storeId);
+
+        // One page of orders, newest first; page counts from 0.
+        List<IOrder> getOrdersByStoreId(int storeId, int page, int size);
+        List<IOrder> getOrdersByStoreId(int storeId, LocalDateTime from, LocalDateTime to, int page, int size);
+        List<IOrder> getOrdersByUserId(int userId, int page, int size);
+        List<IOrder> getOrdersByState(OrderState state, int page, int size);
+        List<IOrder> searchOrders(String keyword, int page, int size);
 
 }
\ No newline at end of file
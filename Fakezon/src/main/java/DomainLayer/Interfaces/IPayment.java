@@ -1,7 +1,14 @@
 package DomainLayer.Interfaces;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IPayment {
     int pay(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int userId);
 
     int refund(int transactionId);
+
+    // Same results as pay/refund, completed when the payment system answers; the caller's thread is never blocked
+    CompletableFuture<Integer> payAsync(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int userId);
+
+    CompletableFuture<Integer> refundAsync(int transactionId);
 }
@@ -117,8 +117,6 @@ public interface IStore {
 
     Map<StoreProductDTO, Boolean> checkIfProductsInStore(int userID, Map<Integer,Integer> products);
 
-    Map<StoreProductDTO, Boolean> decrementProductsInStore(int userId, Map<Integer,Integer> productsToBuy);
-
     void returnProductsToStore(int userId, Map<Integer,Integer> products);
 
     List<ProductRating> getStoreProductAllRatings(int productId);
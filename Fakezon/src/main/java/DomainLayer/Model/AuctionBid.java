@@ -0,0 +1,76 @@
+package DomainLayer.Model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// One accepted bid, appended to the bid journal of its auction
+@Entity
+@Table(name = "auction_bids", indexes = {
+    @Index(name = "idx_auction_bids_auction", columnList = "store_id, product_id")
+})
+public class AuctionBid {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "amount", nullable = false)
+    private double amount;
+
+    @Column(name = "placed_at", nullable = false)
+    private LocalDateTime placedAt;
+
+    @Transient
+    private int outbidUserId = -1; // who held the highest bid before this one, told once the bid is stored
+
+    // Default constructor for JPA
+    protected AuctionBid() {
+    }
+
+    public AuctionBid(int storeId, int productId, int userId, double amount, LocalDateTime placedAt, int outbidUserId) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.userId = userId;
+        this.amount = amount;
+        this.placedAt = placedAt;
+        this.outbidUserId = outbidUserId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public int getOutbidUserId() {
+        return outbidUserId;
+    }
+}
@@ -1,5 +1,6 @@
 package DomainLayer.Model;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,9 @@ public class AuctionProduct {
     @Column(nullable = false)
     private boolean isDone;
 
+    @Column(name = "end_time")
+    private LocalDateTime endTime; // persisted deadline so pending auctions can be rescheduled after restart
+
     // Default constructor for JPA
     public AuctionProduct() {}
 
@@ -39,6 +43,7 @@ public class AuctionProduct {
         this.minutesToEnd = minutesToEnd;
         this.userIDHighestBid = -1; // No bids yet
         this.isDone = false;
+        this.endTime = LocalDateTime.now().plusMinutes(minutesToEnd);
     }
 
     public int getId() {
@@ -64,6 +69,10 @@ public class AuctionProduct {
         return userIDHighestBid;
     }
 
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
     public boolean isDone() {
         return isDone;
     }
@@ -87,6 +96,9 @@ public class AuctionProduct {
             throw new IllegalArgumentException("Added minutes must be greater than 0");
         }
         minutesToEnd += minutes;
+        if (endTime != null) {
+            endTime = endTime.plusMinutes(minutes);
+        }
     }
 
     public StoreProductDTO toDTO(int storeId) {
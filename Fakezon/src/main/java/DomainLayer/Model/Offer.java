@@ -8,7 +8,9 @@ import java.util.ArrayList;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "offers")
+@Table(name = "offers", indexes = {
+    @Index(name = "idx_offers_store_user", columnList = "store_id, user_id, product_id")
+})
 public class Offer {
     
     @Id
@@ -1,5 +1,6 @@
 package DomainLayer.Model;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -10,13 +11,22 @@ import DomainLayer.Enums.OrderState;
 import DomainLayer.Enums.PaymentMethod;
 import DomainLayer.Interfaces.IOrder;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // listings page through a store's or user's orders newest (highest ID) first
+    @Index(name = "idx_orders_store", columnList = "store_id, order_id"),
+    @Index(name = "idx_orders_store_created", columnList = "store_id, created_at"),
+    @Index(name = "idx_orders_user", columnList = "user_id, order_id"),
+    @Index(name = "idx_orders_state", columnList = "order_state, order_id")
+})
 public class Order implements IOrder{
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50) // pooled, so inserts can be batched
     @Column(name = "order_id")
     private int orderId;
     
@@ -34,6 +44,7 @@ public class Order implements IOrder{
     private double totalPrice;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50) // a page of orders loads its products in one query, not one per order
     private List<OrderedProduct> products;
     
     @Enumerated(EnumType.STRING)
@@ -53,6 +64,9 @@ public class Order implements IOrder{
     @Column(name = "delivery_transaction_id")
     private int deliveryTransactionId;
 
+    @Column(name = "created_at", updatable = false) // null on orders written before it was added
+    private LocalDateTime createdAt;
+
     // Default constructor for JPA
     protected Order() {
         // JPA will populate fields
@@ -68,6 +82,7 @@ public class Order implements IOrder{
         this.totalPrice = totalPrice;
         this.paymentTransactionId = paymentTransactionId;
         this.deliveryTransactionId = deliveryTransactionId;
+        this.createdAt = LocalDateTime.now();
         // Set up bidirectional relationship
         if (products != null) {
             for (OrderedProduct product : products) {
@@ -87,6 +102,7 @@ public class Order implements IOrder{
         this.totalPrice = totalPrice;
         this.paymentTransactionId = paymentTransactionId;
         this.deliveryTransactionId = deliveryTransactionId;
+        this.createdAt = LocalDateTime.now();
         // Set up bidirectional relationship
         if (products != null) {
             for (OrderedProduct product : products) {
@@ -169,6 +185,11 @@ public class Order implements IOrder{
         return deliveryTransactionId;
     }
 
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -6,10 +6,14 @@ import jakarta.persistence.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "ordered_products")
+@Table(name = "ordered_products", indexes = {
+    @Index(name = "idx_ordered_products_order", columnList = "order_id"),
+    @Index(name = "idx_ordered_products_product", columnList = "product_id")
+})
 public class OrderedProduct {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordered_products_seq")
+    @SequenceGenerator(name = "ordered_products_seq", sequenceName = "ordered_products_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
@@ -0,0 +1,35 @@
+package DomainLayer.Model;
+
+import jakarta.persistence.*;
+
+// An order whose sales are not in the rollups yet; written in the order's own transaction, so a crash cannot lose it
+@Entity
+@Table(name = "pending_sales")
+public class PendingSale {
+    @Id
+    @Column(name = "order_id")
+    private int orderId;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // failed rollup writes so far
+
+    // Default constructor for JPA
+    protected PendingSale() {
+    }
+
+    public PendingSale(int orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void recordFailedAttempt() {
+        attempts++;
+    }
+}
@@ -0,0 +1,84 @@
+package DomainLayer.Model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+
+// One product's sales in one store on one day; revenue is at the price on the order line, before store discounts
+@Entity
+@Table(name = "product_sales_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_product_sales_daily", columnNames = {"store_id", "sales_date", "product_id"})
+})
+public class ProductSalesDay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // Default constructor for JPA
+    protected ProductSalesDay() {
+    }
+
+    public ProductSalesDay(int storeId, LocalDate salesDate, int productId, String productName) {
+        this.storeId = storeId;
+        this.salesDate = salesDate;
+        this.productId = productId;
+        this.productName = productName;
+    }
+
+    public void add(String productName, double revenue, long units, long orders) {
+        this.productName = productName; // the latest name the product was sold under
+        this.revenue += revenue;
+        this.units += units;
+        this.orderCount += orders;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+}
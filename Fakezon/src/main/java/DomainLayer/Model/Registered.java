@@ -4,8 +4,10 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 
@@ -27,7 +29,8 @@ public class Registered extends User {
     protected Map<Integer, List<Integer>> productsPurchase = new HashMap<>(); // storeId -> List of productIDs
 
     @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_user_roles_store_role", columnList = "store_id, role_name"))
     private List<UserRole> userRoles = new ArrayList<>();
 
     @Column(name = "email", unique = true, nullable = false)
@@ -39,13 +42,16 @@ public class Registered extends User {
     @Column(name = "age")
     private int age;
 
+    // The mailboxes are sets, not bags: the notification pipeline inserts join rows directly, and a
+    // set changed in memory writes only the rows of the messages added or taken out, where a bag
+    // rewrites the whole collection (the repository takes messages out with SQL all the same)
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
         name = "registered_messages_from_store",
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "msg_id")
     )
-    private List<StoreMsg> messagesFromStore = new ArrayList<>(); // List to allow multiple messages
+    private Set<StoreMsg> messagesFromStore = new HashSet<>();
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
@@ -53,7 +59,7 @@ public class Registered extends User {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "msg_id")
     )
-    private List<StoreMsg> assignmentMessages = new ArrayList<>();
+    private Set<StoreMsg> assignmentMessages = new HashSet<>();
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
@@ -61,7 +67,7 @@ public class Registered extends User {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "msg_id")
     )
-    private List<StoreMsg> auctionEndedMessages = new ArrayList<>();
+    private Set<StoreMsg> auctionEndedMessages = new HashSet<>();
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
@@ -69,7 +75,7 @@ public class Registered extends User {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "msg_id")
     )
-    private List<StoreMsg> offersMessages = new ArrayList<>();
+    private Set<StoreMsg> offersMessages = new HashSet<>();
 
     // Default constructor for JPA
     protected Registered() {
@@ -196,6 +202,14 @@ public class Registered extends User {
         }
     }
 
+    public Set<Integer> getRoleStoreIds() {
+        Set<Integer> storeIds = new HashSet<>();
+        for (UserRole userRole : userRoles) {
+            storeIds.add(userRole.getStoreId());
+        }
+        return storeIds;
+    }
+
     public boolean didPurchaseStore(int storeID) {
         return productsPurchase.containsKey(storeID);
     }
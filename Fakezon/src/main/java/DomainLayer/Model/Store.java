@@ -1,11 +1,15 @@
 package DomainLayer.Model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.slf4j.Logger;
@@ -24,7 +28,6 @@ import DomainLayer.Model.helpers.AuctionEvents.AuctionDeclinedBidEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionEndedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionFailedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionGotHigherBidEvent;
-import DomainLayer.Model.helpers.AuctionEvents.AuctionSaveEvent;
 import DomainLayer.Model.helpers.OfferEvents.CounterOfferDeclineEvent;
 import DomainLayer.Model.helpers.OfferEvents.CounterOfferEvent;
 import DomainLayer.Model.helpers.OfferEvents.OfferAcceptedByAll;
@@ -32,21 +35,35 @@ import DomainLayer.Model.helpers.OfferEvents.OfferAcceptedSingleOwnerEvent;
 import DomainLayer.Model.helpers.OfferEvents.OfferDeclinedEvent;
 import DomainLayer.Model.helpers.OfferEvents.OfferReceivedEvent;
 import DomainLayer.Model.helpers.ClosingStoreEvent;
+import DomainLayer.Model.helpers.DiscountPlan;
 import DomainLayer.Model.helpers.Node;
+import DomainLayer.Model.helpers.OfferIndex;
 import DomainLayer.Model.helpers.ResponseFromStoreEvent;
 import DomainLayer.Model.helpers.Tree;
 import DomainLayer.Model.helpers.UserMsg;
 
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.time.LocalDate;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Entity
 @Table(name = "stores")
+// One collection per graph, so no graph multiplies rows; StoreRepository applies a StoreFetchProfile's graphs one query each
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "Store.header"),
+    @NamedEntityGraph(name = "Store.products", attributeNodes = @NamedAttributeNode("storeProducts")),
+    @NamedEntityGraph(name = "Store.discounts",
+        attributeNodes = @NamedAttributeNode(value = "discountPolicies", subgraph = "policy"),
+        subgraphs = @NamedSubgraph(name = "policy", attributeNodes = @NamedAttributeNode("scope"))),
+    @NamedEntityGraph(name = "Store.offers", attributeNodes = @NamedAttributeNode("allOffers")),
+    @NamedEntityGraph(name = "Store.auctions", attributeNodes = @NamedAttributeNode("auctionProducts")),
+    @NamedEntityGraph(name = "Store.owners", attributeNodes = @NamedAttributeNode("storeOwners")),
+    @NamedEntityGraph(name = "Store.managers", attributeNodes = @NamedAttributeNode("storeManagers")),
+    @NamedEntityGraph(name = "Store.inbox", attributeNodes = @NamedAttributeNode("messagesFromUsers"))
+})
 public class Store implements IStore {
 
     @Id
@@ -71,6 +88,15 @@ public class Store implements IStore {
     @JoinColumn(name = "store_id")
     @MapKeyColumn(name = "user_id")
     private Map<Integer, StoreRating> Sratings; // HASH userID to store rating
+
+    // Running totals of Sratings, so listings never need the ratings loaded
+    @Column(name = "rating_sum", nullable = false)
+    @ColumnDefault("0")
+    private double ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    @ColumnDefault("0")
+    private int ratingCount;
     
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)//LAZY
     @JoinColumn(name = "owner_store_id")
@@ -85,16 +111,22 @@ public class Store implements IStore {
     @Transient
     private HashMap<Integer, PurchasePolicy> purchasePolicies; // HASH policyID to purchase policy
     
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "store_id")
-    @MapKeyColumn(name = "policy_id")
+    @MapKey(name = "policyID") // the policy's own ID - a key column named policy_id would be nulled with the primary key on removal
     private Map<Integer, BaseDiscountPolicy> discountPolicies; // HASH policyID to discount policy
+
+    @Transient
+    private volatile DiscountPlan discountPlan; // compiled from discountPolicies, null until needed or after a change
+
+    @Transient
+    private boolean discountScopesBound; // whether the loaded policies' scopes were given storeProducts yet
     
     //@ElementCollection
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "store_owners", joinColumns = @JoinColumn(name = "store_id"))
     @Column(name = "owner_id")
-    private List<Integer> storeOwners;
+    private Set<Integer> storeOwners;
     
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "pending_owners", joinColumns = @JoinColumn(name = "store_id"))
@@ -102,23 +134,22 @@ public class Store implements IStore {
     @Column(name = "appointor_id")
     private Map<Integer, Integer> pendingOwners; // appointee : appointor
     
-    // Store managers permissions - simplified for now
+    // Store managers permissions, one bit per StoreManagerPermission (see StoreManagerPermission.toMask)
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(
-        name = "store_manager_permissions",
+        name = "store_manager_permission_masks",
         joinColumns = @JoinColumn(name = "store_id")
     )
     @MapKeyColumn(name = "user_id")
-    @Column(name = "permission")
-    @Enumerated(EnumType.STRING)
-    private Map<Integer, List<StoreManagerPermission>> storeManagers; // HASH userID to store manager perms
+    @Column(name = "permissions", nullable = false)
+    private Map<Integer, Integer> storeManagers; // HASH userID to store manager perms mask
     
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "roles_tree_id")
     private Tree rolesTree;
 
         
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "store_id")
     private List<UserMsg> messagesFromUsers; // List for persistence
      
@@ -142,13 +173,12 @@ public class Store implements IStore {
     
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(
-        name = "pending_manager_permissions",
+        name = "pending_manager_permission_masks",
         joinColumns = @JoinColumn(name = "store_id")
     )
     @MapKeyColumn(name = "user_id")
-    @Column(name = "permission")
-    @Enumerated(EnumType.STRING)
-    private Map<Integer, List<StoreManagerPermission>> pendingManagersPerms; // HASH userID to PENDING store manager perms
+    @Column(name = "permissions", nullable = false)
+    private Map<Integer, Integer> pendingManagersPerms; // HASH userID to PENDING store manager perms mask
     
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "pending_managers", joinColumns = @JoinColumn(name = "store_id"))
@@ -156,19 +186,16 @@ public class Store implements IStore {
     @Column(name = "appointor_id")
     private Map<Integer, Integer> pendingManagers; // appointee : appointor
     
-    @Transient
-    private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    
     @OneToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "store_id")
     private List<Offer> allOffers = new ArrayList<>(); // All offers for this store (both regular and pending)
     
     @Transient
-    private Map<Integer, List<Offer>> offersOnProducts; // userId -> List of offers they submited (derived from allOffers) 
+    private OfferIndex offerIndex = new OfferIndex(); // allOffers by user and product, filled per user on first use
     @Transient
     private final ReentrantLock offersLock = new ReentrantLock();
     @Transient
-    private Map<Integer, List<Offer>> pendingOffers; // userId -> List of COUNTER offers waiting for the user to accept (derived from allPendingOffers)
+    private Function<Integer, List<Offer>> offerLoader; // userId -> their offers in this store, set by the repository
 
     
     // Default constructor for JPA
@@ -195,7 +222,7 @@ public class Store implements IStore {
     }
 
     private void initializeCollections() {
-        this.storeOwners = new ArrayList<>();
+        this.storeOwners = new LinkedHashSet<>();
         this.storeManagers = new HashMap<>();
         this.Sratings = new HashMap<>();
         this.storeProducts = new HashMap<>();
@@ -213,19 +240,16 @@ public class Store implements IStore {
         }
         this.messagesFromUsers = new ArrayList<>();
         this.allOffers = new ArrayList<>();
-        rebuildOffersOnProductsMap();
-        rebuildPendingOffersMap();
+        this.offerIndex = new OfferIndex();
     }
 
     @PostLoad
     private void initializeTransientFields() {
         this.purchasePolicies = new HashMap<>();
-        // Update transient storeProducts reference in discount scopes
-        updateDiscountScopesStoreProducts();
-        
-        rebuildOffersOnProductsMap(); // Build from persistent allOffers
-        rebuildPendingOffersMap(); // Build from persistent allPendingOffers
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        // discountPolicies and allOffers may not be loaded yet (see StoreFetchProfile) - the scopes are
+        // bound in discountPolicies(), and each user's offers indexed when they are first needed
+        this.discountScopesBound = false;
+        this.offerIndex = new OfferIndex();
         this.publisher = null; // Will be injected/set when needed
         // rolesTree is now persistent and handled by JPA
         if (rolesTree == null && storeFounderID != 0) {
@@ -233,6 +257,15 @@ public class Store implements IStore {
         }
     }
     
+    // The discount policies, with their scopes bound to this store's products the first time they are used after loading
+    private Map<Integer, BaseDiscountPolicy> discountPolicies() {
+        if (!discountScopesBound) {
+            updateDiscountScopesStoreProducts();
+            discountScopesBound = true;
+        }
+        return discountPolicies;
+    }
+
     // Update storeProducts reference in discount scopes after loading from DB
     private void updateDiscountScopesStoreProducts() {
         if (discountPolicies != null && storeProducts != null) {
@@ -247,38 +280,22 @@ public class Store implements IStore {
         }
     }
     
-    // Rebuild the offersOnProducts map from the persistent allOffers list (filtered by REGULAR type and not handled)
-    private void rebuildOffersOnProductsMap() {
-        if (this.offersOnProducts == null) {
-            this.offersOnProducts = new HashMap<>();
+    // Indexes the user's offers unless they already are: read from the offers table while allOffers is not
+    // loaded, so one user's offers don't load every offer made to the store. Caller must hold offersLock
+    private void loadOffersOf(int userId) {
+        if (offerIndex.isLoaded(userId)) {
+            return;
+        }
+        if (offerLoader != null && !Hibernate.isInitialized(allOffers)) {
+            offerIndex.load(userId, offerLoader.apply(userId));
         } else {
-            this.offersOnProducts.clear();
-        }
-        if (allOffers != null) {
-            for (Offer offer : allOffers) {
-                if ("REGULAR".equals(offer.getOfferType()) && !offer.isHandled()) {
-                    int userId = offer.getUserId();
-                    offersOnProducts.computeIfAbsent(userId, k -> new ArrayList<>()).add(offer);
-                }
-            }
+            offerIndex.load(userId, allOffers != null ? allOffers : List.of());
         }
     }
-    
-    // Rebuild the pendingOffers map from the persistent allOffers list (filtered by PENDING type and not handled)
-    private void rebuildPendingOffersMap() {
-        if (this.pendingOffers == null) {
-            this.pendingOffers = new HashMap<>();
-        } else {
-            this.pendingOffers.clear();
-        }
-        if (allOffers != null) {
-            for (Offer offer : allOffers) {
-                if ("PENDING".equals(offer.getOfferType()) && !offer.isHandled()) {
-                    int userId = offer.getUserId();
-                    pendingOffers.computeIfAbsent(userId, k -> new ArrayList<>()).add(offer);
-                }
-            }
-        }
+
+    // Caller must hold offersLock
+    private void loadAllOffers() {
+        offerIndex.loadAll(allOffers != null ? allOffers : List.of());
     }
 
     @Override
@@ -296,12 +313,20 @@ public class Store implements IStore {
     @Override
     public void addRating(int userID, double rating, String comment) {
         ratingLock.lock();
-        if (Sratings.containsKey(userID)) {
-            Sratings.get(userID).updateRating(rating, comment);
-        } else {
-            Sratings.put(userID, new StoreRating(userID, rating, comment));
+        try {
+            if (Sratings.containsKey(userID)) {
+                StoreRating existing = Sratings.get(userID);
+                double previous = existing.getRating();
+                existing.updateRating(rating, comment);
+                ratingSum += rating - previous;
+            } else {
+                Sratings.put(userID, new StoreRating(userID, rating, comment));
+                ratingSum += rating;
+                ratingCount++;
+            }
+        } finally {
+            ratingLock.unlock();
         }
-        ratingLock.unlock();
     }
 
     @Override
@@ -373,6 +398,7 @@ public class Store implements IStore {
 
             StoreProduct storeProduct = new StoreProduct(productID, storeID, name, basePrice, quantity, category);
             storeProducts.put(new StoreProductKey(storeID, productID), storeProduct);
+            discountPlan = null;
             return new StoreProductDTO(storeProduct); //returns the productDTO
         }
         catch(Exception e){
@@ -405,6 +431,7 @@ public class Store implements IStore {
             StoreProduct storeProduct = storeProducts.get(new StoreProductKey(storeID, productID));
             storeProduct.setQuantity(quantity);
             storeProduct.setBasePrice(basePrice);
+            discountPlan = null;
         }
         catch(Exception e){
             throw e;
@@ -437,6 +464,7 @@ public class Store implements IStore {
                 auctionProducts.remove(new StoreProductKey(storeID, productID));
             }
             storeProducts.remove(new StoreProductKey(storeID, productID));
+            discountPlan = null;
         }
         catch(Exception e){
             throw e;
@@ -454,7 +482,7 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.PURCHASE_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.PURCHASE_POLICY)) {
                 purchasePolicies.put(purchasePolicy.getPolicyID(), purchasePolicy);
             } else {
                 throw new IllegalArgumentException(
@@ -471,10 +499,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new SimpleDiscount(0, percentage,
                      new ProductsDiscountScope(productIDs, storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -487,10 +516,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new SimpleDiscount(0, percentage,
                      new StoreDiscountScope(storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -503,10 +533,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new AndDiscount(0, conditions, percentage,
                      new ProductsDiscountScope(productIDs, storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -519,10 +550,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new AndDiscount(0, conditions, percentage,
                      new StoreDiscountScope(storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -535,10 +567,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new AndDiscount(0, conditions, percentage,
                      new ProductsDiscountScope(productIDs, storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -551,10 +584,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new AndDiscount(0, conditions, percentage,
                      new StoreDiscountScope(storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -567,10 +601,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new OrDiscount(0, conditions, percentage,
                      new ProductsDiscountScope(productIDs, storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -583,10 +618,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new OrDiscount(0, conditions, percentage,
                      new StoreDiscountScope(storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -599,10 +635,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new XorDiscount(0, conditions, percentage,
                      new ProductsDiscountScope(productIDs, storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -615,10 +652,11 @@ public class Store implements IStore {
         rolesLock.lock();
         try{
             if (isOwner(userID)
-                    || (isManager(userID) && storeManagers.get(userID).contains(StoreManagerPermission.DISCOUNT_POLICY))) {
+                    || hasManagerPermission(userID, StoreManagerPermission.DISCOUNT_POLICY)) {
                 BaseDiscountPolicy discountPolicy = new XorDiscount(0, conditions, percentage,
                      new StoreDiscountScope(storeID, storeProducts));
-                discountPolicies.put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPolicies().put(discountPolicy.getPolicyID(), discountPolicy);
+                discountPlan = null;
             }
         }
         finally{
@@ -664,10 +702,7 @@ public class Store implements IStore {
                 // In production (JPA), use the auto-generated ID
                 auctionProducts.put(auctionMapKey, auctionProduct);
                 System.out.println("Auction product added with ID: " + auctionMapKey);
-                
-                scheduler.schedule(() -> {
-                    handleAuctionEnd(productID);
-                }, MinutesToEnd, TimeUnit.MINUTES);
+                // the auction deadline is owned by the application-wide AuctionTimerService (scheduled by StoreService)
 
             } else {
                 throw new IllegalArgumentException(
@@ -715,6 +750,16 @@ public class Store implements IStore {
         }
     }
 
+    public AuctionProduct getAuctionProduct(int productID) {
+        productsLock.lock();
+        try {
+            return auctionProducts.get(new StoreProductKey(storeID, productID));
+        }
+        finally {
+            productsLock.unlock();
+        }
+    }
+
     public List<AuctionProduct> getAuctionProducts() {
         productsLock.lock();
         List<AuctionProduct> prods = new ArrayList<>(auctionProducts.values());
@@ -777,22 +822,6 @@ public class Store implements IStore {
 
     }
 
-    private void handleAuctionEnd(int productID) {
-        System.out.println("handleAuctionEnd Triggered");
-        productsLock.lock();
-        try{    
-            this.publisher.publishEvent(new AuctionSaveEvent(storeID, productID));
-            //getAuctionAfterAnded(productID);
-        }
-
-        catch(Exception e){
-            throw e;
-        }
-        finally{
-            productsLock.unlock();
-        }
-    }
-
     @Override
     public void receivingMessage(int userID, String message) {
         UserMsg userMsg = new UserMsg(userID, message);
@@ -803,8 +832,7 @@ public class Store implements IStore {
     public void sendMessage(int managerId, int userID, String message) {
         rolesLock.lock();
         try {
-            if (isOwner(managerId) || (isManager(managerId)
-                    && storeManagers.get(managerId).contains(StoreManagerPermission.REQUESTS_REPLY))) {
+            if (isOwner(managerId) || hasManagerPermission(managerId, StoreManagerPermission.REQUESTS_REPLY)) {
                 this.publisher.publishEvent(new ResponseFromStoreEvent(this.storeID, userID, message));
 
             } else {
@@ -825,8 +853,7 @@ public class Store implements IStore {
     public Map<Integer,UserMsg> getMessagesFromUsers(int managerId) {
         rolesLock.lock();
         try {
-            if (isOwner(managerId) || (isManager(managerId)
-                    && storeManagers.get(managerId).contains(StoreManagerPermission.REQUESTS_REPLY))) {
+            if (isOwner(managerId) || hasManagerPermission(managerId, StoreManagerPermission.REQUESTS_REPLY)) {
                 Map<Integer, UserMsg> map = new HashMap<>();
                 for (UserMsg msg : messagesFromUsers) {
                     map.put(msg.getMsgId(), msg);
@@ -863,15 +890,14 @@ public class Store implements IStore {
 
     @Override
     public HashMap<Integer, IDiscountPolicy> getDiscountPolicies() {
-        return new HashMap<>(discountPolicies);
+        return new HashMap<>(discountPolicies());
     }
 
     @Override
     public List<Integer> getStoreOwners(int requesterId) {
         rolesLock.lock();
         try {
-            if (isOwner(requesterId) || (isManager(requesterId)
-                    && storeManagers.get(requesterId).contains(StoreManagerPermission.VIEW_ROLES))) {
+            if (isOwner(requesterId) || hasManagerPermission(requesterId, StoreManagerPermission.VIEW_ROLES)) {
                 List<Integer> ownersCopy = new ArrayList<>(storeOwners); // copy of store owners
                 return ownersCopy;
             } else {
@@ -894,8 +920,8 @@ public class Store implements IStore {
     // DO NOT ACCESS WITHOUT ROLESLOCK ACQUIRED
     private HashMap<Integer, List<StoreManagerPermission>> copyStoreManagersMap() {
         HashMap<Integer, List<StoreManagerPermission>> copy = new HashMap<>();
-        for (Integer id : storeManagers.keySet()) {
-            copy.put(id, new ArrayList<>(storeManagers.get(id)));
+        for (Map.Entry<Integer, Integer> manager : storeManagers.entrySet()) {
+            copy.put(manager.getKey(), new ArrayList<>(StoreManagerPermission.fromMask(manager.getValue())));
         }
         return copy;
     }
@@ -904,8 +930,7 @@ public class Store implements IStore {
     public HashMap<Integer, List<StoreManagerPermission>> getStoreManagers(int requesterId) {
         rolesLock.lock();
         try {
-            if (isOwner(requesterId) || (isManager(requesterId)
-                    && storeManagers.get(requesterId).contains(StoreManagerPermission.VIEW_ROLES))) {
+            if (isOwner(requesterId) || hasManagerPermission(requesterId, StoreManagerPermission.VIEW_ROLES)) {
                 HashMap<Integer, List<StoreManagerPermission>> managersCopy = copyStoreManagersMap();
                 return managersCopy;
             } else {
@@ -1033,7 +1058,7 @@ public class Store implements IStore {
             if (perms == null || perms.isEmpty()) {
                 throw new IllegalArgumentException("Permissions list is empty");
             }
-            pendingManagersPerms.put(appointee, new ArrayList<>(perms));
+            pendingManagersPerms.put(appointee, StoreManagerPermission.toMask(perms));
             pendingManagers.put(appointee, appointor);
             this.publisher.publishEvent(new AssignmentEvent(storeID, appointee, RoleName.STORE_MANAGER));
         }
@@ -1058,9 +1083,9 @@ public class Store implements IStore {
             throw new IllegalArgumentException(
                     "User with ID: " + appointee + " is already a store owner/manager for store with ID: " + storeID);
         }
-        List<StoreManagerPermission> perms = pendingManagersPerms.remove(appointee);
+        Integer perms = pendingManagersPerms.remove(appointee);
         pendingManagers.remove(appointee);
-        if (perms == null || perms.isEmpty())
+        if (perms == null || perms == 0)
             throw new IllegalArgumentException("Permissions can not be empty"); // shouldn't happen
         storeManagers.put(appointee, perms);
         rolesTree.addNode(appointor, appointee);
@@ -1147,11 +1172,7 @@ public class Store implements IStore {
                         "Manager ID: " + requesterId + " is not a valid store manager for store ID: " + storeID);
             }
             checkNodesValidity(requesterId, managerId); // no need to hold the nodes here
-            List<StoreManagerPermission> currentPerms = storeManagers.get(managerId);
-            for (StoreManagerPermission perm : perms) {
-                if (!currentPerms.contains(perm))
-                    currentPerms.add(perm);
-            }
+            storeManagers.put(managerId, storeManagers.get(managerId) | StoreManagerPermission.toMask(perms));
 
         }
         catch(Exception e){
@@ -1175,21 +1196,19 @@ public class Store implements IStore {
                         "Manager ID: " + requesterId + " is not a valid store manager for store ID: " + storeID);
             }
             checkNodesValidity(requesterId, managerId); // no need to hold the nodes here
-            List<StoreManagerPermission> currentPerms = storeManagers.get(managerId);
-            List<StoreManagerPermission> copyCurrentPerms = new ArrayList<>(currentPerms);
+            int currentPerms = storeManagers.get(managerId);
             for (StoreManagerPermission perm : toRemove) {
-                if (!currentPerms.contains(perm)) {
-                    storeManagers.put(managerId, copyCurrentPerms); // restore initial perms because method failed
+                if (!perm.isIn(currentPerms)) {
                     throw new IllegalArgumentException("can not remove permission: " + perm + " because manager: "
                             + managerId + " does not have it. permissions reseted to original");
                 }
-                currentPerms.remove(perm);
             }
-            if (currentPerms.isEmpty()) {
-                storeManagers.put(managerId, copyCurrentPerms); // restore initial perms because method failed
+            int remainingPerms = currentPerms & ~StoreManagerPermission.toMask(toRemove);
+            if (remainingPerms == 0) {
                 throw new IllegalArgumentException(
                         "permissions can not be empty. reseting manager: " + managerId + " permissions to original");
             }
+            storeManagers.put(managerId, remainingPerms);
 
         }
         catch(Exception e){
@@ -1280,14 +1299,11 @@ public class Store implements IStore {
 
     @Override
     public double getAverageRating() {
-        if (Sratings == null || Sratings.isEmpty()) {
-            return 0;
-        }
-        double sum = 0;
-        for (StoreRating rating : Sratings.values()) {
-            sum += rating.getRating();
-        }
-        return sum / Sratings.size();
+        return ratingCount == 0 ? 0 : ratingSum / ratingCount;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
     }
 
     @Override
@@ -1326,12 +1342,10 @@ public class Store implements IStore {
             Node[] nodesArr = checkNodesValidity(requesterId, toRemoveId);
             Node fatherNode = nodesArr[0];
             Node childNode = nodesArr[1];
-            storeOwners.remove(Integer.valueOf(childNode.getId())); // WRAPPED AS INTEGER BECAUSE OTHERWISE JAVA WANTS
-                                                                    // TO
-                                                                    // REMOVE AS INDEX - DO NOT CHANGE!!
-            removeAllChildrenRoles(childNode); // remove all children from their respective roles list/hashmap
+            storeOwners.remove(childNode.getId());
+            removeAllChildrenRoles(childNode); // remove all children from their respective roles set/hashmap
             if (requesterId != toRemoveId)
-                fatherNode.removeChild(childNode); // remove child & all descendants from the actual tree
+                rolesTree.removeNode(fatherNode, childNode); // remove child & all descendants from the actual tree
 
             removeOwnerFromAllOffers(toRemoveId);
         }
@@ -1360,7 +1374,7 @@ public class Store implements IStore {
                 throw new IllegalArgumentException("Manager with id " + toRemoveId + " has children in rolesTree");
             }
             storeManagers.remove(toRemoveId);
-            fatherNode.removeChild(childNode);// remove child from the actual tree
+            rolesTree.removeNode(fatherNode, childNode);// remove child from the actual tree
 
         }
         catch(Exception e){
@@ -1375,16 +1389,11 @@ public class Store implements IStore {
         List<Node> children = toRemove.getAllDescendants();
         for (Node child : children) {
             int childId = child.getId();
-            if (storeOwners.contains(childId)) {
-                storeOwners.remove(Integer.valueOf(childId));// WRAPPED AS INTEGER BECAUSE OTHERWISE JAVA WANTS TO
-                                                             // REMOVE AS INDEX - DO NOT CHANGE!!
-            } else {
-                if (storeManagers.containsKey(childId)) {
-                    storeManagers.remove(childId);
-                } else {
+            if (!storeOwners.remove(childId)) {
+                if (storeManagers.remove(childId) == null) {
                     throw new IllegalArgumentException("Node with id " + toRemove.getId() + " has descendant with id "
-                            + childId + " with no roles on owners list/managers hashmap"); // should not happen - just
-                                                                                           // for debugging purposes
+                            + childId + " with no roles on owners set/managers hashmap"); // should not happen - just
+                                                                                          // for debugging purposes
                 }
             }
         }
@@ -1422,7 +1431,18 @@ public class Store implements IStore {
     }
 
     private boolean hasInventoryPermissions(int id) {
-        return (isOwner(id) || (isManager(id) && storeManagers.get(id).contains(StoreManagerPermission.INVENTORY)));
+        return (isOwner(id) || hasManagerPermission(id, StoreManagerPermission.INVENTORY));
+    }
+
+    private boolean hasManagerPermission(int id, StoreManagerPermission perm) {
+        rolesLock.lock();
+        try{
+            Integer perms = storeManagers.get(id);
+            return perms != null && perm.isIn(perms);
+        }
+        finally{
+            rolesLock.unlock();
+        }
     }
 
     @Override
@@ -1473,30 +1493,51 @@ public class Store implements IStore {
             amount += product.getBasePrice() * (quantity-reducedQuantity);
             
         }
-        double totalDiscount = discountPolicies.values().stream()
-        .mapToDouble(d -> d.apply(cart)).sum();
-    
-        amount -= totalDiscount;
+        amount -= getDiscountPlan().totalDiscount(cart);
         return amount;
     }
 
+    /**
+     * Loads everything calcAmount reads for the user (their offers, auctions, the compiled discounts)
+     * while the persistence session is at hand, so the basket can then be priced on another thread.
+     */
+    public void prepareForPricing(int userId) {
+        offersLock.lock();
+        try {
+            loadOffersOf(userId);
+        } finally {
+            offersLock.unlock();
+        }
+        for (AuctionProduct auctionProduct : auctionProducts.values()) {
+            auctionProduct.getStoreProduct().getSproductID();
+        }
+        getDiscountPlan();
+    }
+
+    private DiscountPlan getDiscountPlan() {
+        DiscountPlan plan = discountPlan;
+        if (plan == null) {
+            plan = DiscountPlan.compile(storeID, discountPolicies().values(), storeProducts);
+            discountPlan = plan;
+        }
+        return plan;
+    }
+
     // Helper to find accepted and handled offer for user and product
     private Offer getAcceptedHandledOffer(int userId, int productId) {
-        if (allOffers != null) {
-            for (Offer offer : allOffers) {
-                if (offer.getUserId() == userId && offer.getProductId() == productId && offer.isApproved() && offer.isHandled()) {
-                    return offer;
-                }
-            }
+        offersLock.lock();
+        try {
+            loadOffersOf(userId);
+            return offerIndex.getAccepted(userId, productId);
+        } finally {
+            offersLock.unlock();
         }
-        return null;
     }
 
     @Override
     public boolean canViewOrders(int userId) {
         rolesLock.lock();
-        boolean ans = storeOwners.contains(userId) || (storeManagers.containsKey(userId)
-                && storeManagers.get(userId).contains(StoreManagerPermission.VIEW_PURCHASES));
+        boolean ans = storeOwners.contains(userId) || hasManagerPermission(userId, StoreManagerPermission.VIEW_PURCHASES);
         rolesLock.unlock();
         return ans;
 
@@ -1505,7 +1546,7 @@ public class Store implements IStore {
     public List<Integer> getPendingOwners(int requesterId){
         rolesLock.lock();
         try{
-            if(!isOwner(requesterId) && !(isManager(requesterId) && storeManagers.get(requesterId).contains(StoreManagerPermission.VIEW_ROLES))){
+            if(!isOwner(requesterId) && !hasManagerPermission(requesterId, StoreManagerPermission.VIEW_ROLES)){
                 throw new IllegalArgumentException("User " + requesterId + " has insufficient permissions to view roles");
             }
             List<Integer> pending = new ArrayList<>(pendingOwners.keySet());
@@ -1521,7 +1562,7 @@ public class Store implements IStore {
         rolesLock.lock();
 
         try{
-            if(!isOwner(requesterId) && !(isManager(requesterId) && storeManagers.get(requesterId).contains(StoreManagerPermission.VIEW_ROLES))){
+            if(!isOwner(requesterId) && !hasManagerPermission(requesterId, StoreManagerPermission.VIEW_ROLES)){
                 throw new IllegalArgumentException("User " + requesterId + " has insufficient permissions to view roles");
             }
             List<Integer> pending = new ArrayList<>(pendingManagers.keySet());
@@ -1557,60 +1598,30 @@ public class Store implements IStore {
         }
     }
 
-    public Map<StoreProductDTO, Boolean> decrementProductsInStore(int userId, Map<Integer,Integer> productsToBuy)
-    {
+    // consumes the won auctions / accepted offers the user just paid for. stock itself is handled by the
+    // stock reservation service. returns true if the store changed and has to be saved
+    public boolean consumePurchasedDeals(int userId, Collection<Integer> productIds) {
         productsLock.lock();
         try{
-            Map<StoreProductDTO, Boolean> products = new HashMap<>();
-            for (Map.Entry<Integer, Integer> entry : productsToBuy.entrySet()) {
-                int productId = entry.getKey();
-                int quantity = entry.getValue();
-                StoreProduct storeProduct = storeProducts.get(new StoreProductKey(storeID, productId));
-                if (storeProduct == null) {
-                    throw new IllegalArgumentException("Product with ID: " + productId + " does not exist in store ID: "
-                            + storeID);
-                }
-                // Find auction product by original product ID
-                AuctionProduct auctionProduct = auctionProducts.values().stream()
-                    .filter(ap -> ap.getStoreProduct().getSproductID() == productId)
-                    .findFirst()
-                    .orElse(null);
-                    
-                if(auctionProduct != null){
-                    if(auctionProduct.getUserIDHighestBid() == userId  && auctionProduct.isDone()){
-                        if(auctionProduct.getStoreProduct().getQuantity() < quantity) {
-                            throw new IllegalArgumentException("Not enough quantity for product with ID: " + productId);
-                        }
-                        auctionProduct.getStoreProduct().setQuantity(auctionProduct.getStoreProduct().getQuantity() - quantity);
-                        auctionProducts.remove(new StoreProductKey(storeID, productId)); // Remove using auction product's auto-generated ID
-                        products.put(new StoreProductDTO(auctionProduct.getStoreProduct(), quantity),true);
-
-                    }
+            boolean changed = false;
+            for (int productId : productIds) {
+                StoreProductKey key = new StoreProductKey(storeID, productId);
+                AuctionProduct auctionProduct = auctionProducts.get(key);
+                if (auctionProduct != null && auctionProduct.getUserIDHighestBid() == userId && auctionProduct.isDone()) {
+                    auctionProducts.remove(key);
+                    changed = true;
                 }
-                else{
-                    int newQuantity = Math.min(quantity, storeProduct.getQuantity());
-                    Offer offer = getAcceptedHandledOffer(userId, productId);
-                    if(offer != null){
-                        removeOffer(offer);
-                    }
-                    if (newQuantity == quantity) { //this if was else-if, it might cause problems now?
-                        products.put(new StoreProductDTO(storeProduct, quantity),true);
-                        storeProduct.decrementProductQuantity(newQuantity);
-                    }
-                    else{
-                        //storeProduct.decrementProductQuantity(newQuantity);
-                        products.put(new StoreProductDTO(storeProduct, newQuantity),false);
-    
-                    }
+                Offer offer = getAcceptedHandledOffer(userId, productId);
+                if (offer != null) {
+                    removeOffer(offer);
+                    changed = true;
                 }
             }
-
-            return products;
+            return changed;
         }
         finally{
             productsLock.unlock();
         }
-
     }
 
     @Override
@@ -1647,8 +1658,9 @@ public class Store implements IStore {
     public List<StoreManagerPermission> isManagerAndGetPerms(int userId){
         rolesLock.lock();
         try{
-            if(storeManagers.containsKey(userId)){
-                return new ArrayList<StoreManagerPermission>(storeManagers.get(userId));
+            Integer perms = storeManagers.get(userId);
+            if(perms != null){
+                return new ArrayList<StoreManagerPermission>(StoreManagerPermission.fromMask(perms));
             }
             else{
                 return null;
@@ -1677,15 +1689,6 @@ public class Store implements IStore {
             if(offerAmount < 1){
                 throw new IllegalArgumentException("Offer must be at least $1");
             }
-            // Ensure offersOnProducts map is initialized
-            if(offersOnProducts == null){
-                rebuildOffersOnProductsMap();
-            }
-            
-            List<Offer> userOffers = offersOnProducts.get(userId);
-            if (userOffers == null){
-                userOffers = new ArrayList<>();
-            }
             Offer offer = getUserOfferOnStoreProductUnsafe(userId, productId);
             if(offer != null){
                 throw new IllegalArgumentException("Can not Offer on the Same Product Twice");
@@ -1697,9 +1700,8 @@ public class Store implements IStore {
 
             Offer newOffer = new Offer(userId, this.storeID, productId, offerAmount, new ArrayList<>(this.storeOwners));
             newOffer.setOfferType("REGULAR");
-            userOffers.add(newOffer);
-            offersOnProducts.put(userId, userOffers);
-            allOffers.add(newOffer); // Also add to persistent list
+            allOffers.add(newOffer);
+            offerIndex.add(newOffer);
             this.publisher.publishEvent(new OfferReceivedEvent(this.storeID, productId, userId, offerAmount));
         }
         finally{
@@ -1769,35 +1771,18 @@ public class Store implements IStore {
     
     // Internal method that doesn't acquire locks - caller must hold offersLock
     private Offer getUserOfferOnStoreProductUnsafe(int userId, int productId){
-        // Defensive check: if offersOnProducts is null or seems out of sync, rebuild it
-        if(offersOnProducts == null || (allOffers != null && allOffers.stream().anyMatch(o -> "REGULAR".equals(o.getOfferType()) && !o.isHandled()) && offersOnProducts.isEmpty())){
-            rebuildOffersOnProductsMap();
-        }
-        
-        if(offersOnProducts.containsKey(userId)){
-            for(Offer offer : offersOnProducts.get(userId)){
-                if(offer.getProductId() == productId){
-                    return offer;
-                }
-            }
-        }
-        return null;
+        loadOffersOf(userId);
+        return offerIndex.getOpen(userId, productId);
     }
 
     private void removeOwnerFromAllOffers(int ownerId){
         offersLock.lock();
         try{
-            // Ensure offersOnProducts map is initialized
-            if(offersOnProducts == null){
-                rebuildOffersOnProductsMap();
-            }
-            
-            for(List<Offer> offersList : offersOnProducts.values()){
-                for(Offer offer : offersList){
-                    offer.removeOwner(ownerId);
-                    if(offer.isApproved() && !offer.isHandled()){
-                        handleOfferDone(offer);
-                    }
+            loadAllOffers();
+            for(Offer offer : offerIndex.getAllOpenOffers()){
+                offer.removeOwner(ownerId);
+                if(offer.isApproved() && !offer.isHandled()){
+                    handleOfferDone(offer);
                 }
             }
         }
@@ -1817,14 +1802,7 @@ public class Store implements IStore {
                 if(offer.isDeclined() && !offer.isHandled()){
                     this.publisher.publishEvent(new OfferDeclinedEvent(storeID, offer.getProductId(), offer.getUserId(), offer.getOfferAmount(), offer.getDeclinedBy()));
                     offer.setHandled();
-                    // Remove only from transient maps, not persistent collection
-                    List<Offer> offers = offersOnProducts.get(offer.getUserId());
-                    if(offers != null){
-                        offers.remove(offer);
-                        if(offers.isEmpty()){
-                            offersOnProducts.remove(offer.getUserId());
-                        }
-                    }
+                    offerIndex.closeOpen(offer); // stays in allOffers
                 }
             }
         }
@@ -1836,19 +1814,8 @@ public class Store implements IStore {
     private void removeOffer(Offer offer){
         offersLock.lock();
         try{
-            // Ensure offersOnProducts map is initialized
-            if(offersOnProducts == null){
-                rebuildOffersOnProductsMap();
-            }
-            
-            List<Offer> offers = offersOnProducts.get(offer.getUserId());
-            if(offers != null){
-                offers.remove(offer);
-            }
-            if(offers == null || offers.isEmpty()){
-                offersOnProducts.remove(offer.getUserId());
-            }
-            allOffers.remove(offer); // Also remove from persistent list
+            offerIndex.remove(offer);
+            allOffers.remove(offer);
         }
         finally{
             offersLock.unlock();
@@ -1880,19 +1847,8 @@ public class Store implements IStore {
             // Create the counter offer
             Offer counterOffer = new Offer(userId, storeID, productId, offerAmount, List.copyOf(storeOwners));
             counterOffer.setOfferType("PENDING");
-        
-            // Ensure pendingOffers map is initialized
-            if(pendingOffers == null){
-                rebuildPendingOffersMap();
-            }
-        
-            List<Offer> pendingUserOffers = pendingOffers.get(userId);
-            if(pendingUserOffers == null){
-                pendingUserOffers = new ArrayList<>();
-            }
-            pendingUserOffers.add(counterOffer);
-            pendingOffers.put(userId, pendingUserOffers);
-            allOffers.add(counterOffer); // Also add to persistent list
+            allOffers.add(counterOffer);
+            offerIndex.add(counterOffer);
             this.publisher.publishEvent(new CounterOfferEvent(storeID, productId, userId, offerAmount));
         }
         finally{
@@ -1914,19 +1870,8 @@ public class Store implements IStore {
     
     // Internal method that doesn't acquire locks - caller must hold offersLock
     private Offer getUserPendingOfferOnStoreProductUnsafe(int userId, int productId){
-        // Defensive check: if pendingOffers is null or seems out of sync, rebuild it
-        if(pendingOffers == null || (allOffers != null && allOffers.stream().anyMatch(o -> "PENDING".equals(o.getOfferType()) && !o.isHandled()) && pendingOffers.isEmpty())){
-            rebuildPendingOffersMap();
-        }
-        
-        if(pendingOffers.containsKey(userId)){
-            for(Offer offer : pendingOffers.get(userId)){
-                if(offer.getProductId() == productId){
-                    return offer;
-                }
-            }
-        }
-        return null;
+        loadOffersOf(userId);
+        return offerIndex.getPending(userId, productId);
     }
 
     @Override
@@ -1951,16 +1896,6 @@ public class Store implements IStore {
             removePendingOffer(pendingOffer);
             
             // Place the new offer inline to avoid nested locking
-            // Ensure offersOnProducts map is initialized
-            if(offersOnProducts == null){
-                rebuildOffersOnProductsMap();
-            }
-            
-            List<Offer> userOffers = offersOnProducts.get(userId);
-            if (userOffers == null){
-                userOffers = new ArrayList<>();
-            }
-            
             // Check if user already has an offer on this product
             Offer existingOffer = getAcceptedHandledOffer(userId, productId);
             if(existingOffer != null){
@@ -1969,9 +1904,8 @@ public class Store implements IStore {
             
             Offer newOffer = new Offer(userId, this.storeID, productId, pendingOffer.getOfferAmount(), new ArrayList<>(this.storeOwners));
             newOffer.setOfferType("REGULAR");
-            userOffers.add(newOffer);
-            offersOnProducts.put(userId, userOffers);
-            allOffers.add(newOffer); // Also add to persistent list
+            allOffers.add(newOffer);
+            offerIndex.add(newOffer);
             this.publisher.publishEvent(new OfferReceivedEvent(this.storeID, productId, userId, pendingOffer.getOfferAmount()));
         }
         finally{
@@ -1999,18 +1933,7 @@ public class Store implements IStore {
     private void removePendingOffer(Offer offer){
         offersLock.lock();
         try{
-            // Ensure pendingOffers map is initialized
-            if(pendingOffers == null){
-                rebuildPendingOffersMap();
-            }
-            
-            List<Offer> offers = pendingOffers.get(offer.getUserId());
-            if(offers != null){
-                offers.remove(offer);
-            }
-            if(offers == null || offers.isEmpty()){
-                pendingOffers.remove(offer.getUserId());
-            }
+            offerIndex.closePending(offer);
             // Don't remove from persistent collection - just mark as handled
             offer.setHandled();
         }
@@ -2020,16 +1943,14 @@ public class Store implements IStore {
     }
 
     public List<Offer> getUserOffers(int userId){
-        // Ensure offersOnProducts map is initialized
-        if(offersOnProducts == null){
-            rebuildOffersOnProductsMap();
+        offersLock.lock();
+        try{
+            loadOffersOf(userId);
+            return offerIndex.getOpenOffers(userId);
         }
-        
-        List<Offer> offers = offersOnProducts.get(userId);
-        if(offers == null){
-            return new ArrayList<>();
+        finally{
+            offersLock.unlock();
         }
-        return offers;
     }
     
     // Getter for persistent offers list
@@ -2039,11 +1960,15 @@ public class Store implements IStore {
     
     public void setAllOffers(List<Offer> allOffers) {
         this.allOffers = allOffers;
-        rebuildOffersOnProductsMap(); // Rebuild the transient map when setting persistent list
-        rebuildPendingOffersMap(); // Also rebuild pending offers map
+        this.offerIndex = new OfferIndex(); // re-indexed from the new list as users are looked up
     }
     
     public void setPublisher(ApplicationEventPublisher publisher) {
         this.publisher = publisher;
     }
+
+    // Lets a loaded store read one user's offers with a query instead of loading allOffers
+    public void setOfferLoader(Function<Integer, List<Offer>> offerLoader) {
+        this.offerLoader = offerLoader;
+    }
 }
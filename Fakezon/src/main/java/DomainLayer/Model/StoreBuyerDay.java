@@ -0,0 +1,48 @@
+package DomainLayer.Model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+
+// A user bought from a store on a day; counting these gives the distinct buyers of any date range
+@Entity
+@Table(name = "store_buyer_days", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_store_buyer_days", columnNames = {"store_id", "sales_date", "user_id"})
+})
+public class StoreBuyerDay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    // Default constructor for JPA
+    protected StoreBuyerDay() {
+    }
+
+    public StoreBuyerDay(int storeId, LocalDate salesDate, int userId) {
+        this.storeId = storeId;
+        this.salesDate = salesDate;
+        this.userId = userId;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+}
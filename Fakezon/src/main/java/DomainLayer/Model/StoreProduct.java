@@ -7,11 +7,15 @@ import java.util.Map;
 
 import ApplicationLayer.Enums.PCategory;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Locale.Category;
 
 @Entity
-@Table(name = "store_products")
+@Table(name = "store_products", indexes = {
+    @Index(name = "idx_store_products_store", columnList = "store_id"),
+    @Index(name = "idx_store_products_category_price", columnList = "category, base_price")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "product_type", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue("STORE_PRODUCT")
@@ -42,6 +46,15 @@ public class StoreProduct {
     @MapKeyColumn(name = "user_id")
     private Map<Integer, ProductRating> Pratings = new HashMap<>(); //HASH userID to product rating
 
+    // Running totals of Pratings, so the average never needs the ratings loaded
+    @Column(name = "rating_sum", nullable = false)
+    @ColumnDefault("0")
+    private double ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    @ColumnDefault("0")
+    private int ratingCount;
+
     // Default constructor for JPA
     public StoreProduct() {}
 
@@ -84,9 +97,14 @@ public class StoreProduct {
     //precondition: user is logged in and User has purchased the product - cheaked by service layer
    public void  addRating(int userID, double rating, String comment) {
         if (Pratings.containsKey(userID)) {
-            Pratings.get(userID).updateRating(rating, comment);
+            ProductRating existing = Pratings.get(userID);
+            double previous = existing.getRating();
+            existing.updateRating(rating, comment);
+            ratingSum += rating - previous;
         } else {
             Pratings.put(userID, new ProductRating(userID, rating, comment));
+            ratingSum += rating;
+            ratingCount++;
         }
     }
     public ProductRating getRatingByUser(int userID) {
@@ -97,11 +115,15 @@ public class StoreProduct {
         }
     }
     public  double getAverageRating() {
-        double totalRating = 0;
-        for (ProductRating rating : Pratings.values()) {
-            totalRating += rating.getRating();
-        }
-        return totalRating / Pratings.size();
+        return ratingCount == 0 ? Double.NaN : ratingSum / ratingCount;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
     }
     public synchronized void setQuantity(int quantity) {
         if(quantity < 0) {
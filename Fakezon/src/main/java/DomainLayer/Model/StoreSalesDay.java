@@ -0,0 +1,75 @@
+package DomainLayer.Model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+
+// One store's sales on one day, kept up to date as orders are placed
+@Entity
+@Table(name = "store_sales_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_store_sales_daily", columnNames = {"store_id", "sales_date"})
+})
+public class StoreSalesDay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "buyer_count", nullable = false)
+    private long buyerCount;
+
+    // Default constructor for JPA
+    protected StoreSalesDay() {
+    }
+
+    public StoreSalesDay(int storeId, LocalDate salesDate) {
+        this.storeId = storeId;
+        this.salesDate = salesDate;
+    }
+
+    public void add(double revenue, long units, long orders, long newBuyers) {
+        this.revenue += revenue;
+        this.units += units;
+        this.orderCount += orders;
+        this.buyerCount += newBuyers;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getBuyerCount() {
+        return buyerCount;
+    }
+}
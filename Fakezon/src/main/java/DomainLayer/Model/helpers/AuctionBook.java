@@ -0,0 +1,98 @@
+package DomainLayer.Model.helpers;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The highest bid of one auction, kept in memory so a bid neither loads nor saves the Store.
+ *
+ * The highest bid and whether the auction still takes bids are one immutable state swapped
+ * by compare-and-set: a bid either beats the state it read or reads again, and once the book
+ * is closed no later bid can get in.
+ */
+public class AuctionBook {
+
+    public static final class State {
+        private final int userId; // -1 while nobody has bid
+        private final double amount;
+        private final boolean closed;
+
+        private State(int userId, double amount, boolean closed) {
+            this.userId = userId;
+            this.amount = amount;
+            this.closed = closed;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    private final int storeId;
+    private final int productId;
+    private final LocalDateTime endTime; // null for auctions created before deadlines were stored
+    private final AtomicReference<State> state;
+
+    public AuctionBook(int storeId, int productId, int highestUserId, double highestBid, LocalDateTime endTime,
+            boolean done) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.endTime = endTime;
+        this.state = new AtomicReference<>(new State(highestUserId, highestBid, done));
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Makes the bid the highest one if it beats the current highest and the bidder does not
+     * already hold it (the highest bidder cannot raise their own bid).
+     * @return the state it replaced, or null if the bid is not higher or the bidder holds the highest
+     * @throws IllegalArgumentException if the auction is closed or past its end time
+     */
+    public State placeBid(int userId, double amount, LocalDateTime now) {
+        while (true) {
+            State current = state.get();
+            if (current.closed || (endTime != null && !now.isBefore(endTime))) {
+                throw new IllegalArgumentException("Auction is Done");
+            }
+            if (amount <= current.amount || current.userId == userId) {
+                return null;
+            }
+            if (state.compareAndSet(current, new State(userId, amount, false))) {
+                return current;
+            }
+        }
+    }
+
+    /** Stops taking bids; returns the final highest bid. */
+    public State close() {
+        while (true) {
+            State current = state.get();
+            if (current.closed) {
+                return current;
+            }
+            State closed = new State(current.userId, current.amount, true);
+            if (state.compareAndSet(current, closed)) {
+                return closed;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package DomainLayer.Model.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import DomainLayer.Model.BaseDiscountPolicy;
+import DomainLayer.Model.Basket;
+import DomainLayer.Model.Cart;
+import DomainLayer.Model.ProductsDiscountScope;
+import DomainLayer.Model.SimpleDiscount;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.StoreProductKey;
+
+/**
+ * A store's discount policies compiled into flat arrays, so a basket is priced and discounted
+ * in one pass over its lines instead of once per policy.
+ *
+ * Each store product maps (by binary search over the sorted product IDs) to its base price and
+ * to the product-scoped policies it belongs to; store-scoped policies share the basket total.
+ * A plan is immutable and must be recompiled when the policies, products or prices change.
+ * The result is the same as summing {@code policy.apply(cart)} over the policies.
+ */
+public final class DiscountPlan {
+
+    private static final int[] NO_POLICIES = new int[0];
+
+    private final int storeId;
+    private final BaseDiscountPolicy[] policies; // in evaluation order
+    private final boolean[] storeWide;
+    private final boolean[] unconditional;
+    private final double[] percentage;
+    private final int[] productIds; // sorted
+    private final double[] basePrices; // aligned with productIds
+    private final int[][] policiesByProduct; // aligned with productIds; product-scoped policy indexes
+
+    private DiscountPlan(int storeId, BaseDiscountPolicy[] policies, boolean[] storeWide, boolean[] unconditional,
+            double[] percentage, int[] productIds, double[] basePrices, int[][] policiesByProduct) {
+        this.storeId = storeId;
+        this.policies = policies;
+        this.storeWide = storeWide;
+        this.unconditional = unconditional;
+        this.percentage = percentage;
+        this.productIds = productIds;
+        this.basePrices = basePrices;
+        this.policiesByProduct = policiesByProduct;
+    }
+
+    public static DiscountPlan compile(int storeId, Collection<? extends BaseDiscountPolicy> discountPolicies,
+            Map<StoreProductKey, StoreProduct> storeProducts) {
+        BaseDiscountPolicy[] policies = discountPolicies.toArray(new BaseDiscountPolicy[0]);
+        boolean[] storeWide = new boolean[policies.length];
+        boolean[] unconditional = new boolean[policies.length];
+        double[] percentage = new double[policies.length];
+
+        List<StoreProduct> products = new ArrayList<>();
+        for (StoreProduct product : storeProducts.values()) {
+            if (product.getStoreId() == storeId) {
+                products.add(product);
+            }
+        }
+        products.sort((a, b) -> Integer.compare(a.getSproductID(), b.getSproductID()));
+        int[] productIds = new int[products.size()];
+        double[] basePrices = new double[products.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = products.get(i).getSproductID();
+            basePrices[i] = products.get(i).getBasePrice();
+        }
+
+        int[] counts = new int[productIds.length];
+        int[][] policiesByProduct = new int[productIds.length][];
+        for (int pass = 0; pass < 2; pass++) { // count memberships, then fill them
+            for (int p = 0; p < policies.length; p++) {
+                if (!(policies[p].getScope() instanceof ProductsDiscountScope)) {
+                    continue;
+                }
+                List<Integer> scopeIds = ((ProductsDiscountScope) policies[p].getScope()).getProductIds();
+                for (int productId : scopeIds == null ? List.<Integer>of() : scopeIds.stream().distinct().toList()) {
+                    int at = Arrays.binarySearch(productIds, productId);
+                    if (at < 0) {
+                        continue; // not sold here, can never be in this store's basket
+                    }
+                    if (pass == 0) {
+                        counts[at]++;
+                    } else {
+                        policiesByProduct[at][--counts[at]] = p;
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int i = 0; i < productIds.length; i++) {
+                    policiesByProduct[i] = counts[i] == 0 ? NO_POLICIES : new int[counts[i]];
+                }
+            }
+        }
+        for (int p = 0; p < policies.length; p++) {
+            storeWide[p] = !(policies[p].getScope() instanceof ProductsDiscountScope);
+            unconditional[p] = policies[p] instanceof SimpleDiscount;
+            percentage[p] = policies[p].getPercentage();
+        }
+        return new DiscountPlan(storeId, policies, storeWide, unconditional, percentage, productIds, basePrices, policiesByProduct);
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public int getPolicyCount() {
+        return policies.length;
+    }
+
+    /** Total discount this store gives on the cart. */
+    public double totalDiscount(Cart cart) {
+        if (policies.length == 0) {
+            return 0;
+        }
+        Map<Integer, Integer> lines = basketLines(cart);
+        if (lines == null) {
+            return 0;
+        }
+        double[] eligible = new double[policies.length];
+        double storeTotal = 0;
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            int at = Arrays.binarySearch(productIds, line.getKey());
+            if (at < 0) {
+                throw new IllegalArgumentException(
+                        "Product with ID: " + line.getKey() + " does not exist in store ID: " + storeId);
+            }
+            double lineAmount = line.getValue() * basePrices[at];
+            storeTotal += lineAmount;
+            for (int p : policiesByProduct[at]) {
+                eligible[p] += lineAmount;
+            }
+        }
+        double discount = 0;
+        for (int p = 0; p < policies.length; p++) {
+            if (unconditional[p] || policies[p].isApplicable(cart)) {
+                discount += (storeWide[p] ? storeTotal : eligible[p]) * percentage[p] / 100;
+            }
+        }
+        return discount;
+    }
+
+    // Same basket the scopes read through Cart.getAllProducts(): the last one for the store
+    private Map<Integer, Integer> basketLines(Cart cart) {
+        Map<Integer, Integer> lines = null;
+        for (Basket basket : cart.getBaskets()) {
+            if (basket.getStoreID() == storeId) {
+                lines = basket.getProducts();
+            }
+        }
+        return lines;
+    }
+}
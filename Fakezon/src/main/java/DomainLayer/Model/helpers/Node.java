@@ -1,6 +1,8 @@
 package DomainLayer.Model.helpers;
 import java.util.List;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 
 import jakarta.persistence.*;
 
@@ -48,23 +50,27 @@ public class Node {
     
     public List<Node> getAllDescendants(){
         List<Node> descendants = new ArrayList<>();
-        for (Node child : this.children){
-            descendants.add(child);
-            descendants.addAll(child.getAllDescendants());
+        Deque<Node> toVisit = new ArrayDeque<>(this.children);
+        while (!toVisit.isEmpty()){
+            Node curr = toVisit.pop();
+            descendants.add(curr);
+            for (Node child : curr.children){
+                toVisit.push(child);
+            }
         }
         return descendants;
     }
 
     public void removeChild(Node toRemove){
-        if(!children.contains(toRemove)){
+        if(!children.remove(toRemove)){
             throw new IllegalArgumentException("Node id: " + getId() + " has no child with id: " + toRemove.getId());
         }
-        children.remove(toRemove);
         toRemove.parent = null;
     }
 
     public boolean isChild(Node child){
-        return children.contains(child);
+        // by user ID - after a load, parent may be a proxy of this node; each user has one node per tree
+        return child != null && child.parent != null && child.parent.getId() == this.id;
     }
     
     // Additional getters/setters for JPA
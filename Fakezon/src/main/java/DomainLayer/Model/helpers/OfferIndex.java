@@ -0,0 +1,174 @@
+package DomainLayer.Model.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import DomainLayer.Model.Offer;
+
+/**
+ * A store's offers by user and product, filled one user at a time: pricing a basket reads only
+ * the buyer's offers, not every offer ever made to the store.
+ *
+ * For each user it keeps every offer by product (where accepted offers are looked up), the open
+ * REGULAR offers and the PENDING counter offers waiting for the user. A user's entry is filled
+ * from that user's offers on first use and then kept in step by the Store; it is not thread safe,
+ * the Store's offersLock guards it.
+ */
+public class OfferIndex {
+
+    private static class UserOffers {
+        private final Map<Integer, List<Offer>> byProduct = new HashMap<>(); // every offer of the user
+        private final List<Offer> open = new ArrayList<>(); // REGULAR, not handled when loaded
+        private final List<Offer> pending = new ArrayList<>(); // PENDING, not handled when loaded
+    }
+
+    private final Map<Integer, UserOffers> byUser = new HashMap<>();
+    private boolean complete; // every user with offers in the store has an entry
+
+    public boolean isLoaded(int userId) {
+        return complete || byUser.containsKey(userId);
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /** Fills the user's entry from offers that include all of the user's (others are skipped). */
+    public void load(int userId, Collection<Offer> offers) {
+        if (isLoaded(userId)) {
+            return;
+        }
+        UserOffers entry = new UserOffers();
+        byUser.put(userId, entry);
+        for (Offer offer : offers) {
+            if (offer.getUserId() == userId) {
+                index(entry, offer);
+            }
+        }
+    }
+
+    /** Fills the entries of the users not loaded yet from all of the store's offers. */
+    public void loadAll(Collection<Offer> offers) {
+        if (complete) {
+            return;
+        }
+        Map<Integer, UserOffers> loaded = new HashMap<>();
+        for (Offer offer : offers) {
+            int userId = offer.getUserId();
+            if (byUser.containsKey(userId) && !loaded.containsKey(userId)) {
+                continue; // already loaded and possibly changed since
+            }
+            index(loaded.computeIfAbsent(userId, k -> new UserOffers()), offer);
+        }
+        byUser.putAll(loaded);
+        complete = true;
+    }
+
+    private static void index(UserOffers entry, Offer offer) {
+        entry.byProduct.computeIfAbsent(offer.getProductId(), k -> new ArrayList<>()).add(offer);
+        if (!offer.isHandled()) {
+            if ("REGULAR".equals(offer.getOfferType())) {
+                entry.open.add(offer);
+            } else if ("PENDING".equals(offer.getOfferType())) {
+                entry.pending.add(offer);
+            }
+        }
+    }
+
+    /** A newly placed REGULAR or PENDING offer; the user's entry must be loaded. */
+    public void add(Offer offer) {
+        UserOffers entry = byUser.computeIfAbsent(offer.getUserId(), k -> new UserOffers());
+        entry.byProduct.computeIfAbsent(offer.getProductId(), k -> new ArrayList<>()).add(offer);
+        if ("PENDING".equals(offer.getOfferType())) {
+            entry.pending.add(offer);
+        } else {
+            entry.open.add(offer);
+        }
+    }
+
+    /** The offer is gone from the store. */
+    public void remove(Offer offer) {
+        UserOffers entry = byUser.get(offer.getUserId());
+        if (entry == null) {
+            return;
+        }
+        List<Offer> offers = entry.byProduct.get(offer.getProductId());
+        if (offers != null) {
+            offers.remove(offer);
+            if (offers.isEmpty()) {
+                entry.byProduct.remove(offer.getProductId());
+            }
+        }
+        entry.open.remove(offer);
+        entry.pending.remove(offer);
+    }
+
+    /** The offer stays in the store but is no longer open (declined). */
+    public void closeOpen(Offer offer) {
+        UserOffers entry = byUser.get(offer.getUserId());
+        if (entry != null) {
+            entry.open.remove(offer);
+        }
+    }
+
+    /** The counter offer stays in the store but no longer waits for the user. */
+    public void closePending(Offer offer) {
+        UserOffers entry = byUser.get(offer.getUserId());
+        if (entry != null) {
+            entry.pending.remove(offer);
+        }
+    }
+
+    public Offer getOpen(int userId, int productId) {
+        UserOffers entry = byUser.get(userId);
+        return entry == null ? null : find(entry.open, productId);
+    }
+
+    public Offer getPending(int userId, int productId) {
+        UserOffers entry = byUser.get(userId);
+        return entry == null ? null : find(entry.pending, productId);
+    }
+
+    /** The user's offer on the product that every owner accepted and that was handled, if any. */
+    public Offer getAccepted(int userId, int productId) {
+        UserOffers entry = byUser.get(userId);
+        List<Offer> offers = entry == null ? null : entry.byProduct.get(productId);
+        if (offers != null) {
+            for (Offer offer : offers) {
+                if (offer.isApproved() && offer.isHandled()) {
+                    return offer;
+                }
+            }
+        }
+        return null;
+    }
+
+    // A user has at most one open and one pending offer per product, so the lists stay short
+    private static Offer find(List<Offer> offers, int productId) {
+        for (Offer offer : offers) {
+            if (offer.getProductId() == productId) {
+                return offer;
+            }
+        }
+        return null;
+    }
+
+    /** The user's open offers (a copy). */
+    public List<Offer> getOpenOffers(int userId) {
+        UserOffers entry = byUser.get(userId);
+        return entry == null ? new ArrayList<>() : new ArrayList<>(entry.open);
+    }
+
+    /** Every loaded user's open offers (a copy); load all first to cover the whole store. */
+    public List<Offer> getAllOpenOffers() {
+        List<Offer> offers = new ArrayList<>();
+        for (UserOffers entry : byUser.values()) {
+            offers.addAll(entry.open);
+        }
+        return Collections.unmodifiableList(offers);
+    }
+}
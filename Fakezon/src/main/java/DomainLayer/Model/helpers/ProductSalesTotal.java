@@ -0,0 +1,40 @@
+package DomainLayer.Model.helpers;
+
+/**
+ * One product's sales summed over a date range of its daily rollups.
+ */
+public class ProductSalesTotal {
+    private final int productId;
+    private final String productName;
+    private final double revenue;
+    private final long units;
+    private final long orderCount;
+
+    public ProductSalesTotal(int productId, String productName, Double revenue, Long units, Long orderCount) {
+        this.productId = productId;
+        this.productName = productName;
+        this.revenue = revenue == null ? 0 : revenue;
+        this.units = units == null ? 0 : units;
+        this.orderCount = orderCount == null ? 0 : orderCount;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+}
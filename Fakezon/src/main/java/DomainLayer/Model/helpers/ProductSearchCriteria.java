@@ -0,0 +1,77 @@
+package DomainLayer.Model.helpers;
+
+import ApplicationLayer.Enums.PCategory;
+
+/**
+ * Filters and paging for a faceted search over store products.
+ * Null filters are not applied.
+ */
+public class ProductSearchCriteria {
+    private final String keyword;
+    private final PCategory category;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Double minProductRating;
+    private final Double minStoreRating;
+    private final Integer storeId;
+    private final int page;
+    private final int size;
+
+    public ProductSearchCriteria(String keyword, PCategory category, Double minPrice, Double maxPrice,
+            Double minProductRating, Double minStoreRating, Integer storeId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index must not be negative");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+        this.keyword = keyword == null || keyword.isBlank() ? null : keyword.trim();
+        this.category = category;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minProductRating = minProductRating;
+        this.minStoreRating = minStoreRating;
+        this.storeId = storeId;
+        this.page = page;
+        this.size = size;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public PCategory getCategory() {
+        return category;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getMinProductRating() {
+        return minProductRating;
+    }
+
+    public Double getMinStoreRating() {
+        return minStoreRating;
+    }
+
+    public Integer getStoreId() {
+        return storeId;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
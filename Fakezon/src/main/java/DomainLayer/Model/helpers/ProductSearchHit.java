@@ -0,0 +1,55 @@
+package DomainLayer.Model.helpers;
+
+import ApplicationLayer.Enums.PCategory;
+
+/**
+ * One store product row of a faceted search, with its rating already aggregated.
+ */
+public class ProductSearchHit {
+    private final int productId;
+    private final int storeId;
+    private final String name;
+    private final double basePrice;
+    private final int quantity;
+    private final PCategory category;
+    private final double averageRating;
+
+    public ProductSearchHit(int productId, int storeId, String name, double basePrice, int quantity,
+            PCategory category, Double averageRating) {
+        this.productId = productId;
+        this.storeId = storeId;
+        this.name = name;
+        this.basePrice = basePrice;
+        this.quantity = quantity;
+        this.category = category;
+        this.averageRating = averageRating == null ? 0 : averageRating;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getBasePrice() {
+        return basePrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public PCategory getCategory() {
+        return category;
+    }
+
+    public double getAverageRating() {
+        return averageRating;
+    }
+}
@@ -0,0 +1,54 @@
+package DomainLayer.Model.helpers;
+
+import java.util.List;
+import java.util.Map;
+
+import ApplicationLayer.Enums.PCategory;
+
+/**
+ * A page of faceted search hits plus the facet counts over all matching rows.
+ * The category facet ignores the category filter and the store facet ignores the
+ * store filter, so the other options of each facet stay visible.
+ */
+public class ProductSearchPage {
+    private final List<ProductSearchHit> hits;
+    private final long totalElements;
+    private final Map<PCategory, Long> categoryCounts;
+    private final Map<Integer, Long> storeCounts;
+    private final Double minPrice;
+    private final Double maxPrice;
+
+    public ProductSearchPage(List<ProductSearchHit> hits, long totalElements, Map<PCategory, Long> categoryCounts,
+            Map<Integer, Long> storeCounts, Double minPrice, Double maxPrice) {
+        this.hits = hits;
+        this.totalElements = totalElements;
+        this.categoryCounts = categoryCounts;
+        this.storeCounts = storeCounts;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public List<ProductSearchHit> getHits() {
+        return hits;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public Map<PCategory, Long> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public Map<Integer, Long> getStoreCounts() {
+        return storeCounts;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+}
@@ -0,0 +1,81 @@
+package DomainLayer.Model.helpers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Rated items ordered by average rating (highest first, ties broken by key).
+ * Updating an item is O(log n) and reading the top k is O(k), so callers never sort the whole set.
+ */
+public class RatingLeaderboard<K> {
+
+    public static final class Entry<K> {
+        private final K key;
+        private final double averageRating;
+
+        private Entry(K key, double averageRating) {
+            this.key = key;
+            this.averageRating = averageRating;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public double getAverageRating() {
+            return averageRating;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry<K>> ranking;
+
+    public RatingLeaderboard(Comparator<? super K> tieBreaker) {
+        Comparator<Entry<K>> byRating = Comparator.comparingDouble(e -> -e.averageRating);
+        this.ranking = new ConcurrentSkipListSet<>(byRating.thenComparing(e -> e.key, tieBreaker));
+    }
+
+    /** Sets the item's average; items without ratings (NaN) are dropped. */
+    public void update(K key, double averageRating) {
+        entries.compute(key, (k, old) -> {
+            if (old != null) {
+                ranking.remove(old);
+            }
+            if (Double.isNaN(averageRating)) {
+                return null;
+            }
+            Entry<K> entry = new Entry<>(k, averageRating);
+            ranking.add(entry);
+            return entry;
+        });
+    }
+
+    public void remove(K key) {
+        entries.computeIfPresent(key, (k, old) -> {
+            ranking.remove(old);
+            return null;
+        });
+    }
+
+    public List<Entry<K>> top(int limit) {
+        List<Entry<K>> top = new ArrayList<>(Math.max(0, Math.min(limit, entries.size())));
+        Iterator<Entry<K>> it = ranking.iterator();
+        while (top.size() < limit && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        ranking.clear();
+    }
+}
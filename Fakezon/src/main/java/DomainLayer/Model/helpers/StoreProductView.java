@@ -0,0 +1,58 @@
+package DomainLayer.Model.helpers;
+
+import ApplicationLayer.Enums.PCategory;
+
+/**
+ * One store product row as browsing reads it, without the Store it belongs to.
+ */
+public class StoreProductView {
+    private final int productId;
+    private final int storeId;
+    private final String name;
+    private final double basePrice;
+    private final int quantity;
+    private final PCategory category;
+    private final double ratingSum;
+    private final int ratingCount;
+
+    public StoreProductView(int productId, int storeId, String name, double basePrice, int quantity,
+            PCategory category, double ratingSum, int ratingCount) {
+        this.productId = productId;
+        this.storeId = storeId;
+        this.name = name;
+        this.basePrice = basePrice;
+        this.quantity = quantity;
+        this.category = category;
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getStoreId() {
+        return storeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getBasePrice() {
+        return basePrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public PCategory getCategory() {
+        return category;
+    }
+
+    // same as StoreProduct.getAverageRating
+    public double getAverageRating() {
+        return ratingCount == 0 ? Double.NaN : ratingSum / ratingCount;
+    }
+}
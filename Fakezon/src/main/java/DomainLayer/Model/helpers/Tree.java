@@ -1,5 +1,10 @@
 package DomainLayer.Model.helpers;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
 import jakarta.persistence.*;
 
 @Entity
@@ -14,6 +19,9 @@ public class Tree {
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "root_node_id")
     private Node root;
+
+    @Transient
+    private Map<Integer, Node> nodesById; // userID to node, built from the tree on first lookup
     
     // Default constructor for JPA
     public Tree() {
@@ -27,32 +35,50 @@ public class Tree {
         if (root == null) {
             return null;
         }
-        return findRec(root, id);
+        return index().get(id);
     }
     
     public Node getRoot(){
         return this.root;
     }
-    
-    private Node findRec(Node curr, int id){
-        if (curr.getId() == id){
-            return curr;
-        }
-        for(Node child : curr.getChildren()){
-            Node found = findRec(child, id);
-            if(found != null)
-                return found;
+
+    private Map<Integer, Node> index(){
+        if (nodesById == null) {
+            Map<Integer, Node> index = new HashMap<>();
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            while (!toVisit.isEmpty()) {
+                Node curr = toVisit.pop();
+                index.put(curr.getId(), curr);
+                for (Node child : curr.getChildren()) {
+                    toVisit.push(child);
+                }
+            }
+            nodesById = index;
         }
-        return null;
+        return nodesById;
     }
     
     public void addNode(int appointor, int appointee){
         Node appointorNode = getNode(appointor);
-        if(appointorNode != null)
-            appointorNode.addChild(new Node(appointee));
+        if(appointorNode != null){
+            Node appointeeNode = new Node(appointee);
+            appointorNode.addChild(appointeeNode);
+            index().put(appointee, appointeeNode);
+        }
         else
             throw new IllegalArgumentException("appointor id: " + appointor + " not in rolesTree"); // should not happend - for debugging purposes
     }
+
+    // removes child and all its descendants from the tree
+    public void removeNode(Node parent, Node child){
+        parent.removeChild(child);
+        Map<Integer, Node> index = index();
+        index.remove(child.getId());
+        for (Node descendant : child.getAllDescendants()) {
+            index.remove(descendant.getId());
+        }
+    }
     
     // Additional getters/setters for JPA
     public Long getTreeId() {
@@ -65,5 +91,6 @@ public class Tree {
     
     public void setRoot(Node root) {
         this.root = root;
+        this.nodesById = null;
     }
 }
@@ -0,0 +1,53 @@
+package DomainLayer.Model.helpers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import DomainLayer.Enums.MessageBox;
+
+/**
+ * A message on its way to a registered user: stored in the user's mailbox and, when the user
+ * is logged in, pushed over the web socket as well.
+ */
+public class UserNotification {
+    private final StoreMsg message;
+    private final MessageBox box;
+    private final boolean push;
+    private final long createdAtNanos;
+
+    public UserNotification(StoreMsg message, MessageBox box, boolean push) {
+        if (message == null || box == null) {
+            throw new IllegalArgumentException("Notification needs a message and a mailbox");
+        }
+        this.message = message;
+        this.box = box;
+        this.push = push;
+        this.createdAtNanos = System.nanoTime();
+    }
+
+    public StoreMsg getMessage() {
+        return message;
+    }
+
+    public MessageBox getBox() {
+        return box;
+    }
+
+    public int getUserId() {
+        return message.getUserId();
+    }
+
+    public boolean isPush() {
+        return push;
+    }
+
+    public long getCreatedAtNanos() {
+        return createdAtNanos;
+    }
+
+    // Notifications with equal keys would store and show the same thing
+    public List<Object> coalesceKey() {
+        return Arrays.asList(box, message.getUserId(), message.getStoreId(), message.getProductId(),
+                message.getOfferedBy(), message.isCounterOffer(), message.getMessage());
+    }
+}
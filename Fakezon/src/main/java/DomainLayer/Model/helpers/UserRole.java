@@ -6,9 +6,11 @@ import jakarta.persistence.*;
 @Embeddable
 public class UserRole {
     
+    @Column(name = "store_id")
     private int storeId;
     
     @Enumerated(EnumType.STRING)
+    @Column(name = "role_name")
     private RoleName roleName;
 
     // Default constructor for JPA
@@ -11,6 +11,7 @@ import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.Interfaces.IUserService;
 import DomainLayer.Interfaces.IAuthenticator;
 import DomainLayer.Model.Registered;
+import InfrastructureLayer.Security.TokenClaims;
 import InfrastructureLayer.Security.TokenService;
 
 import ApplicationLayer.Response;
@@ -88,6 +89,14 @@ public class AuthenticatorAdapter implements IAuthenticator {
         return tokenService.validateToken(sessionToken);
     }
 
+    /**
+     * Verifies the token once and returns all of its claims, or null if it is not valid.
+     * Lets a controller authenticate and read the user id without a second lookup.
+     */
+    public TokenClaims parseOnce(String sessionToken) {
+        return tokenService.parseOnce(sessionToken);
+    }
+
     @Override
     public String getEmail(String sessionToken) {
         return tokenService.extractEmail(sessionToken);
@@ -1,5 +1,7 @@
 package InfrastructureLayer.Adapters;
 
+import java.util.concurrent.CompletableFuture;
+
 import DomainLayer.Interfaces.IDelivery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,14 +12,24 @@ import InfrastructureLayer.Adapters.ExternalDeliverySystem;
 
 public class DeliveryAdapter implements IDelivery {
     private final ExternalDeliverySystem externalSystem;
+    private final ExternalServiceGuard guard;
     private final Logger logger = LoggerFactory.getLogger(DeliveryAdapter.class);
 
     
     public DeliveryAdapter() {
-        this.externalSystem = new ExternalDeliverySystem();
+        this(new ExternalDeliverySystem());
     }
     public DeliveryAdapter(ExternalDeliverySystem externalSystem) {
+        this(externalSystem, new ExternalServiceGuard("delivery"));
+    }
+    public DeliveryAdapter(ExternalDeliverySystem externalSystem, ExternalServiceGuard guard) {
         this.externalSystem = externalSystem;
+        this.guard = guard;
+    }
+
+    // State and latency of the async calls to the delivery system
+    public ExternalServiceGuard getGuard() {
+        return guard;
     }
     @Override
     public int deliver(String country, String address, String recipient, String packageDetails) {
@@ -35,5 +47,52 @@ public class DeliveryAdapter implements IDelivery {
             return -1;
         }
     }
-}
 
+    @Override
+    public CompletableFuture<Integer> deliverAsync(String country, String address, String recipient, String packageDetails) {
+        logger.info("Attempting delivery to "+country+" to " + recipient + " at " + address + ": " + packageDetails);
+        if (country == null || address == null || recipient == null || packageDetails == null) {
+            logger.error("Delivery failed due to missing information for " + recipient);
+            return CompletableFuture.completedFuture(-1);
+        }
+        // a supply request has no idempotency key, so it is only resent when it never reached the system;
+        // a package sent by an attempt the call did not settle on (it timed out) is cancelled
+        return guard.call(() -> externalSystem.sendPackageAsync(address, recipient, packageDetails),
+                        ExternalServiceGuard.Retry.IF_NOT_SENT, -1, this::cancelLatePackage)
+                .thenApply(transactionId -> {
+                    if (transactionId != -1) {
+                        logger.info("Delivery succeeded for " + recipient + " with transaction ID: " + transactionId);
+                        return transactionId;
+                    }
+                    logger.error("Delivery failed for " + recipient + "External system returned -1 or invalid transaction ID");
+                    return -1;
+                });
+    }
+
+    private void cancelLatePackage(int transactionId) {
+        if (transactionId == -1) {
+            return;
+        }
+        logger.warn("Cancelling package " + transactionId + " that was sent after its call was settled");
+        cancelAsync(transactionId).thenAccept(result -> {
+            if (result != 1) {
+                logger.error("Package " + transactionId + " was sent after its call was settled and must be cancelled manually");
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> cancelAsync(int transactionId) {
+        logger.info("Attempting to cancel the package with the transaction ID: " + transactionId);
+        // cancelling is keyed by the transaction id, so resending it is safe
+        return guard.call(() -> externalSystem.cancelPackageAsync(transactionId), ExternalServiceGuard.Retry.IDEMPOTENT, -1)
+                .thenApply(result -> {
+                    if (result == 1) {
+                        logger.info("Cancelled the package with the transaction ID: " + transactionId);
+                        return 1;
+                    }
+                    logger.error("Cancelling failed for the package with the transaction ID: " + transactionId);
+                    return -1;
+                });
+    }
+}
@@ -6,88 +6,72 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ExternalDeliverySystem {
     private static final String API_URL = "https://damp-lynna-wsep-1984852e.koyeb.app/";
-    private final HttpClient httpClient;
+    private final String apiUrl;
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalDeliverySystem.class);
-    public ExternalDeliverySystem() {
-        this.httpClient = HttpClient.newBuilder()
+
+    // One client for every instance, so all delivery calls share its connection pool
+    private static final class SharedClient {
+        private static final HttpClient INSTANCE = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
     }
 
+    public ExternalDeliverySystem() {
+        this(API_URL);
+    }
+
+    public ExternalDeliverySystem(String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
     // For testing: allow injection of a mock HttpClient
     protected HttpClient getHttpClient() {
-        return this.httpClient;
+        return SharedClient.INSTANCE;
     }
 
     public int sendPackage(String fullAddress, String recipient, String packageDetails) {
         try {
-            if (fullAddress == null || recipient == null || packageDetails == null) {
-                logger.error("Null argument(s) in sendPackage: address={}, recipient={}, packageDetails={}", fullAddress, recipient, packageDetails);
+            String formData = supplyForm(fullAddress, recipient, packageDetails);
+            if (formData == null) {
                 return -1;
             }
-            String[] addressParts = parseAddress(fullAddress);
-            if (addressParts.length != 4) {
-                logger.error("Invalid address format: {}", fullAddress);
-                return -1; // Return -1 on invalid format
-            }
-            String address = addressParts[0]; // This is the street address
-            String city = addressParts[1];
-            String country = addressParts[2];
-            String zip = addressParts[3];
-            // Create form-data payload for supply request
-            String formData = String.format(
-                "action_type=supply&name=%s&address=%s&city=%s&country=%s&zip=%s",
-                urlEncode(recipient), urlEncode(address),
-                urlEncode(city),    
-                urlEncode(country),
-                urlEncode(zip)
-            );
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-            // if body is a number between  [10000, 100000] return true, else return false
-            int body = Integer.parseInt(response.body());
-            if (body >= 10000 && body <= 100000) {
-                return body; // Return the transaction ID
-            }
-            return -1; // Return -1 on failure
+            HttpResponse<String> response = getHttpClient().send(formRequest(formData), HttpResponse.BodyHandlers.ofString());
+            return supplyResult(response.body());
         } catch (IOException | InterruptedException | NumberFormatException e) {
             logger.error("Error sending package: " + e.getMessage());
             return -1;
-        } catch (IllegalArgumentException e) {
-            logger.error("Address parsing error: " + e.getMessage());
-            return -1; // Indicate failure due to parsing
         }
     }
 
+    /**
+     * Same as sendPackage, but the request is sent with sendAsync and no thread waits for the answer.
+     * Unlike sendPackage it completes exceptionally, instead of with -1, when the request fails or
+     * the answer is not a number.
+     */
+    public CompletableFuture<Integer> sendPackageAsync(String fullAddress, String recipient, String packageDetails) {
+        String formData = supplyForm(fullAddress, recipient, packageDetails);
+        if (formData == null) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return getHttpClient().sendAsync(formRequest(formData), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> supplyResult(response.body()));
+    }
+
     public int cancelPackage(int transaction_Id) {
         try {
             // Create form-data payload for cancel_supply request
-            String formData = String.format(
-                "action_type=cancel_supply&transaction_id=%d",
-                transaction_Id
-            );
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            String formData = cancelForm(transaction_Id);
+
+
+            HttpResponse<String> response = getHttpClient().send(formRequest(formData), HttpResponse.BodyHandlers.ofString());
             // if body is a number between  [10000, 100000] return true, else return false
             int body = Integer.parseInt(response.body());
              if (body == 1) {
@@ -100,16 +84,20 @@ public class ExternalDeliverySystem {
         }
     }
 
+    /** Same as cancelPackage, sent like sendPackageAsync and failing the same way. */
+    public CompletableFuture<Integer> cancelPackageAsync(int transactionId) {
+        return getHttpClient().sendAsync(formRequest(cancelForm(transactionId)), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> Integer.parseInt(response.body()) == 1 ? 1 : -1);
+    }
+
+    private static String cancelForm(int transactionId) {
+        return String.format("action_type=cancel_supply&transaction_id=%d", transactionId);
+    }
+
     public String handshake() {
         try {
             String formData = "action_type=handshake";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = getHttpClient().send(formRequest(formData), HttpResponse.BodyHandlers.ofString());
             return response.body();
         } catch (IOException | InterruptedException e) {
             logger.error("Error during handshake: " + e.getMessage());
@@ -117,6 +105,51 @@ public class ExternalDeliverySystem {
         }
     }
 
+    // The form to post for a supply request, or null when the package cannot be sent
+    private String supplyForm(String fullAddress, String recipient, String packageDetails) {
+        if (fullAddress == null || recipient == null || packageDetails == null) {
+            logger.error("Null argument(s) in sendPackage: address={}, recipient={}, packageDetails={}", fullAddress, recipient, packageDetails);
+            return null;
+        }
+        String[] addressParts;
+        try {
+            addressParts = parseAddress(fullAddress);
+        } catch (IllegalArgumentException e) {
+            logger.error("Address parsing error: " + e.getMessage());
+            return null; // Indicate failure due to parsing
+        }
+        String address = addressParts[0]; // This is the street address
+        String city = addressParts[1];
+        String country = addressParts[2];
+        String zip = addressParts[3];
+        // Create form-data payload for supply request
+        return String.format(
+            "action_type=supply&name=%s&address=%s&city=%s&country=%s&zip=%s",
+            urlEncode(recipient), urlEncode(address),
+            urlEncode(city),    
+            urlEncode(country),
+            urlEncode(zip)
+        );
+    }
+
+    // if body is a number between  [10000, 100000] it is the transaction ID, else the supply failed
+    private int supplyResult(String responseBody) {
+        int body = Integer.parseInt(responseBody);
+        if (body >= 10000 && body <= 100000) {
+            return body; // Return the transaction ID
+        }
+        return -1; // Return -1 on failure
+    }
+
+    private HttpRequest formRequest(String formData) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formData))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
     // Helper method to URL encode form data
     private String urlEncode(String value) {
         if (value == null) return "";
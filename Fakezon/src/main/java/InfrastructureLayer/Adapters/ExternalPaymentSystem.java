@@ -6,6 +6,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -18,11 +19,24 @@ import org.slf4j.LoggerFactory;
 
 public class ExternalPaymentSystem {
     private static final String API_URL = "https://damp-lynna-wsep-1984852e.koyeb.app/";
-    private final HttpClient httpClient;
+    private final String apiUrl;
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalPaymentSystem.class);
 
+    // One client for every instance, so all payment calls share its connection pool
+    private static final class SharedClient {
+        private static final HttpClient INSTANCE = createHttpClient();
+    }
+
     public ExternalPaymentSystem() {
+        this(API_URL);
+    }
+
+    public ExternalPaymentSystem(String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
+    private static HttpClient createHttpClient() {
         try {
             TrustManager[] trustAllCerts = new TrustManager[]{
                 new X509TrustManager() {
@@ -39,7 +53,7 @@ public class ExternalPaymentSystem {
             HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
             // ------------------------------------------------------------
 
-            this.httpClient = HttpClient.newBuilder()
+            return HttpClient.newBuilder()
                     .sslContext(sslContext)
                     .connectTimeout(Duration.ofSeconds(10))
                     .build();
@@ -50,59 +64,17 @@ public class ExternalPaymentSystem {
     }
 
     protected HttpClient getHttpClient() {
-        return this.httpClient;
+        return SharedClient.INSTANCE;
     }
 
     public int processPayment(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int id) {
         try {
-            if (cardNumber == null || cardHolder == null || expDate == null || cvv == null) {
-                logger.error("Null argument(s) in processPayment: cardNumber={}, cardHolder={}, expDate={}, cvv={}", cardNumber, cardHolder, expDate, cvv);
+            String formData = paymentForm(cardNumber, cardHolder, expDate, cvv, amount, id);
+            if (formData == null) {
                 return -1;
             }
-            String month = "";
-            String year = "";
-            if (expDate != null && expDate.contains("/")) {
-                String[] parts = expDate.split("/");
-                if (parts.length == 2) {
-                    month = parts[0];
-                    year = parts[1];
-                    if (year.length() == 2) {
-                        year = "20" + year;
-                    }
-                } else {
-                    logger.error("Invalid expiration date format: {}", expDate);
-                    return -1;
-                }
-            } else {
-                logger.error("Invalid expiration date format: {}", expDate);
-                return -1;
-            }
-            String formData = String.format(
-                 "action_type=pay&amount=%.0f&currency=USD&card_number=%s&month=%s&year=%s&holder=%s&cvv=%s&id=%s",
-                amount, 
-                urlEncode(cardNumber), 
-                urlEncode(month), 
-                urlEncode(year), 
-                urlEncode(cardHolder), 
-                urlEncode(cvv),
-                urlEncode(String.valueOf(id))
-            );
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-            
-            int body = Integer.parseInt(response.body());
-            if (body >= 10000 && body <= 100000) {
-                return body;
-            }
-            logger.error("Payment failed with response: {}", response.body());
-            return -1;
+            HttpResponse<String> response = getHttpClient().send(formRequest(formData), HttpResponse.BodyHandlers.ofString());
+            return paymentResult(response.body());
             
         } catch (IOException | InterruptedException | NumberFormatException e) {
             logger.error("Error processing payment: " + e.getMessage());
@@ -110,25 +82,24 @@ public class ExternalPaymentSystem {
         }
     }
 
+    /**
+     * Same as processPayment, but the request is sent with sendAsync and no thread waits for the answer.
+     * Completes exceptionally when the system cannot be reached or answers something that is not
+     * a number, so the caller can tell an outage from a refusal.
+     */
+    public CompletableFuture<Integer> processPaymentAsync(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int id) {
+        String formData = paymentForm(cardNumber, cardHolder, expDate, cvv, amount, id);
+        if (formData == null) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return getHttpClient().sendAsync(formRequest(formData), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> paymentResult(response.body()));
+    }
+
     public int processRefund(int transactionId) {
         try {
-            String formData = String.format("action_type=cancel_pay&transaction_id=%d", transactionId);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-            
-            int body = Integer.parseInt(response.body());
-            if (body == 1) {
-                return 1;
-            }
-            logger.error("Process refund failed. External system returned: {}", body);
-            return -1;
+            HttpResponse<String> response = getHttpClient().send(formRequest(refundForm(transactionId)), HttpResponse.BodyHandlers.ofString());
+            return refundResult(response.body());
             
         } catch (IOException | InterruptedException | NumberFormatException e) {
             System.err.println("Error processing refund: " + e.getMessage());
@@ -136,16 +107,83 @@ public class ExternalPaymentSystem {
         }
     }
 
+    /** Same as processRefund, sent like processPaymentAsync and failing the same way. */
+    public CompletableFuture<Integer> processRefundAsync(int transactionId) {
+        return getHttpClient().sendAsync(formRequest(refundForm(transactionId)), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> refundResult(response.body()));
+    }
+
+    // The form to post for a payment, or null when the card details are incomplete
+    private String paymentForm(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int id) {
+        if (cardNumber == null || cardHolder == null || expDate == null || cvv == null) {
+            logger.error("Null argument(s) in processPayment: cardNumber={}, cardHolder={}, expDate={}, cvv={}", cardNumber, cardHolder, expDate, cvv);
+            return null;
+        }
+        String month = "";
+        String year = "";
+        if (expDate != null && expDate.contains("/")) {
+            String[] parts = expDate.split("/");
+            if (parts.length == 2) {
+                month = parts[0];
+                year = parts[1];
+                if (year.length() == 2) {
+                    year = "20" + year;
+                }
+            } else {
+                logger.error("Invalid expiration date format: {}", expDate);
+                return null;
+            }
+        } else {
+            logger.error("Invalid expiration date format: {}", expDate);
+            return null;
+        }
+        return String.format(
+             "action_type=pay&amount=%.0f&currency=USD&card_number=%s&month=%s&year=%s&holder=%s&cvv=%s&id=%s",
+            amount, 
+            urlEncode(cardNumber), 
+            urlEncode(month), 
+            urlEncode(year), 
+            urlEncode(cardHolder), 
+            urlEncode(cvv),
+            urlEncode(String.valueOf(id))
+        );
+    }
+
+    private String refundForm(int transactionId) {
+        return String.format("action_type=cancel_pay&transaction_id=%d", transactionId);
+    }
+
+    private int paymentResult(String responseBody) {
+        int body = Integer.parseInt(responseBody);
+        if (body >= 10000 && body <= 100000) {
+            return body;
+        }
+        logger.error("Payment failed with response: {}", responseBody);
+        return -1;
+    }
+
+    private int refundResult(String responseBody) {
+        int body = Integer.parseInt(responseBody);
+        if (body == 1) {
+            return 1;
+        }
+        logger.error("Process refund failed. External system returned: {}", body);
+        return -1;
+    }
+
+    private HttpRequest formRequest(String formData) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formData))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
     public String handshake() {
         try {
             String formData = "action_type=handshake";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .POST(HttpRequest.BodyPublishers.ofString(formData))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = getHttpClient().send(formRequest(formData), HttpResponse.BodyHandlers.ofString());
             String body = response.body();
             if (body != null && body.trim().equalsIgnoreCase("ok")) {
                 return "OK";
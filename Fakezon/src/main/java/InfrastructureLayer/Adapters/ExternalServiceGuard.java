@@ -0,0 +1,424 @@
+package InfrastructureLayer.Adapters;
+
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Guards the async calls to one external system, so a slow or failing system costs a checkout a
+ * bounded wait instead of a stalled thread:
+ * - a bulkhead caps the attempts in flight; each attempt, retried, hedged or abandoned, holds a
+ *   permit until it answers, and a call or retry over the cap fails at once,
+ * - a circuit breaker fails calls at once while too many recent calls failed, then lets a single
+ *   probe through after a cool-down to see whether the system is back,
+ * - each attempt gets a timeout derived from the observed p99 latency,
+ * - idempotent calls are retried, and an attempt that times out is hedged: the next attempt
+ *   starts while it stays in flight, and whichever answers first wins.
+ *
+ * A guarded call never completes exceptionally; when it gives up it completes with the fallback.
+ * An attempt may still succeed after that, or after another attempt won: such a late success is
+ * handed to the call's undo (a refund, a cancellation), unless it is the very result the call
+ * settled with - the system recognized the resent request and acted on it once.
+ */
+public class ExternalServiceGuard {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalServiceGuard.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** When an attempt that failed may be made again. */
+    public enum Retry {
+        /** Every failure or timeout; the call carries its own idempotency key (payment ID, transaction ID). */
+        IDEMPOTENT,
+        /** Only when the request never reached the system, so it cannot have been acted on. */
+        IF_NOT_SENT
+    }
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20; // below this, attempts get the maximum timeout
+    private static final int TIMEOUT_P99_MULTIPLIER = 2;
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final long minTimeoutMillis;
+    private final long maxTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Clock clock;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+
+    // circuit breaker, guarded by this
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private final boolean[] outcomes; // ring of the last windowSize call results, true = failed
+    private int outcomeCount;
+    private int outcomeIndex;
+    private int failuresInWindow;
+
+    // latency of successful attempts, in nanos, guarded by latencies
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyIndex;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder lateSuccesses = new LongAdder();
+
+    public ExternalServiceGuard(String name) {
+        this(name, 20, 20, 10, 0.5, Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(10),
+                3, Duration.ofMillis(200), Clock.systemUTC());
+    }
+
+    public ExternalServiceGuard(String name, int maxConcurrentCalls, int windowSize, int minimumCalls,
+            double failureRateThreshold, Duration openDuration, Duration minTimeout, Duration maxTimeout,
+            int maxAttempts, Duration retryBackoff, Clock clock) {
+        if (maxConcurrentCalls < 1 || windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || maxAttempts < 1) {
+            throw new IllegalArgumentException("Invalid guard settings for " + name);
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.minTimeoutMillis = minTimeout.toMillis();
+        this.maxTimeoutMillis = maxTimeout.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Runs the operation under the guard. Every attempt calls the operation again, so it must
+     * resend the same request (with the same idempotency key) each time.
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> operation, Retry retry, T fallback) {
+        return call(operation, retry, fallback, null);
+    }
+
+    /**
+     * Same, with an undo for the result of an attempt that succeeds once the call has settled on
+     * another result; it gets every such result, the fallback-like ones included, and picks what to undo.
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> operation, Retry retry, T fallback,
+            Consumer<T> undo) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejected.increment();
+            logger.warn("ExternalServiceGuard - " + name + " call rejected: " + maxConcurrentCalls + " calls already in flight");
+            return CompletableFuture.completedFuture(fallback);
+        }
+        if (!allowCall()) {
+            bulkhead.release();
+            shortCircuited.increment();
+            logger.warn("ExternalServiceGuard - " + name + " call rejected: circuit is " + getState());
+            return CompletableFuture.completedFuture(fallback);
+        }
+        GuardedCall<T> call = new GuardedCall<>(operation, retry, fallback, undo);
+        call.launch(1);
+        return call.result;
+    }
+
+    private final class GuardedCall<T> {
+        private final Supplier<CompletableFuture<T>> operation;
+        private final Retry retry;
+        private final T fallback;
+        private final Consumer<T> undo; // null: late successes are only counted
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger attempts = new AtomicInteger(1);
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private int pending = 1; // attempts in flight or scheduled, guarded by this
+
+        private GuardedCall(Supplier<CompletableFuture<T>> operation, Retry retry, T fallback, Consumer<T> undo) {
+            this.operation = operation;
+            this.retry = retry;
+            this.fallback = fallback;
+            this.undo = undo;
+        }
+
+        // the first attempt runs on the permit call() took; false when a later one finds none free
+        private boolean launch(int attempt) {
+            if (attempt > 1 && !bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                logger.warn("ExternalServiceGuard - " + name + " attempt " + attempt + " rejected: "
+                        + maxConcurrentCalls + " attempts already in flight");
+                synchronized (this) {
+                    pending--;
+                    if (pending == 0) {
+                        giveUp();
+                    }
+                }
+                return false;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = operation.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<T> attemptFuture = future;
+            CompletableFuture.delayedExecutor(currentTimeoutMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                if (!attemptFuture.isDone() && !settled.get()) {
+                    timeouts.increment();
+                    logger.warn("ExternalServiceGuard - " + name + " attempt " + attempt + " timed out");
+                    onTimeout();
+                }
+            });
+            attemptFuture.whenComplete((value, error) -> {
+                bulkhead.release();
+                if (error == null) {
+                    recordLatency(System.nanoTime() - start);
+                    synchronized (this) {
+                        pending--;
+                    }
+                    if (!settle(value, false)) {
+                        onLateSuccess(attempt, value);
+                    }
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    logger.warn("ExternalServiceGuard - " + name + " attempt " + attempt + " failed: " + cause);
+                    onFailure(cause);
+                }
+            });
+            return true;
+        }
+
+        // the attempt may still answer: hedge with another attempt now, or give up
+        private synchronized void onTimeout() {
+            if (settled.get()) {
+                return;
+            }
+            int attempt = retry == Retry.IDEMPOTENT ? claimAttempt() : 0;
+            if (attempt == 0) {
+                giveUp();
+            } else {
+                retries.increment();
+                if (!launch(attempt)) {
+                    giveUp(); // the timed-out attempt may never answer
+                }
+            }
+        }
+
+        private synchronized void onFailure(Throwable cause) {
+            pending--;
+            if (settled.get()) {
+                return;
+            }
+            boolean retryable = retry == Retry.IDEMPOTENT || cause instanceof ConnectException;
+            int attempt = retryable ? claimAttempt() : 0;
+            if (attempt > 0) {
+                retries.increment();
+                long backoff = retryBackoffMillis * (1L << Math.min(attempt - 2, 10));
+                CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS).execute(() -> launch(attempt));
+            } else if (pending == 0) {
+                giveUp(); // else a hedged attempt is still in flight, and its own timeout bounds the wait
+            }
+        }
+
+        // the call already settled (gave up, or another attempt won) but this attempt was acted on too
+        private void onLateSuccess(int attempt, T value) {
+            T settledWith = result.join(); // completed right after settled is set, never exceptionally
+            if (Objects.equals(value, settledWith)) {
+                return;
+            }
+            lateSuccesses.increment();
+            logger.warn("ExternalServiceGuard - " + name + " attempt " + attempt + " answered " + value
+                    + " after the call settled with " + settledWith);
+            if (undo != null) {
+                try {
+                    undo.accept(value);
+                } catch (RuntimeException e) {
+                    logger.error("ExternalServiceGuard - " + name + " could not undo " + value + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // claimed when the attempt is scheduled, so failures racing each other cannot exceed maxAttempts; 0 when spent
+        private synchronized int claimAttempt() {
+            if (attempts.get() >= maxAttempts || getState() == State.OPEN) {
+                return 0;
+            }
+            pending++;
+            return attempts.incrementAndGet();
+        }
+
+        private void giveUp() {
+            if (settle(fallback, true)) {
+                logger.error("ExternalServiceGuard - " + name + " call failed after " + attempts.get() + " attempt(s)");
+            }
+        }
+
+        // the first attempt to answer (or the decision to give up) settles the call; metrics first, so they are current once the caller sees the result
+        private boolean settle(T value, boolean failed) {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            (failed ? failures : successes).increment();
+            recordOutcome(failed);
+            result.complete(value);
+            return true;
+        }
+    }
+
+    private synchronized boolean allowCall() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("ExternalServiceGuard - " + name + " circuit half-open, probing");
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    private synchronized void recordOutcome(boolean failed) {
+        switch (state) {
+            case HALF_OPEN:
+                probeInFlight = false;
+                if (failed) {
+                    open();
+                } else {
+                    state = State.CLOSED;
+                    outcomeCount = 0;
+                    outcomeIndex = 0;
+                    failuresInWindow = 0;
+                    logger.info("ExternalServiceGuard - " + name + " circuit closed");
+                }
+                return;
+            case OPEN:
+                return; // a call admitted before the circuit opened
+            default:
+                if (outcomeCount == windowSize) {
+                    if (outcomes[outcomeIndex]) {
+                        failuresInWindow--;
+                    }
+                } else {
+                    outcomeCount++;
+                }
+                outcomes[outcomeIndex] = failed;
+                if (failed) {
+                    failuresInWindow++;
+                }
+                outcomeIndex = (outcomeIndex + 1) % windowSize;
+                if (outcomeCount >= minimumCalls && failuresInWindow >= failureRateThreshold * outcomeCount) {
+                    open();
+                }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        logger.error("ExternalServiceGuard - " + name + " circuit opened for " + openMillis + " ms");
+    }
+
+    private void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+            if (latencyCount < LATENCY_SAMPLES) {
+                latencyCount++;
+            }
+        }
+    }
+
+    /** Latency of recent successful attempts at the given percentile (0-100), in ms; 0 before any. */
+    public double getLatencyPercentileMillis(double percentile) {
+        long[] sorted;
+        synchronized (latencies) {
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int at = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(at, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    /** Timeout the next attempt gets: twice the observed p99, within the configured bounds. */
+    public long currentTimeoutMillis() {
+        synchronized (latencies) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return maxTimeoutMillis;
+            }
+        }
+        long timeout = (long) Math.ceil(getLatencyPercentileMillis(99) * TIMEOUT_P99_MULTIPLIER);
+        return Math.max(minTimeoutMillis, Math.min(maxTimeoutMillis, timeout));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Attempts in flight, including hedged and abandoned ones that have not answered yet. */
+    public int getActiveCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getShortCircuitedCount() {
+        return shortCircuited.sum();
+    }
+
+    public long getBulkheadRejectedCount() {
+        return bulkheadRejected.sum();
+    }
+
+    public long getLateSuccessCount() {
+        return lateSuccesses.sum();
+    }
+}
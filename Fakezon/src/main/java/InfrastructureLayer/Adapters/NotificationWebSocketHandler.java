@@ -1,59 +1,243 @@
 package InfrastructureLayer.Adapters;
 
 import ApplicationLayer.Interfaces.INotificationWebSocketHandler;
-import ApplicationLayer.Services.ProductService;
+
+import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-@Component
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Pushes notifications to the browser sessions subscribed to them; a client subscribes by sending
+ * its user ID once connected.
+ *
+ * Subscriptions are indexed both ways (user ID to sessions, session to user IDs), so a broadcast
+ * touches only the user's sessions and a disconnect only the session's own subscriptions. Each
+ * session has its own bounded outbox (see SessionOutbox), so a slow client delays nobody but
+ * itself, and loses or coalesces its oldest messages when it falls behind. A heartbeat thread
+ * pings every session and closes the ones that have not been heard from within the idle timeout.
+ */
+@Component
 public class NotificationWebSocketHandler extends TextWebSocketHandler implements INotificationWebSocketHandler {
-    // Need to set up and create events for the client to subscribe to those events can be created from string or enum
-    // Map of event types to connected WebSocket sessions
-    private static final Map<String, Set<WebSocketSession>> eventSubscriptions = Collections.synchronizedMap(new HashMap<>()); // (string) userId -> set(socket)
-    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final Logger logger = LoggerFactory.getLogger(NotificationWebSocketHandler.class);
+
+    private final Map<String, SessionOutbox> sessions = new ConcurrentHashMap<>(); // session ID -> outbox
+    private final Map<String, Set<SessionOutbox>> subscribers = new ConcurrentHashMap<>(); // (string) userId -> outboxes
+    private final int queueLimit;
+    private final long sendTimeLimitMillis;
+    private final long heartbeatMillis;
+    private final long idleTimeoutMillis;
+    private volatile Thread heartbeat;
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder slowClosed = new LongAdder();
+    private final LongAdder idleClosed = new LongAdder();
+
+    public NotificationWebSocketHandler() {
+        this(100, 10_000, 25_000, 75_000);
+    }
+
+    @Autowired
+    public NotificationWebSocketHandler(@Value("${notifications.ws.queue-limit:100}") int queueLimit,
+            @Value("${notifications.ws.send-time-limit-ms:10000}") long sendTimeLimitMillis,
+            @Value("${notifications.ws.heartbeat-ms:25000}") long heartbeatMillis,
+            @Value("${notifications.ws.idle-timeout-ms:75000}") long idleTimeoutMillis) {
+        if (queueLimit <= 0 || sendTimeLimitMillis <= 0 || heartbeatMillis <= 0 || idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid notification web socket settings");
+        }
+        this.queueLimit = queueLimit;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        logger.info("WebSocket connection established: " + session.getId());
+        String id = session.getId();
+        outbox(session, id);
+        logger.info("WebSocket connection established: " + id);
     }
 
     @Override
     public void handleTextMessage(WebSocketSession session, TextMessage message) {
         String event = message.getPayload();  // Expecting event type as message
-        eventSubscriptions.computeIfAbsent(event,
-                k -> Collections.synchronizedSet(new HashSet<>())).add(session);
+        SessionOutbox outbox = outbox(session, session.getId());
+        outbox.touch();
+        if (outbox.getSubscriptions().add(event)) {
+            subscribers.compute(event, (key, outboxes) -> {
+                Set<SessionOutbox> set = outboxes != null ? outboxes : ConcurrentHashMap.newKeySet();
+                set.add(outbox);
+                return set;
+            });
+        }
         logger.info("Client subscribed to event: " + event);
     }
 
     @Override
-    public void afterConnectionClosed(WebSocketSession session, org.springframework.web.socket.CloseStatus status) {
-        eventSubscriptions.forEach((event, sessions) -> sessions.remove(session));
-        logger.info("WebSocket connection closed: " + session.getId());
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        SessionOutbox outbox = sessions.get(session.getId());
+        if (outbox != null) {
+            outbox.touch();
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        String id = session.getId();
+        SessionOutbox outbox = sessions.remove(id);
+        if (outbox != null) {
+            unsubscribe(outbox);
+        }
+        logger.info("WebSocket connection closed: " + id);
     }
 
     public void broadcast(String userId, String message) {
-        Set<WebSocketSession> sessions = eventSubscriptions.get(userId);
-        if (sessions != null) {
-            synchronized (sessions) {
-                for (WebSocketSession session : sessions) {
-                    try {
-                        session.sendMessage(new TextMessage(message));
-                    } catch (Exception e) {
-                        logger.error("Error sending message to session " + session.getId() + ": " + e.getMessage());
-                    }
+        Set<SessionOutbox> outboxes = subscribers.get(userId);
+        if (outboxes == null) {
+            return;
+        }
+        for (SessionOutbox outbox : outboxes) {
+            try {
+                switch (outbox.send(message)) {
+                    case COALESCED:
+                        coalesced.increment();
+                        break;
+                    case DROPPED_OLDEST:
+                        dropped.increment();
+                        break;
+                    case SLOW_CONSUMER:
+                        slowClosed.increment();
+                        logger.warn("NotificationWebSocketHandler - closed slow session " + outbox.getId() + " of user " + userId);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (Exception e) {
+                failed.increment();
+                logger.error("Error sending message to session " + outbox.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Pings every session and closes the ones silent for longer than the idle timeout; run by the heartbeat thread. */
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (SessionOutbox outbox : sessions.values()) {
+            if (now - outbox.getLastSeenMillis() > idleTimeoutMillis) {
+                idleClosed.increment();
+                logger.info("NotificationWebSocketHandler - closing idle session " + outbox.getId());
+                if (sessions.remove(outbox.getId(), outbox)) {
+                    unsubscribe(outbox);
                 }
+                outbox.close(CloseStatus.SESSION_NOT_RELIABLE);
+                continue;
+            }
+            try {
+                outbox.ping();
+            } catch (Exception e) {
+                logger.warn("NotificationWebSocketHandler - failed to ping session " + outbox.getId() + ": " + e.getMessage());
             }
         }
     }
+
+    private SessionOutbox outbox(WebSocketSession session, String id) {
+        SessionOutbox outbox = sessions.computeIfAbsent(id, key -> new SessionOutbox(session, key, queueLimit, sendTimeLimitMillis));
+        ensureHeartbeatStarted();
+        return outbox;
+    }
+
+    private void unsubscribe(SessionOutbox outbox) {
+        for (String event : outbox.getSubscriptions()) {
+            subscribers.computeIfPresent(event, (key, outboxes) -> {
+                outboxes.remove(outbox);
+                return outboxes.isEmpty() ? null : outboxes;
+            });
+        }
+    }
+
+    private void ensureHeartbeatStarted() {
+        if (heartbeat == null) {
+            synchronized (this) {
+                if (heartbeat == null) {
+                    Thread t = new Thread(this::runHeartbeat, "ws-heartbeat");
+                    t.setDaemon(true);
+                    t.start();
+                    heartbeat = t;
+                }
+            }
+        }
+    }
+
+    private void runHeartbeat() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(heartbeatMillis);
+                sendHeartbeats();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("NotificationWebSocketHandler - heartbeat failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread t = heartbeat;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getSubscribedUserCount() {
+        return subscribers.size();
+    }
+
+    /** Messages waiting in the outboxes of every session. */
+    public int getBufferedCount() {
+        int buffered = 0;
+        for (SessionOutbox outbox : sessions.values()) {
+            buffered += outbox.getBufferedCount();
+        }
+        return buffered;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getSlowClosedCount() {
+        return slowClosed.sum();
+    }
+
+    public long getIdleClosedCount() {
+        return idleClosed.sum();
+    }
 }
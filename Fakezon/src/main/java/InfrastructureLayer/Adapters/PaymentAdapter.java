@@ -1,5 +1,7 @@
 package InfrastructureLayer.Adapters;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -11,13 +13,23 @@ import InfrastructureLayer.Adapters.ExternalPaymentSystem;
 
 public class PaymentAdapter implements IPayment {
     private final ExternalPaymentSystem externalSystem;
+    private final ExternalServiceGuard guard;
     private final Logger logger = LoggerFactory.getLogger(PaymentAdapter.class);
 
     public PaymentAdapter() {
-        this.externalSystem = new ExternalPaymentSystem();
+        this(new ExternalPaymentSystem());
     }
     public PaymentAdapter(ExternalPaymentSystem externalSystem) {
+        this(externalSystem, new ExternalServiceGuard("payment"));
+    }
+    public PaymentAdapter(ExternalPaymentSystem externalSystem, ExternalServiceGuard guard) {
         this.externalSystem = externalSystem;
+        this.guard = guard;
+    }
+
+    // State and latency of the async calls to the payment system
+    public ExternalServiceGuard getGuard() {
+        return guard;
     }
     @Override
     public int pay(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int userId) {
@@ -48,6 +60,51 @@ public class PaymentAdapter implements IPayment {
             return -1;
         }
     }
-}
 
+    @Override
+    public CompletableFuture<Integer> payAsync(String cardNumber, String cardHolder, String expDate, String cvv, double amount, int userId) {
+        logger.info("Attempting payment for " + cardHolder + ", amount: " + amount);
+        if (cardNumber == null || cardHolder == null || expDate == null || cvv == null) {
+            logger.error("Payment failed due to missing information for " + cardHolder);
+            return CompletableFuture.completedFuture(-1);
+        }
+        // every attempt resends the same id, which keys the payment at the external system; a charge
+        // made by an attempt the call did not settle on is refunded
+        return guard.call(() -> externalSystem.processPaymentAsync(cardNumber, cardHolder, expDate, cvv, amount, userId),
+                        ExternalServiceGuard.Retry.IDEMPOTENT, -1, this::refundLateCharge)
+                .thenApply(transactionId -> {
+                    if (transactionId != -1) {
+                        logger.info("Payment succeeded for " + cardHolder);
+                        return transactionId;
+                    }
+                    logger.error("Payment failed for " + cardHolder);
+                    return -1;
+                });
+    }
+
+    private void refundLateCharge(int transactionId) {
+        if (transactionId == -1) {
+            return;
+        }
+        logger.warn("Refunding payment " + transactionId + " that succeeded after its call was settled");
+        refundAsync(transactionId).thenAccept(result -> {
+            if (result != 1) {
+                logger.error("Payment " + transactionId + " was charged after its call was settled and must be refunded manually");
+            }
+        });
+    }
 
+    @Override
+    public CompletableFuture<Integer> refundAsync(int transactionId) {
+        logger.info("Attempting refund for payment with the transactionID: " + transactionId);
+        return guard.call(() -> externalSystem.processRefundAsync(transactionId), ExternalServiceGuard.Retry.IDEMPOTENT, -1)
+                .thenApply(result -> {
+                    if (result == 1) {
+                        logger.info("Refund succeeded for payment with the transaction ID: " + transactionId);
+                        return 1;
+                    }
+                    logger.error("Refund failed for payment with the transaction ID: " + transactionId);
+                    return -1;
+                });
+    }
+}
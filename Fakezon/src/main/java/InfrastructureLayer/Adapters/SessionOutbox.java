@@ -0,0 +1,153 @@
+package InfrastructureLayer.Adapters;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Outbound side of one web socket session, in the manner of Spring's
+ * ConcurrentWebSocketSessionDecorator: whichever thread finds the session idle sends everything
+ * buffered for it, every other thread only buffers and returns. The buffer is bounded; when it is
+ * full a message already waiting with the same text absorbs the new one, otherwise the oldest
+ * waiting message is dropped. A send that has been stuck longer than the send time limit marks
+ * the client as too slow, and the session is closed.
+ */
+final class SessionOutbox {
+
+    enum Outcome { QUEUED, COALESCED, DROPPED_OLDEST, SLOW_CONSUMER }
+
+    private final WebSocketSession session;
+    private final String id;
+    private final int queueLimit;
+    private final long sendTimeLimitNanos;
+    private final Deque<String> buffer = new ArrayDeque<>(); // guarded by buffer
+    private final ReentrantLock flushLock = new ReentrantLock(); // held while writing to the session
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile long sendStartNanos; // 0 when no send is in progress
+    private volatile long lastSeenMillis;
+    private volatile boolean closing;
+
+    SessionOutbox(WebSocketSession session, String id, int queueLimit, long sendTimeLimitMillis) {
+        this.session = session;
+        this.id = id;
+        this.queueLimit = queueLimit;
+        this.sendTimeLimitNanos = sendTimeLimitMillis * 1_000_000L;
+        this.lastSeenMillis = System.currentTimeMillis();
+    }
+
+    Outcome send(String message) throws IOException {
+        Outcome outcome = Outcome.QUEUED;
+        synchronized (buffer) {
+            if (buffer.size() >= queueLimit) {
+                if (buffer.contains(message)) {
+                    return Outcome.COALESCED;
+                }
+                buffer.pollFirst();
+                outcome = Outcome.DROPPED_OLDEST;
+            }
+            buffer.addLast(message);
+        }
+        if (!flush() && isSendTimeLimitExceeded()) {
+            closeAsSlow();
+            return Outcome.SLOW_CONSUMER;
+        }
+        return outcome;
+    }
+
+    // sends what is buffered unless another thread is already sending; true if this thread sent anything
+    private boolean flush() throws IOException {
+        boolean flushed = false;
+        // re-check after unlocking: a message buffered while this thread was sending would otherwise wait for the next send
+        while (!closing && hasBuffered() && flushLock.tryLock()) {
+            try {
+                String next;
+                while (!closing && (next = poll()) != null) {
+                    sendStartNanos = System.nanoTime();
+                    session.sendMessage(new TextMessage(next));
+                }
+                flushed = true;
+            } finally {
+                sendStartNanos = 0;
+                flushLock.unlock();
+            }
+        }
+        return flushed;
+    }
+
+    /** Pings the client unless a send is in progress, which shows the connection is in use anyway. */
+    void ping() throws IOException {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            session.sendMessage(new PingMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    void close(CloseStatus status) {
+        closing = true;
+        synchronized (buffer) {
+            buffer.clear();
+        }
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+            // the connection is gone either way
+        }
+    }
+
+    private void closeAsSlow() {
+        if (!closing) {
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private boolean isSendTimeLimitExceeded() {
+        long start = sendStartNanos;
+        return start != 0 && System.nanoTime() - start > sendTimeLimitNanos;
+    }
+
+    private boolean hasBuffered() {
+        synchronized (buffer) {
+            return !buffer.isEmpty();
+        }
+    }
+
+    private String poll() {
+        synchronized (buffer) {
+            return buffer.pollFirst();
+        }
+    }
+
+    void touch() {
+        lastSeenMillis = System.currentTimeMillis();
+    }
+
+    long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    int getBufferedCount() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    Set<String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    String getId() {
+        return id;
+    }
+}
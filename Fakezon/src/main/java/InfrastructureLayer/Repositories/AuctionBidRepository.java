@@ -0,0 +1,90 @@
+package InfrastructureLayer.Repositories;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import DomainLayer.IRepository.IAuctionBidRepository;
+import DomainLayer.Model.AuctionBid;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.StoreProductKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+@Transactional
+public class AuctionBidRepository implements IAuctionBidRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Its own transaction even when called from one, so the outbid bidders are only told about stored bids
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void appendBids(Collection<AuctionBid> bids) {
+        Map<StoreProductKey, AuctionBid> best = new LinkedHashMap<>();
+        for (AuctionBid bid : bids) {
+            entityManager.persist(bid);
+            best.merge(new StoreProductKey(bid.getStoreId(), bid.getProductId()), bid,
+                    (kept, other) -> other.getAmount() > kept.getAmount() ? other : kept);
+        }
+        for (AuctionBid bid : best.values()) {
+            raiseHighestBid(bid.getStoreId(), bid.getProductId(), bid.getUserId(), bid.getAmount());
+        }
+    }
+
+    // A bulk update, so the Store and its version are not touched
+    @Override
+    public void raiseHighestBid(int storeId, int productId, int userId, double amount) {
+        entityManager.createQuery("UPDATE AuctionProduct a SET a.currentHighestBid = :amount, a.userIDHighestBid = :userId "
+                + "WHERE a.isDone = false AND a.currentHighestBid < :amount AND a.storeProduct IN "
+                + "(SELECT sp FROM StoreProduct sp WHERE sp.storeId = :storeId AND sp.SproductID = :productId)")
+                .setParameter("amount", amount)
+                .setParameter("userId", userId)
+                .setParameter("storeId", storeId)
+                .setParameter("productId", productId)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuctionProduct findAuction(int storeId, int productId) {
+        List<AuctionProduct> found = entityManager.createQuery(
+                "SELECT a FROM AuctionProduct a JOIN FETCH a.storeProduct sp "
+                + "WHERE sp.storeId = :storeId AND sp.SproductID = :productId ORDER BY a.id DESC", AuctionProduct.class)
+                .setParameter("storeId", storeId)
+                .setParameter("productId", productId)
+                .setMaxResults(1)
+                .getResultList();
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean storeExists(int storeId) {
+        return entityManager.createQuery("SELECT COUNT(s) FROM Store s WHERE s.storeID = :storeId", Long.class)
+                .setParameter("storeId", storeId)
+                .getSingleResult() > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuctionBid> getBids(int storeId, int productId) {
+        return entityManager.createQuery(
+                "SELECT b FROM AuctionBid b WHERE b.storeId = :storeId AND b.productId = :productId ORDER BY b.placedAt, b.id",
+                AuctionBid.class)
+                .setParameter("storeId", storeId)
+                .setParameter("productId", productId)
+                .getResultList();
+    }
+
+    @Override
+    public void clearAllData() {
+        entityManager.createQuery("DELETE FROM AuctionBid").executeUpdate();
+    }
+}
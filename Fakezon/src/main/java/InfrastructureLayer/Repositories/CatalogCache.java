@@ -0,0 +1,166 @@
+package InfrastructureLayer.Repositories;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache for catalog rows that are read far more often than they are written.
+ *
+ * Entries are dropped after the TTL, and past the maximum size the least recently used go first.
+ * Writers invalidate what they change; when that happens inside a transaction the entries are
+ * dropped again once it completes, so a reader that loaded the old row before the commit can
+ * not keep it. A load that overlaps an invalidation is returned to its caller but not kept.
+ * A maximum size of 0 turns the cache off: every get goes to the loader.
+ */
+public class CatalogCache<K, V> {
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation; // bumped by every invalidation, guarded by entries
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CatalogCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, Clock.systemUTC());
+    }
+
+    public CatalogCache(String name, int maxSize, long ttlMillis, Clock clock) {
+        if (maxSize < 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size can not be negative and its TTL must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > CatalogCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /** The cached value, or the loader's; null values are returned but never cached. */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (!isEnabled()) {
+            return loader.apply(key);
+        }
+        long seen;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > clock.millis()) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            seen = generation;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (generation == seen) {
+                    entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        invalidateIf(key::equals);
+    }
+
+    public void invalidateIf(Predicate<? super K> which) {
+        if (!isEnabled()) {
+            return;
+        }
+        invalidations.increment();
+        drop(which);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(which);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    private void drop(Predicate<? super K> which) {
+        synchronized (entries) {
+            generation++;
+            entries.keySet().removeIf(which);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + " cache: " + size() + " entries, " + getHitCount() + " hits, " + getMissCount() + " misses, "
+                + getEvictionCount() + " evictions, " + getInvalidationCount() + " invalidations";
+    }
+}
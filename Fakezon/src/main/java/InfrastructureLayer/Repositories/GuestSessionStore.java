@@ -0,0 +1,286 @@
+package InfrastructureLayer.Repositories;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import DomainLayer.Model.User;
+
+/**
+ * Guest (unsigned) users by ID.
+ *
+ * Guests idle for longer than the TTL are dropped, and when the store grows past its maximum
+ * size the least recently used guests go first, so abandoned guests can not pile up.
+ * A guest idle for a while is kept as a compact cart (store, product, quantity triples)
+ * instead of the full object graph and is rebuilt on its next access.
+ * Expired entries are swept on the calling thread, at most once per sweep interval.
+ */
+@Component
+public class GuestSessionStore {
+    private static final Logger logger = LoggerFactory.getLogger(GuestSessionStore.class);
+
+    private static final int DEFAULT_MAX_SIZE = 100_000;
+    private static final long DEFAULT_IDLE_TTL = 2 * 60 * 60 * 1000; // 2 hours, as long as a guest token lives
+    private static final long DEFAULT_COMPACT_AFTER = 10 * 60 * 1000; // 10 minutes
+    private static final int[] EMPTY_CART = new int[0];
+
+    private static final class Session {
+        // The guest itself, or its cart as store, product, quantity triples while compacted
+        private volatile Object state;
+        private volatile long lastAccess;
+
+        private Session(User user, long now) {
+            this.state = user;
+            this.lastAccess = now;
+        }
+
+        private User user(int userId) {
+            Object current = state;
+            return current instanceof User ? (User) current : restore(userId, (int[]) current);
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long idleTtl;
+    private final long compactAfter;
+    private final long sweepInterval;
+    private final Clock clock;
+    private final AtomicLong nextSweep;
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder compacted = new LongAdder();
+
+    public GuestSessionStore() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_IDLE_TTL, DEFAULT_COMPACT_AFTER, Clock.systemUTC());
+    }
+
+    @Autowired
+    public GuestSessionStore(@Value("${guest.sessions.max-size:100000}") int maxSize,
+            @Value("${guest.sessions.idle-ttl-minutes:120}") int idleTtlMinutes,
+            @Value("${guest.sessions.compact-after-minutes:10}") int compactAfterMinutes) {
+        this(maxSize, idleTtlMinutes * 60_000L, compactAfterMinutes * 60_000L, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxSize most guests kept at once
+     * @param idleTtl how long a guest may go unused before it is dropped
+     * @param compactAfter how long a guest may go unused before only its cart is kept
+     */
+    public GuestSessionStore(int maxSize, long idleTtl, long compactAfter, Clock clock) {
+        if (maxSize <= 0 || idleTtl <= 0 || compactAfter <= 0) {
+            throw new IllegalArgumentException("Guest session limits must be positive");
+        }
+        this.maxSize = maxSize;
+        this.idleTtl = idleTtl;
+        this.compactAfter = compactAfter;
+        this.sweepInterval = Math.max(1000, Math.min(idleTtl, compactAfter) / 4);
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.millis() + sweepInterval);
+    }
+
+    /** Adds the guest; false if a guest with the same ID is already stored. */
+    public boolean add(User user) {
+        long now = clock.millis();
+        boolean added = sessions.putIfAbsent(user.getUserId(), new Session(user, now)) == null;
+        if (added && sessions.size() > maxSize) {
+            sweep(now, true);
+        } else {
+            maybeSweep(now);
+        }
+        return added;
+    }
+
+    /** Replaces a stored guest; false if the guest is not (or no longer) stored. */
+    public boolean replace(User user) {
+        long now = clock.millis();
+        return sessions.computeIfPresent(user.getUserId(), (id, session) -> {
+            if (isExpired(session, now)) {
+                expired.increment();
+                return null;
+            }
+            session.state = user;
+            session.lastAccess = now;
+            return session;
+        }) != null;
+    }
+
+    public Optional<User> get(int userId) {
+        long now = clock.millis();
+        maybeSweep(now);
+        Session session = sessions.computeIfPresent(userId, (id, s) -> {
+            if (isExpired(s, now)) {
+                expired.increment();
+                return null;
+            }
+            if (!(s.state instanceof User)) {
+                s.state = restore(id, (int[]) s.state);
+            }
+            s.lastAccess = now;
+            return s;
+        });
+        return session == null ? Optional.empty() : Optional.of((User) session.state);
+    }
+
+    public boolean contains(int userId) {
+        Session session = sessions.get(userId);
+        if (session == null) {
+            return false;
+        }
+        long now = clock.millis();
+        if (isExpired(session, now)) {
+            if (sessions.remove(userId, session)) {
+                expired.increment();
+            }
+            return false;
+        }
+        session.lastAccess = now;
+        return true;
+    }
+
+    public boolean remove(int userId) {
+        return sessions.remove(userId) != null;
+    }
+
+    /** Snapshot of all live guests; compacted guests are rebuilt for the snapshot but stay compacted. */
+    public List<User> getAll() {
+        long now = clock.millis();
+        List<User> users = new ArrayList<>();
+        for (Map.Entry<Integer, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (isExpired(session, now)) {
+                continue;
+            }
+            users.add(session.user(entry.getKey()));
+        }
+        return users;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void clear() {
+        sessions.clear();
+    }
+
+    // Guests dropped for being idle too long
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    // Guests dropped because the store was full
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    // Times an idle guest was reduced to its compact cart
+    public long getCompactedCount() {
+        return compacted.sum();
+    }
+
+    /** Drops expired guests and compacts idle ones now; returns how many guests were dropped. */
+    public int sweep() {
+        return sweep(clock.millis(), sessions.size() > maxSize);
+    }
+
+    private void maybeSweep(long now) {
+        long due = nextSweep.get();
+        if (now >= due && nextSweep.compareAndSet(due, now + sweepInterval)) {
+            sweep(now, sessions.size() > maxSize);
+        }
+    }
+
+    private synchronized int sweep(long now, boolean overCapacity) {
+        int dropped = 0;
+        for (Integer userId : sessions.keySet()) {
+            boolean[] removed = new boolean[1];
+            sessions.computeIfPresent(userId, (id, session) -> {
+                if (isExpired(session, now)) {
+                    removed[0] = true;
+                    return null;
+                }
+                if (session.state instanceof User && now - session.lastAccess >= compactAfter) {
+                    session.state = compact((User) session.state);
+                    compacted.increment();
+                }
+                return session;
+            });
+            if (removed[0]) {
+                expired.increment();
+                dropped++;
+            }
+        }
+        if (overCapacity && sessions.size() > maxSize) {
+            dropped += evictLeastRecentlyUsed();
+        }
+        if (dropped > 0) {
+            logger.info("GuestSessionStore - dropped " + dropped + " guests, " + sessions.size() + " left");
+        }
+        return dropped;
+    }
+
+    // Brings the store down to 90% of its maximum so the next few adds do not trigger another pass
+    private int evictLeastRecentlyUsed() {
+        int target = maxSize - Math.max(1, maxSize / 10);
+        List<Map.Entry<Integer, Session>> byAge = new ArrayList<>(sessions.entrySet());
+        byAge.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        int dropped = 0;
+        for (Map.Entry<Integer, Session> entry : byAge) {
+            if (sessions.size() <= target) {
+                break;
+            }
+            if (sessions.remove(entry.getKey(), entry.getValue())) {
+                evicted.increment();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastAccess >= idleTtl;
+    }
+
+    static int[] compact(User user) {
+        Map<Integer, Map<Integer, Integer>> products = user.getCart().getAllProducts();
+        int count = 0;
+        for (Map<Integer, Integer> basket : products.values()) {
+            count += basket.size();
+        }
+        if (count == 0) {
+            return EMPTY_CART;
+        }
+        int[] cart = new int[count * 3];
+        int i = 0;
+        for (Map.Entry<Integer, Map<Integer, Integer>> basket : products.entrySet()) {
+            for (Map.Entry<Integer, Integer> item : basket.getValue().entrySet()) {
+                cart[i++] = basket.getKey();
+                cart[i++] = item.getKey();
+                cart[i++] = item.getValue();
+            }
+        }
+        return cart;
+    }
+
+    static User restore(int userId, int[] cart) {
+        User user = new User(userId);
+        for (int i = 0; i < cart.length; i += 3) {
+            user.getCart().setProduct(cart[i], cart[i + 1], cart[i + 2]);
+        }
+        return user;
+    }
+}
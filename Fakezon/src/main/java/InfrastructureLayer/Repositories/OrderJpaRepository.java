@@ -1,5 +1,6 @@
 package InfrastructureLayer.Repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import DomainLayer.Model.Order;
 import DomainLayer.Enums.OrderState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -26,4 +28,24 @@ public interface OrderJpaRepository extends JpaRepository<Order, Integer> {
            "CAST(o.orderState AS string) LIKE %:keyword% OR " +
            "CAST(o.paymentMethod AS string) LIKE %:keyword%")
     List<Order> searchOrdersByKeyword(@Param("keyword") String keyword);
-} 
\ No newline at end of file
+
+    // Paged lookups; each filter leads an index on orders that also holds the sort key, so a page
+    // costs an index range scan rather than a read of every order.
+
+    List<Order> findByStoreId(int storeId, Pageable pageable);
+
+    List<Order> findByUserId(int userId, Pageable pageable);
+
+    List<Order> findByOrderState(OrderState orderState, Pageable pageable);
+
+    List<Order> findByStoreIdAndCreatedAtBetween(int storeId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // Matches the order's own columns, or any of its products by ID (productId is null when the
+    // keyword is not a number) or name. EXISTS keeps one row per order, so the page size holds.
+    @Query("SELECT o FROM Order o WHERE o.address LIKE %:keyword% OR " +
+           "CAST(o.orderState AS string) LIKE %:keyword% OR " +
+           "CAST(o.paymentMethod AS string) LIKE %:keyword% OR " +
+           "EXISTS (SELECT p FROM OrderedProduct p WHERE p.order = o AND " +
+           "(p.productId = :productId OR p.name LIKE %:keyword%))")
+    List<Order> searchOrders(@Param("keyword") String keyword, @Param("productId") Integer productId, Pageable pageable);
+}
@@ -1,24 +1,45 @@
 package InfrastructureLayer.Repositories;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import DomainLayer.Enums.OrderState;
 import DomainLayer.Interfaces.IOrder;
 import DomainLayer.Interfaces.IOrderRepository;
 import DomainLayer.Model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Repository
 @Primary
 @Transactional
 public class OrderRepository implements IOrderRepository {
 
+    // allocationSize of the orders_seq and ordered_products_seq generators
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRepository.class);
+
     private final OrderJpaRepository orderJpaRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public OrderRepository(OrderJpaRepository orderJpaRepository) {
         this.orderJpaRepository = orderJpaRepository;
@@ -29,14 +50,38 @@ public class OrderRepository implements IOrderRepository {
         throw new UnsupportedOperationException("OrderRepository requires OrderJpaRepository. Use @SpringBootTest for integration tests.");
     }
 
+    // Orders and their products took IDENTITY keys before the pooled sequences, so on such a database
+    // the sequences start below the existing keys. Moves each one past its table's largest key.
+    @EventListener(ApplicationReadyEvent.class)
+    public void advanceIdSequences() {
+        advanceSequence("orders_seq", "orders", "order_id");
+        advanceSequence("ordered_products_seq", "ordered_products", "id");
+    }
+
+    private void advanceSequence(String sequence, String table, String idColumn) {
+        long maxId = ((Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table)
+                .getSingleResult()).longValue();
+        if (maxId == 0) {
+            return;
+        }
+        long next = ((Number) entityManager.createNativeQuery("SELECT nextval('" + sequence + "')")
+                .getSingleResult()).longValue();
+        // a pooled value hands out the ID_ALLOCATION_SIZE keys up to and including it
+        if (next - ID_ALLOCATION_SIZE < maxId) {
+            entityManager.createNativeQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ID_ALLOCATION_SIZE))
+                    .executeUpdate();
+            logger.info("Sequence " + sequence + " advanced past the largest key " + maxId + " of " + table);
+        }
+    }
+
     @Override
     public void addOrder(IOrder order) {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
         }
         
-        // Check if order already exists
-        if (orderJpaRepository.existsById(order.getId())) {
+        // Check if order already exists; a new order has no ID until it is saved
+        if (order.getId() != 0 && orderJpaRepository.existsById(order.getId())) {
             throw new IllegalArgumentException("Order with ID " + order.getId() + " already exists.");
         }
         
@@ -47,6 +92,26 @@ public class OrderRepository implements IOrderRepository {
         }
     }
 
+    // The orders of one checkout. Their IDs come from pooled sequences, so nothing is inserted
+    // before the flush, where the orders and their products go out as JDBC batches.
+    @Override
+    public void addOrders(Collection<IOrder> orders) {
+        List<Order> newOrders = new ArrayList<>(orders.size());
+        for (IOrder order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order cannot be null");
+            }
+            if (order.getId() != 0 && orderJpaRepository.existsById(order.getId())) {
+                throw new IllegalArgumentException("Order with ID " + order.getId() + " already exists.");
+            }
+            if (!(order instanceof Order)) {
+                throw new IllegalArgumentException("Order must be an instance of Order class");
+            }
+            newOrders.add((Order) order);
+        }
+        orderJpaRepository.saveAll(newOrders);
+    }
+
     @Override
     public void deleteOrder(int orderId) {
         if (!orderJpaRepository.existsById(orderId)) {
@@ -83,13 +148,67 @@ public class OrderRepository implements IOrderRepository {
         orderJpaRepository.deleteAll();
     }
 
-    // Additional methods for business logic
+    @Override
     public Collection<IOrder> getOrdersByStoreId(int storeId) {
         return orderJpaRepository.findByStoreId(storeId).stream()
                 .map(order -> (IOrder) order)
                 .toList();
     }
 
+    @Override
+    public List<IOrder> getOrdersByStoreId(int storeId, int page, int size) {
+        return toOrders(orderJpaRepository.findByStoreId(storeId, newestFirst(page, size)));
+    }
+
+    @Override
+    public List<IOrder> getOrdersByStoreId(int storeId, LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        return toOrders(orderJpaRepository.findByStoreIdAndCreatedAtBetween(storeId, from, to, newestFirst(page, size)));
+    }
+
+    @Override
+    public List<IOrder> getOrdersByUserId(int userId, int page, int size) {
+        return toOrders(orderJpaRepository.findByUserId(userId, newestFirst(page, size)));
+    }
+
+    @Override
+    public List<IOrder> getOrdersByState(OrderState state, int page, int size) {
+        return toOrders(orderJpaRepository.findByOrderState(state, newestFirst(page, size)));
+    }
+
+    @Override
+    public List<IOrder> searchOrders(String keyword, int page, int size) {
+        if (keyword == null) {
+            throw new IllegalArgumentException("Keyword cannot be null");
+        }
+        // an empty keyword matches every order, as the unpaged search always did
+        Integer productId = null;
+        try {
+            productId = Integer.valueOf(keyword.trim());
+        } catch (NumberFormatException e) {
+            // not a product ID; the text columns still match
+        }
+        return toOrders(orderJpaRepository.searchOrders(keyword, productId, newestFirst(page, size)));
+    }
+
+    private static Pageable newestFirst(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        // by ID rather than createdAt, which orders written before it was added do not have
+        return PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "orderId"));
+    }
+
+    private static List<IOrder> toOrders(List<Order> orders) {
+        return orders.stream()
+                .map(order -> (IOrder) order)
+                .toList();
+    }
+
+    // Additional methods for business logic
+
     public void updateOrder(IOrder order) {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
@@ -9,18 +9,23 @@ import ApplicationLayer.Enums.PCategory;
 import DomainLayer.Model.Product;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductJpaRepository extends JpaRepository<Product, Integer> {
     
     List<Product> findByCategory(PCategory category);
     
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    // Callers escape % and _ in the search text with '!'
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '!'")
     List<Product> findByNameContainingIgnoreCase(String name);
     
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) ESCAPE '!' OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) ESCAPE '!'")
     List<Product> searchByKeyword(@Param("keyword") String keyword);
     
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.storesIds WHERE p.id = :productId")
+    Optional<Product> findWithStoresById(@Param("productId") int productId);
+
     @Query("SELECT p FROM Product p JOIN p.storesIds s WHERE s = :storeId")
     List<Product> findByStoreId(@Param("storeId") Integer storeId);
 } 
\ No newline at end of file
@@ -3,6 +3,10 @@ package InfrastructureLayer.Repositories;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -10,7 +14,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Services.StoreService;
@@ -28,11 +37,31 @@ public class ProductRepository implements IProductRepository {
     
     private ProductJpaRepository productJpaRepository;
 
+    // Keyword and name searches are served from here unless product.search.index.enabled=false
+    private final ProductSearchIndex searchIndex;
+    private volatile boolean indexBuilt;
+
+    // Single product lookups. Callers get a copy each time, since some of them change what they got
+    private final CatalogCache<Integer, Product> productCache;
+
     private static final Logger logger = LoggerFactory.getLogger(ProductRepository.class);
     //private final HashMap<Integer, IProduct> products;
-    @Autowired
     public ProductRepository(ProductJpaRepository productJpaRepository) {
+        this(productJpaRepository, false);
+    }
+
+    public ProductRepository(ProductJpaRepository productJpaRepository, boolean searchIndexEnabled) {
+        this(productJpaRepository, searchIndexEnabled, 0, 1);
+    }
+
+    @Autowired
+    public ProductRepository(ProductJpaRepository productJpaRepository,
+            @Value("${product.search.index.enabled:true}") boolean searchIndexEnabled,
+            @Value("${catalog.cache.max-size:10000}") int cacheSize,
+            @Value("${catalog.cache.ttl-seconds:60}") int cacheTtlSeconds) {
         this.productJpaRepository = productJpaRepository;
+        this.searchIndex = searchIndexEnabled ? new ProductSearchIndex() : null;
+        this.productCache = new CatalogCache<>("products", cacheSize, cacheTtlSeconds * 1000L);
     }
 
     public ProductRepository() {
@@ -42,7 +71,11 @@ public class ProductRepository implements IProductRepository {
     @Override
     public Product addProduct(IProduct product) {
         if (product instanceof Product) {
-            return productJpaRepository.save((Product) product);
+            Product saved = productJpaRepository.save((Product) product);
+            if (searchIndex != null) {
+                afterCommit(() -> searchIndex.index(saved));
+            }
+            return saved;
         } else {
             throw new IllegalArgumentException("Product must be an instance of Product class");
         }
@@ -73,6 +106,10 @@ public class ProductRepository implements IProductRepository {
             }
         }
         productJpaRepository.save(currentProduct);
+        productCache.invalidate(productId);
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.index(currentProduct));
+        }
     }
 
     @Override
@@ -80,11 +117,23 @@ public class ProductRepository implements IProductRepository {
         if(!productJpaRepository.existsById(productId)){
             throw new IllegalArgumentException("Product not found in the repository.");
         }
-        productJpaRepository.deleteById(productId);    
+        productJpaRepository.deleteById(productId);
+        productCache.invalidate(productId);
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.remove(productId));
+        }
     }
 
     @Override
     public IProduct getProductById(int productId) {
+        if (productCache.isEnabled()) {
+            Product cached = productCache.get(productId,
+                    id -> productJpaRepository.findWithStoresById(id).map(ProductRepository::copyOf).orElse(null));
+            if (cached == null) {
+                throw new IllegalArgumentException("Product not found in the repository.");
+            }
+            return copyOf(cached);
+        }
         IProduct currentProduct = productJpaRepository.findById(productId).orElse(null);
         if(currentProduct == null){
             throw new IllegalArgumentException("Product not found in the repository.");
@@ -101,11 +150,24 @@ public class ProductRepository implements IProductRepository {
     
     @Override
     public Collection<IProduct> searchProducts(String keyword){
-        return productJpaRepository.searchByKeyword(keyword).stream()
+        if (ensureIndexBuilt()) {
+            return loadInRankOrder(searchIndex.search(keyword));
+        }
+        return productJpaRepository.searchByKeyword(likeEscaped(keyword)).stream()
         .map(product -> (IProduct) product)
         .toList();
     }
 
+    @Override
+    public List<Integer> searchProductIds(String keyword) {
+        if (ensureIndexBuilt()) {
+            return searchIndex.search(keyword);
+        }
+        return productJpaRepository.searchByKeyword(likeEscaped(keyword)).stream()
+        .map(Product::getId)
+        .toList();
+    }
+
     @Override
     public Collection<IProduct> getProductsByCategory(PCategory category) {
         return productJpaRepository.findByCategory(category).stream()
@@ -116,7 +178,10 @@ public class ProductRepository implements IProductRepository {
 
     @Override
     public Collection<IProduct> searchProductsByName(String name) {
-        return productJpaRepository.findByNameContainingIgnoreCase(name).stream()
+        if (ensureIndexBuilt()) {
+            return loadInRankOrder(searchIndex.searchNames(name));
+        }
+        return productJpaRepository.findByNameContainingIgnoreCase(likeEscaped(name)).stream()
         .map(product -> (IProduct) product)
         .toList();
     }
@@ -128,8 +193,80 @@ public class ProductRepository implements IProductRepository {
     //     productJpaRepository.findById(1002).orElse(null).addStore(1001);
     // }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        ensureIndexBuilt();
+    }
+
+    // Loaded once from the table; the add/update/delete paths above keep it current from the start,
+    // so writes racing with the initial load are not lost
+    private boolean ensureIndexBuilt() {
+        if (searchIndex == null) {
+            return false;
+        }
+        if (!indexBuilt) {
+            synchronized (searchIndex) {
+                if (!indexBuilt) {
+                    List<Product> all = productJpaRepository.findAll();
+                    searchIndex.indexAll(all);
+                    indexBuilt = true;
+                    logger.info("Product search index built with " + all.size() + " products");
+                }
+            }
+        }
+        return true;
+    }
+
+    // The LIKE queries of ProductJpaRepository escape with '!', so a % or _ typed into a search matches itself
+    private static String likeEscaped(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    // The index follows committed rows only, so a rolled back write never shows up in searches
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Collection<IProduct> loadInRankOrder(List<Integer> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Product> byId = productJpaRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<IProduct> result = new ArrayList<>(rankedIds.size());
+        for (Integer id : rankedIds) {
+            Product product = byId.get(id);
+            if (product != null) { // indexed by a write that was rolled back
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getCategory(),
+                new HashSet<>(product.getStoresIds()));
+    }
+
+    public CatalogCache<Integer, Product> getProductCache() {
+        return productCache;
+    }
+
     @Override
     public void clearAllData() {
         productJpaRepository.deleteAll();
+        productCache.invalidateAll();
+        if (searchIndex != null) {
+            searchIndex.clear();
+        }
     }
 }
@@ -0,0 +1,235 @@
+package InfrastructureLayer.Repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import DomainLayer.Interfaces.IProduct;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Every query token has to match (as a whole term or as a prefix of one) in the searched
+ * fields, and hits are ranked with BM25, name matches weighing more than description ones.
+ * Writers take the write lock; searches share the read lock.
+ */
+public class ProductSearchIndex {
+
+    private static final int NAME = 0;
+    private static final int DESCRIPTION = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double[] FIELD_BOOST = { 2.0, 1.0 };
+    private static final double PREFIX_WEIGHT = 0.5; // term only extends the query token
+
+    // term -> productId -> {tf in name, tf in description}
+    private final TreeMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+    // productId -> {name length, description length}, in tokens
+    private final Map<Integer, int[]> fieldLengths = new HashMap<>();
+    private final Map<Integer, Set<String>> termsByProduct = new HashMap<>();
+    private final long[] totalFieldLength = new long[2];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Adds or re-indexes each of the given products. */
+    public void indexAll(Collection<? extends IProduct> products) {
+        lock.writeLock().lock();
+        try {
+            for (IProduct product : products) {
+                removeUnlocked(product.getId());
+                indexUnlocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds the product, or re-indexes it if it is already known. */
+    public void index(IProduct product) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            indexUnlocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearUnlocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fieldLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of products matching every token in name or description, best match first. */
+    public List<Integer> search(String query) {
+        return search(query, false);
+    }
+
+    /** Same as {@link #search(String)} but only looks at product names. */
+    public List<Integer> searchNames(String query) {
+        return search(query, true);
+    }
+
+    private List<Integer> search(String query, boolean namesOnly) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            if (fieldLengths.isEmpty()) {
+                return new ArrayList<>();
+            }
+            Map<Integer, Double> scores = null;
+            for (String token : tokens) {
+                Map<Integer, Double> tokenScores = scoreToken(token, namesOnly);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Integer> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, Double> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> scoreToken(String token, boolean namesOnly) {
+        Map<Integer, Double> scores = new HashMap<>();
+        int documents = fieldLengths.size();
+        double[] averageLength = {
+                Math.max(1.0, (double) totalFieldLength[NAME] / documents),
+                Math.max(1.0, (double) totalFieldLength[DESCRIPTION] / documents) };
+        NavigableMap<String, Map<Integer, int[]>> matches = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Integer, int[]>> term : matches.entrySet()) {
+            Map<Integer, int[]> docs = term.getValue();
+            double idf = Math.log(1 + (documents - docs.size() + 0.5) / (docs.size() + 0.5));
+            double weight = term.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+            for (Map.Entry<Integer, int[]> doc : docs.entrySet()) {
+                int[] tf = doc.getValue();
+                int[] length = fieldLengths.get(doc.getKey());
+                double score = 0;
+                for (int field = NAME; field <= (namesOnly ? NAME : DESCRIPTION); field++) {
+                    if (tf[field] > 0) {
+                        double norm = K1 * (1 - B + B * length[field] / averageLength[field]);
+                        score += FIELD_BOOST[field] * idf * tf[field] * (K1 + 1) / (tf[field] + norm);
+                    }
+                }
+                if (score > 0) {
+                    scores.merge(doc.getKey(), weight * score, Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void indexUnlocked(IProduct product) {
+        int productId = product.getId();
+        List<String> nameTokens = tokenize(product.getName());
+        List<String> descriptionTokens = tokenize(product.getDescription());
+        Set<String> terms = new HashSet<>();
+        addTokens(productId, nameTokens, NAME, terms);
+        addTokens(productId, descriptionTokens, DESCRIPTION, terms);
+        fieldLengths.put(productId, new int[] { nameTokens.size(), descriptionTokens.size() });
+        termsByProduct.put(productId, terms);
+        totalFieldLength[NAME] += nameTokens.size();
+        totalFieldLength[DESCRIPTION] += descriptionTokens.size();
+    }
+
+    private void addTokens(int productId, List<String> tokens, int field, Set<String> terms) {
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashMap<>())
+                    .computeIfAbsent(productId, id -> new int[2])[field]++;
+            terms.add(token);
+        }
+    }
+
+    private void removeUnlocked(int productId) {
+        int[] length = fieldLengths.remove(productId);
+        if (length == null) {
+            return;
+        }
+        totalFieldLength[NAME] -= length[NAME];
+        totalFieldLength[DESCRIPTION] -= length[DESCRIPTION];
+        for (String term : termsByProduct.remove(productId)) {
+            Map<Integer, int[]> docs = postings.get(term);
+            docs.remove(productId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void clearUnlocked() {
+        postings.clear();
+        fieldLengths.clear();
+        termsByProduct.clear();
+        totalFieldLength[NAME] = 0;
+        totalFieldLength[DESCRIPTION] = 0;
+    }
+
+    // Lower-cased runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,233 @@
+package InfrastructureLayer.Repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import DomainLayer.IRepository.ISalesRollupRepository;
+import DomainLayer.Interfaces.IOrder;
+import DomainLayer.Model.Order;
+import DomainLayer.Model.PendingSale;
+import DomainLayer.Model.ProductSalesDay;
+import DomainLayer.Model.StoreBuyerDay;
+import DomainLayer.Model.StoreSalesDay;
+import DomainLayer.Model.helpers.ProductSalesTotal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+@Transactional
+public class SalesRollupRepository implements ISalesRollupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addPendingOrders(Collection<Integer> orderIds) {
+        for (Integer orderId : orderIds) {
+            entityManager.persist(new PendingSale(orderId));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> getPendingOrderIds(int limit, int maxAttempts) {
+        return entityManager.createQuery(
+                "SELECT p.orderId FROM PendingSale p WHERE p.attempts < :maxAttempts ORDER BY p.orderId", Integer.class)
+                .setParameter("maxAttempts", maxAttempts)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IOrder> getOrders(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entityManager.createQuery(
+                "SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.products WHERE o.orderId IN :orderIds ORDER BY o.orderId",
+                Order.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList());
+    }
+
+    @Override
+    public int recordFailedAttempt(int orderId) {
+        PendingSale pending = entityManager.find(PendingSale.class, orderId);
+        if (pending == null) {
+            return 0;
+        }
+        pending.recordFailedAttempt();
+        return pending.getAttempts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countPendingOrders() {
+        return entityManager.createQuery("SELECT COUNT(p) FROM PendingSale p", Long.class).getSingleResult();
+    }
+
+    @Override
+    public int backfillPendingOrders() {
+        long rolledUp = entityManager.createQuery("SELECT COUNT(d) FROM StoreSalesDay d", Long.class).getSingleResult();
+        if (rolledUp > 0 || countPendingOrders() > 0) {
+            return 0;
+        }
+        return entityManager.createQuery("INSERT INTO PendingSale (orderId, attempts) SELECT o.orderId, 0 FROM Order o")
+                .executeUpdate();
+    }
+
+    // Read-modify-write of the day rows is safe because the rollups have a single writer
+    // (SalesAnalyticsService); the unique keys turn a second one into a failed batch, not double counts.
+    @Override
+    public void addSales(Collection<StoreSalesDay> storeDays, Collection<ProductSalesDay> productDays,
+            Collection<StoreBuyerDay> buyers, Collection<Integer> rolledUpOrderIds) {
+        if (!rolledUpOrderIds.isEmpty()) {
+            entityManager.createQuery("DELETE FROM PendingSale p WHERE p.orderId IN :orderIds")
+                    .setParameter("orderIds", rolledUpOrderIds)
+                    .executeUpdate();
+        }
+        Map<DayKey, Long> newBuyers = recordNewBuyers(buyers);
+        for (StoreSalesDay delta : storeDays) {
+            DayKey key = new DayKey(delta.getStoreId(), delta.getSalesDate());
+            StoreSalesDay day = findStoreDay(key);
+            if (day == null) {
+                day = new StoreSalesDay(key.storeId, key.date);
+                entityManager.persist(day);
+            }
+            day.add(delta.getRevenue(), delta.getUnits(), delta.getOrderCount(), newBuyers.getOrDefault(key, 0L));
+        }
+        for (ProductSalesDay delta : productDays) {
+            List<ProductSalesDay> found = entityManager.createQuery(
+                    "SELECT p FROM ProductSalesDay p WHERE p.storeId = :storeId AND p.salesDate = :date AND p.productId = :productId",
+                    ProductSalesDay.class)
+                    .setParameter("storeId", delta.getStoreId())
+                    .setParameter("date", delta.getSalesDate())
+                    .setParameter("productId", delta.getProductId())
+                    .getResultList();
+            ProductSalesDay day;
+            if (found.isEmpty()) {
+                day = new ProductSalesDay(delta.getStoreId(), delta.getSalesDate(), delta.getProductId(), delta.getProductName());
+                entityManager.persist(day);
+            } else {
+                day = found.get(0);
+            }
+            day.add(delta.getProductName(), delta.getRevenue(), delta.getUnits(), delta.getOrderCount());
+        }
+    }
+
+    // Stores the buyers not yet seen on their store and day, one lookup per store day; returns how many were new
+    private Map<DayKey, Long> recordNewBuyers(Collection<StoreBuyerDay> buyers) {
+        Map<DayKey, Set<Integer>> byDay = new HashMap<>();
+        for (StoreBuyerDay buyer : buyers) {
+            byDay.computeIfAbsent(new DayKey(buyer.getStoreId(), buyer.getSalesDate()), key -> new HashSet<>())
+                    .add(buyer.getUserId());
+        }
+        Map<DayKey, Long> newBuyers = new HashMap<>();
+        for (Map.Entry<DayKey, Set<Integer>> day : byDay.entrySet()) {
+            DayKey key = day.getKey();
+            Set<Integer> users = new HashSet<>(day.getValue());
+            users.removeAll(entityManager.createQuery(
+                    "SELECT b.userId FROM StoreBuyerDay b WHERE b.storeId = :storeId AND b.salesDate = :date AND b.userId IN :users",
+                    Integer.class)
+                    .setParameter("storeId", key.storeId)
+                    .setParameter("date", key.date)
+                    .setParameter("users", day.getValue())
+                    .getResultList());
+            for (Integer userId : users) {
+                entityManager.persist(new StoreBuyerDay(key.storeId, key.date, userId));
+            }
+            newBuyers.put(key, (long) users.size());
+        }
+        return newBuyers;
+    }
+
+    private StoreSalesDay findStoreDay(DayKey key) {
+        List<StoreSalesDay> found = entityManager.createQuery(
+                "SELECT d FROM StoreSalesDay d WHERE d.storeId = :storeId AND d.salesDate = :date", StoreSalesDay.class)
+                .setParameter("storeId", key.storeId)
+                .setParameter("date", key.date)
+                .getResultList();
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoreSalesDay> getStoreSalesDays(int storeId, LocalDate from, LocalDate to) {
+        return new ArrayList<>(entityManager.createQuery(
+                "SELECT d FROM StoreSalesDay d WHERE d.storeId = :storeId AND d.salesDate BETWEEN :from AND :to " +
+                "ORDER BY d.salesDate", StoreSalesDay.class)
+                .setParameter("storeId", storeId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesTotal> getTopProducts(int storeId, LocalDate from, LocalDate to, int limit) {
+        return entityManager.createQuery(
+                "SELECT new DomainLayer.Model.helpers.ProductSalesTotal(p.productId, MAX(p.productName), " +
+                "SUM(p.revenue), SUM(p.units), SUM(p.orderCount)) FROM ProductSalesDay p " +
+                "WHERE p.storeId = :storeId AND p.salesDate BETWEEN :from AND :to " +
+                "GROUP BY p.productId ORDER BY SUM(p.revenue) DESC, p.productId", ProductSalesTotal.class)
+                .setParameter("storeId", storeId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBuyers(int storeId, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(
+                "SELECT COUNT(DISTINCT b.userId) FROM StoreBuyerDay b " +
+                "WHERE b.storeId = :storeId AND b.salesDate BETWEEN :from AND :to", Long.class)
+                .setParameter("storeId", storeId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult();
+    }
+
+    @Override
+    public void clearAllData() {
+        entityManager.createQuery("DELETE FROM PendingSale").executeUpdate();
+        entityManager.createQuery("DELETE FROM StoreBuyerDay").executeUpdate();
+        entityManager.createQuery("DELETE FROM ProductSalesDay").executeUpdate();
+        entityManager.createQuery("DELETE FROM StoreSalesDay").executeUpdate();
+    }
+
+    private static final class DayKey {
+        private final int storeId;
+        private final LocalDate date;
+
+        private DayKey(int storeId, LocalDate date) {
+            this.storeId = storeId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DayKey)) return false;
+            DayKey other = (DayKey) o;
+            return storeId == other.storeId && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(storeId, date);
+        }
+    }
+}
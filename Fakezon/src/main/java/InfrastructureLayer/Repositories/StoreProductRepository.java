@@ -0,0 +1,117 @@
+package InfrastructureLayer.Repositories;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import DomainLayer.IRepository.IStoreProductRepository;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.StoreProductView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+public class StoreProductRepository implements IStoreProductRepository {
+
+    private static final String SELECT_VIEW = "SELECT new DomainLayer.Model.helpers.StoreProductView(sp.SproductID, sp.storeId, "
+            + "sp.name, sp.basePrice, sp.quantity, sp.category, sp.ratingSum, sp.ratingCount) FROM StoreProduct sp ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Product pages and open checks; StoreService evicts what it writes, the TTL bounds anything else.
+    // No transaction is opened here, so a cache hit does not take a connection.
+    private final CatalogCache<StoreProductKey, StoreProductView> products;
+    private final CatalogCache<Integer, Boolean> openFlags;
+
+    public StoreProductRepository(@Value("${catalog.cache.max-size:10000}") int cacheSize,
+            @Value("${catalog.cache.ttl-seconds:60}") int cacheTtlSeconds) {
+        this.products = new CatalogCache<>("store products", cacheSize, cacheTtlSeconds * 1000L);
+        this.openFlags = new CatalogCache<>("store open flags", cacheSize, cacheTtlSeconds * 1000L);
+    }
+
+    @Override
+    public StoreProductView findByKey(int storeId, int productId) {
+        return products.get(new StoreProductKey(storeId, productId), this::loadByKey);
+    }
+
+    private StoreProductView loadByKey(StoreProductKey key) {
+        List<StoreProductView> found = entityManager.createQuery(
+                SELECT_VIEW + "WHERE sp.storeId = :storeId AND sp.SproductID = :productId", StoreProductView.class)
+                .setParameter("storeId", key.getStoreId())
+                .setParameter("productId", key.getSproductId())
+                .getResultList();
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public Map<StoreProductKey, StoreProductView> findAllByKeys(Collection<StoreProductKey> keys) {
+        Map<StoreProductKey, StoreProductView> views = new HashMap<>();
+        if (keys.isEmpty()) {
+            return views;
+        }
+        Set<Integer> storeIds = new HashSet<>();
+        Set<Integer> productIds = new HashSet<>();
+        for (StoreProductKey key : keys) {
+            storeIds.add(key.getStoreId());
+            productIds.add(key.getSproductId());
+        }
+        // both IN lists can pair a store with another store's product, so only the asked-for keys are kept
+        Set<StoreProductKey> wanted = new HashSet<>(keys);
+        for (StoreProductView view : entityManager.createQuery(
+                SELECT_VIEW + "WHERE sp.storeId IN :storeIds AND sp.SproductID IN :productIds", StoreProductView.class)
+                .setParameter("storeIds", storeIds)
+                .setParameter("productIds", productIds)
+                .getResultList()) {
+            StoreProductKey key = new StoreProductKey(view.getStoreId(), view.getProductId());
+            if (wanted.contains(key)) {
+                views.put(key, view);
+            }
+        }
+        return views;
+    }
+
+    @Override
+    public Boolean isStoreOpen(int storeId) {
+        return openFlags.get(storeId, this::loadOpenFlag);
+    }
+
+    private Boolean loadOpenFlag(int storeId) {
+        List<Boolean> found = entityManager.createQuery(
+                "SELECT s.isOpen FROM Store s WHERE s.storeID = :storeId", Boolean.class)
+                .setParameter("storeId", storeId)
+                .getResultList();
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public void evictProduct(int storeId, int productId) {
+        products.invalidate(new StoreProductKey(storeId, productId));
+    }
+
+    @Override
+    public void evictStore(int storeId) {
+        openFlags.invalidate(storeId);
+        products.invalidateIf(key -> key.getStoreId() == storeId);
+    }
+
+    @Override
+    public void evictAll() {
+        openFlags.invalidateAll();
+        products.invalidateAll();
+    }
+
+    public CatalogCache<StoreProductKey, StoreProductView> getProductCache() {
+        return products;
+    }
+
+    public CatalogCache<Integer, Boolean> getOpenFlagCache() {
+        return openFlags;
+    }
+}
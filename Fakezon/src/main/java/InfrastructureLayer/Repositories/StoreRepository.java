@@ -1,23 +1,135 @@
 package InfrastructureLayer.Repositories;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import ApplicationLayer.Enums.PCategory;
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.Enums.StoreManagerPermission;
+import DomainLayer.IRepository.IProductRepository;
 import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.Offer;
 import DomainLayer.Model.Store;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
+import DomainLayer.Model.helpers.ProductSearchHit;
+import DomainLayer.Model.helpers.ProductSearchPage;
+import DomainLayer.Model.helpers.RatingLeaderboard;
 import InfrastructureLayer.StoreJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 
 @Repository
 public class StoreRepository implements IStoreRepository {
 
+    private static final String PRODUCT_RATING = "(CASE WHEN sp.ratingCount > 0 THEN sp.ratingSum / sp.ratingCount ELSE 0.0 END)";
+    private static final String STORE_RATING = "(CASE WHEN s.ratingCount > 0 THEN s.ratingSum / s.ratingCount ELSE 0.0 END)";
+    // Best-ranked keyword matches a product search filters on; keeps the IN list within bind parameter limits
+    private static final int MAX_KEYWORD_MATCHES = 10_000;
+
     @Autowired
     private StoreJpaRepository storeJpaRepository;
 
+    @Autowired
+    private IProductRepository productRepository; // resolves search keywords through the product search index
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreRepository.class);
+
+    // Rated store products by average rating, kept in step with addStoreProductRating
+    private final RatingLeaderboard<StoreProductKey> productLeaderboard = new RatingLeaderboard<>(
+            Comparator.comparingInt(StoreProductKey::getStoreId).thenComparingInt(StoreProductKey::getSproductId));
+    // Rated stores by average rating, kept in step with addStoreRating
+    private final RatingLeaderboard<Integer> storeLeaderboard = new RatingLeaderboard<>(Comparator.naturalOrder());
+    private volatile boolean rankingsLoaded;
+
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    // The named graphs on Store each profile is loaded with, in order; every graph is one query
+    private static final Map<StoreFetchProfile, List<String>> FETCH_PLANS = new EnumMap<>(StoreFetchProfile.class);
+    static {
+        FETCH_PLANS.put(StoreFetchProfile.HEADER, List.of("Store.header"));
+        FETCH_PLANS.put(StoreFetchProfile.PRODUCTS, List.of("Store.products"));
+        FETCH_PLANS.put(StoreFetchProfile.PRICING, List.of("Store.products", "Store.discounts", "Store.auctions"));
+        FETCH_PLANS.put(StoreFetchProfile.ROLES, List.of("Store.owners", "Store.managers"));
+        FETCH_PLANS.put(StoreFetchProfile.INBOX, List.of("Store.inbox", "Store.owners", "Store.managers"));
+    }
+
+    @Override
+    public Store findById(int storeID, StoreFetchProfile profile) {
+        List<String> graphs = FETCH_PLANS.get(profile);
+        Store store = entityManager.find(Store.class, storeID, Map.of(FETCH_GRAPH, entityManager.getEntityGraph(graphs.get(0))));
+        if (store != null && graphs.size() > 1) {
+            fetchRest(List.of(storeID), graphs);
+        }
+        if (store != null) {
+            withOfferLoader(store);
+        }
+        return store;
+    }
+
     @Override
-    public Store findById(int storeID) {
-        return storeJpaRepository.findById(storeID).orElse(null);
+    public List<Store> findAllById(Collection<Integer> storeIds, StoreFetchProfile profile) {
+        if (storeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> graphs = FETCH_PLANS.get(profile);
+        List<Store> stores = storesByIds(storeIds, graphs.get(0));
+        if (!stores.isEmpty() && graphs.size() > 1) {
+            fetchRest(storeIds, graphs);
+        }
+        stores.forEach(this::withOfferLoader);
+        return stores;
+    }
+
+    // Offers are read per user (see Store.loadOffersOf), so no profile loads the store's whole offer list
+    private void withOfferLoader(Store store) {
+        int storeID = store.getId();
+        store.setOfferLoader(userId -> findOffers(storeID, userId));
+    }
+
+    @Override
+    public List<Offer> findOffers(int storeID, int userId) {
+        return entityManager.createQuery("SELECT o FROM Offer o WHERE o.storeId = :storeId AND o.userId = :userId", Offer.class)
+                .setParameter("storeId", storeID)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    // Each further graph of the plan fills one more collection of the stores already in the persistence context
+    private void fetchRest(Collection<Integer> storeIds, List<String> graphs) {
+        for (String graph : graphs.subList(1, graphs.size())) {
+            storesByIds(storeIds, graph);
+        }
+    }
+
+    private List<Store> storesByIds(Collection<Integer> storeIds, String graph) {
+        return entityManager.createQuery("SELECT s FROM Store s WHERE s.storeID IN :storeIds", Store.class)
+                .setParameter("storeIds", storeIds)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(graph))
+                .getResultList();
     }
 
     @Override
@@ -44,17 +156,381 @@ public class StoreRepository implements IStoreRepository {
     public void delete(int storeID) {
         if (storeJpaRepository.existsById(storeID)) {
             storeJpaRepository.deleteById(storeID);
+            afterCommit(() -> storeLeaderboard.remove(storeID));
         }
     }
 
     @Override
     public Collection<Store> getTop10Stores() {
-        return storeJpaRepository.findTop10StoresByRating();
+        return findTopRatedStores(10);
+    }
+
+    @Override
+    public List<Store> findTopRatedStores(int limit) {
+        List<Store> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+        ensureRankingsLoaded();
+        boolean stale;
+        do {
+            result.clear();
+            stale = false;
+            List<RatingLeaderboard.Entry<Integer>> top = storeLeaderboard.top(limit);
+            if (top.isEmpty()) {
+                break;
+            }
+            List<Integer> ids = new ArrayList<>(top.size());
+            for (RatingLeaderboard.Entry<Integer> entry : top) {
+                ids.add(entry.getKey());
+            }
+            Map<Integer, Store> loaded = new HashMap<>();
+            for (Store store : storeJpaRepository.findAllById(ids)) {
+                loaded.put(store.getId(), store);
+            }
+            for (Integer id : ids) {
+                Store store = loaded.get(id);
+                if (store == null) {
+                    storeLeaderboard.remove(id);
+                    stale = true;
+                } else {
+                    result.add(store);
+                }
+            }
+        } while (stale);
+
+        if (result.size() < limit) {
+            result.addAll(entityManager.createQuery(
+                    "SELECT s FROM Store s WHERE s.ratingCount = 0 ORDER BY s.storeID", Store.class)
+                    .setMaxResults(limit - result.size())
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    public void updateStoreRanking(int storeId, double averageRating) {
+        afterCommit(() -> storeLeaderboard.update(storeId, averageRating));
     }
 
     @Override
     public void clearAllData() {
         storeJpaRepository.deleteAll();
+        productLeaderboard.clear();
+        storeLeaderboard.clear();
+    }
+
+    @Override
+    public List<StoreProduct> findTopRatedProducts(int limit) {
+        List<StoreProduct> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+        ensureRankingsLoaded();
+        boolean stale;
+        do {
+            result.clear();
+            stale = false;
+            List<RatingLeaderboard.Entry<StoreProductKey>> top = productLeaderboard.top(limit);
+            if (top.isEmpty()) {
+                break;
+            }
+            List<Integer> ids = new ArrayList<>(top.size());
+            for (RatingLeaderboard.Entry<StoreProductKey> entry : top) {
+                ids.add(entry.getKey().getSproductId());
+            }
+            Map<StoreProductKey, StoreProduct> loaded = new HashMap<>();
+            for (StoreProduct sp : entityManager.createQuery(
+                    "SELECT sp FROM StoreProduct sp WHERE sp.SproductID IN :ids", StoreProduct.class)
+                    .setParameter("ids", ids)
+                    .getResultList()) {
+                loaded.put(new StoreProductKey(sp.getStoreId(), sp.getSproductID()), sp);
+            }
+            for (RatingLeaderboard.Entry<StoreProductKey> entry : top) {
+                StoreProduct sp = loaded.get(entry.getKey());
+                if (sp == null) { // removed without going through removeFromProductRanking
+                    productLeaderboard.remove(entry.getKey());
+                    stale = true;
+                } else {
+                    result.add(sp);
+                }
+            }
+        } while (stale);
+
+        if (result.size() < limit) {
+            result.addAll(entityManager.createQuery(
+                    "SELECT sp FROM StoreProduct sp WHERE sp.ratingCount = 0 ORDER BY sp.storeId, sp.SproductID",
+                    StoreProduct.class)
+                    .setMaxResults(limit - result.size())
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    public void updateProductRanking(int storeId, int productId, double averageRating) {
+        afterCommit(() -> productLeaderboard.update(new StoreProductKey(storeId, productId), averageRating));
+    }
+
+    @Override
+    public void removeFromProductRanking(int storeId, int productId) {
+        afterCommit(() -> productLeaderboard.remove(new StoreProductKey(storeId, productId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRankings() {
+        ensureRankingsLoaded();
+    }
+
+    private void ensureRankingsLoaded() {
+        if (rankingsLoaded) {
+            return;
+        }
+        synchronized (productLeaderboard) {
+            if (rankingsLoaded) {
+                return;
+            }
+            int backfilled = storeJpaRepository.backfillProductRatingTotals();
+            List<Object[]> rows = entityManager.createQuery(
+                    "SELECT sp.storeId, sp.SproductID, sp.ratingSum, sp.ratingCount FROM StoreProduct sp WHERE sp.ratingCount > 0",
+                    Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                productLeaderboard.update(new StoreProductKey((Integer) row[0], (Integer) row[1]),
+                        (Double) row[2] / (Integer) row[3]);
+            }
+            logger.info("Product rating leaderboard loaded with " + rows.size() + " products (" + backfilled + " backfilled)");
+
+            backfilled = storeJpaRepository.backfillStoreRatingTotals();
+            List<Object[]> stores = entityManager.createQuery(
+                    "SELECT s.storeID, s.ratingSum, s.ratingCount FROM Store s WHERE s.ratingCount > 0", Object[].class)
+                    .getResultList();
+            for (Object[] row : stores) {
+                storeLeaderboard.update((Integer) row[0], (Double) row[1] / (Integer) row[2]);
+            }
+            rankingsLoaded = true;
+            logger.info("Store rating leaderboard loaded with " + stores.size() + " stores (" + backfilled + " backfilled)");
+        }
+    }
+
+    // Before the masks, each manager's permissions were one row of permission names in
+    // store_manager_permissions / pending_manager_permissions. Copies any such rows into the mask tables
+    // once, then empties the old table so a manager removed later does not come back on the next start
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void migrateManagerPermissions() {
+        int migrated = migratePermissionTable("store_manager_permissions", "store_manager_permission_masks")
+                + migratePermissionTable("pending_manager_permissions", "pending_manager_permission_masks");
+        if (migrated > 0) {
+            logger.info("Manager permissions migrated to masks for " + migrated + " managers");
+        }
+    }
+
+    private int migratePermissionTable(String oldTable, String maskTable) {
+        Number tables = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = :name AND LOWER(table_schema) = LOWER(CURRENT_SCHEMA)")
+                .setParameter("name", oldTable)
+                .getSingleResult();
+        if (tables.intValue() == 0) {
+            return 0;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("SELECT store_id, user_id, permission FROM " + oldTable)
+                .getResultList();
+        Map<List<Integer>, Integer> masks = new LinkedHashMap<>(); // [storeId, userId] -> mask
+        for (Object[] row : rows) {
+            masks.merge(List.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                    StoreManagerPermission.toMask(permissionsIn(row[2])), (a, b) -> a | b);
+        }
+        for (Map.Entry<List<Integer>, Integer> mask : masks.entrySet()) {
+            entityManager.createNativeQuery("INSERT INTO " + maskTable + " (store_id, user_id, permissions) "
+                    + "SELECT :storeId, :userId, :mask WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM " + maskTable + " m WHERE m.store_id = :storeId AND m.user_id = :userId)")
+                    .setParameter("storeId", mask.getKey().get(0))
+                    .setParameter("userId", mask.getKey().get(1))
+                    .setParameter("mask", mask.getValue())
+                    .executeUpdate();
+        }
+        entityManager.createNativeQuery("DELETE FROM " + oldTable).executeUpdate();
+        return masks.size();
+    }
+
+    // The old column held permission names as an array (or a single name per row); unknown names are skipped
+    private static List<StoreManagerPermission> permissionsIn(Object value) {
+        Object[] names;
+        try {
+            if (value instanceof java.sql.Array array) {
+                names = (Object[]) array.getArray();
+            } else if (value instanceof Object[] array) {
+                names = array;
+            } else if (value == null) {
+                names = new Object[0];
+            } else {
+                names = value.toString().replaceAll("[{}\\[\\]\"]", "").split(",");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read old manager permissions", e);
+        }
+        List<StoreManagerPermission> perms = new ArrayList<>();
+        for (Object name : names) {
+            if (name == null) {
+                continue;
+            }
+            try {
+                perms.add(StoreManagerPermission.valueOf(name.toString().trim()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping unknown manager permission " + name);
+            }
+        }
+        return perms;
+    }
+
+    // Rankings must not show ratings from a transaction that ends up rolled back
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public Collection<AuctionProduct> getPendingAuctionProducts() {
+        return storeJpaRepository.findPendingAuctionProducts();
+    }
+
+    @Override
+    public boolean decrementStockIfAvailable(int storeId, int productId, int quantity) {
+        return storeJpaRepository.decrementStockIfAvailable(storeId, productId, quantity) == 1;
+    }
+
+    @Override
+    public void incrementStock(int storeId, int productId, int quantity) {
+        storeJpaRepository.incrementStock(storeId, productId, quantity);
+    }
+
+    // The keyword is resolved to product IDs by the product search index, so no query scans names with LIKE.
+    // One grouped pass over the matches yields the totals and both facets; the page of hits is a second query.
+    @Override
+    public ProductSearchPage searchStoreProducts(ProductSearchCriteria criteria) {
+        List<Integer> keywordMatches = null;
+        if (criteria.getKeyword() != null) {
+            keywordMatches = productRepository.searchProductIds(criteria.getKeyword());
+            if (keywordMatches.size() > MAX_KEYWORD_MATCHES) {
+                keywordMatches = keywordMatches.subList(0, MAX_KEYWORD_MATCHES);
+            }
+        }
+        Map<PCategory, Long> categoryCounts = new EnumMap<>(PCategory.class);
+        Map<Integer, Long> storeCounts = new TreeMap<>();
+        if (keywordMatches != null && keywordMatches.isEmpty()) {
+            return new ProductSearchPage(new ArrayList<>(), 0, categoryCounts, storeCounts, null, null);
+        }
+
+        // the category facet ignores the category filter and the store facet the store filter, so group by both
+        TypedQuery<Object[]> facetQuery = entityManager.createQuery(
+                "SELECT sp.storeId, sp.category, COUNT(sp), MIN(sp.basePrice), MAX(sp.basePrice) "
+                        + searchFilter(criteria, keywordMatches, false, false) + " GROUP BY sp.storeId, sp.category",
+                Object[].class);
+        bindSearchFilter(facetQuery, criteria, keywordMatches, false, false);
+        long total = 0;
+        Double minPrice = null;
+        Double maxPrice = null;
+        for (Object[] row : facetQuery.getResultList()) {
+            int storeId = (Integer) row[0];
+            PCategory category = (PCategory) row[1];
+            long count = (Long) row[2];
+            boolean inStore = criteria.getStoreId() == null || criteria.getStoreId() == storeId;
+            boolean inCategory = criteria.getCategory() == null || criteria.getCategory() == category;
+            if (inStore) {
+                categoryCounts.merge(category, count, Long::sum);
+            }
+            if (inCategory) {
+                storeCounts.merge(storeId, count, Long::sum);
+            }
+            if (inStore && inCategory) {
+                total += count;
+                double low = ((Number) row[3]).doubleValue();
+                double high = ((Number) row[4]).doubleValue();
+                minPrice = minPrice == null ? low : Math.min(minPrice, low);
+                maxPrice = maxPrice == null ? high : Math.max(maxPrice, high);
+            }
+        }
+
+        List<ProductSearchHit> hits = new ArrayList<>();
+        long offset = (long) criteria.getPage() * criteria.getSize();
+        if (offset < total) {
+            TypedQuery<ProductSearchHit> hitsQuery = entityManager.createQuery(
+                    "SELECT new DomainLayer.Model.helpers.ProductSearchHit(sp.SproductID, sp.storeId, sp.name, sp.basePrice, "
+                            + "sp.quantity, sp.category, " + PRODUCT_RATING + ") "
+                            + searchFilter(criteria, keywordMatches, true, true)
+                            + " ORDER BY sp.name, sp.storeId, sp.SproductID",
+                    ProductSearchHit.class);
+            bindSearchFilter(hitsQuery, criteria, keywordMatches, true, true);
+            hitsQuery.setFirstResult((int) offset);
+            hitsQuery.setMaxResults(criteria.getSize());
+            hits = hitsQuery.getResultList();
+        }
+        return new ProductSearchPage(hits, total, categoryCounts, storeCounts, minPrice, maxPrice);
+    }
+
+    // Only the filters that are set become predicates, so the planner sees plain indexed comparisons
+    private String searchFilter(ProductSearchCriteria criteria, List<Integer> keywordMatches, boolean withCategory,
+            boolean withStore) {
+        StringBuilder jpql = new StringBuilder("FROM StoreProduct sp, Store s WHERE s.storeID = sp.storeId AND s.isOpen = true");
+        if (keywordMatches != null) {
+            jpql.append(" AND sp.SproductID IN :productIds");
+        }
+        if (withCategory && criteria.getCategory() != null) {
+            jpql.append(" AND sp.category = :category");
+        }
+        if (criteria.getMinPrice() != null) {
+            jpql.append(" AND sp.basePrice >= :minPrice");
+        }
+        if (criteria.getMaxPrice() != null) {
+            jpql.append(" AND sp.basePrice <= :maxPrice");
+        }
+        if (withStore && criteria.getStoreId() != null) {
+            jpql.append(" AND sp.storeId = :storeId");
+        }
+        if (criteria.getMinProductRating() != null) {
+            jpql.append(" AND ").append(PRODUCT_RATING).append(" >= :minProductRating");
+        }
+        if (criteria.getMinStoreRating() != null) {
+            jpql.append(" AND ").append(STORE_RATING).append(" >= :minStoreRating");
+        }
+        return jpql.toString();
+    }
+
+    private void bindSearchFilter(TypedQuery<?> query, ProductSearchCriteria criteria, List<Integer> keywordMatches,
+            boolean withCategory, boolean withStore) {
+        Map<String, Object> params = new HashMap<>();
+        if (keywordMatches != null) {
+            params.put("productIds", keywordMatches);
+        }
+        if (withCategory && criteria.getCategory() != null) {
+            params.put("category", criteria.getCategory());
+        }
+        if (criteria.getMinPrice() != null) {
+            params.put("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            params.put("maxPrice", criteria.getMaxPrice());
+        }
+        if (withStore && criteria.getStoreId() != null) {
+            params.put("storeId", criteria.getStoreId());
+        }
+        if (criteria.getMinProductRating() != null) {
+            params.put("minProductRating", criteria.getMinProductRating());
+        }
+        if (criteria.getMinStoreRating() != null) {
+            params.put("minStoreRating", criteria.getMinStoreRating());
+        }
+        params.forEach(query::setParameter);
     }
 
     // Additional helper methods
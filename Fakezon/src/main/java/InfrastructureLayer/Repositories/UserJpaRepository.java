@@ -5,9 +5,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import DomainLayer.Enums.RoleName;
 import DomainLayer.Model.User;
 import DomainLayer.Model.Registered;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,12 @@ public interface UserJpaRepository extends JpaRepository<Registered, Integer> {
     @Query("SELECT r FROM Registered r WHERE r.email LIKE %:keyword% OR CAST(r.age AS string) LIKE %:keyword%")
     List<Registered> searchRegisteredUsers(@Param("keyword") String keyword);
     
+    @Query("SELECT DISTINCT r.userId FROM Registered r JOIN r.userRoles ur WHERE ur.storeId = :storeId")
+    List<Integer> findUserIdsByStoreId(@Param("storeId") int storeId);
+
+    @Query("SELECT DISTINCT r FROM Registered r JOIN r.userRoles ur WHERE ur.storeId = :storeId AND ur.roleName IN :roles")
+    List<Registered> findByStoreIdAndRole(@Param("storeId") int storeId, @Param("roles") Collection<RoleName> roles);
+
     @Query("SELECT COALESCE(MAX(r.userId), 0) FROM Registered r")
     Integer findMaxRegisteredUserId();
 } 
\ No newline at end of file
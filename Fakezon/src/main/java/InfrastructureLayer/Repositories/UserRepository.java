@@ -1,5 +1,9 @@
 package InfrastructureLayer.Repositories;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -7,18 +11,26 @@ import java.util.Map;
 import java.util.Optional;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import ApplicationLayer.Services.StoreService;
+import DomainLayer.Enums.MessageBox;
+import DomainLayer.Enums.RoleName;
 import DomainLayer.IRepository.IUserRepository;
 import DomainLayer.Model.Registered;
 import DomainLayer.Model.RegisteredRole;
@@ -27,23 +39,37 @@ import DomainLayer.Model.StoreManager;
 import DomainLayer.Model.StoreOwner;
 import DomainLayer.Model.SuspendedUser;
 import DomainLayer.Model.User;
+import DomainLayer.Model.helpers.StoreMsg;
+import DomainLayer.Model.helpers.UserNotification;
 
 @Repository
 @Primary
 @Transactional
 public class UserRepository implements IUserRepository {
     private final UserJpaRepository userJpaRepository;
+    private final JdbcTemplate jdbcTemplate; // null when built without one; messages then go through the entities
 
+    private static final String INSERT_MESSAGE = "INSERT INTO store_messages_to_user "
+            + "(user_id, store_id, product_id, msg, offered_by, is_counter_offer) VALUES (?, ?, ?, ?, ?, ?)";
 
     private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
-    private Map<Integer, User> unsignedUsers; // Map to store unsigned (guest) users
+    private final GuestSessionStore unsignedUsers; // unsigned (guest) users, dropped once idle
     private Set<SuspendedUser> suspendedUsers; // Set of suspended users
     private Set<Integer> systemAdmins; // Set of user IDs who are system administrators
+    // storeId -> IDs of users holding a role in it, filled lazily per store and kept current on save
+    private final Map<Integer, Set<Integer>> roleHoldersByStore = new ConcurrentHashMap<>();
+    // userId -> indexed stores the user was last seen holding a role in, used to drop stale entries
+    private final Map<Integer, Set<Integer>> indexedStoresByUser = new ConcurrentHashMap<>();
 
-    @Autowired
     public UserRepository(UserJpaRepository userJpaRepository) {
+        this(userJpaRepository, null, new GuestSessionStore());
+    }
+
+    @Autowired
+    public UserRepository(UserJpaRepository userJpaRepository, JdbcTemplate jdbcTemplate, GuestSessionStore guestSessionStore) {
         this.userJpaRepository = userJpaRepository;
-        this.unsignedUsers = new HashMap<>(); // Initialize the unsigned users map
+        this.jdbcTemplate = jdbcTemplate;
+        this.unsignedUsers = guestSessionStore;
         this.suspendedUsers = new HashSet<>();
         this.systemAdmins = new HashSet<>();
 
@@ -77,6 +103,7 @@ public class UserRepository implements IUserRepository {
                 throw new IllegalArgumentException("User is a system admin and cannot be deleted");
             }
             userJpaRepository.deleteById(user.get().getUserId());
+            unindexRoles(user.get().getUserId());
             // Also remove from suspended users if present
             removeSuspendedUser(user.get().getUserId());
         } else {
@@ -92,19 +119,18 @@ public class UserRepository implements IUserRepository {
         }
         System.out.println("User with ID " + user.getUserId() + " does not exist in the repository. Proceeding to add.");
         userJpaRepository.save(user);
+        reindexRoles(user);
         System.out.println("User with ID " + user.getUserId() + " has been added to the repository.");
     }
 
     @Override
     public Optional<User> findAllById(int userID) {
-        // First check registered users
-        if(userJpaRepository.findRegisteredById(userID).isPresent()){
-            return Optional.of(userJpaRepository.findRegisteredById(userID).get());
-        }
-        if(unsignedUsers.containsKey(userID)){
-            return Optional.of(unsignedUsers.get(userID));
+        // Guests first, they are in memory; IDs never overlap since addUnsignedUser checks both
+        Optional<User> guest = unsignedUsers.get(userID);
+        if (guest.isPresent()) {
+            return guest;
         }
-        return Optional.empty();
+        return userJpaRepository.findRegisteredById(userID).map(user -> (User) user);
     }
 
     /**
@@ -288,10 +314,9 @@ public class UserRepository implements IUserRepository {
      */
     public void addUnsignedUser(User user) {
         int userId = user.getUserId();
-        if (unsignedUsers.containsKey(userId) || userJpaRepository.findRegisteredById(user.getUserId()).isPresent()) {
+        if (userJpaRepository.findRegisteredById(userId).isPresent() || !unsignedUsers.add(user)) {
             throw new IllegalArgumentException("User with ID " + userId + " already exists.");
         }
-        unsignedUsers.put(userId, user);
     }
     
     /**
@@ -301,7 +326,7 @@ public class UserRepository implements IUserRepository {
      * @return The user wrapped in an Optional, or an empty Optional if not found
      */
     public Optional<User> findUnsignedUserById(int userId) {
-        return Optional.ofNullable(unsignedUsers.get(userId));
+        return unsignedUsers.get(userId);
     }
     
     /**
@@ -310,7 +335,7 @@ public class UserRepository implements IUserRepository {
      * @return A list of all unsigned users
      */
     public List<User> getAllUnsignedUsers() {
-        return new ArrayList<>(unsignedUsers.values());
+        return unsignedUsers.getAll();
     }
 
     
@@ -321,7 +346,7 @@ public class UserRepository implements IUserRepository {
      * @return true if the user was removed, false if they weren't found
      */
     public boolean removeUnsignedUser(int userId) {
-        return unsignedUsers.remove(userId) != null;
+        return unsignedUsers.remove(userId);
     }
     
     /**
@@ -331,7 +356,7 @@ public class UserRepository implements IUserRepository {
      * @return true if the ID belongs to an unsigned user, false otherwise
      */
     public boolean isUnsignedUser(int userId) {
-        return unsignedUsers.containsKey(userId);
+        return unsignedUsers.contains(userId);
     }
     
     /**
@@ -358,18 +383,76 @@ public class UserRepository implements IUserRepository {
         suspendedUsers.clear();
         systemAdmins.clear();     
         unsignedUsers.clear();
+        roleHoldersByStore.clear();
+        indexedStoresByUser.clear();
     }
 
     @Override
     public List<Registered> UsersWithRolesInStoreId(int storeID) {
+        Set<Integer> holderIds = roleHoldersByStore.computeIfAbsent(storeID, this::loadRoleHolders);
         List<Registered> rolesInStore = new ArrayList<>();
-        for (Registered user : userJpaRepository.findAllRegistered()) {
-            if(user.getAllRoles().containsKey(storeID))
+        for (Registered user : userJpaRepository.findAllById(new ArrayList<>(holderIds))) {
+            // the index may briefly lead the database after a rolled back save
+            if (user.getRoleStoreIds().contains(storeID))
                 rolesInStore.add(user);
         }
         return rolesInStore;
     }
 
+    @Override
+    public List<Registered> findByStoreIdAndRole(int storeID, Collection<RoleName> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return userJpaRepository.findByStoreIdAndRole(storeID, roles);
+    }
+
+    private Set<Integer> loadRoleHolders(int storeID) {
+        Set<Integer> holderIds = ConcurrentHashMap.newKeySet();
+        for (Integer userId : userJpaRepository.findUserIdsByStoreId(storeID)) {
+            holderIds.add(userId);
+            indexedStoresByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(storeID);
+        }
+        logger.debug("Loaded " + holderIds.size() + " role holders for store " + storeID);
+        return holderIds;
+    }
+
+    // Brings the indexed stores in line with the roles the user holds now
+    private void reindexRoles(Registered user) {
+        int userId = user.getUserId();
+        Set<Integer> current = user.getRoleStoreIds();
+        Set<Integer> previous = indexedStoresByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+        for (Integer storeId : previous) {
+            if (!current.contains(storeId)) {
+                roleHoldersByStore.computeIfPresent(storeId, (id, holders) -> {
+                    holders.remove(userId);
+                    return holders;
+                });
+                previous.remove(storeId);
+            }
+        }
+        for (Integer storeId : current) {
+            roleHoldersByStore.computeIfPresent(storeId, (id, holders) -> {
+                holders.add(userId);
+                previous.add(storeId);
+                return holders;
+            });
+        }
+    }
+
+    private void unindexRoles(int userId) {
+        Set<Integer> previous = indexedStoresByUser.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (Integer storeId : previous) {
+            roleHoldersByStore.computeIfPresent(storeId, (id, holders) -> {
+                holders.remove(userId);
+                return holders;
+            });
+        }
+    }
+
     @Override
     public boolean isUserRegistered(int userId) {
         return userJpaRepository.findRegisteredById(userId).isPresent();
@@ -387,12 +470,12 @@ public class UserRepository implements IUserRepository {
             //     throw new IllegalArgumentException("Registered user with ID " + user.getUserId() + " does not exist.");
             // }
             userJpaRepository.save((Registered) user);
+            reindexRoles((Registered) user);
             return user;
         } else {
-            if (!unsignedUsers.containsKey(user.getUserId())) {
+            if (!unsignedUsers.replace(user)) {
                 throw new IllegalArgumentException("Guest user with ID " + user.getUserId() + " does not exist.");
             }
-            unsignedUsers.put(user.getUserId(), user);
             return user;
         }
     }
@@ -426,6 +509,124 @@ public class UserRepository implements IUserRepository {
         return false;
     }
 
+    @Override
+    public void addMessages(List<UserNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        if (jdbcTemplate == null) {
+            for (UserNotification notification : notifications) {
+                userJpaRepository.findRegisteredById(notification.getUserId()).ifPresent(user -> {
+                    addToBox(user, notification);
+                    userJpaRepository.save(user);
+                });
+            }
+            return;
+        }
+        // One batch for the messages, then one per mailbox join table
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_MESSAGE, new String[] { "msg_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        StoreMsg msg = notifications.get(i).getMessage();
+                        ps.setInt(1, msg.getUserId());
+                        ps.setInt(2, msg.getStoreId());
+                        ps.setInt(3, msg.getProductId());
+                        ps.setString(4, msg.getMessage());
+                        ps.setObject(5, msg.getOfferedBy(), Types.INTEGER);
+                        ps.setBoolean(6, msg.isCounterOffer());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return notifications.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        Map<MessageBox, List<Object[]>> links = new EnumMap<>(MessageBox.class);
+        for (int i = 0; i < notifications.size(); i++) {
+            UserNotification notification = notifications.get(i);
+            int msgId = ((Number) generated.get(i).get("msg_id")).intValue();
+            notification.getMessage().setMsgId(msgId);
+            links.computeIfAbsent(notification.getBox(), box -> new ArrayList<>())
+                    .add(new Object[] { notification.getUserId(), msgId });
+        }
+        links.forEach((box, rows) -> jdbcTemplate.batchUpdate(
+                "INSERT INTO " + joinTable(box) + " (user_id, msg_id) VALUES (?, ?)", rows));
+    }
+
+    private static void addToBox(Registered user, UserNotification notification) {
+        switch (notification.getBox()) {
+            case ASSIGNMENT:
+                user.addAssignmentMessage(notification.getMessage());
+                break;
+            case OFFER:
+                user.addOfferMessage(notification.getMessage());
+                break;
+            default:
+                user.addMessageFromStore(notification.getMessage());
+        }
+    }
+
+    // Removals run as SQL on the join rows: saving a Registered whose mailbox was changed in memory
+    // would also drop the rows addMessages inserted since the user was loaded, when it emptied the mailbox
+    @Override
+    public boolean removeMessage(int userId, int msgId) {
+        if (jdbcTemplate == null) {
+            return userJpaRepository.findRegisteredById(userId).map(user -> {
+                boolean removed = user.removeMsgById(msgId);
+                userJpaRepository.save(user);
+                return removed;
+            }).orElse(false);
+        }
+        int removed = 0;
+        for (MessageBox box : MessageBox.values()) {
+            removed += jdbcTemplate.update("DELETE FROM " + joinTable(box) + " WHERE user_id = ? AND msg_id = ?", userId, msgId);
+        }
+        return removed > 0;
+    }
+
+    @Override
+    public void removeAssignmentMessages(int userId, int storeId) {
+        if (jdbcTemplate == null) {
+            userJpaRepository.findRegisteredById(userId).ifPresent(user -> {
+                user.removeAssignmentMessage(storeId);
+                userJpaRepository.save(user);
+            });
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM registered_assignment_messages WHERE user_id = ? AND msg_id IN "
+                + "(SELECT msg_id FROM store_messages_to_user WHERE store_id = ?)", userId, storeId);
+    }
+
+    @Override
+    public void removeOfferMessage(int userId, int storeId, int productId, int offeredBy) {
+        if (jdbcTemplate == null) {
+            userJpaRepository.findRegisteredById(userId).ifPresent(user -> {
+                user.removeOfferMessage(storeId, productId, offeredBy);
+                userJpaRepository.save(user);
+            });
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM registered_offers_messages WHERE user_id = ? AND msg_id = "
+                + "(SELECT MIN(m.msg_id) FROM store_messages_to_user m JOIN registered_offers_messages o ON o.msg_id = m.msg_id "
+                + "WHERE o.user_id = ? AND m.store_id = ? AND m.product_id = ? AND m.offered_by = ?)",
+                userId, userId, storeId, productId, offeredBy);
+    }
+
+    // Join tables of the message lists in Registered
+    private static String joinTable(MessageBox box) {
+        switch (box) {
+            case ASSIGNMENT:
+                return "registered_assignment_messages";
+            case OFFER:
+                return "registered_offers_messages";
+            default:
+                return "registered_messages_from_store";
+        }
+    }
+
     /**
      * Get the next available userId from the registered_users table
      * @return next available userId (max+1)
@@ -0,0 +1,44 @@
+package InfrastructureLayer.Security;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ * Returned by {@link TokenService#parseOnce(String)} so callers can read everything they
+ * need from the token without parsing it again.
+ */
+public final class TokenClaims {
+    private final String subject;
+    private final Integer userId;
+    private final String role;
+    private final Date expiration;
+
+    TokenClaims(String subject, Integer userId, String role, Date expiration) {
+        this.subject = subject;
+        this.userId = userId;
+        this.role = role;
+        this.expiration = expiration;
+    }
+
+    // Email for registered users, generated guest id for guests
+    public String getSubject() {
+        return subject;
+    }
+
+    // Null for guest tokens
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isGuest() {
+        return "GUEST".equals(role);
+    }
+
+    public Date getExpiration() {
+        return new Date(expiration.getTime());
+    }
+}
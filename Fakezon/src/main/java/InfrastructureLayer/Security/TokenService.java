@@ -1,13 +1,24 @@
 package InfrastructureLayer.Security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 @Service
@@ -19,8 +30,49 @@ public class TokenService {
     
     private static final String HARDCODED_SECRET = "jM0Xcm6tKgvfMYdr1N5mZK3qPxYybg8vZ2H7sLDwE0RpQlFuT9aWnS4JeIcO1zA";
     
+    private static final int CLAIMS_CACHE_SIZE = 10_000;
+    private static final long CLAIMS_CACHE_TTL = 5 * 60 * 1000; // 5 minutes
+
     // Initialize the key directly with the hardcoded secret
     private final Key key = Keys.hmacShaKeyFor(HARDCODED_SECRET.getBytes());
+
+    // JwtParser is immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+    private final Clock clock;
+    private final long cacheTtl;
+    private final int cacheSize;
+    // Verified claims by token hash; read without locking on every authenticated request
+    private final ConcurrentHashMap<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+    private final ReentrantLock trimming = new ReentrantLock();
+
+    private static final class CachedClaims {
+        private final TokenClaims claims;
+        private final long expiresAt;
+
+        private CachedClaims(TokenClaims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public TokenService() {
+        this(CLAIMS_CACHE_SIZE, CLAIMS_CACHE_TTL, Clock.systemUTC());
+    }
+
+    /**
+     * @param cacheSize most verified tokens kept at once; 0 disables the cache
+     * @param cacheTtl how long a verified token is trusted without re-checking its signature,
+     *                 never past the token's own expiry
+     */
+    public TokenService(int cacheSize, long cacheTtl, Clock clock) {
+        this.clock = clock;
+        this.cacheTtl = cacheTtl;
+        this.cacheSize = cacheSize;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setClock(() -> new Date(clock.millis()))
+                .build();
+    }
     
     // Generate token for user with userId
     public String generateToken(String email, int userId) {
@@ -56,40 +108,85 @@ public class TokenService {
      * @return true if token is for a guest user
      */
     public boolean isGuestToken(String token) {
-        try {
-            String role = extractClaim(token, claims -> claims.get(USER_ROLE_CLAIM, String.class));
-            return "GUEST".equals(role);
-        } catch (Exception e) {
-            return false;
-        }
+        TokenClaims claims = parseOnce(token);
+        return claims != null && claims.isGuest();
     }
 
     // Validate token
     public boolean validateToken(String token) {
+        return parseOnce(token) != null;
+    }
+
+    /**
+     * Verifies the token and returns its claims, or null if the token is malformed, badly
+     * signed or expired. Tokens verified recently are answered from the cache, so callers
+     * that need several claims of the same token pay for one signature check at most.
+     */
+    public TokenClaims parseOnce(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String cacheKey = hash(token);
+        long now = clock.millis();
+        CachedClaims cached = claimsCache.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            claimsCache.remove(cacheKey, cached);
+        }
+        TokenClaims claims;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
+            Claims body = extractAllClaims(token);
+            claims = new TokenClaims(body.getSubject(), body.get(USER_ID_CLAIM, Integer.class),
+                    body.get(USER_ROLE_CLAIM, String.class), body.getExpiration());
         } catch (Exception e) {
-            return false;
+            return null;
+        }
+        if (claims.getExpiration() == null) {
+            return null;
+        }
+        if (cacheSize > 0) {
+            long expiresAt = Math.min(claims.getExpiration().getTime(), now + cacheTtl);
+            claimsCache.put(cacheKey, new CachedClaims(claims, expiresAt));
+            if (claimsCache.size() > cacheSize) {
+                trim(now);
+            }
+        }
+        return claims;
+    }
+
+    // Over the size: drops the expired entries, then any until the cache fits. One thread trims at
+    // a time and the others go on, so the cache may briefly hold a few entries too many.
+    private void trim(long now) {
+        if (!trimming.tryLock()) {
+            return;
+        }
+        try {
+            claimsCache.values().removeIf(cached -> cached.expiresAt <= now);
+            Iterator<Map.Entry<String, CachedClaims>> it = claimsCache.entrySet().iterator();
+            while (claimsCache.size() > cacheSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            trimming.unlock();
         }
     }
 
     // Extract email from token
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifiedClaims(token).getSubject();
     }
     
     // Extract userId from token
     public int extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get(USER_ID_CLAIM, Integer.class));
+        return verifiedClaims(token).getUserId();
     }
 
     // Extract expiration date from token
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verifiedClaims(token).getExpiration();
     }
 
     // Extract specific claim from token
@@ -98,19 +195,27 @@ public class TokenService {
         return claimsResolver.apply(claims);
     }
 
-    // Extract all claims from token
+    // Extract all claims from token; the parser also rejects expired tokens
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private TokenClaims verifiedClaims(String token) {
+        TokenClaims claims = parseOnce(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
+        }
+        return claims;
     }
 
-    // Check if token is expired
-    private boolean isTokenExpired(String token) {
-        final Date expiration = extractExpiration(token);
-        return expiration.before(new Date());
+    // The cache holds digests rather than the bearer tokens themselves
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
\ No newline at end of file
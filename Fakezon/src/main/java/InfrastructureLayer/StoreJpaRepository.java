@@ -1,10 +1,14 @@
 package InfrastructureLayer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import DomainLayer.Model.AuctionProduct;
 import DomainLayer.Model.Store;
 
 import java.util.List;
@@ -14,7 +18,7 @@ import java.util.Optional;
 public interface StoreJpaRepository extends JpaRepository<Store, Integer> {
     
     Optional<Store> findByName(String name);
-    
+
     List<Store> findByIsOpenTrue();
     
     List<Store> findByStoreFounderID(int founderId);
@@ -22,9 +26,38 @@ public interface StoreJpaRepository extends JpaRepository<Store, Integer> {
     @Query("SELECT s FROM Store s WHERE s.name LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Store> searchByKeyword(@Param("keyword") String keyword);
     
-    @Query(value = "SELECT * FROM stores ORDER BY (SELECT AVG(sr.rating) FROM store_ratings sr WHERE sr.store_id = stores.store_id) DESC LIMIT 10", nativeQuery = true)
-    List<Store> findTop10StoresByRating();
-    
     @Query("SELECT s FROM Store s WHERE :ownerId MEMBER OF s.storeOwners")
     List<Store> findStoresByOwnerId(@Param("ownerId") Integer ownerId);
-} 
\ No newline at end of file
+
+    @Query("SELECT ap FROM AuctionProduct ap JOIN FETCH ap.storeProduct WHERE ap.isDone = false")
+    List<AuctionProduct> findPendingAuctionProducts();
+
+    // conditional decrement - the row is only touched if there is enough stock, so no aggregate load/version check is needed
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StoreProduct sp SET sp.quantity = sp.quantity - :quantity WHERE sp.storeId = :storeId AND sp.SproductID = :productId AND sp.quantity >= :quantity")
+    int decrementStockIfAvailable(@Param("storeId") int storeId, @Param("productId") int productId, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StoreProduct sp SET sp.quantity = sp.quantity + :quantity WHERE sp.storeId = :storeId AND sp.SproductID = :productId")
+    int incrementStock(@Param("storeId") int storeId, @Param("productId") int productId, @Param("quantity") int quantity);
+
+    // Fills rating_sum/rating_count for rows rated before those columns existed
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE StoreProduct sp SET "
+            + "sp.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM StoreProduct p JOIN p.Pratings r WHERE p.SproductID = sp.SproductID), "
+            + "sp.ratingCount = (SELECT COUNT(r) FROM StoreProduct p JOIN p.Pratings r WHERE p.SproductID = sp.SproductID) "
+            + "WHERE sp.ratingCount = 0 AND EXISTS (SELECT 1 FROM StoreProduct p JOIN p.Pratings r WHERE p.SproductID = sp.SproductID)")
+    int backfillProductRatingTotals();
+
+    // Same for stores.rating_sum/rating_count
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE Store s SET "
+            + "s.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Store rs JOIN rs.Sratings r WHERE rs.storeID = s.storeID), "
+            + "s.ratingCount = (SELECT COUNT(r) FROM Store rs JOIN rs.Sratings r WHERE rs.storeID = s.storeID) "
+            + "WHERE s.ratingCount = 0 AND EXISTS (SELECT 1 FROM Store rs JOIN rs.Sratings r WHERE rs.storeID = s.storeID)")
+    int backfillStoreRatingTotals();
+}
@@ -2,6 +2,7 @@ package com.fakezone.fakezone.controller;
 
 import ApplicationLayer.DTO.ProductDTO;
 import ApplicationLayer.DTO.ProductRatingDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.Enums.ErrorType;
@@ -208,7 +209,41 @@ public class ProductController {
             return ResponseEntity.status(500).body(response);
         }
     }
-        
+
+    @GetMapping("/searchProducts")
+    public ResponseEntity<Response<ProductSearchResultDTO>> searchProducts(
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "minProductRating", required = false) Double minProductRating,
+            @RequestParam(value = "minStoreRating", required = false) Double minStoreRating,
+            @RequestParam(value = "storeId", required = false) Integer storeId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token) {
+        try {
+            logger.info("Received request to search products with keyword: {}, category: {}, page: {}", keyword, category, page);
+            if (!authenticatorAdapter.isValid(token)) {
+                Response<ProductSearchResultDTO> response = new Response<>(null, "Invalid token", false, ErrorType.UNAUTHORIZED, null);
+                return ResponseEntity.status(401).body(response);
+            }
+            Response<ProductSearchResultDTO> response = systemService.searchStoreProducts(keyword, category, minPrice,
+                    maxPrice, minProductRating, minStoreRating, storeId, page, size);
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            }
+            if (response.getErrorType() == ErrorType.INTERNAL_ERROR) {
+                return ResponseEntity.status(500).body(response);
+            }
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception e) {
+            logger.error("Error in ProductController: {}", e.getMessage());
+            Response<ProductSearchResultDTO> response = new Response<>(null, "An error occurred at the controller level", false, ErrorType.INTERNAL_ERROR, null);
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     @GetMapping("/topRated/{limit}")
     public ResponseEntity<Response<List<StoreProductDTO>>> getTopRatedProducts(@PathVariable("limit") int limit,  @RequestHeader("Authorization") String token) {
         try {
@@ -1,6 +1,7 @@
 package com.fakezone.fakezone.controller;
 
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -8,6 +9,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +26,7 @@ import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Interfaces.ISystemService;
 import ApplicationLayer.Request;
@@ -586,6 +589,60 @@ public ResponseEntity<Response<Void>> removeStoreManagerPermissions(@PathVariabl
         }
     }
 
+    @GetMapping("/getStoreOrders/{storeId}/{userId}")
+    public ResponseEntity<Response<List<OrderDTO>>> getStoreOrders(@PathVariable("storeId") int storeId,
+                                                               @PathVariable("userId") int userId,
+                                                               @RequestParam(value = "page", defaultValue = "0") int page,
+                                                               @RequestParam(value = "size", defaultValue = "20") int size,
+                                                               @RequestHeader("Authorization") String token) {
+        try {
+            logger.info("Received request to get page {} of orders for store {} by user {} with token {}", page, storeId, userId, token);
+            if (!authenticatorAdapter.isValid(token)) {
+                Response<List<OrderDTO>> response = new Response<>(null, "Invalid token", false, ErrorType.UNAUTHORIZED, null);
+                return ResponseEntity.status(401).body(response);
+            }
+            Response<List<OrderDTO>> response = systemService.getAllStoreOrders(storeId, userId, page, size);
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            }
+            if (response.getErrorType() == ErrorType.INTERNAL_ERROR) {
+                return ResponseEntity.status(500).body(response);
+            }
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception e) {
+            logger.error("Error in getStoreOrders: {}", e.getMessage());
+            Response<List<OrderDTO>> response = new Response<>(null, "An error occurred at the controller level", false, ErrorType.INTERNAL_ERROR, null);
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    @GetMapping("/getStoreSales/{storeId}/{userId}")
+    public ResponseEntity<Response<StoreSalesDTO>> getStoreSales(@PathVariable("storeId") int storeId,
+                                                               @PathVariable("userId") int userId,
+                                                               @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                               @RequestHeader("Authorization") String token) {
+        try {
+            logger.info("Received request to get sales of store {} from {} to {} by user {} with token {}", storeId, from, to, userId, token);
+            if (!authenticatorAdapter.isValid(token)) {
+                Response<StoreSalesDTO> response = new Response<>(null, "Invalid token", false, ErrorType.UNAUTHORIZED, null);
+                return ResponseEntity.status(401).body(response);
+            }
+            Response<StoreSalesDTO> response = systemService.getStoreSales(storeId, userId, from, to);
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            }
+            if (response.getErrorType() == ErrorType.INTERNAL_ERROR) {
+                return ResponseEntity.status(500).body(response);
+            }
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception e) {
+            logger.error("Error in getStoreSales: {}", e.getMessage());
+            Response<StoreSalesDTO> response = new Response<>(null, "An error occurred at the controller level", false, ErrorType.INTERNAL_ERROR, null);
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     @PostMapping("/acceptAssignment/{storeId}/{userId}")
     public ResponseEntity<Response<String>> acceptAssignment(@PathVariable("storeId") int storeId,
                                                       @PathVariable("userId") int userId,
@@ -711,6 +768,30 @@ public ResponseEntity<Response<Void>> removeStoreManagerPermissions(@PathVariabl
         }
     }
 
+    @GetMapping("/getTopRatedStores/{limit}")
+    public ResponseEntity<Response<List<StoreDTO>>> getTopRatedStores(@PathVariable("limit") int limit,
+                                                                        @RequestHeader("Authorization") String token) {
+        try {
+            logger.info("Received request to get top rated stores with limit {} and token {}", limit, token);
+            if (!authenticatorAdapter.isValid(token)) {
+                Response<List<StoreDTO>> response = new Response<>(null, "Invalid token", false, ErrorType.UNAUTHORIZED, null);
+                return ResponseEntity.status(401).body(response);
+            }
+            Response<List<StoreDTO>> response = systemService.getTopRatedStores(limit);
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            }
+            if (response.getErrorType() == ErrorType.INTERNAL_ERROR) {
+                return ResponseEntity.status(500).body(response);
+            }
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception e) {
+            logger.error("Error in getTopRatedStores: {}", e.getMessage());
+            Response<List<StoreDTO>> response = new Response<>(null, "An error occurred at the controller level", false, ErrorType.INTERNAL_ERROR, null);
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     @GetMapping("/isStoreOwner/{storeId}/{userId}")
     public ResponseEntity<Response<Boolean>> isStoreOwner(@PathVariable("storeId") int storeId,
                                                        @PathVariable("userId") int userId,
@@ -0,0 +1,163 @@
+package com.fakezone.fakezone.ui;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import ApplicationLayer.Response;
+import ApplicationLayer.DTO.CartItemInfoDTO;
+import ApplicationLayer.DTO.OrderDTO;
+import ApplicationLayer.DTO.ProductDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
+import ApplicationLayer.DTO.StoreDTO;
+import ApplicationLayer.DTO.StoreProductDTO;
+import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
+import ApplicationLayer.Enums.ErrorType;
+import ApplicationLayer.Interfaces.ISystemService;
+import ApplicationLayer.RequestDataTypes.PurchaseRequest;
+import DomainLayer.Enums.StoreManagerPermission;
+import DomainLayer.Model.helpers.UserMsg;
+import InfrastructureLayer.Adapters.AuthenticatorAdapter;
+
+/**
+ * In-process entry point for the Vaadin views.
+ * Each call runs the same token check as the matching REST controller and returns the
+ * same Response, without the loopback HTTP round trip and JSON (de)serialization.
+ */
+@Component
+public class SystemServiceGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemServiceGateway.class);
+
+    private final ISystemService systemService;
+    private final AuthenticatorAdapter authenticatorAdapter;
+
+    @Autowired
+    public SystemServiceGateway(ISystemService systemService, AuthenticatorAdapter authenticatorAdapter) {
+        this.systemService = systemService;
+        this.authenticatorAdapter = authenticatorAdapter;
+    }
+
+    // Products
+
+    public Response<List<StoreProductDTO>> getTopRatedProducts(String token, int limit) {
+        return call(token, "getTopRatedProducts", () -> systemService.getTopRatedProducts(limit));
+    }
+
+    public Response<StoreProductDTO> getProductFromStore(String token, int storeId, int productId) {
+        return call(token, "getProductFromStore", () -> systemService.getProductFromStore(productId, storeId));
+    }
+
+    public Response<List<ProductDTO>> searchByKeyword(String token, String keyword) {
+        return call(token, "searchByKeyword", () -> systemService.searchByKeyword(keyword));
+    }
+
+    public Response<List<ProductDTO>> searchByCategory(String token, String category) {
+        return call(token, "searchByCategory", () -> systemService.searchByCategory(category));
+    }
+
+    public Response<List<ProductDTO>> searchProductsByName(String token, String name) {
+        return call(token, "searchProductsByName", () -> systemService.searchProductsByName(name));
+    }
+
+    public Response<ProductSearchResultDTO> searchStoreProducts(String token, String keyword, String category,
+            Double minPrice, Double maxPrice, Double minProductRating, Double minStoreRating, Integer storeId,
+            int page, int size) {
+        return call(token, "searchStoreProducts", () -> systemService.searchStoreProducts(keyword, category,
+                minPrice, maxPrice, minProductRating, minStoreRating, storeId, page, size));
+    }
+
+    // Stores
+
+    public Response<List<StoreDTO>> getAllStores(String token) {
+        return call(token, "getAllStores", systemService::getAllStores);
+    }
+
+    public Response<StoreDTO> viewStore(String token, int storeId) {
+        return call(token, "viewStore", () -> systemService.userAccessStore(storeId));
+    }
+
+    public Response<StoreRolesDTO> getStoreRoles(String token, int storeId, int requesterId) {
+        return call(token, "getStoreRoles", () -> systemService.getStoreRoles(storeId, requesterId));
+    }
+
+    public Response<List<Integer>> getPendingOwners(String token, int storeId, int requesterId) {
+        return call(token, "getPendingOwners", () -> systemService.getPendingOwners(storeId, requesterId));
+    }
+
+    public Response<List<Integer>> getPendingManagers(String token, int storeId, int requesterId) {
+        return call(token, "getPendingManagers", () -> systemService.getPendingManagers(storeId, requesterId));
+    }
+
+    public Response<Boolean> isStoreOwner(String token, int storeId, int userId) {
+        return call(token, "isStoreOwner", () -> systemService.isStoreOwner(storeId, userId));
+    }
+
+    public Response<List<StoreManagerPermission>> isStoreManager(String token, int storeId, int userId) {
+        return call(token, "isStoreManager", () -> systemService.isStoreManager(storeId, userId));
+    }
+
+    public Response<Map<Integer, UserMsg>> getMessagesFromUsers(String token, int storeId, int userId) {
+        return call(token, "getMessagesFromUsers", () -> systemService.getMessagesFromUsers(storeId, userId));
+    }
+
+    public Response<List<OrderDTO>> getAllStoreOrders(String token, int storeId, int userId, int page, int size) {
+        return call(token, "getAllStoreOrders", () -> systemService.getAllStoreOrders(storeId, userId, page, size));
+    }
+
+    public Response<StoreSalesDTO> getStoreSales(String token, int storeId, int userId, LocalDate from, LocalDate to) {
+        return call(token, "getStoreSales", () -> systemService.getStoreSales(storeId, userId, from, to));
+    }
+
+    // Cart
+
+    public Response<Void> addToBasket(String token, int userId, int storeId, int productId, int quantity) {
+        return call(token, "addToBasket", () -> systemService.addToBasket(userId, productId, storeId, quantity));
+    }
+
+    public Response<Void> removeFromBasket(String token, int userId, int storeId, int productId) {
+        return call(token, "removeFromBasket", () -> systemService.removeFromBasket(userId, productId, storeId));
+    }
+
+    public Response<List<CartItemInfoDTO>> viewCart(String token, int userId) {
+        return call(token, "viewCart", () -> systemService.viewCart(userId));
+    }
+
+    public Response<Double> getCartFinalPrice(String token, int userId, LocalDate dob) {
+        return call(token, "getCartFinalPrice", () -> systemService.getCartFinalPrice(userId, dob));
+    }
+
+    public Response<String> purchaseCart(String token, PurchaseRequest request) {
+        return call(token, "purchaseCart", () -> systemService.purchaseCart(request.getUserId(),
+                request.getCountry(),
+                request.getDob(),
+                request.getPaymentMethod(),
+                request.getDeliveryMethod(),
+                request.getCardNumber(),
+                request.getCardHolder(),
+                request.getExpDate(),
+                request.getCvv(),
+                request.getAddress(),
+                request.getRecipient(),
+                request.getPackageDetails()));
+    }
+
+    private <T> Response<T> call(String token, String operation, Supplier<Response<T>> action) {
+        try {
+            if (!authenticatorAdapter.isValid(token)) {
+                return new Response<>(null, "Invalid token", false, ErrorType.UNAUTHORIZED, null);
+            }
+            return action.get();
+        } catch (Exception e) {
+            logger.error("Error in SystemServiceGateway during " + operation + ": " + e.getMessage());
+            return new Response<>(null, "An error occurred while processing " + operation, false, ErrorType.INTERNAL_ERROR, null);
+        }
+    }
+}
@@ -12,12 +12,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -49,12 +43,12 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteParameters;
 import com.vaadin.flow.server.VaadinRequest;
 
-import ApplicationLayer.Request;
 import ApplicationLayer.Response;
 import ApplicationLayer.DTO.CartItemInfoDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.RequestDataTypes.PurchaseRequest;
+import com.fakezone.fakezone.ui.SystemServiceGateway;
 import DomainLayer.Enums.PaymentMethod;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -62,9 +56,8 @@ import jakarta.servlet.http.HttpSession;
 @Route(value = "cart/:userId", layout = MainLayout.class)
 public class CartView extends VerticalLayout implements AfterNavigationObserver{
    private int userId;
-    private final String apiUrl;
     private final String webUrl;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final SystemServiceGateway gateway;
 
     private String token; // Store token for reuse
     private UserDTO currentUser; // Store current user for reuse
@@ -74,10 +67,9 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
     private H1 cartTitle;
     private H2 emptyCartMessage;
 
-    public CartView(@Value("${api.url}") String apiUrl, @Value("${website.url}") String webUrl) {
-        this.apiUrl = apiUrl;
+    public CartView(SystemServiceGateway gateway, @Value("${website.url}") String webUrl) {
+        this.gateway = gateway;
         this.webUrl = webUrl;
-        this.restTemplate.setErrorHandler(new EmptyResponseErrorHandler()); // Set error handler once
 
         cartTitle = new H1("Your Cart");
         emptyCartMessage = new H2("Cart is Empty :(");
@@ -122,19 +114,8 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
         cartContentLayout.removeAll(); // Clear previous content
         emptyCartMessage.setVisible(false);
 
-        String url = apiUrl + "user/viewCart/" + userId;
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<Response<List<CartItemInfoDTO>>> apiResponse = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<Response<List<CartItemInfoDTO>>>() {
-                    });
-            Response<List<CartItemInfoDTO>> response = apiResponse.getBody();
+            Response<List<CartItemInfoDTO>> response = gateway.viewCart(token, userId);
 
             if (response != null && response.isSuccess()) {
                 List<CartItemInfoDTO> cart = response.getData();
@@ -280,18 +261,7 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
        dob.setReadOnly(true);
        dialog.add(firstName, lastName, dob);
 
-       String url = apiUrl + "user/getCartFinalPrice/" + userId+"?dob="+dob.getValue().toString();
-       // api call
-       HttpHeaders headers = new HttpHeaders();
-       headers.set("Authorization", token);
-       HttpEntity<Void> entity = new HttpEntity<>(headers);
-       ResponseEntity<Response<Double>> apiResponse = restTemplate.exchange(
-               url,
-               HttpMethod.GET,
-               entity,
-               new ParameterizedTypeReference<Response<Double>>() {
-               });
-       Response<Double> response = apiResponse.getBody();
+       Response<Double> response = gateway.getCartFinalPrice(token, userId, dob.getValue());
        if(response.isSuccess()){
             ComboBox<PaymentMethod> paymentMethodComboBox = new ComboBox<>("Select Payment Method");
             paymentMethodComboBox.setItems(PaymentMethod.values());
@@ -394,18 +364,7 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
                                                      firstName.getValue() + " " + lastName.getValue(), 
                                                      packageDetails.getValue());
         
-        Request<PurchaseRequest> apiReq = new Request<PurchaseRequest>(token, purReq);
-        String url = apiUrl + "user/purchaseCart";
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Request<PurchaseRequest>> entity = new HttpEntity<>(apiReq, headers);
-        ResponseEntity<Response<String>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                new ParameterizedTypeReference<Response<String>>() {
-        });
-        Response<String> res = apiResponse.getBody();
+        Response<String> res = gateway.purchaseCart(token, purReq);
         Dialog dialog = new Dialog();
         if(res.isSuccess()){
             dialog.add(new H1(res.getData()));
@@ -481,18 +440,7 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
     }
 
     private int getAvailableStock(int storeId, int productId){
-        String url = apiUrl + "product/getProductFromStore/" + storeId +"/" + productId;
-        // api call
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-        ResponseEntity<Response<StoreProductDTO>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<StoreProductDTO>>() {
-                });
-        Response<StoreProductDTO> response = apiResponse.getBody();
+        Response<StoreProductDTO> response = gateway.getProductFromStore(token, storeId, productId);
         if(response.isSuccess()){
             return response.getData().getQuantity();
         }
@@ -504,20 +452,9 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
     private void updateCartItemQuantity(int productId, int storeId, int newQuantity, 
                                         Button confirmButton, IntegerField quantityField, int originalQuantity) {
 
-        String url = apiUrl + "user/addToBasket/" + this.userId +"/" + storeId + "/" + productId + "/" + newQuantity; 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
         confirmButton.setEnabled(false); // Disable while processing
         try {
-            ResponseEntity<Response<Void>> apiResponse = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST, // Or POST, depending on your API design
-                    entity,
-                    new ParameterizedTypeReference<Response<Void>>() {
-                    });
-
-            Response<Void> response = apiResponse.getBody();
+            Response<Void> response = gateway.addToBasket(token, this.userId, storeId, productId, newQuantity);
             if (response != null && response.isSuccess()) {
                 Notification.show("Cart updated successfully!", 2000, Notification.Position.BOTTOM_START)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
@@ -555,20 +492,8 @@ public class CartView extends VerticalLayout implements AfterNavigationObserver{
     }
 
     private void removeCartItem(int productId, int storeId) {
-        String url = apiUrl + "user/removeFromBasket/" + this.userId
-                + "/" + storeId + "/" + productId;
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<Response<Void>> apiResponse = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST, // or POST if your API uses POST
-                    entity,
-                    new ParameterizedTypeReference<Response<Void>>() {
-                    });
-            Response<Void> response = apiResponse.getBody();
+            Response<Void> response = gateway.removeFromBasket(token, this.userId, storeId, productId);
 
             if (response.isSuccess()) {
                 Notification.show("Item removed", 2000, Notification.Position.BOTTOM_START)
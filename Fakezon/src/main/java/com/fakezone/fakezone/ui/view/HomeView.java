@@ -13,6 +13,8 @@ import com.vaadin.flow.router.RouterLink;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 
+import com.fakezone.fakezone.ui.SystemServiceGateway;
+
 import ApplicationLayer.Response;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.UserDTO;
@@ -22,15 +24,8 @@ import jakarta.servlet.http.HttpSession;
 
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.client.RestTemplate;
 
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
@@ -43,14 +38,12 @@ import com.vaadin.flow.component.notification.Notification;
 
 @Route(value = "", layout = MainLayout.class)
 public class HomeView extends Main {
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String apiUrl;
-    public HomeView(@Value("${api.url}") String apiUrl) {
-        this.apiUrl = apiUrl;
+    private final SystemServiceGateway gateway;
+    public HomeView(SystemServiceGateway gateway) {
+        this.gateway = gateway;
         HttpServletRequest request = (HttpServletRequest) VaadinRequest.getCurrent();
         HttpSession session = request.getSession(false); // true = create if not exist
         String token = (String) session.getAttribute("token");
-        restTemplate.setErrorHandler(new EmptyResponseErrorHandler());
         int bestProdsLim = 4;
         createBestsellersSection(bestProdsLim, token);
     }
@@ -59,24 +52,13 @@ public class HomeView extends Main {
         // title
         H1 title = new H1("Top Rated Products");
         title.getStyle().set("margin-bottom", "0.5em");
-        String url = apiUrl + "product/topRated/" + lim;
-        //api call
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-        ResponseEntity<Response<List<StoreProductDTO>>> apiResponse = restTemplate.exchange(
-            url,
-            HttpMethod.GET,
-            entity,
-            new ParameterizedTypeReference<Response<List<StoreProductDTO>>>() {}
-        );
+        Response<List<StoreProductDTO>> response = gateway.getTopRatedProducts(token, lim);
         HorizontalLayout cardsRow = new HorizontalLayout();
         cardsRow.setWidthFull();
         cardsRow.setPadding(true);
         cardsRow.setSpacing(true);
         cardsRow.setJustifyContentMode(HorizontalLayout.JustifyContentMode.CENTER);
 
-        Response<List<StoreProductDTO>> response = apiResponse.getBody();
         if(response.isSuccess()){
             List<StoreProductDTO> products = response.getData();
             for (StoreProductDTO p : products) {
@@ -163,17 +145,7 @@ public class HomeView extends Main {
         String token = (String) session.getAttribute("token");
         UserDTO userDto = (UserDTO) session.getAttribute("userDTO");
         int userId = userDto.getUserId();
-        String url = apiUrl + "user/addToBasket/" + userId +"/"+storeId+"/"+prodId+"/"+quantity;
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-        ResponseEntity<Response<String>> apiResponse = restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            entity,
-            new ParameterizedTypeReference<Response<String>>() {}
-        );            
-        Response<String> response = apiResponse.getBody();
+        Response<Void> response = gateway.addToBasket(token, userId, storeId, prodId, quantity);
         if(response.isSuccess()){
             Notification.show("Added to Cart succefully");
         }
@@ -15,14 +15,8 @@ import com.vaadin.flow.server.VaadinRequest;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.DefaultResponseErrorHandler;
-import org.springframework.web.client.RestTemplate;
 
+import com.fakezone.fakezone.ui.SystemServiceGateway;
 import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Main;
 import com.vaadin.flow.component.html.Span;
@@ -32,6 +26,7 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 
 import ApplicationLayer.Response;
 import ApplicationLayer.DTO.ProductDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.Enums.PCategory;
@@ -80,7 +75,12 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
     private TextField searchTermField;
     private Button searchButton;
 
-    public SearchResultsView() {
+    private static final int FILTER_PAGE_SIZE = 200;
+
+    private final SystemServiceGateway gateway;
+
+    public SearchResultsView(SystemServiceGateway gateway) {
+        this.gateway = gateway;
         grid = new Grid<>(FilteredProductResult.class);
         
         // Create store-specific search UI
@@ -182,24 +182,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
         try {
-            // Assuming you have an endpoint to get all stores
-            String url = "http://localhost:8080/api/store/getAllStores";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<StoreDTO>>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<StoreDTO>>>() {}
-            );
-
-            Response<List<StoreDTO>> body = response.getBody();
+            Response<List<StoreDTO>> body = gateway.getAllStores(token);
             if (body != null && body.isSuccess() && body.getData() != null) {
                 List<StoreDTO> stores = body.getData();
                 storeSelector.setItems(stores);
@@ -454,70 +438,31 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
             }
             String token = (String) session.getAttribute("token");
 
-            RestTemplate restTemplate = new RestTemplate();
-            restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
+            // One faceted query per page instead of a product lookup (and store lookup) per product/store pair
+            Integer storeFilter = isStoreSpecificSearch ? targetStoreId : null;
+            Double storeRatingFilter = selectedStoreRating != null ? selectedStoreRating.doubleValue() : null;
+            Double productRatingFilter = selectedProductRating != null ? selectedProductRating.doubleValue() : null;
+            Map<Integer, Set<Integer>> matchingStoresByProduct = new HashMap<>();
+            int page = 0;
+            ProductSearchResultDTO result;
+            do {
+                Response<ProductSearchResultDTO> body = gateway.searchStoreProducts(token, null, selectedCategory,
+                        min, max, productRatingFilter, storeRatingFilter, storeFilter, page, FILTER_PAGE_SIZE);
+                if (body == null || !body.isSuccess()) {
+                    Notification.show(body != null ? body.getMessage() : "Failed to apply filters.");
+                    return;
+                }
+                result = body.getData();
+                for (StoreProductDTO dto : result.getProducts()) {
+                    matchingStoresByProduct.computeIfAbsent(dto.getProductId(), id -> new HashSet<>()).add(dto.getStoreId());
+                }
+                page++;
+            } while (page < result.getTotalPages());
 
             List<FilteredProductResult> filtered = allProducts.stream()
                 .map(product -> {
-                    Set<Integer> matchingStores = product.getStoreIds().stream()
-                        .filter(storeId -> {
-                            // For store-specific search, only consider the target store
-                            if (isStoreSpecificSearch && !storeId.equals(targetStoreId)) {
-                                return false;
-                            }
-                            
-                            try {
-                                String url = String.format("http://localhost:8080/api/product/getProductFromStore/%d/%d", storeId, product.getId());
-                                HttpHeaders headers = new HttpHeaders();
-                                headers.set("Authorization", token);
-                                HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-                                ResponseEntity<Response<StoreProductDTO>> response = restTemplate.exchange(
-                                        url,
-                                        HttpMethod.GET,
-                                        entity,
-                                        new ParameterizedTypeReference<Response<StoreProductDTO>>() {
-                                        });
-
-                                Response<StoreProductDTO> body = response.getBody();
-                                if (body == null || !body.isSuccess()) return false;
-
-                                StoreProductDTO dto = body.getData();
-
-                                boolean priceOk = (min == null || dto.getBasePrice() >= min) &&
-                                                (max == null || dto.getBasePrice() <= max);
-
-                                boolean productRatingOk = selectedProductRating == null ||
-                                                        dto.getAverageRating() >= selectedProductRating;
-
-                                boolean categoryOk = selectedCategory == null ||
-                                                    dto.getCategory().name().equalsIgnoreCase(selectedCategory);
-
-                                // Store rating filter only applies to general search
-                                boolean storeRatingOk = true;
-                                if (!isStoreSpecificSearch && selectedStoreRating != null) {
-                                    String storeUrl = String.format("http://localhost:8080/api/store/viewStore/%d", storeId);
-                                    ResponseEntity<Response<StoreDTO>> storeResponse = restTemplate.exchange(
-                                            storeUrl,
-                                            HttpMethod.GET,
-                                            entity,
-                                            new ParameterizedTypeReference<Response<StoreDTO>>() {
-                                            });
-
-                                    Response<StoreDTO> storeBody = storeResponse.getBody();
-                                    if (storeBody == null || !storeBody.isSuccess()) return false;
-                                    StoreDTO storeDTO = storeBody.getData();
-                                    
-                                    storeRatingOk = storeDTO.getAverageRating() >= selectedStoreRating;
-                                }
-
-                                return priceOk && productRatingOk && storeRatingOk && categoryOk;
-
-                            } catch (Exception ex) {
-                                return false;
-                            }
-                        }).collect(Collectors.toSet());
-
+                    Set<Integer> matchingStores = new HashSet<>(product.getStoreIds());
+                    matchingStores.retainAll(matchingStoresByProduct.getOrDefault(product.getId(), Set.of()));
                     return matchingStores.isEmpty() ? null : new FilteredProductResult(product, matchingStores);
                 })
                 .filter(Objects::nonNull)
@@ -550,24 +495,9 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
         // First, fetch the store details to get the correct store name
         try {
-            String storeUrl = String.format("http://localhost:8080/api/store/viewStore/%d", storeId);
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<StoreDTO>> storeResponse = restTemplate.exchange(
-                storeUrl,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<StoreDTO>>() {}
-            );
-
-            Response<StoreDTO> storeBody = storeResponse.getBody();
+            Response<StoreDTO> storeBody = gateway.viewStore(token, storeId);
             if (storeBody != null && storeBody.isSuccess() && storeBody.getData() != null) {
                 this.targetStoreName = storeBody.getData().getName();
             } else {
@@ -577,20 +507,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
             this.targetStoreName = storeName; // Fallback to provided name
         }
 
-        String url = "http://localhost:8080/api/product/searchProducts/keyword/" + keyword;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchByKeyword(token, keyword);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 
@@ -637,24 +555,9 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
         // First, fetch the store details to get the correct store name
         try {
-            String storeUrl = String.format("http://localhost:8080/api/store/viewStore/%d", storeId);
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<StoreDTO>> storeResponse = restTemplate.exchange(
-                storeUrl,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<StoreDTO>>() {}
-            );
-
-            Response<StoreDTO> storeBody = storeResponse.getBody();
+            Response<StoreDTO> storeBody = gateway.viewStore(token, storeId);
             if (storeBody != null && storeBody.isSuccess() && storeBody.getData() != null) {
                 this.targetStoreName = storeBody.getData().getName();
             } else {
@@ -664,20 +567,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
             this.targetStoreName = storeName; // Fallback to provided name
         }
 
-        String url = "http://localhost:8080/api/product/searchProducts/category/" + category;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchByCategory(token, category);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 
@@ -720,24 +611,9 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
         // First, fetch the store details to get the correct store name
         try {
-            String storeUrl = String.format("http://localhost:8080/api/store/viewStore/%d", storeId);
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<StoreDTO>> storeResponse = restTemplate.exchange(
-                storeUrl,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<StoreDTO>>() {}
-            );
-
-            Response<StoreDTO> storeBody = storeResponse.getBody();
+            Response<StoreDTO> storeBody = gateway.viewStore(token, storeId);
             if (storeBody != null && storeBody.isSuccess() && storeBody.getData() != null) {
                 this.targetStoreName = storeBody.getData().getName();
             } else {
@@ -747,20 +623,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
             this.targetStoreName = storeName; // Fallback to provided name
         }
 
-        String url = "http://localhost:8080/api/product/searchProducts/name/" + productName;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchProductsByName(token, productName);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 
@@ -805,23 +669,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
-        String url = "http://localhost:8080/api/product/searchProducts/keyword/" + keyword;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchByKeyword(token, keyword);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 this.allProducts = products;
@@ -859,23 +708,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
         }
         String token = (String) session.getAttribute("token");
 
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-
-        String url = "http://localhost:8080/api/product/searchProducts/category/" + category;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchByCategory(token, category);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 this.allProducts = products;
@@ -912,22 +746,8 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
             return;
         }
         String token = (String) session.getAttribute("token");
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-        String url = "http://localhost:8080/api/product/searchProducts/name/" + name;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Response<List<ProductDTO>>> apiResponse = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Response<List<ProductDTO>>>() {}
-            );
-
-            Response<List<ProductDTO>> response = apiResponse.getBody();
+            Response<List<ProductDTO>> response = gateway.searchProductsByName(token, name);
             if (response != null && response.isSuccess()) {
                 List<ProductDTO> products = response.getData();
                 this.allProducts = products;
@@ -954,11 +774,6 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
     // Helper method to fetch StoreProductDTO data
     private List<StoreProductDTO> fetchStoreProductData(List<ProductDTO> products, String token) {
         List<StoreProductDTO> storeProducts = new ArrayList<>();
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         for (ProductDTO product : products) {
             Set<Integer> storeIds = isStoreSpecificSearch ? 
@@ -966,11 +781,7 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
                 
             for (Integer storeId : storeIds) {
                 try {
-                    String url = String.format("http://localhost:8080/api/product/getProductFromStore/%d/%d", storeId, product.getId());
-                    ResponseEntity<Response<StoreProductDTO>> response = restTemplate.exchange(
-                        url, HttpMethod.GET, entity, new ParameterizedTypeReference<Response<StoreProductDTO>>() {}
-                    );
-                    Response<StoreProductDTO> body = response.getBody();
+                    Response<StoreProductDTO> body = gateway.getProductFromStore(token, storeId, product.getId());
                     if (body != null && body.isSuccess() && body.getData() != null) {
                         storeProducts.add(body.getData());
                     }
@@ -986,11 +797,6 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
     // Helper method to fetch StoreDTO data
     private Map<Integer, StoreDTO> fetchStoreData(List<StoreProductDTO> storeProducts, String token) {
         Map<Integer, StoreDTO> storeData = new HashMap<>();
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setErrorHandler(new DefaultResponseErrorHandler());
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         Set<Integer> storeIds = storeProducts.stream()
             .map(StoreProductDTO::getStoreId)
@@ -998,11 +804,7 @@ public class SearchResultsView extends VerticalLayout implements BeforeEnterObse
 
         for (Integer storeId : storeIds) {
             try {
-                String url = String.format("http://localhost:8080/api/store/viewStore/%d", storeId);
-                ResponseEntity<Response<StoreDTO>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, new ParameterizedTypeReference<Response<StoreDTO>>() {}
-                );
-                Response<StoreDTO> body = response.getBody();
+                Response<StoreDTO> body = gateway.viewStore(token, storeId);
                 if (body != null && body.isSuccess() && body.getData() != null) {
                     storeData.put(storeId, body.getData());
                 }
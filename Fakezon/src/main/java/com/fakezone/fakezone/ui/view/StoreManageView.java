@@ -34,12 +34,16 @@ import com.vaadin.flow.server.VaadinRequest;
 import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.OrderedProductDTO;
 import ApplicationLayer.DTO.ProductDTO;
+import ApplicationLayer.DTO.ProductSalesDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Request;
+import com.fakezone.fakezone.ui.SystemServiceGateway;
+
 import ApplicationLayer.Response;
 import DomainLayer.Enums.StoreManagerPermission;
 import DomainLayer.Model.OrderedProduct;
@@ -52,6 +56,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -67,8 +72,10 @@ import jakarta.servlet.http.HttpServletRequest;
 @Route(value = "store/:storeId/manage", layout = MainLayout.class)
 public class StoreManageView extends VerticalLayout implements BeforeEnterObserver{
 
+    private static final int ORDERS_PAGE_SIZE = 20;
     private final String apiUrl;
     private final RestTemplate restTemplate;
+    private final SystemServiceGateway gateway;
     private final Span loading = new Span("Loading store...");
     private final String webUrl;
     // Store these at the class level after initial fetch
@@ -80,7 +87,8 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
     private int storeId;
     private boolean isOwner;
     private boolean isManager;
-    public StoreManageView(@Value("${api.url}") String apiUrl, @Value("${website.url}") String websiteUrl) {
+    public StoreManageView(SystemServiceGateway gateway, @Value("${api.url}") String apiUrl, @Value("${website.url}") String websiteUrl) {
+        this.gateway = gateway;
         this.webUrl = websiteUrl;
         this.apiUrl = apiUrl;
         restTemplate = new RestTemplate();
@@ -286,7 +294,7 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
                 store.getName(),
                 store.getStoreId(),
                 store.isOpen() ? "Yes" : "No",
-                store.getRatings().values().stream().mapToDouble(d -> d).average().orElse(0.0)
+                store.getAverageRating()
         );
         Span details = new Span(storeDetailsLine);
         details.getStyle().set("font-size", "1.1em");
@@ -310,28 +318,16 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
         rolesDisplaySection.removeAll(); // Clear previous content
 
         // Fetch full roles data (this is where the backend fix for getStoreRoles is critical)
-        String rolesUrl = String.format(apiUrl + "store/getStoreRoles/%d/%d", currentStoreId, currentUserDTO.getUserId());
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", currentToken);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         StoreRolesDTO roles = null;
         try {
-            ResponseEntity<Response<StoreRolesDTO>> rolesResponse =
-                restTemplate.exchange(
-                    rolesUrl,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<>() {}
-                );
+            Response<StoreRolesDTO> rolesResponse = gateway.getStoreRoles(currentToken, currentStoreId, currentUserDTO.getUserId());
 
-            if (rolesResponse.getStatusCode().is2xxSuccessful() && rolesResponse.getBody().isSuccess()) {
-                roles = rolesResponse.getBody().getData();
+            if (rolesResponse.isSuccess()) {
+                roles = rolesResponse.getData();
             } else {
                 // If backend returns an error or success=false for getStoreRoles,
                 // we still proceed but roles will be null, and specific sections will be hidden.
-                Notification.show("Failed to fetch full store roles for display: " +
-                                  (rolesResponse.getBody() != null ? rolesResponse.getBody().getMessage() : "Unknown error"),
+                Notification.show("Failed to fetch full store roles for display: " + rolesResponse.getMessage(),
                                   3000, Notification.Position.MIDDLE);
             }
         } catch (Exception ex) {
@@ -349,21 +345,12 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
 
         if (canViewPendingRoles) {
             // Only attempt to fetch pending if user has VIEW_ROLES
-            String pendingManagersUrl = String.format(apiUrl + "store/getPendingManagers/%d/%d", currentStoreId, currentUserDTO.getUserId());
-            String pendingOwnersUrl = String.format(apiUrl + "store/getPendingOwners/%d/%d", currentStoreId, currentUserDTO.getUserId());
-
             try {
-                ResponseEntity<Response<List<Integer>>> pendingManagersResponse =
-                    restTemplate.exchange(
-                        pendingManagersUrl,
-                        HttpMethod.GET,
-                        entity,
-                        new ParameterizedTypeReference<>() {}
-                    );
-                if (pendingManagersResponse.getStatusCode().is2xxSuccessful() && pendingManagersResponse.getBody().isSuccess()) {
-                    pendingManagers = pendingManagersResponse.getBody().getData();
+                Response<List<Integer>> pendingManagersResponse = gateway.getPendingManagers(currentToken, currentStoreId, currentUserDTO.getUserId());
+                if (pendingManagersResponse.isSuccess()) {
+                    pendingManagers = pendingManagersResponse.getData();
                 } else {
-                    Notification.show("Failed to fetch pending managers: " + (pendingManagersResponse.getBody() != null ? pendingManagersResponse.getBody().getMessage() : "Unknown error"),
+                    Notification.show("Failed to fetch pending managers: " + pendingManagersResponse.getMessage(),
                             3000, Notification.Position.MIDDLE);
                 }
             } catch (Exception e) {
@@ -371,17 +358,11 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
             }
 
             try {
-                ResponseEntity<Response<List<Integer>>> pendingOwnersResponse =
-                    restTemplate.exchange(
-                        pendingOwnersUrl,
-                        HttpMethod.GET,
-                        entity,
-                        new ParameterizedTypeReference<>() {}
-                    );
-                if (pendingOwnersResponse.getStatusCode().is2xxSuccessful() && pendingOwnersResponse.getBody().isSuccess()) {
-                    pendingOwners = pendingOwnersResponse.getBody().getData();
+                Response<List<Integer>> pendingOwnersResponse = gateway.getPendingOwners(currentToken, currentStoreId, currentUserDTO.getUserId());
+                if (pendingOwnersResponse.isSuccess()) {
+                    pendingOwners = pendingOwnersResponse.getData();
                 } else {
-                    Notification.show("Failed to fetch pending owners: " + (pendingOwnersResponse.getBody() != null ? pendingOwnersResponse.getBody().getMessage() : "Unknown error"),
+                    Notification.show("Failed to fetch pending owners: " + pendingOwnersResponse.getMessage(),
                             3000, Notification.Position.MIDDLE);
                 }
             } catch (Exception e) {
@@ -1057,31 +1038,17 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
     }
 
     private StoreDTO getStoreDTO(int storeId, String token) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        String url = String.format(apiUrl + "store/viewStore/%d", storeId);
-
         try {
-            ResponseEntity<Response<StoreDTO>> response =
-                restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<>() {}
-                );
+            Response<StoreDTO> response = gateway.viewStore(token, storeId);
 
-            System.out.println("getStoreDTO for storeId=" + storeId + ": Status=" + response.getStatusCode() +
-                               ", Success=" + (response.getBody() != null ? response.getBody().isSuccess() : "null") +
-                               ", Message=" + (response.getBody() != null ? response.getBody().getMessage() : "null"));
+            System.out.println("getStoreDTO for storeId=" + storeId + ": Success=" + response.isSuccess() +
+                               ", Message=" + response.getMessage());
 
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody().isSuccess()) {
-                return response.getBody().getData();
+            if (response.isSuccess()) {
+                return response.getData();
             } else {
-                Notification.show("Failed to load store with ID: " + storeId + ". Reason: " +
-                                  (response.getBody() != null ? response.getBody().getMessage() : "Unknown error"),
+                Notification.show("Failed to load store with ID: " + storeId + ". Reason: " + response.getMessage(),
                                   3000, Notification.Position.MIDDLE);
                 return null;
             }
@@ -1099,12 +1066,7 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
         HttpSession session = httpRequest.getSession(false);
         String token = (String) session.getAttribute("token");
         UserDTO user = (UserDTO) session.getAttribute("userDTO");
-        String url = apiUrl + "/store/isStoreOwner/" + storeId + "/" + user.getUserId();
-        HttpHeaders header = new HttpHeaders();
-        header.add("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(header);
-        ResponseEntity<Response<Boolean>> apiResponse = restTemplate.exchange(url, HttpMethod.GET, entity, new ParameterizedTypeReference<Response<Boolean>>() {});
-        Response<Boolean> response = apiResponse.getBody();
+        Response<Boolean> response = gateway.isStoreOwner(token, storeId, user.getUserId());
         if(response.isSuccess()){
             if(response.getData()){
                 effectivePermissions.addAll(Set.of(StoreManagerPermission.values()));
@@ -1125,12 +1087,7 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
         HttpSession session = httpRequest.getSession(false);
         String token = (String) session.getAttribute("token");
         UserDTO user = (UserDTO) session.getAttribute("userDTO");
-        String url = apiUrl + "/store/isStoreManager/" + storeId + "/" + user.getUserId();
-        HttpHeaders header = new HttpHeaders();
-        header.add("Authorization", token);
-        HttpEntity<Void> entity = new HttpEntity<>(header);
-        ResponseEntity<Response<List<StoreManagerPermission>>> apiResponseManager = restTemplate.exchange(url, HttpMethod.GET, entity, new ParameterizedTypeReference<Response<List<StoreManagerPermission>>>() {});
-        Response<List<StoreManagerPermission>> resp = apiResponseManager.getBody();
+        Response<List<StoreManagerPermission>> resp = gateway.isStoreManager(token, storeId, user.getUserId());
         if(resp.isSuccess()){
             if(resp.getData() != null)
                 effectivePermissions = new HashSet<>(resp.getData());
@@ -1296,16 +1253,7 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
     }
 
     private Map<Integer, UserMsg> getMsgs(){
-        String url = apiUrl + "store/getMessagesFromUsers/" +storeId + "/" + currentUserDTO.getUserId();
-        HttpHeaders header = new HttpHeaders();
-        header.add("Authorization", currentToken);
-        HttpEntity<Void> entity = new HttpEntity<>(header);
-        ResponseEntity<Response<Map<Integer,UserMsg>>> apiResponse = restTemplate.exchange(
-            url, 
-            HttpMethod.GET, 
-            entity, 
-            new ParameterizedTypeReference<Response<Map<Integer, UserMsg>>>() {});
-        Response<Map<Integer, UserMsg>> response = apiResponse.getBody();
+        Response<Map<Integer, UserMsg>> response = gateway.getMessagesFromUsers(currentToken, storeId, currentUserDTO.getUserId());
         if(response.isSuccess()){
             return response.getData();
         }
@@ -1324,45 +1272,46 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
         content.setPadding(true);
         content.setSpacing(true);
 
-        List<OrderDTO> orders = getPurchases();
+        StoreSalesDTO sales = getSales();
+        if (sales != null && sales.getOrderCount() > 0) {
+            content.add(new H3("Last 30 Days"));
+            Div summary = new Div();
+            summary.getStyle().set("display", "grid");
+            summary.getStyle().set("grid-template-columns", "1fr 1fr 1fr");
+            summary.getStyle().set("gap", "10px");
+            summary.add(new Div(new H3("Revenue: "), new Div(String.format("%.2f", sales.getRevenue()))));
+            summary.add(new Div(new H3("Orders: "), new Div(String.valueOf(sales.getOrderCount()))));
+            summary.add(new Div(new H3("Units: "), new Div(String.valueOf(sales.getUnits()))));
+            summary.add(new Div(new H3("Buyers: "), new Div(String.valueOf(sales.getBuyerCount()))));
+            summary.add(new Div(new H3("Average Basket: "), new Div(String.format("%.2f", sales.getAverageBasket()))));
+            content.add(summary);
+
+            Grid<ProductSalesDTO> topProducts = new Grid<>(ProductSalesDTO.class, false);
+            topProducts.addColumn(ProductSalesDTO::getName).setHeader("Top Products");
+            topProducts.addColumn(ProductSalesDTO::getUnits).setHeader("Units");
+            topProducts.addColumn(product -> String.format("%.2f", product.getRevenue())).setHeader("Revenue");
+            topProducts.setItems(sales.getTopProducts());
+            topProducts.setHeight("200px");
+            content.add(topProducts);
+        }
+
+        List<OrderDTO> orders = getPurchases(0);
         if (orders == null || orders.isEmpty()) {
             content.add(new H1("No Orders"));
         } else {
             Accordion accordion = new Accordion();
-            for (OrderDTO order : orders) {
-                // Panel title
-                String title = String.format("Order #%d - %s", order.getOrderId(), order.getOrderState());
-                // Details layout inside panel
-                VerticalLayout detailsLayout = new VerticalLayout();
-                detailsLayout.setPadding(false);
-                detailsLayout.setSpacing(true);
-
-                // Order metadata
-                detailsLayout.add(new H3("Order Details"));
-                Div meta = new Div();
-                meta.getStyle().set("display", "grid");
-                meta.getStyle().set("grid-template-columns", "1fr 1fr");
-                meta.getStyle().set("gap", "10px");
-                meta.add(new Div(new H3("Address: "), new Div(order.getAddress())));
-                meta.add(new Div(new H3("Payment: "), new Div(order.getPaymentMethod())));
-                meta.add(new Div(new H3("Store ID: "), new Div(String.valueOf(order.getStoreId()))));
-                meta.add(new Div(new H3("User ID: "), new Div(String.valueOf(order.getUserId()))));
-                double totalPrice = order.getTotalPrice();
-                String formattedPrice = String.format("%.2f", totalPrice);
-                meta.add(new Div(new H3("Total Price: "), new Div(formattedPrice)));
-                detailsLayout.add(meta);
-
-                // Products grid
-                detailsLayout.add(new H3("Products"));
-                Grid<OrderedProductDTO> grid = new Grid<>(OrderedProductDTO.class, false);
-                grid.addColumn(OrderedProductDTO::getName).setHeader("Name");
-                grid.setItems(order.getProducts());
-                grid.setHeight("200px");               // or use setSizeFull() only
-                detailsLayout.add(grid);
-                AccordionPanel panel = accordion.add(title, detailsLayout);
-                panel.setHeight("300px");
-            }
+            addOrderPanels(accordion, orders);
             content.add(accordion);
+            if (orders.size() == ORDERS_PAGE_SIZE) {
+                int[] nextPage = {1};
+                Button loadMore = new Button("Load More Orders");
+                loadMore.addClickListener(e -> {
+                    List<OrderDTO> more = getPurchases(nextPage[0]++);
+                    addOrderPanels(accordion, more);
+                    loadMore.setVisible(more.size() == ORDERS_PAGE_SIZE);
+                });
+                content.add(loadMore);
+            }
         }
 
         dialog.add(content);
@@ -1370,17 +1319,52 @@ public class StoreManageView extends VerticalLayout implements BeforeEnterObserv
     }
 
     
-    private List<OrderDTO> getPurchases(){
-        String url = apiUrl + "store/getAllStoreOrders/" +storeId + "/" + currentUserDTO.getUserId();
-        HttpHeaders header = new HttpHeaders();
-        header.add("Authorization", currentToken);
-        HttpEntity<Void> entity = new HttpEntity<>(header);
-        ResponseEntity<Response<List<OrderDTO>>> apiResponse = restTemplate.exchange(
-            url, 
-            HttpMethod.GET, 
-            entity, 
-            new ParameterizedTypeReference<Response<List<OrderDTO>>>() {});
-        Response<List<OrderDTO>> response = apiResponse.getBody();
+    // From the daily rollups, so it costs the same however many orders the store has
+    private StoreSalesDTO getSales(){
+        LocalDate today = LocalDate.now();
+        Response<StoreSalesDTO> response = gateway.getStoreSales(currentToken, storeId, currentUserDTO.getUserId(), today.minusDays(29), today);
+        return response.isSuccess() ? response.getData() : null;
+    }
+
+    private void addOrderPanels(Accordion accordion, List<OrderDTO> orders) {
+        for (OrderDTO order : orders) {
+            // Panel title
+            String title = String.format("Order #%d - %s", order.getOrderId(), order.getOrderState());
+            // Details layout inside panel
+            VerticalLayout detailsLayout = new VerticalLayout();
+            detailsLayout.setPadding(false);
+            detailsLayout.setSpacing(true);
+
+            // Order metadata
+            detailsLayout.add(new H3("Order Details"));
+            Div meta = new Div();
+            meta.getStyle().set("display", "grid");
+            meta.getStyle().set("grid-template-columns", "1fr 1fr");
+            meta.getStyle().set("gap", "10px");
+            meta.add(new Div(new H3("Address: "), new Div(order.getAddress())));
+            meta.add(new Div(new H3("Payment: "), new Div(order.getPaymentMethod())));
+            meta.add(new Div(new H3("Store ID: "), new Div(String.valueOf(order.getStoreId()))));
+            meta.add(new Div(new H3("User ID: "), new Div(String.valueOf(order.getUserId()))));
+            double totalPrice = order.getTotalPrice();
+            String formattedPrice = String.format("%.2f", totalPrice);
+            meta.add(new Div(new H3("Total Price: "), new Div(formattedPrice)));
+            detailsLayout.add(meta);
+
+            // Products grid
+            detailsLayout.add(new H3("Products"));
+            Grid<OrderedProductDTO> grid = new Grid<>(OrderedProductDTO.class, false);
+            grid.addColumn(OrderedProductDTO::getName).setHeader("Name");
+            grid.setItems(order.getProducts());
+            grid.setHeight("200px");               // or use setSizeFull() only
+            detailsLayout.add(grid);
+            AccordionPanel panel = accordion.add(title, detailsLayout);
+            panel.setHeight("300px");
+        }
+    }
+
+    // One page of the store's orders at a time, newest first; the rest load on demand
+    private List<OrderDTO> getPurchases(int page){
+        Response<List<OrderDTO>> response = gateway.getAllStoreOrders(currentToken, storeId, currentUserDTO.getUserId(), page, ORDERS_PAGE_SIZE);
         if(response.isSuccess()){
             return response.getData();
         }
@@ -451,7 +451,7 @@ public class UserView extends VerticalLayout implements BeforeEnterObserver {
         infoLayout.add(
             new Span("ID: " + store.getStoreId()),
             new Span("Open: " + (store.isOpen() ? "Yes" : "No")),
-            new Span("Avg Rating: " + store.getRatings().values().stream().mapToDouble(d -> d).average().orElse(0.0)),
+            new Span("Avg Rating: " + store.getAverageRating()),
             new Span("Role: " + role)
         );
 
@@ -4,6 +4,7 @@ import DomainLayer.IRepository.IStoreRepository;
 import ApplicationLayer.Services.StoreService;
 import DomainLayer.Model.Store;
 import DomainLayer.Model.StoreRating;
+import DomainLayer.Enums.StoreFetchProfile;
 import DomainLayer.Enums.StoreManagerPermission;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,18 +40,18 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void closeStore_Founder_Success() {
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
 
         assertTrue(store.isOpen());
         storeService.closeStore(storeId, founderId);
         assertFalse(store.isOpen());
 
-        verify(storeRepository).findById(storeId);
+        verify(storeRepository).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void closeStore_NotFounder_ThrowsAccessError() {
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.closeStore(storeId, noPermsId));
@@ -58,12 +59,12 @@ public class StoreServiceAcceptanceTest {
         assertTrue(ex.getMessage().contains("not a Store Founder"));
         assertTrue(store.isOpen());
 
-        verify(storeRepository).findById(storeId);
+        verify(storeRepository).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void closeStore_AlreadyClosed_ThrowsIllegalArgument() {
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
 
         storeService.closeStore(storeId, founderId);
         assertFalse(store.isOpen());
@@ -76,7 +77,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void closeStore_StoreNotFound_ShouldThrow() {
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.closeStore(storeId, founderId));
@@ -85,17 +86,17 @@ public class StoreServiceAcceptanceTest {
     }
     @Test
     void ratingStore_ValidRating_Success() {
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         assertTrue(store.isOpen());
         storeService.addStoreRating(storeId, founderId, 4.5, "Great store!");
         StoreRating rating = store.getStoreRatingByUser(founderId);
         assertNotNull(rating);
         assertEquals(4.5, rating.getRating(), 0.01);
-        verify(storeRepository).findById(storeId);
+        verify(storeRepository).findById(eq(storeId), any(StoreFetchProfile.class));
     }
     @Test
     void ratingStore_StoreNotFound_ShouldThrow() {
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreRating(storeId, founderId, 4.5, "Great store!"));
@@ -105,24 +106,24 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void getStoreOwners_OwnerRequest_Success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         assertTrue(owners.contains(founderId));
-        verify(storeRepository).findById(storeId);
+        verify(storeRepository).findById(eq(storeId), any(StoreFetchProfile.class));
     }
     @Test
     void addStoreOwner_OwnerRequest_UserAccept_Success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         storeService.acceptAssignment(storeId, noPermsId);
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         assertTrue(owners.contains(noPermsId));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void addStoreOwner_StoreNotFound_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreOwner(storeId, founderId, noPermsId));
@@ -132,7 +133,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreOwner_noPermsRequest_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreOwner(storeId, noPermsId, noPermsId));
 
@@ -141,7 +142,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreOwner_alreadyOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         storeService.acceptAssignment(storeId, noPermsId);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
@@ -152,18 +153,18 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManager_ownerRequestUserAccept_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
         HashMap<Integer, List<StoreManagerPermission>> managers = storeService.getStoreManagers(storeId, founderId);
         assertTrue(managers.containsKey(noPermsId));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
  
     @Test
     void addStoreManager_noPermsRequest_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreManager(storeId, noPermsId, noPermsId, perms));
@@ -173,7 +174,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManager_emptyPermList_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = null;
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreManager(storeId, founderId, noPermsId, perms));
@@ -190,7 +191,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManager_alreadyManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -204,7 +205,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreOwner_alreadyManager_Success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -213,12 +214,12 @@ public class StoreServiceAcceptanceTest {
         storeService.acceptAssignment(storeId, noPermsId);
         assertFalse(storeService.getStoreManagers(storeId, founderId).containsKey(noPermsId));
         assertTrue(storeService.getStoreOwners(storeId, founderId).contains(noPermsId));
-        verify(storeRepository,times(7)).findById(storeId);
+        verify(storeRepository,times(7)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void addStoreOwner_alreadyManager_notTheSameAppointor_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -235,7 +236,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManagerPermissions_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -247,12 +248,12 @@ public class StoreServiceAcceptanceTest {
         storeService.addStoreManagerPermissions(storeId, founderId, noPermsId, new ArrayList<>(List.of(StoreManagerPermission.DISCOUNT_POLICY))); // should succeed with no change
         List<StoreManagerPermission> returnedPerms2 = storeService.getStoreManagers(storeId, founderId).get(noPermsId);
         assertTrue(returnedPerms.equals(returnedPerms2));
-        verify(storeRepository, times(6)).findById(storeId);
+        verify(storeRepository, times(6)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void addStoreManagerPermissions_notOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -264,7 +265,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManagerPermissions_notManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.addStoreManagerPermissions(storeId, founderId, noPermsId, perms));
@@ -273,7 +274,7 @@ public class StoreServiceAcceptanceTest {
  
     @Test
     void addStoreManagerPermissions_notFather_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 222;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -287,19 +288,19 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreManagerPermissions_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.DISCOUNT_POLICY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
         storeService.removeStoreManagerPermissions(storeId, founderId, noPermsId, new ArrayList<>(List.of(StoreManagerPermission.INVENTORY)));
         List<StoreManagerPermission> returnedPerms = storeService.getStoreManagers(storeId, founderId) .get(noPermsId);
         assertTrue(returnedPerms.equals(new ArrayList<>(List.of(StoreManagerPermission.DISCOUNT_POLICY))));
-        verify(storeRepository, times(4)).findById(storeId);
+        verify(storeRepository, times(4)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void removeStoreManagerPermissions_notOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.DISCOUNT_POLICY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -310,7 +311,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreManagerPermissions_notManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.DISCOUNT_POLICY));
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.removeStoreManagerPermissions(storeId, founderId, noPermsId, perms));
@@ -319,7 +320,7 @@ public class StoreServiceAcceptanceTest {
  
     @Test
     void removeStoreManagerPermissions_managerDoesNotHaveRequestedPermission_shouldThrow_shouldReset(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.PURCHASE_POLICY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -329,12 +330,12 @@ public class StoreServiceAcceptanceTest {
         List<StoreManagerPermission> returnedPerms = storeService.getStoreManagers(storeId, founderId).get(noPermsId);
         boolean equal = returnedPerms.size() == 2 && returnedPerms.contains(StoreManagerPermission.INVENTORY) && returnedPerms.contains(StoreManagerPermission.PURCHASE_POLICY); // should reset to original perms on failure
         assertTrue(equal);
-        verify(storeRepository,times(4)).findById(storeId);
+        verify(storeRepository,times(4)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void removeStoreManagerPermissions_managerPermissionsLeftEmpty_shouldThrow_shouldReset(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.PURCHASE_POLICY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
@@ -344,12 +345,12 @@ public class StoreServiceAcceptanceTest {
         List<StoreManagerPermission> returnedPerms = storeService.getStoreManagers(storeId, founderId).get(noPermsId);
         boolean equal = returnedPerms.size() == 2 && returnedPerms.contains(StoreManagerPermission.INVENTORY) && returnedPerms.contains(StoreManagerPermission.PURCHASE_POLICY); // should reset to original perms on failure
         assertTrue(equal);
-        verify(storeRepository,times(4)).findById(storeId);
+        verify(storeRepository,times(4)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void removeStoreManagerPermissions_notFather_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 222;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -364,7 +365,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreOwner_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         int tmp_owner2 = 40;
         int tmp_mngr = 50;
@@ -386,12 +387,12 @@ public class StoreServiceAcceptanceTest {
         assertTrue(!managers.containsKey(tmp_mngr));
         assertTrue(!managers.containsKey(tmp_mngr));
         assertTrue(owners.contains(founderId) && owners.size() == 1);
-        verify(storeRepository,times(11)).findById(storeId);
+        verify(storeRepository,times(11)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
     
     @Test
     void removeStoreOwner_removeSelf_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         int tmp_owner2 = 40;
         int tmp_mngr = 50;
@@ -413,12 +414,12 @@ public class StoreServiceAcceptanceTest {
         assertTrue(!managers.containsKey(tmp_mngr));
         assertTrue(!managers.containsKey(tmp_mngr));
         assertTrue(owners.contains(founderId) && owners.size() == 1);
-        verify(storeRepository,times(11)).findById(storeId);
+        verify(storeRepository,times(11)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void removeStoreOwner_requestNotOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -431,7 +432,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreOwner_toRemoveNotOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.removeStoreOwner(storeId, founderId, noPermsId));
@@ -441,7 +442,7 @@ public class StoreServiceAcceptanceTest {
     
     @Test
     void removeStoreOwner_notFather_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -456,7 +457,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreOwner_isFounder_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.removeStoreOwner(storeId, founderId, founderId));
@@ -466,7 +467,7 @@ public class StoreServiceAcceptanceTest {
  
     @Test
     void removeStoreManager_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         int tmp_owner2 = 40;
         int tmp_mngr = 50;
@@ -488,12 +489,12 @@ public class StoreServiceAcceptanceTest {
         assertTrue(managers.containsKey(tmp_mngr));
         assertTrue(owners.equals(storeService.getStoreOwners(storeId, founderId)));
         assertTrue(!managers.containsKey(tmp_mngr2));
-        verify(storeRepository,times(12)).findById(storeId);
+        verify(storeRepository,times(12)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void removeStoreManager_requestNotOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_mngr = 30;
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, tmp_mngr, perms);
@@ -507,7 +508,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void removeStoreManager_toRemoveNotManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 storeService.removeStoreManager(storeId, founderId, noPermsId));
         assertTrue(ex.getMessage().contains(noPermsId + " is not a valid store manager"));
@@ -515,7 +516,7 @@ public class StoreServiceAcceptanceTest {
  
     @Test
     void removeStoreManager_notFather_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 30;
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
@@ -531,18 +532,18 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreOwner_OwnerRequestUserPending_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         List<Integer> pending = storeService.getPendingOwners(storeId, founderId);
         assertTrue(pending.contains(noPermsId));
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         assertTrue(owners.equals(List.of(founderId)));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void declineAssignment_ForOwner_OwnerRequestUserDecline_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         List<Integer> pending = storeService.getPendingOwners(storeId, founderId);
         assertTrue(pending.contains(noPermsId));
@@ -551,34 +552,34 @@ public class StoreServiceAcceptanceTest {
         assertTrue(owners.equals(List.of(founderId)));
         pending = storeService.getPendingOwners(storeId, founderId);
         assertTrue(!pending.contains(noPermsId));
-        verify(storeRepository, times(5)).findById(storeId);
+        verify(storeRepository, times(5)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void acceptAssignment_ForOwner_OwnerRequestUserAccept_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         storeService.acceptAssignment(storeId, noPermsId);
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         assertTrue(owners.contains(noPermsId));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void addStoreManager_OwnerRequestUserPending_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         List<Integer> pending = storeService.getPendingManagers(storeId, founderId);
         assertTrue(pending.contains(noPermsId));
         List<Integer> owners = storeService.getStoreOwners(storeId, founderId);
         assertTrue(owners.equals(List.of(founderId)));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
  
     @Test
     void declineAssignment_ForManager_OwnerRequestUserDecline_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         List<Integer> pending = storeService.getPendingManagers(storeId, founderId);
@@ -588,23 +589,23 @@ public class StoreServiceAcceptanceTest {
         assertTrue(managers.isEmpty());
         pending = storeService.getPendingManagers(storeId, founderId);
         assertTrue(!pending.contains(noPermsId));
-        verify(storeRepository, times(5)).findById(storeId);
+        verify(storeRepository, times(5)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void acceptAssignment_ForManager_OwnerRequestUserAccept_success(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         storeService.acceptAssignment(storeId, noPermsId);
         List<Integer> managers = new ArrayList<>(storeService.getStoreManagers(storeId, founderId).keySet());
         assertTrue(managers.contains(noPermsId));
-        verify(storeRepository, times(3)).findById(storeId);
+        verify(storeRepository, times(3)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void acceptAssignment_UserNotPending_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                                              () -> storeService.acceptAssignment(storeId, noPermsId));
         assertTrue(ex.getMessage().contains("User " + noPermsId + " has no pending assignments"));
@@ -614,7 +615,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void acceptAssignment_ForOwner_AppointorNoLongerOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 123;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -629,7 +630,7 @@ public class StoreServiceAcceptanceTest {
  
     @Test
     void acceptAssignment_ForManager_AppointorNoLongerOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         int tmp_owner = 123;
         storeService.addStoreOwner(storeId, founderId, tmp_owner);
         storeService.acceptAssignment(storeId, tmp_owner);
@@ -645,7 +646,7 @@ public class StoreServiceAcceptanceTest {
     
     @Test
     void addStoreOwner_AppointeeAlreadyPendingManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
@@ -656,7 +657,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreOwner_AppointeeAlreadyPendingOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                                     () -> storeService.addStoreOwner(storeId, founderId, noPermsId));
@@ -666,7 +667,7 @@ public class StoreServiceAcceptanceTest {
 
     @Test
     void addStoreManager_AppointeeAlreadyPendingManager_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreManager(storeId, founderId, noPermsId, perms);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
@@ -677,7 +678,7 @@ public class StoreServiceAcceptanceTest {
     
     @Test
     void addStoreManager_AppointeeAlreadyPendingOwner_shouldThrow(){
-        when(storeRepository.findById(storeId)).thenReturn(store);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
         List<StoreManagerPermission> perms = new ArrayList<>(List.of(StoreManagerPermission.INVENTORY));
         storeService.addStoreOwner(storeId, founderId, noPermsId);
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
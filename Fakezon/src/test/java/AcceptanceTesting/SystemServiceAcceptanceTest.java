@@ -207,61 +207,39 @@ public class SystemServiceAcceptanceTest {
     void getTopRatedProducts_Success() {
         // Arrange
         int limit = 2;
-        // Create ProductDTOs with store IDs included in the constructor
-        List<ProductDTO> allProducts = Arrays.asList(
-            new ProductDTO("Product 1", "Description 1", 1, PCategory.BEAUTY,new HashSet<>(Arrays.asList(1, 2))),
-            new ProductDTO("Product 2", "Description 2", 2, PCategory.BEAUTY,new HashSet<>(Arrays.asList(1))),
-            new ProductDTO("Product 3", "Description 3", 3, PCategory.BEAUTY,new HashSet<>(Arrays.asList(2)))
-        );
-        
-        // Create store products with ratings
+        // The store service returns the leaderboard already ordered by rating
+        StoreProductDTO product3Store2 = new StoreProductDTO(3, "Product 3", 30.0, 7, 4.7,2,PCategory.BEAUTY);
         StoreProductDTO product1Store1 = new StoreProductDTO(1, "Product 1", 10.0, 5, 4.5,1,PCategory.BEAUTY);
-        StoreProductDTO product1Store2 = new StoreProductDTO(1, "Product 1", 11.0, 3, 3.8,1,PCategory.BEAUTY);
-        StoreProductDTO product2Store1 = new StoreProductDTO(2, "Product 2", 20.0, 10, 4.2,1,PCategory.BEAUTY);
-        StoreProductDTO product3Store2 = new StoreProductDTO(3, "Product 3", 30.0, 7, 4.7,1,PCategory.BEAUTY);
-        
-        // Mock the behavior
-        when(productService.getAllProducts()).thenReturn(allProducts);
-        when(storeService.getProductFromStore(1, 1)).thenReturn(product1Store1);
-        when(storeService.getProductFromStore(1, 2)).thenReturn(product1Store2);
-        when(storeService.getProductFromStore(2, 1)).thenReturn(product2Store1);
-        when(storeService.getProductFromStore(3, 2)).thenReturn(product3Store2);
-        
+        when(storeService.getTopRatedProducts(limit)).thenReturn(Arrays.asList(product3Store2, product1Store1));
+
         // Act
         Response<List<StoreProductDTO>> response = systemService.getTopRatedProducts(limit);
-        
+
         // Assert
         assertTrue(response.isSuccess());
         assertEquals(2, response.getData().size());
         assertEquals(3, response.getData().get(0).getProductId()); // Product 3 has highest rating (4.7)
         assertEquals(1, response.getData().get(1).getProductId()); // Product 1 from store 1 has second highest (4.5)
-        verify(productService, times(1)).getAllProducts();
+        verify(storeService, times(1)).getTopRatedProducts(limit);
+        verifyNoInteractions(productService);
     }
-    
+
     @Test
     void getTopRatedProducts_EmptyResult() {
         // Arrange
         int limit = 3;
-        // Create ProductDTOs with store IDs included in the constructor
-        List<ProductDTO> allProducts = Arrays.asList(
-            new ProductDTO("Product 1", "Description 1", 1, PCategory.BEAUTY,new HashSet<>(Arrays.asList(1))),
-            new ProductDTO("Product 2", "Description 2", 2, PCategory.BEAUTY,new HashSet<>(Arrays.asList(2)))
-        );
-        
-        // Mock behavior for a scenario where products have no ratings (NaN) or errors occur
-        when(productService.getAllProducts()).thenReturn(allProducts);
-        when(storeService.getProductFromStore(1, 1)).thenThrow(new IllegalArgumentException("Product not found"));
-        when(storeService.getProductFromStore(2, 2)).thenReturn(
+        // Only one unrated product exists
+        when(storeService.getTopRatedProducts(limit)).thenReturn(Arrays.asList(
             new StoreProductDTO(2, "Product 2", 20.0, 10, Double.NaN,1,PCategory.BEAUTY) // No ratings
-        );
-        
+        ));
+
         // Act
         Response<List<StoreProductDTO>> response = systemService.getTopRatedProducts(limit);
-        
+
         // Assert
         assertTrue(response.isSuccess());
         assertEquals(1, response.getData().size()); // No products with valid ratings
-        verify(productService, times(1)).getAllProducts();
+        verify(storeService, times(1)).getTopRatedProducts(limit);
     }
 
 }
@@ -16,13 +16,18 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +42,12 @@ public class OrderPersistence {
     @Autowired
     private OrderJpaRepository orderJpaRepository;
 
+    @Autowired
+    private OrderRepository orderRepositoryImpl;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Order testOrder1;
     private Order testOrder2;
 
@@ -201,4 +212,59 @@ public class OrderPersistence {
         IOrder updatedOrder = orderRepository.getOrder(testOrder1.getId());
         assertEquals(OrderState.SHIPPED, updatedOrder.getState());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // ALTER SEQUENCE commits on H2
+    void testIdSequencesAdvancedPastExistingKeys() {
+        orderRepository.addOrder(testOrder1);
+        try {
+            // as on a database whose orders were written before the sequences
+            jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH 1");
+            jdbcTemplate.execute("ALTER SEQUENCE ordered_products_seq RESTART WITH 1");
+
+            orderRepositoryImpl.advanceIdSequences();
+
+            long maxOrderId = jdbcTemplate.queryForObject("SELECT MAX(order_id) FROM orders", Long.class);
+            long maxProductId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ordered_products", Long.class);
+            // the first key of the next pooled block of 50
+            assertTrue(jdbcTemplate.queryForObject("SELECT nextval('orders_seq')", Long.class) - 49 > maxOrderId);
+            assertTrue(jdbcTemplate.queryForObject("SELECT nextval('ordered_products_seq')", Long.class) - 49 > maxProductId);
+        } finally {
+            orderRepository.deleteOrder(testOrder1.getId());
+        }
+    }
+
+    @Test
+    void testAddOrders_ConcurrentCheckoutsGetDistinctIds() throws Exception {
+        int threads = 4;
+        int checkoutsPerThread = 5;
+        int storesPerCheckout = 3;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    for (int c = 0; c < checkoutsPerThread; c++) {
+                        List<IOrder> checkout = new ArrayList<>();
+                        for (int store = 0; store < storesPerCheckout; store++) {
+                            checkout.add(new Order(103, 300 + store, OrderState.SHIPPED,
+                                    new ArrayList<>(List.of(new OrderedProduct(store, "Product " + store, 5.0, 1))),
+                                    "789 Pine Rd", PaymentMethod.CREDIT_CARD, 5.0, 1003, 2003));
+                        }
+                        orderRepository.addOrders(checkout);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Collection<IOrder> written = orderRepository.getOrdersByUserId(103);
+        assertEquals(threads * checkoutsPerThread * storesPerCheckout, written.size());
+        assertEquals(written.size(), written.stream().map(IOrder::getId).distinct().count());
+        assertTrue(written.stream().allMatch(order -> order.getProducts().size() == 1));
+    }
+}
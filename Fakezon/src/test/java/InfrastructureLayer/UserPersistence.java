@@ -1,8 +1,11 @@
 package InfrastructureLayer;
 
+import DomainLayer.Enums.RoleName;
 import DomainLayer.IRepository.IUserRepository;
 import DomainLayer.Model.User;
 import DomainLayer.Model.Registered;
+import DomainLayer.Model.StoreManager;
+import DomainLayer.Model.StoreOwner;
 import InfrastructureLayer.Repositories.UserJpaRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -300,4 +303,27 @@ public class UserPersistence {
         assertEquals(0, userRepository.findAll().size(), "Should have no registered users");
         assertEquals(0, userRepository.getUnsignedUserCount(), "Should have no guest users");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testRoleHolderLookupsByStore() {
+        int storeId = 77;
+        testRegistered1.addRole(storeId, new StoreOwner());
+        testRegistered2.addRole(storeId, new StoreManager());
+        userRepository.addUser(testRegistered1);
+        userRepository.addUser(testRegistered2);
+
+        List<Registered> holders = userRepository.UsersWithRolesInStoreId(storeId);
+        assertEquals(2, holders.size(), "Both role holders should be returned");
+
+        List<Registered> owners = userRepository.findByStoreIdAndRole(storeId,
+                List.of(RoleName.STORE_OWNER, RoleName.STORE_FOUNDER));
+        assertEquals(1, owners.size(), "Only the owner should match");
+        assertEquals(testRegistered1.getUserId(), owners.get(0).getUserId());
+
+        testRegistered2.removeRole(storeId);
+        userRepository.save(testRegistered2);
+        holders = userRepository.UsersWithRolesInStoreId(storeId);
+        assertEquals(1, holders.size(), "Removed role holder should drop out of the index");
+        assertEquals(testRegistered1.getUserId(), holders.get(0).getUserId());
+    }
+}
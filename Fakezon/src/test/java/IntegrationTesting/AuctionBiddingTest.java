@@ -0,0 +1,164 @@
+package IntegrationTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fakezone.fakezone.FakezoneApplication;
+
+import ApplicationLayer.Enums.PCategory;
+import ApplicationLayer.Interfaces.IAuctionBidService;
+import ApplicationLayer.Interfaces.IStoreService;
+import DomainLayer.IRepository.IAuctionBidRepository;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.AuctionBid;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.Store;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Many bidders on one auction at once: no bid fails on the Store version, the highest bid
+ * survives to the auction end, and every accepted bid is in the journal.
+ */
+@SpringBootTest(classes = FakezoneApplication.class)
+public class AuctionBiddingTest {
+
+    private static final int FOUNDER = 1;
+    private static final int PRODUCT = 7;
+    private static final int BIDDERS = 16;
+    private static final int BIDS_PER_BIDDER = 200;
+
+    @Autowired
+    private IStoreService storeService;
+
+    @Autowired
+    private IAuctionBidService auctionBids;
+
+    @Autowired
+    private IAuctionBidRepository bidRepository;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeService.clearAllData();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager); // as SystemService runs these
+        storeId = tx.execute(status -> {
+            Store store = new Store("Auction Store", FOUNDER, event -> { });
+            storeRepository.addStore(store); // products are keyed by the store ID, so it needs one first
+            store.addStoreProduct(FOUNDER, PRODUCT, "Lamp", 10.0, 1, PCategory.BOOKS);
+            storeRepository.save(store);
+            return store.getId();
+        });
+        tx.executeWithoutResult(status -> storeService.addAuctionProductToStore(storeId, FOUNDER, PRODUCT, 100.0, 60));
+    }
+
+    @Test
+    void concurrentBids_KeepTheHighestBidAndJournalEveryAcceptedOne() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(BIDDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        long acceptedBefore = auctionBids.getAcceptedCount();
+        try {
+            for (int b = 0; b < BIDDERS; b++) {
+                int userId = 100 + b;
+                int offset = b;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < BIDS_PER_BIDDER; i++) {
+                        try {
+                            storeService.addBidOnAuctionProductInStore(storeId, userId, PRODUCT,
+                                    101.0 + i * BIDDERS + offset);
+                        } catch (IllegalArgumentException e) {
+                            // not higher by the time it arrived, or raised the bidder's own highest bid
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+            long accepted = auctionBids.getAcceptedCount() - acceptedBefore;
+
+            auctionBids.closeAuction(storeId, PRODUCT);
+
+            // bids are refused while their bidder holds the highest, so the top amount depends on timing
+            AuctionProduct auction = bidRepository.findAuction(storeId, PRODUCT);
+            List<AuctionBid> journal = bidRepository.getBids(storeId, PRODUCT);
+            assertEquals(accepted, journal.size());
+            AuctionBid top = journal.stream().max(Comparator.comparingDouble(AuctionBid::getAmount)).get();
+            assertEquals(top.getAmount(), auction.getCurrentHighestBid());
+            assertEquals(top.getUserId(), auction.getUserIDHighestBid());
+            for (AuctionBid bid : journal) {
+                assertTrue(bid.getOutbidUserId() != bid.getUserId(), "no bidder raised their own highest bid");
+            }
+            assertEquals(0, auctionBids.getFailedCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void bids_DoNotSaveTheStore() {
+        long version = storeVersion();
+
+        storeService.addBidOnAuctionProductInStore(storeId, 100, PRODUCT, 110.0);
+        storeService.addBidOnAuctionProductInStore(storeId, 101, PRODUCT, 120.0);
+        auctionBids.flush();
+
+        assertEquals(version, storeVersion());
+        double shown = new TransactionTemplate(transactionManager).execute(status ->
+                storeService.getAuctionProductsFromStore(storeId).get(0).getCurrentHighestBid());
+        assertEquals(120.0, shown);
+    }
+
+    @Test
+    void closedAuction_TakesNoMoreBids() {
+        storeService.addBidOnAuctionProductInStore(storeId, 100, PRODUCT, 110.0);
+        auctionBids.closeAuction(storeId, PRODUCT);
+
+        boolean rejected = false;
+        try {
+            storeService.addBidOnAuctionProductInStore(storeId, 101, PRODUCT, 500.0);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+
+        assertTrue(rejected);
+        assertEquals(110.0, bidRepository.findAuction(storeId, PRODUCT).getCurrentHighestBid());
+        assertFalse(bidRepository.findAuction(storeId, PRODUCT).isDone()); // the auction end marks it done
+    }
+
+    private long storeVersion() {
+        return entityManager.createQuery("SELECT s.version FROM Store s WHERE s.storeID = :storeId", Long.class)
+                .setParameter("storeId", storeId)
+                .getSingleResult();
+    }
+}
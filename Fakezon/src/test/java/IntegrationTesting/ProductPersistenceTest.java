@@ -10,7 +10,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import ApplicationLayer.Enums.PCategory;
 import DomainLayer.IRepository.IProductRepository;
@@ -24,6 +27,9 @@ public class ProductPersistenceTest {
     @Autowired
     private IProductRepository productRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     public void testSaveAndRetrieveProduct() {
         // Given
@@ -86,4 +92,27 @@ public class ProductPersistenceTest {
         // Then
         assertThrows(InvalidDataAccessApiUsageException.class, () -> productRepository.getProductById(productId));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testSearchIndexFollowsCommittedProductsOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            productRepository.addProduct(new Product("Zyxwv Rolled Back", "Description", PCategory.TOYS));
+            status.setRollbackOnly();
+        });
+        assertTrue(productRepository.searchProducts("Zyxwv").isEmpty());
+
+        Product committed = transaction.execute(status -> {
+            Product product = new Product("Zyxwv Committed", "Description", PCategory.TOYS);
+            productRepository.addProduct(product);
+            return product;
+        });
+        try {
+            assertEquals(1, productRepository.searchProducts("Zyxwv").size());
+        } finally {
+            transaction.executeWithoutResult(status -> productRepository.deleteProduct(committed.getId()));
+        }
+        assertTrue(productRepository.searchProducts("Zyxwv").isEmpty());
+    }
+}
@@ -0,0 +1,199 @@
+package IntegrationTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fakezone.fakezone.FakezoneApplication;
+
+import ApplicationLayer.DTO.StoreProductDTO;
+import ApplicationLayer.Enums.PCategory;
+import ApplicationLayer.Interfaces.IStoreService;
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.Enums.StoreManagerPermission;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.Cart;
+import DomainLayer.Model.Offer;
+import DomainLayer.Model.Store;
+import DomainLayer.Model.helpers.UserMsg;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statements, entities and collections each StoreService read costs, counted by Hibernate's
+ * statistics on a store with products, a discount, roles and a full inbox: browse reads go to the
+ * rows without loading a Store, and every fetch profile costs one query per collection it names.
+ */
+@SpringBootTest(classes = FakezoneApplication.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class StoreFetchPlanTest {
+
+    private static final int FOUNDER = 1;
+    private static final int OWNER = 2;
+    private static final int MANAGER = 3;
+    private static final int PRODUCTS = 5;
+    private static final int MESSAGES = 20;
+    private static final int OTHER_OFFERS = 30;
+    private static final ApplicationEventPublisher NO_EVENTS = event -> { };
+
+    @Autowired
+    private IStoreService storeService;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeRepository.clearAllData();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        storeId = new TransactionTemplate(transactionManager).execute(status -> {
+            Store store = new Store("Fetch Plan Store", FOUNDER, NO_EVENTS);
+            storeRepository.addStore(store); // products are keyed by the store ID, so it needs one first
+            store.addStoreOwner(FOUNDER, OWNER);
+            store.acceptAssignment(OWNER);
+            store.addStoreManager(FOUNDER, MANAGER, List.of(StoreManagerPermission.REQUESTS_REPLY));
+            store.acceptAssignment(MANAGER);
+            for (int i = 1; i <= PRODUCTS; i++) {
+                store.addStoreProduct(FOUNDER, i, "product " + i, 10.0 * i, 100, PCategory.BOOKS);
+            }
+            store.addSimpleDiscountWithStoreScope(FOUNDER, 10);
+            for (int i = 0; i < MESSAGES; i++) {
+                store.receivingMessage(100 + i, "message " + i);
+            }
+            storeRepository.save(store);
+            return store.getId();
+        });
+    }
+
+    @Test
+    void isStoreOpen_readsTheOpenFlagOnly() {
+        Counts counts = measure(() -> assertTrue(storeService.isStoreOpen(storeId)));
+
+        assertEquals(1, counts.statements);
+        assertEquals(0, counts.entities);
+        assertEquals(0, counts.collections);
+    }
+
+    @Test
+    void getProductFromStore_readsTheProductRowOnly() {
+        Counts counts = measure(() -> assertEquals(3, storeService.getProductFromStore(3, storeId).getProductId()));
+
+        assertEquals(1, counts.statements);
+        assertEquals(0, counts.entities);
+        assertEquals(0, counts.collections);
+    }
+
+    @Test
+    void checkIfProductsInStores_loadsTheStoreHeaderAndTheCartRows() {
+        Map<Integer, Map<Integer, Integer>> cart = Map.of(storeId, Map.of(1, 1, 4, 500));
+        Counts counts = measure(() -> {
+            Map<StoreProductDTO, Boolean> products = storeService.checkIfProductsInStores(FOUNDER, cart).values().iterator().next();
+            assertEquals(2, products.size());
+            assertEquals(1, products.values().stream().filter(inStock -> inStock).count());
+        });
+
+        assertEquals(2, counts.statements);
+        assertEquals(1, counts.entities);
+        assertEquals(0, counts.collections);
+        assertEquals(0, counts.messages);
+    }
+
+    @Test
+    void getStoreOwners_loadsOwnersAndManagersOnly() {
+        Counts counts = measure(() -> assertEquals(2, storeService.getStoreOwners(storeId, FOUNDER).size()));
+
+        assertEquals(2, counts.statements);
+        assertEquals(1, counts.entities);
+        assertEquals(2, counts.collections);
+        assertEquals(0, counts.messages);
+    }
+
+    @Test
+    void getMessagesFromUsers_loadsTheInboxAndTheRolesThatMayReadIt() {
+        Counts counts = measure(() -> assertEquals(MESSAGES, storeService.getMessagesFromUsers(storeId, MANAGER).getData().size()));
+
+        assertEquals(3, counts.statements);
+        assertEquals(1 + MESSAGES, counts.entities);
+        assertEquals(3, counts.collections);
+        assertEquals(MESSAGES, counts.messages);
+    }
+
+    @Test
+    void calcAmount_loadsPricingCollectionsOneQueryEach() {
+        Cart cart = new Cart();
+        cart.addProduct(storeId, 2, 1);
+        Counts counts = measure(() -> assertEquals(18.0, storeService.calcAmount(FOUNDER, cart, LocalDate.of(1990, 1, 1)).get(storeId), 1e-9));
+
+        // products, discount policies with their scopes, auctions, then the buyer's offers
+        assertEquals(4, counts.statements);
+        assertEquals(1 + PRODUCTS + 2, counts.entities);
+        assertEquals(3, counts.collections);
+        assertEquals(0, counts.messages);
+    }
+
+    @Test
+    void calcAmount_readsOnlyTheBuyersOffers() {
+        int buyer = 50;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Store store = storeRepository.findById(storeId, StoreFetchProfile.ROLES);
+            store.setPublisher(NO_EVENTS);
+            for (int i = 0; i < OTHER_OFFERS; i++) {
+                store.placeOfferOnStoreProduct(200 + i, 1 + i % PRODUCTS, 5.0);
+            }
+            store.placeOfferOnStoreProduct(buyer, 2, 5.0);
+            store.acceptOfferOnStoreProduct(FOUNDER, buyer, 2);
+            store.acceptOfferOnStoreProduct(OWNER, buyer, 2);
+            storeRepository.save(store);
+        });
+        Cart cart = new Cart();
+        cart.addProduct(storeId, 2, 1);
+
+        Counts counts = measure(() -> assertEquals(3.0, storeService.calcAmount(buyer, cart, LocalDate.of(1990, 1, 1)).get(storeId), 1e-9));
+
+        assertEquals(4, counts.statements);
+        assertEquals(1, counts.offers);
+        assertEquals(3, counts.collections);
+    }
+
+    private Counts measure(Runnable call) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            statistics.clear();
+            call.run();
+            Counts counts = new Counts();
+            counts.statements = statistics.getPrepareStatementCount();
+            counts.entities = statistics.getEntityLoadCount();
+            counts.collections = statistics.getCollectionLoadCount();
+            counts.messages = statistics.getEntityStatistics(UserMsg.class.getName()).getLoadCount();
+            counts.offers = statistics.getEntityStatistics(Offer.class.getName()).getLoadCount();
+            return counts;
+        });
+    }
+
+    private static class Counts {
+        long statements;
+        long entities;
+        long collections;
+        long messages;
+        long offers;
+    }
+}
@@ -2,17 +2,31 @@ package IntegrationTesting;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.Enums.StoreManagerPermission;
+import DomainLayer.IRepository.IProductRepository;
 import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.Product;
 import DomainLayer.Model.Store;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
+import DomainLayer.Model.helpers.ProductSearchPage;
+import ApplicationLayer.Enums.PCategory;
+import InfrastructureLayer.Repositories.StoreRepository;
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest(classes = com.fakezone.fakezone.FakezoneApplication.class)
 public class StorePersistenceTest {
@@ -20,6 +34,18 @@ public class StorePersistenceTest {
     @Autowired
     private IStoreRepository storeRepository;
 
+    @Autowired
+    private StoreRepository storeRepositoryImpl;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         // Clear data before each test to ensure isolation
@@ -37,7 +63,7 @@ public class StorePersistenceTest {
         int generatedId = testStore.getId();
 
         // Retrieve the store by ID
-        Store retrievedStore = storeRepository.findById(generatedId);
+        Store retrievedStore = storeRepository.findById(generatedId, StoreFetchProfile.HEADER);
         
         assertNotNull(retrievedStore, "Store should be retrievable by ID");
         assertEquals("Test Electronics Store", retrievedStore.getName(), "Store name should match");
@@ -101,14 +127,14 @@ public class StorePersistenceTest {
         int storeId = testStore.getId();
 
         // Verify store exists
-        Store foundStore = storeRepository.findById(storeId);
+        Store foundStore = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         assertNotNull(foundStore, "Store should exist before deletion");
 
         // Delete the store
         storeRepository.delete(storeId);
 
         // Verify store is deleted
-        Store deletedStore = storeRepository.findById(storeId);
+        Store deletedStore = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         assertNull(deletedStore, "Store should be null after deletion");
     }
 
@@ -127,7 +153,7 @@ public class StorePersistenceTest {
         int storeId = testStore.getId();
 
         // Retrieve and verify
-        Store retrievedStore = storeRepository.findById(storeId);
+        Store retrievedStore = storeRepository.findById(storeId, StoreFetchProfile.HEADER);
         assertNotNull(retrievedStore, "Store should be retrievable");
         
         // Note: Ratings might need to be loaded lazily depending on fetch type
@@ -135,4 +161,196 @@ public class StorePersistenceTest {
             assertTrue(retrievedStore.getRatings().size() >= 0, "Store should have ratings");
         }
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Transactional
+    public void testConditionalStockDecrement() {
+        Store testStore = new Store("Stock Store", 777, null);
+        storeRepository.addStore(testStore);
+        int storeId = testStore.getId();
+        testStore.addStoreProduct(777, 4242, "Stocked", 10.0, 3, ApplicationLayer.Enums.PCategory.BOOKS);
+        storeRepository.save(testStore);
+
+        assertTrue(storeRepository.decrementStockIfAvailable(storeId, 4242, 2), "Should reserve available stock");
+        assertFalse(storeRepository.decrementStockIfAvailable(storeId, 4242, 2), "Should not oversell");
+        storeRepository.incrementStock(storeId, 4242, 2);
+        assertTrue(storeRepository.decrementStockIfAvailable(storeId, 4242, 3), "Released stock should be reservable");
+    }
+
+    @Test
+    public void testSearchStoreProductsWithFacets() {
+        // committed, so the product search index that resolves keywords has them
+        int guide = productRepository.addProduct(new Product("Garden Guide", "planting through the seasons", PCategory.BOOKS)).getId();
+        int atlas = productRepository.addProduct(new Product("Garden Atlas", "maps of famous parks", PCategory.BOOKS)).getId();
+        int tractor = productRepository.addProduct(new Product("Garden Tractor", "ride-on mower toy", PCategory.TOYS)).getId();
+        int puzzle = productRepository.addProduct(new Product("Puzzle", "a garden party in 1000 pieces", PCategory.TOYS)).getId();
+        try {
+            Store books = new Store("Search Books", 901, null);
+            Store toys = new Store("Search Toys", 902, null);
+            storeRepository.addStore(books);
+            storeRepository.addStore(toys);
+            books.addStoreProduct(901, guide, "Garden Guide", 20.0, 5, PCategory.BOOKS);
+            books.addStoreProduct(901, atlas, "Garden Atlas", 60.0, 5, PCategory.BOOKS);
+            toys.addStoreProduct(902, tractor, "Garden Tractor", 35.0, 5, PCategory.TOYS);
+            toys.addStoreProduct(902, puzzle, "Puzzle", 15.0, 5, PCategory.TOYS);
+            books.addStoreProductRating(901, guide, 4.0, "good");
+            storeRepository.save(books);
+            storeRepository.save(toys);
+
+            ProductSearchPage page = storeRepository.searchStoreProducts(
+                    new ProductSearchCriteria("garden", PCategory.BOOKS, null, 50.0, null, null, null, 0, 10));
+
+            assertEquals(1, page.getTotalElements(), "Only the cheap garden book should match");
+            assertEquals(guide, page.getHits().get(0).getProductId());
+            assertEquals(4.0, page.getHits().get(0).getAverageRating(), 0.001);
+            assertEquals(1L, page.getCategoryCounts().get(PCategory.BOOKS), "Category facet ignores the category filter");
+            assertEquals(2L, page.getCategoryCounts().get(PCategory.TOYS), "Category facet ignores the category filter");
+            assertEquals(20.0, page.getMinPrice(), 0.001);
+            assertEquals(20.0, page.getMaxPrice(), 0.001);
+
+            ProductSearchPage rated = storeRepository.searchStoreProducts(
+                    new ProductSearchCriteria(null, null, null, null, 3.0, null, null, 0, 10));
+            assertEquals(1, rated.getTotalElements(), "Unrated products should not pass a rating filter");
+
+            ProductSearchPage paged = storeRepository.searchStoreProducts(
+                    new ProductSearchCriteria("garden", null, null, null, null, null, null, 1, 2));
+            assertEquals(4, paged.getTotalElements(), "The puzzle matches on its description");
+            assertEquals(2, paged.getHits().size(), "Second page should hold the remainder");
+            assertEquals(2L, paged.getStoreCounts().get(books.getId()));
+            assertEquals(2L, paged.getStoreCounts().get(toys.getId()));
+
+            ProductSearchPage inStore = storeRepository.searchStoreProducts(
+                    new ProductSearchCriteria("garden", null, null, null, null, null, toys.getId(), 0, 10));
+            assertEquals(2, inStore.getTotalElements());
+            assertEquals(2L, inStore.getStoreCounts().get(books.getId()), "Store facet ignores the store filter");
+            assertNull(inStore.getCategoryCounts().get(PCategory.BOOKS));
+
+            ProductSearchPage none = storeRepository.searchStoreProducts(
+                    new ProductSearchCriteria("%_", null, null, null, null, null, null, 0, 10));
+            assertEquals(0, none.getTotalElements(), "Wildcards in the keyword are not a pattern");
+        } finally {
+            for (int productId : new int[] { guide, atlas, tractor, puzzle }) {
+                productRepository.deleteProduct(productId);
+            }
+        }
+    }
+
+    @Test
+    public void testTopRatedProductsFollowRatings() {
+        Store store = new Store("Ranking Store", 903, null);
+        storeRepository.addStore(store);
+        int storeId = store.getId();
+        store.addStoreProduct(903, 9201, "Okay", 10.0, 5, PCategory.BOOKS);
+        store.addStoreProduct(903, 9202, "Great", 10.0, 5, PCategory.BOOKS);
+        store.addStoreProduct(903, 9203, "Unrated", 10.0, 5, PCategory.BOOKS);
+        store.addStoreProductRating(1, 9201, 3.0, "");
+        store.addStoreProductRating(1, 9202, 5.0, "");
+        storeRepository.save(store);
+        storeRepository.updateProductRanking(storeId, 9201, 3.0);
+        storeRepository.updateProductRanking(storeId, 9202, 5.0);
+
+        List<StoreProduct> top = storeRepository.findTopRatedProducts(3);
+        assertEquals(List.of(9202, 9201, 9203), top.stream().map(StoreProduct::getSproductID).toList());
+
+        assertEquals(1, top.get(0).getRatingCount(), "Rating totals should be persisted");
+        assertEquals(5.0, top.get(0).getAverageRating(), 0.001);
+
+        storeRepository.removeFromProductRanking(storeId, 9202);
+        assertEquals(9201, storeRepository.findTopRatedProducts(1).get(0).getSproductID());
+    }
+
+    @Test
+    public void testTopRatedStoresFollowRatings() {
+        Store low = new Store("Low Rated", 904, null);
+        Store high = new Store("High Rated", 905, null);
+        Store unrated = new Store("Unrated", 906, null);
+        storeRepository.addStore(low);
+        storeRepository.addStore(high);
+        storeRepository.addStore(unrated);
+        low.addRating(1, 2.0, "");
+        high.addRating(1, 3.0, "");
+        high.addRating(2, 5.0, "");
+        storeRepository.save(low);
+        storeRepository.save(high);
+        storeRepository.updateStoreRanking(low.getId(), low.getAverageRating());
+        storeRepository.updateStoreRanking(high.getId(), high.getAverageRating());
+
+        List<Store> top = storeRepository.findTopRatedStores(3);
+
+        assertEquals(List.of(high.getId(), low.getId(), unrated.getId()), top.stream().map(Store::getId).toList());
+        assertEquals(4.0, top.get(0).getAverageRating(), 0.001, "Average should come from the persisted totals");
+        assertEquals(2, storeRepository.getTop10Stores().stream().filter(s -> s.getRatingCount() > 0).count());
+    }
+
+    @Test
+    public void testOldManagerPermissionsAreMigratedToMasks() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int storeId = tx.execute(status -> {
+            Store store = new Store("Migrated Store", 907, event -> { });
+            storeRepository.addStore(store);
+            store.addStoreManager(907, 908, List.of(StoreManagerPermission.INVENTORY));
+            store.acceptAssignment(908);
+            storeRepository.save(store);
+            return store.getId();
+        });
+        // What a database from before the masks holds: the manager's permissions only in the old table
+        tx.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("DELETE FROM store_manager_permission_masks").executeUpdate();
+            entityManager.createNativeQuery(
+                    "CREATE TABLE store_manager_permissions (store_id INT, user_id INT, permission VARCHAR(255) ARRAY)")
+                    .executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO store_manager_permissions VALUES (" + storeId
+                    + ", 908, ARRAY['VIEW_ROLES', 'REQUESTS_REPLY'])").executeUpdate();
+        });
+        try {
+            storeRepositoryImpl.migrateManagerPermissions();
+            storeRepositoryImpl.migrateManagerPermissions(); // the old rows are gone, so a restart changes nothing
+
+            List<StoreManagerPermission> perms = tx.execute(status ->
+                    storeRepository.findById(storeId, StoreFetchProfile.ROLES).isManagerAndGetPerms(908));
+            assertEquals(List.of(StoreManagerPermission.REQUESTS_REPLY, StoreManagerPermission.VIEW_ROLES), perms);
+            Number left = tx.execute(status -> (Number) entityManager
+                    .createNativeQuery("SELECT COUNT(*) FROM store_manager_permissions").getSingleResult());
+            assertEquals(0, left.intValue());
+        } finally {
+            tx.executeWithoutResult(status ->
+                    entityManager.createNativeQuery("DROP TABLE store_manager_permissions").executeUpdate());
+        }
+    }
+
+    @Test
+    public void testLoadingStoresWithAuctions_ThreadCountStaysFlat() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Integer> storeIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int founder = 1000 + i;
+            int storeId = tx.execute(status -> {
+                Store store = new Store("Auction Store " + founder, founder, null);
+                storeRepository.addStore(store); // products are keyed by the store ID, so it needs one first
+                store.addStoreProduct(founder, 1, "Lamp", 10.0, 5, PCategory.ELECTRONICS);
+                storeRepository.save(store);
+                return store.getId();
+            });
+            tx.executeWithoutResult(status -> { // the auction refers to the stored product row
+                Store store = storeRepository.findById(storeId, StoreFetchProfile.PRICING);
+                store.addAuctionProduct(founder, 1, 10.0, 60);
+                storeRepository.save(store);
+            });
+            storeIds.add(storeId);
+        }
+
+        int threadsBefore = Thread.activeCount();
+        for (int round = 0; round < 50; round++) {
+            for (int storeId : storeIds) {
+                // a transaction per read, so every read loads the Store and its auctions afresh
+                int auctions = tx.execute(status ->
+                        storeRepository.findById(storeId, StoreFetchProfile.PRICING).getAuctionProducts().size());
+                assertEquals(1, auctions);
+            }
+        }
+        int threadsAfter = Thread.activeCount();
+
+        assertTrue(threadsAfter - threadsBefore < 5,
+                "Store loads should not create threads (before: " + threadsBefore + ", after: " + threadsAfter + ")");
+    }
+}
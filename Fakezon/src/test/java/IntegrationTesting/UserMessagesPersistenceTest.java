@@ -0,0 +1,113 @@
+package IntegrationTesting;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import DomainLayer.Enums.MessageBox;
+import DomainLayer.IRepository.IUserRepository;
+import DomainLayer.Model.Registered;
+import DomainLayer.Model.helpers.StoreMsg;
+import DomainLayer.Model.helpers.UserNotification;
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest(classes = com.fakezone.fakezone.FakezoneApplication.class)
+@Transactional
+public class UserMessagesPersistenceTest {
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testAddMessagesFillsEachMailbox() {
+        Registered registered = new Registered("mailbox@example.com", "password123", LocalDate.of(1990, 1, 1), "IL");
+        userRepository.addUser(registered);
+        entityManager.flush();
+        int userId = registered.getUserId();
+
+        StoreMsg counterOffer = new StoreMsg(7, 3, "counter offer", null, userId);
+        counterOffer.setCounterOffer();
+        List<UserNotification> notifications = new ArrayList<>();
+        notifications.add(new UserNotification(new StoreMsg(7, -1, "store closed", null, userId), MessageBox.STORE, false));
+        notifications.add(new UserNotification(counterOffer, MessageBox.STORE, false));
+        notifications.add(new UserNotification(new StoreMsg(7, -1, "approve role", null, userId), MessageBox.ASSIGNMENT, false));
+        notifications.add(new UserNotification(new StoreMsg(7, 3, "new offer", 42, userId), MessageBox.OFFER, false));
+
+        userRepository.addMessages(notifications);
+        entityManager.clear();
+
+        Registered user = userRepository.findRegisteredById(userId).orElseThrow();
+        Map<Integer, StoreMsg> fromStore = user.getMessagesFromStore();
+        assertEquals(2, fromStore.size());
+        StoreMsg storedCounterOffer = fromStore.get(counterOffer.getMsgId());
+        assertNotNull(storedCounterOffer, "Generated ids should be set on the messages");
+        assertTrue(storedCounterOffer.isCounterOffer());
+        assertEquals(3, storedCounterOffer.getProductId());
+
+        assertEquals(1, user.getAssignmentMessages().size());
+        assertEquals("approve role", user.getAssignmentMessages().values().iterator().next().getMessage());
+
+        StoreMsg offer = user.getOffersMessages().values().iterator().next();
+        assertEquals("new offer", offer.getMessage());
+        assertEquals(42, offer.getOfferedBy());
+        assertEquals(userId, offer.getUserId());
+    }
+
+    @Test
+    public void testRemovingAMessageKeepsMessagesAddedSinceLoading() {
+        Registered registered = new Registered("mailbox2@example.com", "password123", LocalDate.of(1990, 1, 1), "IL");
+        userRepository.addUser(registered);
+        entityManager.flush();
+        int userId = registered.getUserId();
+        StoreMsg read = new StoreMsg(7, -1, "read", null, userId);
+        userRepository.addMessages(List.of(new UserNotification(read, MessageBox.STORE, false)));
+        entityManager.clear();
+
+        Registered user = userRepository.findRegisteredById(userId).orElseThrow();
+        assertEquals(1, user.getMessagesFromStore().size()); // the mailbox is loaded
+        StoreMsg unread = new StoreMsg(7, -1, "unread", null, userId);
+        userRepository.addMessages(List.of(new UserNotification(unread, MessageBox.STORE, false)));
+        assertTrue(userRepository.removeMessage(userId, read.getMsgId()));
+        userRepository.save(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Integer, StoreMsg> fromStore = userRepository.findRegisteredById(userId).orElseThrow().getMessagesFromStore();
+        assertEquals(1, fromStore.size());
+        assertEquals("unread", fromStore.get(unread.getMsgId()).getMessage());
+    }
+
+    @Test
+    public void testRemoveAssignmentAndOfferMessagesByStore() {
+        Registered registered = new Registered("mailbox3@example.com", "password123", LocalDate.of(1990, 1, 1), "IL");
+        userRepository.addUser(registered);
+        entityManager.flush();
+        int userId = registered.getUserId();
+        StoreMsg otherStoreOffer = new StoreMsg(8, 3, "offer in store 8", 42, userId);
+        userRepository.addMessages(List.of(
+                new UserNotification(new StoreMsg(7, -1, "approve role", null, userId), MessageBox.ASSIGNMENT, false),
+                new UserNotification(new StoreMsg(7, 3, "first offer", 42, userId), MessageBox.OFFER, false),
+                new UserNotification(new StoreMsg(7, 3, "second offer", 42, userId), MessageBox.OFFER, false),
+                new UserNotification(otherStoreOffer, MessageBox.OFFER, false)));
+
+        userRepository.removeAssignmentMessages(userId, 7);
+        userRepository.removeOfferMessage(userId, 7, 3, 42);
+        entityManager.clear();
+
+        Registered user = userRepository.findRegisteredById(userId).orElseThrow();
+        assertTrue(user.getAssignmentMessages().isEmpty());
+        List<String> offers = user.getOffersMessages().values().stream().map(StoreMsg::getMessage).sorted().toList();
+        assertEquals(List.of("offer in store 8", "second offer"), offers);
+    }
+}
@@ -11,7 +11,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -20,6 +22,7 @@ import static org.mockito.Mockito.when;
 
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.Enums.ErrorType;
+import ApplicationLayer.Interfaces.INotificationPipeline;
 import ApplicationLayer.Response;
 import ApplicationLayer.UserEventListener;
 import DomainLayer.Enums.RoleName;
@@ -34,18 +37,19 @@ import DomainLayer.Model.helpers.AuctionEvents.AuctionDeclinedBidEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionEndedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionFailedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionGotHigherBidEvent;
-import InfrastructureLayer.Adapters.NotificationWebSocketHandler;
 import DomainLayer.Model.helpers.ClosingStoreEvent;
 import DomainLayer.Model.helpers.ResponseFromStoreEvent;
 
 public class ApplicationLayerTest {
     private IUserRepository userRepository;
+    private INotificationPipeline notifications;
     private UserEventListener listener;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(IUserRepository.class);
-        listener = new UserEventListener(userRepository, new NotificationWebSocketHandler());
+        notifications = mock(INotificationPipeline.class);
+        listener = new UserEventListener(userRepository, notifications);
     }
 
 
@@ -82,7 +86,7 @@ public class ApplicationLayerTest {
 
         listener.handleAssignmentEvent(event);
 
-        verify(user, times(1)).addAssignmentMessage(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -107,8 +111,7 @@ public class ApplicationLayerTest {
 
         listener.handleClosingStore(event);
 
-        verify(user1, times(1)).addMessageFromStore(any());
-        verify(user2).addMessageFromStore(any());
+        verify(notifications, times(2)).submit(any());
     }
 
     @Test
@@ -123,7 +126,7 @@ public class ApplicationLayerTest {
 
         listener.handleResponseFromStore(event);
 
-        verify(user, times(1)).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -136,7 +139,7 @@ public class ApplicationLayerTest {
 
         listener.handleResponseFromStore(event);
 
-        verify(user).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -148,18 +151,13 @@ public class ApplicationLayerTest {
         when(event.getProductID()).thenReturn(7);
         when(event.getCurrentHighestBid()).thenReturn(100.0);
         when(event.getUserIDHighestBid()).thenReturn(8);
-        when(userRepository.UsersWithRolesInStoreId(5)).thenReturn(List.of(user1, user2));
+        when(userRepository.findByStoreIdAndRole(eq(5), anyCollection())).thenReturn(List.of(user1, user2));
         when(user1.isLoggedIn()).thenReturn(false);
         when(user2.isLoggedIn()).thenReturn(true);
-        HashMap<Integer, IRegisteredRole> map = new HashMap<>();
-        map.put(5, new StoreOwner());
-        when(user1.getAllRoles()).thenReturn(map);
-        when(user2.getAllRoles()).thenReturn(map);
 
         listener.handleAuctionEndedToOwnersEvent(event);
 
-        verify(user1, times(1)).addMessageFromStore(any());
-        verify(user2).addMessageFromStore(any());
+        verify(notifications, times(2)).submit(any());
     }
 
     @Test
@@ -170,15 +168,12 @@ public class ApplicationLayerTest {
         when(event.getProductID()).thenReturn(4);
         when(event.getBasePrice()).thenReturn(50.0);
         when(event.getMessage()).thenReturn("fail");
-        when(userRepository.UsersWithRolesInStoreId(3)).thenReturn(List.of(user));
+        when(userRepository.findByStoreIdAndRole(eq(3), anyCollection())).thenReturn(List.of(user));
         when(user.isLoggedIn()).thenReturn(false);
-        HashMap<Integer, IRegisteredRole> map = new HashMap<>();
-        map.put(3, new StoreFounder());
-        when(user.getAllRoles()).thenReturn(map);
         
         listener.handleAuctionFailedToOwnersEvent(event);
 
-        verify(user, times(1)).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -195,7 +190,7 @@ public class ApplicationLayerTest {
  
         listener.handleApprovedBidOnAuctionEvent(event);
 
-        verify(user, times(0)).addMessageFromStore(any());
+        verify(notifications, never()).submit(any());
         verify(user, times(0)).addToBasket(2, 3, 1);
     }
 
@@ -211,7 +206,7 @@ public class ApplicationLayerTest {
         when(event.getStoreProductDTO()).thenReturn(prodMock);
         listener.handleApprovedBidOnAuctionEvent(event);
 
-        verify(user).addMessageFromStore(any());
+        verify(notifications).submit(any());
         verify(user).addToBasketQuantity(anyInt(), anyInt(), anyInt());
     }
 
@@ -228,7 +223,7 @@ public class ApplicationLayerTest {
 
         listener.handleAuctionGotHigherBidEvent(event);
 
-        verify(user, times(1)).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -241,7 +236,7 @@ public class ApplicationLayerTest {
 
         listener.handleAuctionGotHigherBidEvent(event);
 
-        verify(user).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -256,7 +251,7 @@ public class ApplicationLayerTest {
 
         listener.handleDeclinedBidOnAuctionEvent(event);
 
-        verify(user, times(1)).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 
     @Test
@@ -269,6 +264,6 @@ public class ApplicationLayerTest {
 
         listener.handleDeclinedBidOnAuctionEvent(event);
 
-        verify(user).addMessageFromStore(any());
+        verify(notifications).submit(any());
     }
 }
\ No newline at end of file
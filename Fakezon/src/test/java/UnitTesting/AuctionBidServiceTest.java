@@ -0,0 +1,170 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ApplicationLayer.Enums.PCategory;
+import ApplicationLayer.Services.AuctionBidService;
+import DomainLayer.IRepository.IAuctionBidRepository;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.helpers.AuctionEvents.AuctionGotHigherBidEvent;
+
+public class AuctionBidServiceTest {
+
+    private IAuctionBidRepository bidRepository;
+    private ApplicationEventPublisher publisher;
+    private AuctionBidService service;
+
+    @BeforeEach
+    void setUp() {
+        bidRepository = mock(IAuctionBidRepository.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        // a long linger keeps bids in the journal until the test flushes them
+        service = new AuctionBidService(bidRepository, publisher, 100, 50, 10_000);
+        AuctionProduct auction = new AuctionProduct(new StoreProduct(7, 1, "Lamp", 10.0, 1, PCategory.BOOKS), 100.0, 60);
+        when(bidRepository.findAuction(1, 7)).thenReturn(auction);
+        when(bidRepository.storeExists(1)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testPlaceBid_ReadsTheAuctionOnceAndKeepsTheHighest() {
+        assertTrue(service.placeBid(1, 5, 7, 110.0));
+        assertTrue(service.placeBid(1, 6, 7, 120.0));
+        assertFalse(service.placeBid(1, 5, 7, 115.0));
+
+        assertEquals(6, service.getHighestBid(1, 7).getUserId());
+        assertEquals(2, service.getAcceptedCount());
+        assertEquals(1, service.getRejectedCount());
+        verify(bidRepository, times(1)).findAuction(1, 7);
+    }
+
+    @Test
+    void testPlaceBid_OutbidIsToldOnlyAfterTheBatchIsStored() {
+        service.placeBid(1, 5, 7, 110.0);
+        service.placeBid(1, 6, 7, 120.0);
+        verify(publisher, never()).publishEvent(any(Object.class));
+
+        service.flush();
+
+        InOrder order = inOrder(bidRepository, publisher);
+        order.verify(bidRepository).appendBids(argThat(batch -> batch.size() == 2));
+        order.verify(publisher).publishEvent(argThat((Object event) -> event instanceof AuctionGotHigherBidEvent
+                && ((AuctionGotHigherBidEvent) event).getUserIDPrevHighestBid() == 5
+                && ((AuctionGotHigherBidEvent) event).getCurrentHighestBid() == 120.0));
+        verify(publisher, times(1)).publishEvent(any(Object.class)); // nobody was outbid by the first bid
+        assertEquals(2, service.getStoredCount());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    void testPlaceBid_WriterThreadStoresTheJournal() {
+        AuctionBidService quick = new AuctionBidService(bidRepository, publisher, 100, 50, 0);
+        try {
+            quick.placeBid(1, 5, 7, 110.0);
+
+            verify(bidRepository, timeout(2000)).appendBids(argThat(batch -> batch.size() == 1));
+        } finally {
+            quick.shutdown();
+        }
+    }
+
+    @Test
+    void testPlaceBid_HighestBidderRaisingTheirOwnBidIsRefused() {
+        service.placeBid(1, 5, 7, 110.0);
+
+        assertFalse(service.placeBid(1, 5, 7, 130.0));
+
+        assertEquals(110.0, service.getHighestBid(1, 7).getAmount());
+        service.flush();
+        verify(bidRepository).appendBids(argThat(bids -> bids.size() == 1 && bids.iterator().next().getAmount() == 110.0));
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testPlaceBid_UnknownStoreOrProduct() {
+        Exception noProduct = assertThrows(IllegalArgumentException.class, () -> service.placeBid(1, 5, 8, 110.0));
+        Exception noStore = assertThrows(IllegalArgumentException.class, () -> service.placeBid(2, 5, 7, 110.0));
+
+        assertTrue(noProduct.getMessage().contains("does not exist in store"));
+        assertEquals("Store not found", noStore.getMessage());
+    }
+
+    @Test
+    void testCloseAuction_StoresTheHighestBidAndTakesNoMore() {
+        service.placeBid(1, 5, 7, 110.0);
+
+        service.closeAuction(1, 7);
+
+        verify(bidRepository).appendBids(anyCollection());
+        verify(bidRepository).raiseHighestBid(1, 7, 5, 110.0);
+        assertThrows(IllegalArgumentException.class, () -> service.placeBid(1, 6, 7, 200.0));
+    }
+
+    @Test
+    void testCloseAuction_WithoutBidsLeavesTheStoredAuction() {
+        service.closeAuction(1, 7);
+
+        verify(bidRepository, never()).raiseHighestBid(1, 7, -1, 100.0);
+        verify(bidRepository, never()).appendBids(anyCollection());
+    }
+
+    @Test
+    void testDiscardAuction_NextBidReadsTheNewAuction() {
+        service.placeBid(1, 5, 7, 110.0);
+        service.closeAuction(1, 7);
+        AuctionProduct next = new AuctionProduct(new StoreProduct(7, 1, "Lamp", 10.0, 1, PCategory.BOOKS), 50.0, 60);
+        when(bidRepository.findAuction(1, 7)).thenReturn(next);
+
+        service.discardAuction(1, 7);
+
+        assertTrue(service.placeBid(1, 6, 7, 60.0));
+    }
+
+    @Test
+    void testPlaceBid_PastTheEndTimeIsRejected() {
+        AuctionProduct ended = new AuctionProduct(new StoreProduct(9, 1, "Desk", 10.0, 1, PCategory.BOOKS), 100.0, 0);
+        when(bidRepository.findAuction(1, 9)).thenReturn(ended);
+
+        assertThrows(IllegalArgumentException.class, () -> service.placeBid(1, 5, 9, 110.0));
+        assertTrue(ended.getEndTime().isBefore(LocalDateTime.now().plusSeconds(1)));
+    }
+
+    @Test
+    void testFlush_FailedBatchIsCountedAndNobodyIsTold() {
+        doThrow(new RuntimeException("db down")).when(bidRepository).appendBids(anyCollection());
+        service.placeBid(1, 5, 7, 110.0);
+        service.placeBid(1, 6, 7, 120.0);
+
+        service.flush();
+
+        assertEquals(2, service.getFailedCount());
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,122 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import DomainLayer.Model.helpers.AuctionBook;
+
+class AuctionBookTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private AuctionBook openBook() {
+        return new AuctionBook(1, 7, -1, 100.0, NOW.plusMinutes(10), false);
+    }
+
+    @Test
+    void testPlaceBid_HigherBidReplacesTheHighest() {
+        AuctionBook book = openBook();
+
+        AuctionBook.State first = book.placeBid(5, 110.0, NOW);
+        AuctionBook.State second = book.placeBid(6, 120.0, NOW);
+
+        assertEquals(-1, first.getUserId());
+        assertEquals(5, second.getUserId());
+        assertEquals(6, book.getState().getUserId());
+        assertEquals(120.0, book.getState().getAmount());
+    }
+
+    @Test
+    void testPlaceBid_EqualOrLowerBidIsNotTaken() {
+        AuctionBook book = openBook();
+        book.placeBid(5, 110.0, NOW);
+
+        assertNull(book.placeBid(6, 110.0, NOW));
+        assertNull(book.placeBid(6, 90.0, NOW));
+        assertEquals(5, book.getState().getUserId());
+    }
+
+    @Test
+    void testPlaceBid_HighestBidderCannotRaiseTheirOwnBid() {
+        AuctionBook book = openBook();
+        book.placeBid(5, 110.0, NOW);
+
+        assertNull(book.placeBid(5, 130.0, NOW));
+        assertEquals(110.0, book.getState().getAmount());
+        assertEquals(5, book.getState().getUserId());
+    }
+
+    @Test
+    void testPlaceBid_ClosedOrPastTheEndIsRejected() {
+        AuctionBook book = openBook();
+
+        assertThrows(IllegalArgumentException.class, () -> book.placeBid(5, 110.0, NOW.plusMinutes(10)));
+        book.placeBid(5, 110.0, NOW);
+        AuctionBook.State last = book.close();
+
+        assertThrows(IllegalArgumentException.class, () -> book.placeBid(6, 200.0, NOW));
+        assertTrue(last.isClosed());
+        assertEquals(110.0, last.getAmount());
+        assertEquals(last, book.close());
+    }
+
+    @Test
+    void testPlaceBid_ConcurrentBiddersKeepTheHighestBid() throws Exception {
+        AuctionBook book = openBook();
+        int threads = 8;
+        int bidsPerThread = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> taken = new ArrayList<>();
+        Set<AuctionBook.State> replaced = ConcurrentHashMap.newKeySet();
+        Set<Double> takenAmounts = ConcurrentHashMap.newKeySet();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int userId = t + 1;
+                taken.add(pool.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int i = 0; i < bidsPerThread; i++) {
+                        // every thread climbs through interleaved amounts, so most bids race on the same state
+                        double amount = 101.0 + i * threads + userId;
+                        AuctionBook.State previous = book.placeBid(userId, amount, NOW);
+                        if (previous != null) {
+                            assertTrue(previous.getUserId() != userId, "a bidder never raises their own highest bid");
+                            replaced.add(previous);
+                            takenAmounts.add(amount);
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> f : taken) {
+                total += f.get(10, TimeUnit.SECONDS);
+            }
+
+            // a bidder's bids are refused while it holds the highest, so the top amount depends on timing
+            double highest = takenAmounts.stream().mapToDouble(Double::doubleValue).max().getAsDouble();
+            assertEquals(highest, book.getState().getAmount());
+            assertEquals(total, replaced.size(), "each highest bid is replaced by exactly one bid, none is lost");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
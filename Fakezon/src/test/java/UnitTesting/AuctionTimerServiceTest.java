@@ -0,0 +1,82 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ApplicationLayer.Enums.PCategory;
+import ApplicationLayer.Services.AuctionTimerService;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.AuctionProduct;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.helpers.AuctionEvents.AuctionSaveEvent;
+
+public class AuctionTimerServiceTest {
+
+    private IStoreRepository storeRepository;
+    private ApplicationEventPublisher publisher;
+    private AuctionTimerService auctionTimer;
+
+    @BeforeEach
+    void setUp() {
+        storeRepository = mock(IStoreRepository.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        auctionTimer = new AuctionTimerService(storeRepository, publisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auctionTimer.shutdown();
+    }
+
+    @Test
+    void scheduleAuctionEnd_ExpiredDeadline_PublishesSaveEvent() {
+        auctionTimer.scheduleAuctionEnd(1, 10, LocalDateTime.now().minusSeconds(1));
+
+        verify(publisher, timeout(2000)).publishEvent(argThat((Object e) -> e instanceof AuctionSaveEvent
+                && ((AuctionSaveEvent) e).getStoreId() == 1 && ((AuctionSaveEvent) e).getProductId() == 10));
+        assertEquals(0, auctionTimer.getPendingCount());
+    }
+
+    @Test
+    void scheduleAuctionEnd_Rescheduled_OnlyLatestDeadlineIsKept() {
+        auctionTimer.scheduleAuctionEnd(1, 10, LocalDateTime.now().plusMinutes(5));
+        auctionTimer.scheduleAuctionEnd(1, 10, LocalDateTime.now().plusMinutes(10));
+
+        assertEquals(1, auctionTimer.getPendingCount());
+    }
+
+    @Test
+    void cancelAuctionEnd_PendingDeadline_NoEventPublished() throws InterruptedException {
+        auctionTimer.scheduleAuctionEnd(1, 10, LocalDateTime.now().plusNanos(200_000_000));
+        auctionTimer.cancelAuctionEnd(1, 10);
+
+        Thread.sleep(400);
+        verify(publisher, never()).publishEvent(any(Object.class));
+        assertEquals(0, auctionTimer.getPendingCount());
+    }
+
+    @Test
+    void scheduleAuctionEnd_NullEndTime_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> auctionTimer.scheduleAuctionEnd(1, 10, null));
+    }
+
+    @Test
+    void reschedulePendingAuctions_LoadsDeadlinesFromRepository() {
+        AuctionProduct first = new AuctionProduct(new StoreProduct(10, 1, "p1", 10, 4, PCategory.ELECTRONICS), 50.0, 5);
+        AuctionProduct second = new AuctionProduct(new StoreProduct(11, 2, "p2", 10, 4, PCategory.BOOKS), 50.0, 7);
+        when(storeRepository.getPendingAuctionProducts()).thenReturn(List.of(first, second));
+
+        assertEquals(2, auctionTimer.reschedulePendingAuctions());
+        assertEquals(2, auctionTimer.getPendingCount());
+    }
+}
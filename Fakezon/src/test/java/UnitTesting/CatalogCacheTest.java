@@ -0,0 +1,171 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import InfrastructureLayer.Repositories.CatalogCache;
+
+class CatalogCacheTest {
+
+    private MutableClock clock;
+    private CatalogCache<Integer, String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_000_000);
+        cache = new CatalogCache<>("test", 2, 1000, clock);
+        loads = new AtomicInteger();
+    }
+
+    private String load(int key) {
+        loads.incrementAndGet();
+        return "value " + key;
+    }
+
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        assertEquals("value 1", cache.get(1, this::load));
+        assertEquals("value 1", cache.get(1, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testGet_ReloadsAfterTtl() {
+        cache.get(1, this::load);
+        clock.advance(1000);
+
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testGet_NullIsNotCached() {
+        assertNull(cache.get(1, key -> null));
+        cache.get(1, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void testGet_LeastRecentlyUsedGoesFirst() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 2 is now the least recently used
+        cache.get(3, this::load);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testInvalidate_NextGetLoads() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        cache.invalidateIf(key -> key == 1);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    void testInvalidate_DuringLoadKeepsTheLoadedValueOut() {
+        assertEquals("old", cache.get(1, key -> {
+            cache.invalidate(1); // a write committed while the old row was being read
+            return "old";
+        }));
+
+        assertEquals("value 1", cache.get(1, this::load));
+    }
+
+    @Test
+    void testInvalidate_InsideTransactionDropsAgainOnCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1);
+            cache.get(1, key -> "old"); // read before the writer commits
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("value 1", cache.get(1, this::load));
+    }
+
+    @Test
+    void testSizeZero_TurnsTheCacheOff() {
+        CatalogCache<Integer, String> off = new CatalogCache<>("off", 0, 1000, clock);
+
+        off.get(1, this::load);
+        off.get(1, this::load);
+
+        assertFalse(off.isEnabled());
+        assertEquals(2, loads.get());
+        assertEquals(0, off.getMissCount());
+    }
+
+    @Test
+    void testConstructor_RejectsBadLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new CatalogCache<Integer, String>("bad", -1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogCache<Integer, String>("bad", 10, 0));
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ApplicationLayer.Enums.PCategory;
+import DomainLayer.Model.AndDiscount;
+import DomainLayer.Model.BaseDiscountPolicy;
+import DomainLayer.Model.Cart;
+import DomainLayer.Model.DiscountCondition;
+import DomainLayer.Model.OrDiscount;
+import DomainLayer.Model.ProductsDiscountScope;
+import DomainLayer.Model.SimpleDiscount;
+import DomainLayer.Model.StoreDiscountScope;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.XorDiscount;
+import DomainLayer.Model.helpers.DiscountPlan;
+
+class DiscountPlanTest {
+
+    private static final int STORE_ID = 1;
+    private static final double DELTA = 1e-9;
+
+    private Map<StoreProductKey, StoreProduct> storeProducts;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        storeProducts = new HashMap<>();
+        for (int productId = 1; productId <= 5; productId++) {
+            storeProducts.put(new StoreProductKey(STORE_ID, productId),
+                    new StoreProduct(productId, STORE_ID, "p" + productId, productId * 10.0, 100, PCategory.ELECTRONICS));
+        }
+        cart = new Cart();
+        cart.addProduct(STORE_ID, 1, 2); // 20
+        cart.addProduct(STORE_ID, 2, 1); // 20
+        cart.addProduct(STORE_ID, 3, 3); // 90
+        cart.addProduct(2, 1, 5); // other store, never discounted here
+    }
+
+    @Test
+    void testNoPolicies_NoDiscount() {
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID, List.of(), storeProducts);
+
+        assertEquals(0, plan.totalDiscount(cart), DELTA);
+    }
+
+    @Test
+    void testStoreScope_DiscountsWholeBasket() {
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID,
+                List.of(new SimpleDiscount(0, 10, new StoreDiscountScope(STORE_ID, storeProducts))), storeProducts);
+
+        assertEquals(13, plan.totalDiscount(cart), DELTA);
+    }
+
+    @Test
+    void testProductsScope_OnlyListedProducts() {
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID,
+                List.of(new SimpleDiscount(0, 50, new ProductsDiscountScope(List.of(1, 3, 3, 9), STORE_ID, storeProducts))),
+                storeProducts);
+
+        assertEquals(55, plan.totalDiscount(cart), DELTA);
+    }
+
+    @Test
+    void testConditions_AreCheckedPerPolicy() {
+        Predicate<Cart> hasFive = DiscountCondition.containsProduct(5);
+        Predicate<Cart> hasOne = DiscountCondition.containsProduct(1);
+        List<BaseDiscountPolicy> policies = List.of(
+                new AndDiscount(0, List.of(hasOne, hasFive), 10, new StoreDiscountScope(STORE_ID, storeProducts)),
+                new OrDiscount(0, List.of(hasOne, hasFive), 10, new StoreDiscountScope(STORE_ID, storeProducts)),
+                new XorDiscount(0, List.of(hasOne, hasOne), 10, new StoreDiscountScope(STORE_ID, storeProducts)));
+
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID, policies, storeProducts);
+
+        assertEquals(13, plan.totalDiscount(cart), DELTA); // only the Or discount applies
+    }
+
+    @Test
+    void testMatchesPolicyApply_ManyPoliciesAndLines() {
+        Random random = new Random(7);
+        for (int productId = 6; productId <= 300; productId++) {
+            storeProducts.put(new StoreProductKey(STORE_ID, productId),
+                    new StoreProduct(productId, STORE_ID, "p" + productId, 1 + random.nextInt(10_000) / 100.0, 100, PCategory.BOOKS));
+        }
+        Cart bigCart = new Cart();
+        for (int i = 0; i < 200; i++) {
+            bigCart.addProduct(STORE_ID, 1 + random.nextInt(300), 1 + random.nextInt(3));
+        }
+        List<BaseDiscountPolicy> policies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            List<Integer> productIds = new ArrayList<>();
+            for (int j = 0; j < 20; j++) {
+                productIds.add(1 + random.nextInt(300));
+            }
+            Predicate<Cart> condition = DiscountCondition.containsProduct(1 + random.nextInt(300));
+            switch (i % 4) {
+                case 0:
+                    policies.add(new SimpleDiscount(0, random.nextInt(30), new ProductsDiscountScope(productIds, STORE_ID, storeProducts)));
+                    break;
+                case 1:
+                    policies.add(new AndDiscount(0, List.of(condition), random.nextInt(30), new StoreDiscountScope(STORE_ID, storeProducts)));
+                    break;
+                case 2:
+                    policies.add(new OrDiscount(0, List.of(condition), random.nextInt(30), new ProductsDiscountScope(productIds, STORE_ID, storeProducts)));
+                    break;
+                default:
+                    policies.add(new XorDiscount(0, List.of(condition), random.nextInt(30), new ProductsDiscountScope(productIds, STORE_ID, storeProducts)));
+                    break;
+            }
+        }
+
+        double expected = policies.stream().mapToDouble(policy -> policy.apply(bigCart)).sum();
+
+        assertEquals(expected, DiscountPlan.compile(STORE_ID, policies, storeProducts).totalDiscount(bigCart), 1e-6);
+    }
+
+    @Test
+    void testPlanKeepsCompiledPrices() {
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID,
+                List.of(new SimpleDiscount(0, 10, new StoreDiscountScope(STORE_ID, storeProducts))), storeProducts);
+
+        storeProducts.get(new StoreProductKey(STORE_ID, 1)).setBasePrice(1000);
+
+        assertEquals(13, plan.totalDiscount(cart), DELTA);
+        assertEquals(211, DiscountPlan.compile(STORE_ID,
+                List.of(new SimpleDiscount(0, 10, new StoreDiscountScope(STORE_ID, storeProducts))), storeProducts)
+                .totalDiscount(cart), DELTA);
+    }
+
+    @Test
+    void testUnknownProductInBasket_Throws() {
+        cart.addProduct(STORE_ID, 42, 1);
+        DiscountPlan plan = DiscountPlan.compile(STORE_ID,
+                List.of(new SimpleDiscount(0, 10, new StoreDiscountScope(STORE_ID, storeProducts))), storeProducts);
+
+        assertThrows(IllegalArgumentException.class, () -> plan.totalDiscount(cart));
+    }
+}
@@ -0,0 +1,316 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import InfrastructureLayer.Adapters.DeliveryAdapter;
+import InfrastructureLayer.Adapters.ExternalDeliverySystem;
+import InfrastructureLayer.Adapters.ExternalPaymentSystem;
+import InfrastructureLayer.Adapters.ExternalServiceGuard;
+import InfrastructureLayer.Adapters.PaymentAdapter;
+
+/**
+ * The guarded payment and delivery adapters against a local fake of the external system that
+ * can be told to answer slowly or with errors.
+ */
+class ExternalServiceGuardTest {
+
+    private static final String CARD = "4111111111111111";
+
+    private HttpServer server;
+    private String url;
+    private MutableClock clock;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger errorsLeft = new AtomicInteger();
+    private volatile long firstRequestDelayMillis;
+    private volatile long delayMillis;
+    private volatile CountDownLatch hold = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clock = new MutableClock(0);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/", exchange -> {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(form);
+            try {
+                Thread.sleep(requests.size() == 1 ? firstRequestDelayMillis : delayMillis);
+                hold.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String body;
+            if (errorsLeft.getAndDecrement() > 0) {
+                body = "Internal Server Error";
+            } else if (form.startsWith("action_type=supply&")) {
+                body = "67890";
+            } else if (form.startsWith("action_type=cancel_supply&") || form.startsWith("action_type=cancel_pay&")) {
+                body = "1";
+            } else {
+                body = "12345";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        hold.countDown();
+        server.stop(0);
+    }
+
+    private ExternalServiceGuard guard(int maxConcurrentCalls, int windowSize, int maxAttempts, long maxTimeoutMillis) {
+        return new ExternalServiceGuard("test", maxConcurrentCalls, windowSize, windowSize, 0.5, Duration.ofSeconds(30),
+                Duration.ofMillis(10), Duration.ofMillis(maxTimeoutMillis), maxAttempts, Duration.ofMillis(10), clock);
+    }
+
+    private PaymentAdapter payment(ExternalServiceGuard guard) {
+        return new PaymentAdapter(new ExternalPaymentSystem(url), guard);
+    }
+
+    @Test
+    void testPaymentErrors_RetriedWithSameId() {
+        errorsLeft.set(2);
+        ExternalServiceGuard guard = guard(10, 10, 3, 5_000);
+
+        int transactionId = payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).join();
+
+        assertEquals(12345, transactionId);
+        assertEquals(3, requests.size());
+        assertTrue(requests.stream().allMatch(form -> form.endsWith("&id=7")));
+        assertEquals(2, guard.getRetryCount());
+        assertEquals(1, guard.getSuccessCount());
+    }
+
+    @Test
+    void testPaymentErrors_GivesUpAfterMaxAttempts() {
+        errorsLeft.set(10);
+        ExternalServiceGuard guard = guard(10, 10, 3, 5_000);
+
+        assertEquals(-1, payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).join());
+        assertEquals(3, requests.size());
+        assertEquals(1, guard.getFailureCount());
+    }
+
+    @Test
+    void testDeliveryError_NotResent() {
+        errorsLeft.set(1);
+        ExternalServiceGuard guard = guard(10, 10, 3, 5_000);
+        DeliveryAdapter delivery = new DeliveryAdapter(new ExternalDeliverySystem(url), guard);
+
+        assertEquals(-1, delivery.deliverAsync("IL", "Main St*City*Country*12345", "John Doe", "Electronics").join());
+        assertEquals(1, requests.size());
+        assertEquals(0, guard.getRetryCount());
+    }
+
+    @Test
+    void testDeliveryUnreachable_Resent() {
+        ExternalServiceGuard guard = guard(10, 10, 3, 5_000);
+        server.stop(0);
+        DeliveryAdapter delivery = new DeliveryAdapter(new ExternalDeliverySystem(url), guard);
+
+        assertEquals(-1, delivery.deliverAsync("IL", "Main St*City*Country*12345", "John Doe", "Electronics").join());
+        assertEquals(2, guard.getRetryCount());
+    }
+
+    @Test
+    void testSlowAttempt_HedgedAttemptAnswersFirst() throws Exception {
+        firstRequestDelayMillis = 3_000;
+        ExternalServiceGuard guard = guard(10, 10, 2, 200);
+
+        long start = System.nanoTime();
+        int transactionId = payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(12345, transactionId);
+        assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+        assertEquals(1, guard.getTimeoutCount());
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void testSlowAttempt_HoldsItsPermitUntilItAnswers() throws Exception {
+        firstRequestDelayMillis = 1_000;
+        ExternalServiceGuard guard = guard(10, 10, 2, 200);
+
+        assertEquals(12345, payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).get(5, TimeUnit.SECONDS));
+        assertEquals(1, guard.getActiveCalls()); // the hedged first attempt is still in flight
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.getActiveCalls() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, guard.getActiveCalls());
+    }
+
+    @Test
+    void testHedgedAttemptsFailing_RetriesStayWithinMaxAttempts() throws Exception {
+        errorsLeft.set(10);
+        firstRequestDelayMillis = 300;
+        ExternalServiceGuard guard = new ExternalServiceGuard("test", 10, 10, 10, 0.5, Duration.ofSeconds(30),
+                Duration.ofMillis(10), Duration.ofMillis(100), 3, Duration.ofMillis(500), clock);
+
+        // the hedge fails and schedules a retry; the first attempt fails within the backoff and finds the budget spent
+        assertEquals(-1, payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).get(5, TimeUnit.SECONDS));
+        assertEquals(3, requests.size());
+        assertEquals(2, guard.getRetryCount());
+    }
+
+    @Test
+    void testSlowServer_TimesOutWithoutRetryBudget() throws Exception {
+        firstRequestDelayMillis = 3_000;
+        ExternalServiceGuard guard = guard(10, 10, 1, 200);
+
+        assertEquals(-1, payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).get(2, TimeUnit.SECONDS));
+        assertEquals(1, guard.getTimeoutCount());
+    }
+
+    @Test
+    void testSlowPayment_LateChargeRefunded() throws Exception {
+        firstRequestDelayMillis = 1_000;
+        ExternalServiceGuard guard = guard(10, 10, 1, 200);
+
+        assertEquals(-1, payment(guard).payAsync(CARD, "John Doe", "12/30", "123", 150.0, 7).get(2, TimeUnit.SECONDS));
+
+        awaitRequest("action_type=cancel_pay&transaction_id=12345");
+        assertEquals(1, guard.getLateSuccessCount());
+    }
+
+    @Test
+    void testSlowDelivery_LatePackageCancelled() throws Exception {
+        firstRequestDelayMillis = 1_000;
+        ExternalServiceGuard guard = guard(10, 10, 3, 200);
+        DeliveryAdapter delivery = new DeliveryAdapter(new ExternalDeliverySystem(url), guard);
+
+        assertEquals(-1, delivery.deliverAsync("IL", "Main St*City*Country*12345", "John Doe", "Electronics")
+                .get(2, TimeUnit.SECONDS));
+
+        awaitRequest("action_type=cancel_supply&transaction_id=67890");
+        assertEquals(1, guard.getLateSuccessCount());
+        assertEquals(0, guard.getRetryCount()); // a supply request that was sent is never resent
+    }
+
+    private void awaitRequest(String form) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!requests.contains(form) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(requests.contains(form), "requests " + requests);
+    }
+
+    @Test
+    void testFailingServer_CircuitOpensThenRecovers() {
+        errorsLeft.set(4);
+        ExternalServiceGuard guard = guard(10, 4, 1, 5_000);
+        PaymentAdapter payment = payment(guard);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(-1, payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, i).join());
+        }
+        assertEquals(ExternalServiceGuard.State.OPEN, guard.getState());
+
+        assertEquals(-1, payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, 5).join());
+        assertEquals(4, requests.size()); // failed fast, the server was not called
+        assertEquals(1, guard.getShortCircuitedCount());
+
+        clock.advance(30_000);
+        assertEquals(12345, payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, 6).join());
+        assertEquals(ExternalServiceGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void testBulkhead_RejectsCallsOverTheLimit() {
+        hold = new CountDownLatch(1);
+        ExternalServiceGuard guard = guard(2, 10, 1, 5_000);
+        PaymentAdapter payment = payment(guard);
+
+        CompletableFuture<Integer> first = payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, 1);
+        CompletableFuture<Integer> second = payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, 2);
+        int third = payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, 3).join();
+
+        assertEquals(-1, third);
+        assertEquals(1, guard.getBulkheadRejectedCount());
+        assertEquals(2, guard.getActiveCalls());
+        hold.countDown();
+        assertEquals(12345, first.join());
+        assertEquals(12345, second.join());
+        assertEquals(0, guard.getActiveCalls());
+    }
+
+    @Test
+    void testTimeout_FollowsObservedP99() {
+        delayMillis = 30;
+        ExternalServiceGuard guard = guard(10, 10, 1, 10_000);
+        PaymentAdapter payment = payment(guard);
+        assertEquals(10_000, guard.currentTimeoutMillis()); // nothing observed yet
+
+        for (int i = 0; i < 20; i++) {
+            payment.payAsync(CARD, "John Doe", "12/30", "123", 150.0, i).join();
+        }
+
+        assertTrue(guard.getLatencyPercentileMillis(99) >= 30);
+        assertTrue(guard.currentTimeoutMillis() >= 60 && guard.currentTimeoutMillis() < 10_000,
+                "timeout " + guard.currentTimeoutMillis());
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import InfrastructureLayer.Adapters.DeliveryAdapter;
+import InfrastructureLayer.Adapters.ExternalDeliverySystem;
+import InfrastructureLayer.Adapters.ExternalPaymentSystem;
+import InfrastructureLayer.Adapters.PaymentAdapter;
+
+/**
+ * The async payment and delivery calls against a local stub of the external system, which
+ * answers each action_type the way the real one does.
+ */
+class ExternalSystemsAsyncTest {
+
+    private HttpServer server;
+    private String url;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile String payResponse = "12345";
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private PaymentAdapter payment;
+    private DeliveryAdapter delivery;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/", exchange -> {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(form);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String body;
+            if (form.startsWith("action_type=pay&")) {
+                body = payResponse;
+            } else if (form.startsWith("action_type=cancel_pay&") || form.startsWith("action_type=cancel_supply&")) {
+                body = "1";
+            } else if (form.startsWith("action_type=supply&")) {
+                body = "67890";
+            } else {
+                body = "-1";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        payment = new PaymentAdapter(new ExternalPaymentSystem(url));
+        delivery = new DeliveryAdapter(new ExternalDeliverySystem(url));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testPayAsync_ReturnsTransactionId() {
+        int transactionId = payment.payAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7).join();
+
+        assertEquals(12345, transactionId);
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).contains("amount=150") && requests.get(0).contains("year=2030"));
+    }
+
+    @Test
+    void testPayAsync_RejectedPayment_ReturnsMinusOne() {
+        payResponse = "-1";
+
+        assertEquals(-1, payment.payAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7).join());
+    }
+
+    @Test
+    void testPayAsync_MalformedResponse_ReturnsMinusOne() {
+        payResponse = "error";
+
+        assertEquals(-1, payment.payAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7).join());
+    }
+
+    @Test
+    void testPayAsync_InvalidCard_NeverCallsServer() {
+        assertEquals(-1, payment.payAsync("4111111111111111", "John Doe", "1230", "123", 150.0, 7).join());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void testRefundAsync_ReturnsOne() {
+        assertEquals(1, payment.refundAsync(12345).join());
+        assertEquals("action_type=cancel_pay&transaction_id=12345", requests.get(0));
+    }
+
+    @Test
+    void testCancelAsync_ReturnsOne() {
+        assertEquals(1, delivery.cancelAsync(67890).join());
+        assertEquals("action_type=cancel_supply&transaction_id=67890", requests.get(0));
+    }
+
+    @Test
+    void testDeliverAsync_ReturnsTransactionId() {
+        int transactionId = delivery.deliverAsync("IL", "Main St*City*Country*12345", "John Doe", "Electronics").join();
+
+        assertEquals(67890, transactionId);
+        assertTrue(requests.get(0).startsWith("action_type=supply&name=John+Doe"));
+    }
+
+    @Test
+    void testDeliverAsync_BadAddress_NeverCallsServer() {
+        assertEquals(-1, delivery.deliverAsync("IL", "Main St", "John Doe", "Electronics").join());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void testServerDown_ReturnsMinusOne() {
+        server.stop(0);
+
+        assertEquals(-1, payment.payAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7).join());
+        assertEquals(-1, delivery.deliverAsync("IL", "Main St*City*Country*12345", "John Doe", "Electronics").join());
+    }
+
+    @Test
+    void testSlowServer_DoesNotBlockCaller() throws Exception {
+        release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> pending = payment.payAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7);
+
+        assertFalse(pending.isDone());
+        release.countDown();
+        assertEquals(12345, pending.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSyncAndAsync_SameResult() {
+        ExternalPaymentSystem external = new ExternalPaymentSystem(url);
+
+        assertEquals(external.processPayment("4111111111111111", "John Doe", "12/30", "123", 150.0, 7),
+                external.processPaymentAsync("4111111111111111", "John Doe", "12/30", "123", 150.0, 7).join());
+    }
+}
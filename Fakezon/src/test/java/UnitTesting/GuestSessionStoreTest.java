@@ -0,0 +1,199 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import DomainLayer.Model.User;
+import InfrastructureLayer.Repositories.GuestSessionStore;
+
+class GuestSessionStoreTest {
+
+    private static final long MINUTE = 60 * 1000;
+
+    private MutableClock clock;
+    private GuestSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_000_000);
+        store = new GuestSessionStore(100, 120 * MINUTE, 10 * MINUTE, clock);
+    }
+
+    @Test
+    void testAdd_RejectsDuplicateId() {
+        assertTrue(store.add(new User(-1)));
+        assertFalse(store.add(new User(-1)));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testGet_ReturnsSameUserWhileActive() {
+        User guest = new User(-1);
+        store.add(guest);
+
+        clock.advance(5 * MINUTE);
+
+        assertSame(guest, store.get(-1).orElseThrow());
+    }
+
+    @Test
+    void testIdleGuest_ExpiresAfterTtl() {
+        store.add(new User(-1));
+
+        clock.advance(120 * MINUTE);
+
+        assertFalse(store.contains(-1));
+        assertTrue(store.get(-1).isEmpty());
+        assertEquals(1, store.getExpiredCount());
+    }
+
+    @Test
+    void testAccess_KeepsGuestAlive() {
+        store.add(new User(-1));
+        for (int i = 0; i < 5; i++) {
+            clock.advance(60 * MINUTE);
+            assertTrue(store.contains(-1));
+        }
+        assertEquals(0, store.getExpiredCount());
+    }
+
+    @Test
+    void testCompactedGuest_KeepsCart() {
+        User guest = new User(-1);
+        guest.getCart().setProduct(1, 10, 2);
+        guest.getCart().setProduct(2, 20, 5);
+        store.add(guest);
+
+        clock.advance(15 * MINUTE);
+        store.sweep();
+
+        assertEquals(1, store.getCompactedCount());
+        User restored = store.get(-1).orElseThrow();
+        assertNotSame(guest, restored);
+        assertEquals(-1, restored.getUserId());
+        assertEquals(Map.of(1, Map.of(10, 2), 2, Map.of(20, 5)), restored.getCart().getAllProducts());
+        assertSame(restored, store.get(-1).orElseThrow());
+    }
+
+    @Test
+    void testGetAll_DoesNotRestoreCompactedGuests() {
+        store.add(new User(-1));
+        clock.advance(15 * MINUTE);
+        store.sweep();
+
+        assertEquals(1, store.getAll().size());
+        assertEquals(-1, store.getAll().get(0).getUserId());
+        assertNotSame(store.getAll().get(0), store.getAll().get(0));
+    }
+
+    @Test
+    void testReplace_OnlyKnownGuests() {
+        store.add(new User(-1));
+        User updated = new User(-1);
+
+        assertTrue(store.replace(updated));
+        assertFalse(store.replace(new User(-2)));
+        assertSame(updated, store.get(-1).orElseThrow());
+    }
+
+    @Test
+    void testOverCapacity_EvictsLeastRecentlyUsed() {
+        GuestSessionStore small = new GuestSessionStore(10, 120 * MINUTE, 10 * MINUTE, clock);
+        for (int i = 1; i <= 10; i++) {
+            small.add(new User(-i));
+            clock.advance(1000);
+        }
+        small.contains(-1); // most recently used now
+
+        small.add(new User(-11));
+
+        assertEquals(9, small.size());
+        assertEquals(2, small.getEvictedCount());
+        assertTrue(small.contains(-1));
+        assertTrue(small.contains(-11));
+        assertFalse(small.contains(-2));
+        assertFalse(small.contains(-3));
+    }
+
+    @Test
+    void testConcurrentAddAndRemove() throws Exception {
+        GuestSessionStore shared = new GuestSessionStore(100_000, 120 * MINUTE, 10 * MINUTE, Clock.systemUTC());
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            tasks.add(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 1; i <= perThread; i++) {
+                    shared.add(new User(-(base + i)));
+                    if (i % 2 == 0) {
+                        shared.remove(-(base + i));
+                    }
+                }
+            });
+        }
+        tasks.forEach(pool::execute);
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread / 2, shared.size());
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
@@ -9,9 +9,21 @@ import io.jsonwebtoken.ExpiredJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import InfrastructureLayer.Security.TokenClaims;
 import InfrastructureLayer.Security.TokenService;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -125,4 +137,113 @@ public class InfrastructureLayerSecurityTest {
 
         assertFalse(tokenService.validateToken(expiredToken));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseOnce_UserToken() {
+        String token = tokenService.generateToken("claims@example.com", 55);
+
+        TokenClaims claims = tokenService.parseOnce(token);
+
+        assertNotNull(claims);
+        assertEquals("claims@example.com", claims.getSubject());
+        assertEquals(55, claims.getUserId());
+        assertFalse(claims.isGuest());
+        assertTrue(claims.getExpiration().after(new Date()));
+    }
+
+    @Test
+    void testParseOnce_GuestToken() {
+        TokenClaims claims = tokenService.parseOnce(tokenService.generateGuestToken());
+
+        assertNotNull(claims);
+        assertTrue(claims.isGuest());
+        assertNull(claims.getUserId());
+    }
+
+    @Test
+    void testParseOnce_InvalidToken_ReturnsNull() {
+        assertNull(tokenService.parseOnce("invalid.token.value"));
+        assertNull(tokenService.parseOnce(""));
+        assertNull(tokenService.parseOnce(null));
+    }
+
+    @Test
+    void testParseOnce_CachedClaimsNotServedPastTokenExpiry() {
+        MutableClock clock = new MutableClock(System.currentTimeMillis());
+        TokenService cachingService = new TokenService(100, 60 * 60 * 1000, clock);
+        String token = io.jsonwebtoken.Jwts.builder()
+                .setSubject("short@example.com")
+                .setExpiration(new Date(clock.millis() + 5000))
+                .claim("userId", 3)
+                .signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(
+                        "jM0Xcm6tKgvfMYdr1N5mZK3qPxYybg8vZ2H7sLDwE0RpQlFuT9aWnS4JeIcO1zA".getBytes()))
+                .compact();
+
+        assertTrue(cachingService.validateToken(token));
+        clock.advance(1000);
+        assertEquals(3, cachingService.extractUserId(token));
+        clock.advance(5000);
+        assertFalse(cachingService.validateToken(token));
+        assertThrows(Exception.class, () -> cachingService.extractUserId(token));
+    }
+
+    @Test
+    void testParseOnce_CacheIsBounded() throws Exception {
+        TokenService smallCache = new TokenService(2, 60 * 1000, Clock.systemUTC());
+        for (int i = 0; i < 5; i++) {
+            String token = smallCache.generateToken("user" + i + "@example.com", i);
+            assertEquals(i, smallCache.extractUserId(token));
+        }
+        var field = TokenService.class.getDeclaredField("claimsCache");
+        field.setAccessible(true);
+        assertEquals(2, ((Map<?, ?>) field.get(smallCache)).size());
+    }
+
+    @Test
+    void testParseOnce_ConcurrentRequestsShareTheCache() throws Exception {
+        TokenService cachingService = new TokenService(16, 60 * 1000, Clock.systemUTC());
+        List<String> tokens = List.of(cachingService.generateToken("a@example.com", 1),
+                cachingService.generateToken("b@example.com", 2));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> requests = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String token = tokens.get(i % 2);
+                int userId = i % 2 + 1;
+                requests.add(() -> cachingService.extractUserId(token) == userId);
+            }
+            for (Future<Boolean> answer : pool.invokeAll(requests)) {
+                assertTrue(answer.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -63,4 +63,30 @@ class NodeTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> parent.removeChild(child));
         assertTrue(exception.getMessage().contains("Node id: 1 has no child with id: 2"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAllDescendants_DeepChain() {
+        Node root = new Node(0);
+        Node curr = root;
+        for (int i = 1; i <= 20_000; i++) {
+            Node next = new Node(i);
+            curr.addChild(next);
+            curr = next;
+        }
+
+        assertEquals(20_000, root.getAllDescendants().size());
+    }
+
+    @Test
+    void testIsChild_NotForGrandchild() {
+        Node root = new Node(1);
+        Node child = new Node(2);
+        Node grandchild = new Node(3);
+        root.addChild(child);
+        child.addChild(grandchild);
+
+        assertFalse(root.isChild(grandchild));
+        assertTrue(child.isChild(grandchild));
+        assertFalse(root.isChild(null));
+    }
+}
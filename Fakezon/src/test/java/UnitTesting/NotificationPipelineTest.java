@@ -0,0 +1,107 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ApplicationLayer.Interfaces.INotificationWebSocketHandler;
+import ApplicationLayer.Services.NotificationPipeline;
+import DomainLayer.Enums.MessageBox;
+import DomainLayer.IRepository.IUserRepository;
+import DomainLayer.Model.helpers.StoreMsg;
+import DomainLayer.Model.helpers.UserNotification;
+
+public class NotificationPipelineTest {
+
+    private IUserRepository userRepository;
+    private INotificationWebSocketHandler wsHandler;
+    private NotificationPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(IUserRepository.class);
+        wsHandler = mock(INotificationWebSocketHandler.class);
+        // a long linger makes notifications submitted together land in one batch
+        pipeline = new NotificationPipeline(userRepository, wsHandler, Runnable::run, 100, 50, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private static UserNotification notification(int userId, String text, boolean push) {
+        return new UserNotification(new StoreMsg(1, 2, text, null, userId), MessageBox.STORE, push);
+    }
+
+    @Test
+    void testSubmit_StoresBatchAndPushesOnlyLoggedInUsers() {
+        pipeline.submit(notification(1, "hello", true));
+        pipeline.submit(notification(2, "hi", false));
+
+        verify(userRepository, timeout(2000)).addMessages(argThat(batch -> batch.size() == 2));
+        verify(wsHandler, timeout(2000)).broadcast("1", "hello");
+        verify(wsHandler, never()).broadcast(eq("2"), anyString());
+        waitForDelivered(2);
+        assertEquals(0, pipeline.getQueueDepth());
+        assertTrue(pipeline.getMaxLatencyMillis() >= pipeline.getAverageLatencyMillis());
+    }
+
+    @Test
+    void testSubmit_DuplicatesInBatchAreCoalesced() {
+        pipeline.submit(notification(1, "store closed", true));
+        pipeline.submit(notification(1, "store closed", true));
+
+        verify(userRepository, timeout(2000)).addMessages(argThat(batch -> batch.size() == 1));
+        waitForDelivered(1);
+        assertEquals(1, pipeline.getCoalescedCount());
+        verify(wsHandler).broadcast("1", "store closed");
+    }
+
+    @Test
+    void testSubmit_FailedBatchIsRetriedOneByOne() {
+        doAnswer(invocation -> {
+            List<UserNotification> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(n -> n.getUserId() == 99)) {
+                throw new IllegalStateException("no such user");
+            }
+            return null;
+        }).when(userRepository).addMessages(anyList());
+
+        pipeline.submit(notification(1, "kept", true));
+        pipeline.submit(notification(99, "lost", true));
+
+        verify(wsHandler, timeout(2000)).broadcast("1", "kept");
+        waitForDelivered(1);
+        assertEquals(1, pipeline.getFailedCount());
+        verify(wsHandler, never()).broadcast(eq("99"), anyString());
+    }
+
+    @Test
+    void testSubmit_NullNotification_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(null));
+    }
+
+    private void waitForDelivered(long expected) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pipeline.getDeliveredCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, pipeline.getDeliveredCount());
+    }
+}
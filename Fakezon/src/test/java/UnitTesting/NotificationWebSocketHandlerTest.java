@@ -6,11 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 public class NotificationWebSocketHandlerTest {
@@ -79,4 +84,95 @@ public class NotificationWebSocketHandlerTest {
         String event = "eventX";
         handler.handleTextMessage(mockSession1, new TextMessage(event));
 }
-}
\ No newline at end of file
+
+    // session1's client stops reading: its sends block until the latch is released
+    private CountDownLatch stallSession1() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stalled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            stalled.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockSession1).sendMessage(any());
+        handler.handleTextMessage(mockSession1, new TextMessage("1"));
+        CompletableFuture.runAsync(() -> handler.broadcast("1", "first"));
+        stalled.await(5, TimeUnit.SECONDS);
+        return release;
+    }
+
+    @Test
+    void broadcast_SlowSession_DoesNotDelayOtherSessions() throws Exception {
+        CountDownLatch release = stallSession1();
+        handler.handleTextMessage(mockSession2, new TextMessage("2"));
+
+        handler.broadcast("2", "to user 2");
+        handler.broadcast("1", "second"); // buffered, the stalled send is still in progress
+
+        verify(mockSession2).sendMessage(new TextMessage("to user 2"));
+        verify(mockSession1, never()).sendMessage(new TextMessage("second"));
+        release.countDown();
+        verify(mockSession1, timeout(5_000)).sendMessage(new TextMessage("second"));
+    }
+
+    @Test
+    void broadcast_SlowSessionFallsBehind_DropsOldestAndCoalesces() throws Exception {
+        handler = new NotificationWebSocketHandler(2, 10_000, 25_000, 75_000);
+        CountDownLatch release = stallSession1();
+
+        handler.broadcast("1", "a");
+        handler.broadcast("1", "b");
+        handler.broadcast("1", "c"); // outbox full: "a" is dropped
+        handler.broadcast("1", "c"); // same text already waiting
+
+        assertEquals(1, handler.getDroppedCount());
+        assertEquals(1, handler.getCoalescedCount());
+        assertEquals(2, handler.getBufferedCount());
+        release.countDown();
+        verify(mockSession1, timeout(5_000)).sendMessage(new TextMessage("c"));
+        verify(mockSession1, never()).sendMessage(new TextMessage("a"));
+        verify(mockSession1).sendMessage(new TextMessage("b"));
+    }
+
+    @Test
+    void broadcast_SendStuckPastTimeLimit_ClosesSession() throws Exception {
+        handler = new NotificationWebSocketHandler(100, 50, 25_000, 75_000);
+        CountDownLatch release = stallSession1();
+        Thread.sleep(100);
+
+        handler.broadcast("1", "second");
+
+        verify(mockSession1).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, handler.getSlowClosedCount());
+        release.countDown();
+    }
+
+    @Test
+    void sendHeartbeats_PingsActiveAndClosesIdleSessions() throws Exception {
+        handler = new NotificationWebSocketHandler(100, 10_000, 25_000, 50);
+        handler.handleTextMessage(mockSession1, new TextMessage("1"));
+        Thread.sleep(100);
+        handler.handleTextMessage(mockSession2, new TextMessage("2"));
+
+        handler.sendHeartbeats();
+
+        verify(mockSession1).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(mockSession2).sendMessage(any(PingMessage.class));
+        assertEquals(1, handler.getSessionCount());
+        handler.broadcast("1", "gone");
+        verify(mockSession1, never()).sendMessage(any(TextMessage.class));
+    }
+
+    @Test
+    void afterConnectionClosed_OtherSessionsOfUserStaySubscribed() throws Exception {
+        handler.handleTextMessage(mockSession1, new TextMessage("7"));
+        handler.handleTextMessage(mockSession2, new TextMessage("7"));
+
+        handler.afterConnectionClosed(mockSession1, CloseStatus.NORMAL);
+        handler.broadcast("7", "still here");
+
+        verify(mockSession2).sendMessage(new TextMessage("still here"));
+        handler.afterConnectionClosed(mockSession2, CloseStatus.NORMAL);
+        assertEquals(0, handler.getSubscribedUserCount());
+        assertEquals(0, handler.getSessionCount());
+    }
+}
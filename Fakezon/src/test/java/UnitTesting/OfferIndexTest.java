@@ -0,0 +1,81 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import DomainLayer.Model.Offer;
+import DomainLayer.Model.helpers.OfferIndex;
+
+class OfferIndexTest {
+
+    private static final int STORE = 1;
+
+    private Offer offer(int userId, int productId, String type) {
+        Offer offer = new Offer(userId, STORE, productId, 10.0, List.of(1));
+        offer.setOfferType(type);
+        return offer;
+    }
+
+    private Offer accepted(int userId, int productId) {
+        Offer offer = offer(userId, productId, "REGULAR");
+        offer.approve(1);
+        offer.setHandled();
+        return offer;
+    }
+
+    @Test
+    void testLoad_KeepsOnlyTheUsersOffersByStatus() {
+        Offer open = offer(5, 7, "REGULAR");
+        Offer pending = offer(5, 8, "PENDING");
+        Offer done = accepted(5, 9);
+        Offer other = offer(6, 7, "REGULAR");
+        OfferIndex index = new OfferIndex();
+
+        index.load(5, List.of(open, pending, done, other));
+
+        assertTrue(index.isLoaded(5));
+        assertFalse(index.isLoaded(6));
+        assertSame(open, index.getOpen(5, 7));
+        assertSame(pending, index.getPending(5, 8));
+        assertSame(done, index.getAccepted(5, 9));
+        assertNull(index.getOpen(5, 9)); // handled offers are not open
+        assertNull(index.getAccepted(5, 7));
+        assertNull(index.getOpen(6, 7));
+    }
+
+    @Test
+    void testAddAndRemove_KeepTheUserInStep() {
+        OfferIndex index = new OfferIndex();
+        index.load(5, List.of());
+        Offer open = offer(5, 7, "REGULAR");
+
+        index.add(open);
+        assertEquals(List.of(open), index.getOpenOffers(5));
+
+        index.closeOpen(open);
+        assertNull(index.getOpen(5, 7));
+        index.remove(open);
+        assertTrue(index.getOpenOffers(5).isEmpty());
+    }
+
+    @Test
+    void testLoadAll_KeepsUsersAlreadyLoaded() {
+        Offer declined = offer(5, 7, "REGULAR");
+        OfferIndex index = new OfferIndex();
+        index.load(5, List.of(declined));
+        index.closeOpen(declined); // declined in this session, not yet marked handled
+
+        index.loadAll(List.of(declined, offer(6, 7, "REGULAR")));
+
+        assertTrue(index.isComplete());
+        assertNull(index.getOpen(5, 7));
+        assertEquals(1, index.getAllOpenOffers().size());
+    }
+}
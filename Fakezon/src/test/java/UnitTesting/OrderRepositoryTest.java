@@ -12,6 +12,7 @@ import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -141,6 +142,27 @@ public class OrderRepositoryTest {
         assertTrue(userOrders.contains(order1));
     }
 
+    @Test
+    @Transactional
+    void givenCheckoutOrders_WhenAddOrders_ThenAllAreAddedWithIds() {
+        repository.addOrders(List.of(order1, order2));
+        assertNotEquals(0, order1.getId());
+        assertNotEquals(order1.getId(), order2.getId());
+        assertEquals(order1, repository.getOrder(order1.getId()));
+        assertEquals(order2, repository.getOrder(order2.getId()));
+    }
+
+    @Test
+    @Transactional
+    void givenAddedOrder_WhenAddOrdersAgain_ThenThrowsException() {
+        repository.addOrder(order1);
+        int generatedId = order1.getId();
+        Exception exception = assertThrows(InvalidDataAccessApiUsageException.class, () -> {
+            repository.addOrders(List.of(order2, order1));
+        });
+        assertEquals("Order with ID " + generatedId + " already exists.", exception.getMessage());
+    }
+
     @Test
     @Transactional
     void givenNoOrders_WhenGetOrderByUser_ThenReturnsEmptyList() {
@@ -148,4 +170,63 @@ public class OrderRepositoryTest {
         assertTrue(userOrders.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional
+    void givenStoreOrders_WhenGetOrdersByStoreIdPaged_ThenNewestFirstOnePageAtATime() {
+        repository.addOrders(List.of(order1, order2));
+
+        List<IOrder> firstPage = repository.getOrdersByStoreId(storeId, 0, 1);
+        List<IOrder> secondPage = repository.getOrdersByStoreId(storeId, 1, 1);
+
+        assertEquals(List.of(order2), firstPage);
+        assertEquals(List.of(order1), secondPage);
+        assertTrue(repository.getOrdersByStoreId(storeId, 2, 1).isEmpty());
+        assertTrue(repository.getOrdersByStoreId(storeId + 1, 0, 10).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void givenOrders_WhenGetOrdersByUserAndStatePaged_ThenReturnsMatching() {
+        repository.addOrders(List.of(order1, order2));
+
+        assertEquals(List.of(order1), repository.getOrdersByUserId(user1Id, 0, 10));
+        assertEquals(List.of(order2), repository.getOrdersByState(OrderState.SHIPPED, 0, 10));
+    }
+
+    @Test
+    @Transactional
+    void givenOrders_WhenGetOrdersByStoreIdInDateRange_ThenReturnsOrdersCreatedInIt() {
+        repository.addOrders(List.of(order1, order2));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(2, repository.getOrdersByStoreId(storeId, now.minusHours(1), now.plusHours(1), 0, 10).size());
+        assertTrue(repository.getOrdersByStoreId(storeId, now.minusDays(2), now.minusDays(1), 0, 10).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void givenOrders_WhenSearchOrders_ThenMatchesOrderAndProductColumns() {
+        repository.addOrders(List.of(order1, order2));
+
+        assertEquals(List.of(order1), repository.searchOrders("Main", 0, 10));
+        assertEquals(List.of(order2), repository.searchOrders("CASH", 0, 10));
+        assertEquals(List.of(order1), repository.searchOrders("3", 0, 10)); // product ID 3
+        assertEquals(List.of(order2, order1), repository.searchOrders("Product2", 0, 10));
+        assertTrue(repository.searchOrders("Nowhere", 0, 10).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void givenEmptyKeyword_WhenSearchOrders_ThenReturnsAllOrders() {
+        repository.addOrders(List.of(order1, order2));
+
+        assertEquals(List.of(order2, order1), repository.searchOrders("", 0, 10));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> repository.searchOrders(null, 0, 10));
+    }
+
+    @Test
+    void givenNegativePage_WhenGetOrdersByStoreIdPaged_ThenThrowsException() {
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> repository.getOrdersByStoreId(storeId, -1, 10));
+    }
+
+}
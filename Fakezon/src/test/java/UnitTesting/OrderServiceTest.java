@@ -4,6 +4,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -11,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -20,6 +23,7 @@ import static org.mockito.Mockito.when;
 
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
+import ApplicationLayer.Interfaces.ISalesAnalyticsService;
 import ApplicationLayer.Services.OrderService;
 import DomainLayer.Enums.OrderState;
 import DomainLayer.Enums.PaymentMethod;
@@ -107,7 +111,7 @@ public class OrderServiceTest {
         when(mockOrder2.getPaymentMethod()).thenReturn(PaymentMethod.CASH_ON_DELIVERY);
         when(mockOrder2.getProductIds()).thenReturn(Arrays.asList(4, 5, 6));
 
-        when(orderRepository.getAllOrders()).thenReturn(Arrays.asList(mockOrder1, mockOrder2));
+        when(orderRepository.searchOrders("123", 0, 100)).thenReturn(Collections.singletonList(mockOrder1));
 
         List<IOrder> orders = orderService.searchOrders("123");
         List<Integer> orderIds = orders.stream().map(order -> order.getId()).toList();
@@ -116,6 +120,19 @@ public class OrderServiceTest {
         assertTrue(orderIds.contains(1));
     }
 
+    @Test
+    void givenMoreMatchesThanAPage_WhenSearchOrders_ThenReturnsEveryMatch() {
+        List<IOrder> fullPage = Collections.nCopies(100, mock(IOrder.class));
+        List<IOrder> lastPage = Collections.singletonList(mock(IOrder.class));
+        when(orderRepository.searchOrders("St", 0, 100)).thenReturn(fullPage);
+        when(orderRepository.searchOrders("St", 1, 100)).thenReturn(lastPage);
+
+        List<IOrder> orders = orderService.searchOrders("St");
+
+        assertEquals(101, orders.size());
+        verify(orderRepository, never()).searchOrders("St", 2, 100);
+    }
+
     @Test
     void givenStoreId_WhenGetOrdersByStoreId_ThenReturnsMatchingOrders() {
         // Mock orders
@@ -138,7 +155,7 @@ public class OrderServiceTest {
         when(mockOrder2.getAddress()).thenReturn("456 Elm St");
         when(mockOrder2.getPaymentMethod()).thenReturn(PaymentMethod.CASH_ON_DELIVERY);
 
-        when(orderRepository.getAllOrders()).thenReturn(Arrays.asList(mockOrder1, mockOrder2));
+        when(orderRepository.getOrdersByStoreId(10)).thenReturn(Collections.singletonList(mockOrder1));
 
         // Call the method
         List<IOrder> result = orderService.getOrdersByStoreId(10);
@@ -155,6 +172,28 @@ public class OrderServiceTest {
         assertEquals("CREDIT_CARD", orderDTO.getPaymentMethod().toString());
     }
 
+    @Test
+    void givenStoreIdAndPage_WhenGetOrdersByStoreId_ThenReadsOnlyThatPage() {
+        IOrder mockOrder = mock(IOrder.class);
+        when(orderRepository.getOrdersByStoreId(10, 2, 20)).thenReturn(Collections.singletonList(mockOrder));
+
+        List<IOrder> result = orderService.getOrdersByStoreId(10, 2, 20);
+
+        assertEquals(1, result.size());
+        verify(orderRepository, never()).getAllOrders();
+        verify(orderRepository, never()).getOrdersByStoreId(10);
+    }
+
+    @Test
+    void givenOversizedPage_WhenGetOrdersByStoreId_ThenThrowsException() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            orderService.getOrdersByStoreId(10, 0, 101);
+        });
+
+        assertEquals("Page size must be between 1 and 100", exception.getMessage());
+        verify(orderRepository, never()).getOrdersByStoreId(10, 0, 101);
+    }
+
     @Test
     void testgetOrderOrderId_Success() {
         IOrder mockOrder = mock(IOrder.class);
@@ -250,7 +289,7 @@ void testAddOrderCart_Exception() {
         orderService.addOrderCart(cart, prices, userId, address, paymentMethod, 12345, 67890);
     
         // Assert
-        verify(orderRepository, times(1)).addOrder(any(Order.class));
+        verify(orderRepository, times(1)).addOrders(argThat(orders -> orders.size() == 1));
     }
     
     @Test
@@ -290,8 +329,9 @@ void testAddOrderCart_Exception() {
         // Act
         orderService.addOrderCart(cart, prices, userId, address, paymentMethod, 12345, 67890);
     
-        // Assert: Should call addOrder twice (once per store)
-        verify(orderRepository, times(2)).addOrder(any(Order.class));
+        // Assert: Should write two orders (once per store) in one batch
+        verify(orderRepository, times(1)).addOrders(argThat(orders -> orders.size() == 2
+                && orders.stream().map(IOrder::getStoreId).collect(Collectors.toSet()).equals(Set.of(1, 2))));
     }
     
     @Test
@@ -315,16 +355,46 @@ void testAddOrderCart_Exception() {
         String address = "789 Oak St";
         PaymentMethod paymentMethod = PaymentMethod.PAYPAL;
     
-        doThrow(new IllegalArgumentException("Order error")).when(orderRepository).addOrder(any(Order.class));
+        doThrow(new IllegalArgumentException("Order error")).when(orderRepository).addOrders(any());
     
         // Act & Assert
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
             orderService.addOrderCart(cart, prices, userId, address, paymentMethod, 12345, 67890)
         );
         assertEquals("Order error", ex.getMessage());
-        verify(orderRepository, times(1)).addOrder(any(Order.class));
+        verify(orderRepository, times(1)).addOrders(any());
     }
     
+    @Test
+    void testAddOrderCart_RecordsOrdersForSalesAnalytics() {
+        ISalesAnalyticsService salesAnalytics = mock(ISalesAnalyticsService.class);
+        orderService = new OrderService(orderRepository, salesAnalytics);
+        StoreDTO storeDTO = mock(StoreDTO.class);
+        when(storeDTO.getStoreId()).thenReturn(1);
+        StoreProductDTO productDTO = mock(StoreProductDTO.class);
+        when(productDTO.getQuantity()).thenReturn(2);
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> cart = Map.of(storeDTO, Map.of(productDTO, true));
+
+        orderService.addOrderCart(cart, Map.of(1, 99.99), 42, "123 Main St", PaymentMethod.CREDIT_CARD, 12345, 67890);
+
+        verify(salesAnalytics, times(1)).recordOrders(argThat(orders -> orders.size() == 1
+                && orders.iterator().next().getTotalPrice() == 99.99));
+    }
+
+    @Test
+    void testAddOrderCart_OrdersNotWritten_NothingRecorded() {
+        ISalesAnalyticsService salesAnalytics = mock(ISalesAnalyticsService.class);
+        orderService = new OrderService(orderRepository, salesAnalytics);
+        StoreDTO storeDTO = mock(StoreDTO.class);
+        when(storeDTO.getStoreId()).thenReturn(1);
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> cart = Map.of(storeDTO, Map.of(mock(StoreProductDTO.class), true));
+        doThrow(new IllegalArgumentException("Order error")).when(orderRepository).addOrders(any());
+
+        assertThrows(IllegalArgumentException.class, () ->
+            orderService.addOrderCart(cart, Map.of(1, 50.0), 7, "789 Oak St", PaymentMethod.PAYPAL, 12345, 67890));
+        verify(salesAnalytics, never()).recordOrders(any());
+    }
+
     @Test
     void testAddOrderCart_EmptyCart_NoOrdersAdded() {
         // Arrange
@@ -339,6 +409,7 @@ void testAddOrderCart_Exception() {
     
         // Assert: No orders should be added
         verify(orderRepository, never()).addOrder(any(Order.class));
+        verify(orderRepository, never()).addOrders(any());
     }
     
         @Test
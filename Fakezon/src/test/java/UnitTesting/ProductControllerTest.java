@@ -41,6 +41,7 @@ import com.fakezone.fakezone.controller.ProductController;
 
 import ApplicationLayer.DTO.ProductDTO;
 import ApplicationLayer.DTO.ProductRatingDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Interfaces.ISystemService;
@@ -367,6 +368,45 @@ class ProductControllerTest {
         assertEquals(ErrorType.INTERNAL_ERROR, response.getBody().getErrorType());
         verify(systemService, times(1)).searchByCategory(category);
     }
+    @Test
+    void testFacetedSearch_Success() {
+        String token = "valid-token";
+        ProductSearchResultDTO result = new ProductSearchResultDTO(List.of(), 0, 20, 0, java.util.Map.of(), java.util.Map.of(), null, null);
+
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.searchStoreProducts("lamp", null, 1.0, null, null, null, null, 0, 20))
+                .thenReturn(new Response<>(result, "Products retrieved successfully", true, null, null));
+
+        ResponseEntity<Response<ProductSearchResultDTO>> response = productController.searchProducts("lamp", null, 1.0, null, null, null, null, 0, 20, token);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(result, response.getBody().getData());
+    }
+
+    @Test
+    void testFacetedSearch_InvalidInput() {
+        String token = "valid-token";
+
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.searchStoreProducts(null, "NOPE", null, null, null, null, null, 0, 20))
+                .thenReturn(new Response<>(null, "Invalid category", false, ErrorType.INVALID_INPUT, null));
+
+        ResponseEntity<Response<ProductSearchResultDTO>> response = productController.searchProducts(null, "NOPE", null, null, null, null, null, 0, 20, token);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertFalse(response.getBody().isSuccess());
+    }
+
+    @Test
+    void testFacetedSearch_InvalidToken() {
+        when(authenticatorAdapter.isValid("bad-token")).thenReturn(false);
+
+        ResponseEntity<Response<ProductSearchResultDTO>> response = productController.searchProducts(null, null, null, null, null, null, null, 0, 20, "bad-token");
+
+        assertEquals(401, response.getStatusCodeValue());
+        verify(systemService, never()).searchStoreProducts(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
         // --- BadResponse tests ---
     
     @Test
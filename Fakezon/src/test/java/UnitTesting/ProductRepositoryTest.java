@@ -174,4 +174,77 @@ public class ProductRepositoryTest {
         repository.clearAllData();
         verify(productJpaRepository).deleteAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchProducts_WithIndex_UsesIndexInsteadOfLikeQuery() {
+        ProductRepository indexed = new ProductRepository(productJpaRepository, true);
+        when(productJpaRepository.findAllById(any())).thenReturn(Arrays.asList(product2, product1));
+
+        List<IProduct> found = new ArrayList<>(indexed.searchProducts("good"));
+
+        assertEquals(Arrays.asList(product1, product2), found, "Results should follow index rank, not load order");
+        verify(productJpaRepository, never()).searchByKeyword(anyString());
+    }
+
+    @Test
+    void testSearchProductIds_WithIndex_NothingLoaded() {
+        ProductRepository indexed = new ProductRepository(productJpaRepository, true);
+
+        assertEquals(Arrays.asList(1, 2), indexed.searchProductIds("good"));
+        verify(productJpaRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testSearchProducts_WithoutIndex_LikeWildcardsMatchedLiterally() {
+        repository.searchProducts("50%_off!");
+        repository.searchProductsByName("a_b");
+
+        verify(productJpaRepository).searchByKeyword("50!%!_off!!");
+        verify(productJpaRepository).findByNameContainingIgnoreCase("a!_b");
+    }
+
+    @Test
+    void testSearchProducts_WithIndex_SeesUpdatesAndDeletes() {
+        ProductRepository indexed = new ProductRepository(productJpaRepository, true);
+        when(productJpaRepository.existsById(1)).thenReturn(true);
+        when(productJpaRepository.findAllById(any())).thenReturn(Arrays.asList(product2));
+        indexed.searchProducts("good"); // loads the index
+
+        indexed.updateProduct(2, "Lamp", null, null);
+        assertEquals(1, indexed.searchProductsByName("lamp").size());
+
+        indexed.deleteProduct(1);
+        assertTrue(indexed.searchProducts("Product1").isEmpty());
+    }
+
+    @Test
+    void testGetProductById_WithCache_LoadsOnceAndHandsOutCopies() {
+        ProductRepository cached = new ProductRepository(productJpaRepository, false, 100, 60);
+        when(productJpaRepository.findWithStoresById(1)).thenReturn(Optional.of(product1));
+
+        IProduct first = cached.getProductById(1);
+        first.addStore(7); // a caller changing what it got must not change the cached product
+        IProduct second = cached.getProductById(1);
+
+        assertEquals("Product1", second.getName());
+        assertTrue(second.getStoresIds().isEmpty());
+        verify(productJpaRepository, times(1)).findWithStoresById(1);
+        assertEquals(1, cached.getProductCache().getHitCount());
+    }
+
+    @Test
+    void testGetProductById_WithCache_ReloadsAfterUpdateAndDelete() {
+        ProductRepository cached = new ProductRepository(productJpaRepository, false, 100, 60);
+        when(productJpaRepository.findWithStoresById(1)).thenReturn(Optional.of(product1));
+        when(productJpaRepository.existsById(1)).thenReturn(true);
+        cached.getProductById(1);
+
+        cached.updateProduct(1, "Renamed", null, null);
+        assertEquals("Renamed", cached.getProductById(1).getName());
+
+        cached.deleteProduct(1);
+        when(productJpaRepository.findWithStoresById(1)).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> cached.getProductById(1));
+        verify(productJpaRepository, times(3)).findWithStoresById(1);
+    }
+}
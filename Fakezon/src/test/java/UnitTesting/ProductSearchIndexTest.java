@@ -0,0 +1,71 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ApplicationLayer.Enums.PCategory;
+import DomainLayer.Model.Product;
+import InfrastructureLayer.Repositories.ProductSearchIndex;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.indexAll(List.of(
+                new Product("Wireless Mouse", "Ergonomic mouse with USB receiver", PCategory.ELECTRONICS, 1),
+                new Product("Mouse Pad", "Cloth pad", PCategory.ELECTRONICS, 2),
+                new Product("Garden Hose", "Twenty meters, fits any wireless-free garden", PCategory.HOME, 3)));
+    }
+
+    @Test
+    void testSearch_IsCaseInsensitiveAndRanksNameMatchesFirst() {
+        List<Integer> ids = index.search("WIRELESS");
+
+        assertEquals(List.of(1, 3), ids);
+    }
+
+    @Test
+    void testSearch_AllTokensMustMatch() {
+        assertEquals(List.of(1), index.search("mouse usb"));
+        assertTrue(index.search("mouse hose").isEmpty());
+    }
+
+    @Test
+    void testSearch_MatchesPrefixes() {
+        assertEquals(List.of(3), index.search("gard ho"));
+        assertTrue(index.search("arden").isEmpty(), "Only prefixes match, not infixes");
+    }
+
+    @Test
+    void testSearchNames_IgnoresDescription() {
+        assertEquals(List.of(1), index.searchNames("wireless"));
+    }
+
+    @Test
+    void testIndexAndRemove_KeepIndexCurrent() {
+        Product renamed = new Product("Trackball", "Cloth pad", PCategory.ELECTRONICS, 2);
+        index.index(renamed);
+
+        assertEquals(List.of(1), index.search("mouse"));
+        assertEquals(List.of(2), index.search("trackball"));
+
+        index.remove(2);
+
+        assertTrue(index.search("trackball").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSearch_BlankQueryReturnsNothing() {
+        assertTrue(index.search("  ,. ").isEmpty());
+        assertTrue(index.search(null).isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import DomainLayer.Model.helpers.RatingLeaderboard;
+
+public class RatingLeaderboardTest {
+
+    private RatingLeaderboard<Integer> leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new RatingLeaderboard<>(Comparator.naturalOrder());
+        leaderboard.update(1, 3.0);
+        leaderboard.update(2, 4.5);
+        leaderboard.update(3, 4.5);
+        leaderboard.update(4, 1.0);
+    }
+
+    private List<Integer> topKeys(int limit) {
+        return leaderboard.top(limit).stream().map(RatingLeaderboard.Entry::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    void testTop_OrdersByRatingThenKey() {
+        assertEquals(List.of(2, 3, 1), topKeys(3));
+        assertEquals(List.of(2, 3, 1, 4), topKeys(10));
+    }
+
+    @Test
+    void testUpdate_MovesExistingEntry() {
+        leaderboard.update(4, 5.0);
+        leaderboard.update(2, 2.0);
+
+        assertEquals(List.of(4, 3, 1, 2), topKeys(4));
+        assertEquals(4, leaderboard.size());
+    }
+
+    @Test
+    void testRemoveAndNaN_DropEntries() {
+        leaderboard.remove(2);
+        leaderboard.update(3, Double.NaN);
+
+        assertEquals(List.of(1, 4), topKeys(5));
+        assertTrue(leaderboard.top(0).isEmpty());
+    }
+}
@@ -0,0 +1,301 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ApplicationLayer.DTO.StoreSalesDTO;
+import ApplicationLayer.Services.SalesAnalyticsService;
+import DomainLayer.IRepository.ISalesRollupRepository;
+import DomainLayer.Interfaces.IOrder;
+import DomainLayer.Model.OrderedProduct;
+import DomainLayer.Model.ProductSalesDay;
+import DomainLayer.Model.StoreBuyerDay;
+import DomainLayer.Model.StoreSalesDay;
+import DomainLayer.Model.helpers.ProductSalesTotal;
+
+public class SalesAnalyticsServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private ISalesRollupRepository rollupRepository;
+    private List<Runnable> scheduled;
+    private SalesAnalyticsService salesAnalytics;
+    private final List<Integer> pending = new ArrayList<>(); // the pending table
+    private final Map<Integer, Integer> attempts = new HashMap<>();
+    private final Map<Integer, IOrder> stored = new HashMap<>();
+    private final Answer<Void> rolledUp = invocation -> {
+        pending.removeAll(invocation.<Collection<Integer>>getArgument(3));
+        return null;
+    };
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rollupRepository = mock(ISalesRollupRepository.class);
+        doAnswer(invocation -> {
+            pending.addAll(invocation.<Collection<Integer>>getArgument(0));
+            return null;
+        }).when(rollupRepository).addPendingOrders(anyCollection());
+        when(rollupRepository.getPendingOrderIds(anyInt(), anyInt())).thenAnswer(invocation -> pending.stream()
+                .filter(id -> attempts.getOrDefault(id, 0) < (int) invocation.getArgument(1))
+                .limit((int) invocation.getArgument(0))
+                .toList());
+        when(rollupRepository.getOrders(anyCollection())).thenAnswer(invocation -> ((Collection<Integer>) invocation
+                .getArgument(0)).stream().filter(stored::containsKey).map(stored::get).toList());
+        when(rollupRepository.recordFailedAttempt(anyInt()))
+                .thenAnswer(invocation -> attempts.merge(invocation.getArgument(0), 1, Integer::sum));
+        when(rollupRepository.countPendingOrders()).thenAnswer(invocation -> (long) pending.size());
+        doAnswer(rolledUp).when(rollupRepository).addSales(any(), any(), any(), anyCollection());
+        scheduled = new CopyOnWriteArrayList<>(); // retries are handed over from the delay thread
+        Executor executor = scheduled::add; // runs when the test says so
+        salesAnalytics = new SalesAnalyticsService(rollupRepository, executor, HOUR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private IOrder order(int orderId, int storeId, int userId, double total, OrderedProduct... products) {
+        IOrder order = mock(IOrder.class);
+        when(order.getId()).thenReturn(orderId);
+        when(order.getStoreId()).thenReturn(storeId);
+        when(order.getUserId()).thenReturn(userId);
+        when(order.getTotalPrice()).thenReturn(total);
+        when(order.getCreatedAt()).thenReturn(DAY.atTime(10, 30));
+        when(order.getProducts()).thenReturn(List.of(products));
+        stored.put(orderId, order);
+        return order;
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordOrders_FoldsABatchIntoOneDeltaPerRow() {
+        salesAnalytics.recordOrders(List.of(
+                order(1, 1, 7, 25.0, new OrderedProduct(100, "Mug", 10.0, 2), new OrderedProduct(101, "Tea", 5.0, 1))));
+        salesAnalytics.recordOrders(List.of(order(2, 1, 7, 10.0, new OrderedProduct(100, "Mug", 10.0, 1))));
+        salesAnalytics.recordOrders(List.of(order(3, 1, 8, 5.0, new OrderedProduct(101, "Tea", 5.0, 1))));
+        assertEquals(3, salesAnalytics.getQueueDepth());
+        assertEquals(1, scheduled.size()); // one run picks up all three
+
+        runScheduled();
+
+        ArgumentCaptor<Collection<StoreSalesDay>> storeDays = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<ProductSalesDay>> productDays = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<StoreBuyerDay>> buyers = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository, times(1)).addSales(storeDays.capture(), productDays.capture(), buyers.capture(),
+                eq(List.of(1, 2, 3)));
+
+        assertEquals(1, storeDays.getValue().size());
+        StoreSalesDay storeDay = storeDays.getValue().iterator().next();
+        assertEquals(DAY, storeDay.getSalesDate());
+        assertEquals(40.0, storeDay.getRevenue(), 1e-9);
+        assertEquals(5, storeDay.getUnits());
+        assertEquals(3, storeDay.getOrderCount());
+
+        assertEquals(2, productDays.getValue().size());
+        ProductSalesDay mug = productDays.getValue().stream().filter(day -> day.getProductId() == 100).findFirst().get();
+        assertEquals(30.0, mug.getRevenue(), 1e-9);
+        assertEquals(3, mug.getUnits());
+        assertEquals(2, mug.getOrderCount());
+
+        assertEquals(2, buyers.getValue().size());
+        assertEquals(0, salesAnalytics.getQueueDepth());
+    }
+
+    @Test
+    void testRecordOrders_InTransaction_QueuedAtOnceWrittenAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0, new OrderedProduct(100, "Mug", 12.5, 2))));
+
+        verify(rollupRepository).addPendingOrders(List.of(1)); // in the order's transaction
+        assertTrue(scheduled.isEmpty());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        runScheduled();
+
+        verify(rollupRepository, times(1)).addSales(anyCollection(), anyCollection(), anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testRecordOrders_TransactionRolledBack_NoRunScheduled() {
+        TransactionSynchronizationManager.initSynchronization();
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0, new OrderedProduct(100, "Mug", 12.5, 2))));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(scheduled.isEmpty()); // the pending row rolled back with the order
+        verify(rollupRepository, never()).addSales(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFlush_WritesWhatIsPending() {
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0, new OrderedProduct(100, "Mug", 12.5, 2))));
+
+        salesAnalytics.flush();
+        runScheduled(); // nothing left for the scheduled run
+
+        verify(rollupRepository, times(1)).addSales(anyCollection(), anyCollection(), anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testWriteFails_OrdersRetriedOneByOne() {
+        doThrow(new RuntimeException("db down")).doAnswer(rolledUp).when(rollupRepository).addSales(any(), any(), any(), any());
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0), order(2, 2, 7, 5.0)));
+        runScheduled();
+
+        salesAnalytics.recordOrders(List.of(order(3, 1, 8, 10.0)));
+        runScheduled();
+
+        assertEquals(0, salesAnalytics.getFailedCount());
+        assertEquals(0, salesAnalytics.getQueueDepth());
+        verify(rollupRepository, times(4)).addSales(any(), any(), any(), any()); // the batch, each order, the later order
+    }
+
+    @Test
+    void testWriteFails_RetriedAfterBackoff() throws InterruptedException {
+        salesAnalytics = new SalesAnalyticsService(rollupRepository, scheduled::add, 10);
+        doThrow(new RuntimeException("db down")).doThrow(new RuntimeException("db down")).doAnswer(rolledUp)
+                .when(rollupRepository).addSales(any(), any(), any(), any());
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0)));
+        runScheduled();
+        assertEquals(1, salesAnalytics.getQueueDepth());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduled.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        runScheduled(); // the retry, with no new order to trigger it
+
+        assertEquals(0, salesAnalytics.getQueueDepth());
+        assertEquals(0, salesAnalytics.getFailedCount());
+    }
+
+    @Test
+    void testWriteKeepsFailing_LeftPendingAndCounted() {
+        doThrow(new RuntimeException("db down")).when(rollupRepository).addSales(any(), any(), any(), any());
+        salesAnalytics.recordOrders(List.of(order(1, 1, 7, 25.0)));
+
+        runScheduled();
+        assertTrue(scheduled.isEmpty()); // the retry waits out its backoff
+        salesAnalytics.flush();
+        assertEquals(0, salesAnalytics.getFailedCount());
+
+        salesAnalytics.flush();
+        assertEquals(1, salesAnalytics.getFailedCount());
+        assertEquals(1, salesAnalytics.getQueueDepth()); // kept, not dropped
+
+        salesAnalytics.flush();
+        verify(rollupRepository, times(6)).addSales(any(), any(), any(), any()); // given up on: not tried again
+    }
+
+    @Test
+    void testDeletedOrder_OnlyItsPendingRowRemoved() {
+        pending.add(9);
+
+        salesAnalytics.flush();
+
+        verify(rollupRepository).addSales(argThat(days -> days.isEmpty()), argThat(days -> days.isEmpty()),
+                argThat(buyers -> buyers.isEmpty()), eq(List.of(9)));
+        assertEquals(0, salesAnalytics.getQueueDepth());
+    }
+
+    @Test
+    void testApplicationReady_BackfillsAndWritesPendingOrders() {
+        order(1, 1, 7, 25.0);
+        when(rollupRepository.backfillPendingOrders()).thenAnswer(invocation -> {
+            pending.add(1);
+            return 1;
+        });
+
+        salesAnalytics.onApplicationReady();
+        runScheduled();
+
+        verify(rollupRepository).addSales(anyCollection(), anyCollection(), anyCollection(), eq(List.of(1)));
+        assertEquals(0, salesAnalytics.getQueueDepth());
+    }
+
+    @Test
+    void testGetStoreSales_SumsDailyRollups() {
+        StoreSalesDay first = new StoreSalesDay(1, DAY);
+        first.add(40.0, 5, 3, 2);
+        StoreSalesDay second = new StoreSalesDay(1, DAY.plusDays(1));
+        second.add(20.0, 2, 1, 1);
+        when(rollupRepository.getStoreSalesDays(1, DAY, DAY.plusDays(6))).thenReturn(List.of(first, second));
+        when(rollupRepository.countBuyers(1, DAY, DAY.plusDays(6))).thenReturn(2L);
+        when(rollupRepository.getTopProducts(1, DAY, DAY.plusDays(6), 5))
+                .thenReturn(List.of(new ProductSalesTotal(100, "Mug", 30.0, 3L, 2L)));
+
+        StoreSalesDTO sales = salesAnalytics.getStoreSales(1, DAY, DAY.plusDays(6), 5);
+
+        assertEquals(60.0, sales.getRevenue(), 1e-9);
+        assertEquals(7, sales.getUnits());
+        assertEquals(4, sales.getOrderCount());
+        assertEquals(2, sales.getBuyerCount()); // distinct over the range, not the sum of the days
+        assertEquals(15.0, sales.getAverageBasket(), 1e-9);
+        assertEquals(2, sales.getDays().size());
+        assertEquals("Mug", sales.getTopProducts().get(0).getName());
+    }
+
+    @Test
+    void testGetStoreSales_InvalidRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> salesAnalytics.getStoreSales(1, DAY, DAY.minusDays(1), 5));
+        verify(rollupRepository, never()).getStoreSalesDays(1, DAY, DAY.minusDays(1));
+    }
+
+    @Test
+    void testOrderWithoutCreationTime_CountedToday() {
+        IOrder order = order(1, 1, 7, 25.0);
+        when(order.getCreatedAt()).thenReturn((LocalDateTime) null);
+        salesAnalytics.recordOrders(List.of(order));
+
+        salesAnalytics.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<StoreSalesDay>> storeDays = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository).addSales(storeDays.capture(), any(), any(), any());
+        assertEquals(LocalDate.now(), storeDays.getValue().iterator().next().getSalesDate());
+    }
+}
@@ -0,0 +1,129 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fakezone.fakezone.FakezoneApplication;
+
+import DomainLayer.Enums.OrderState;
+import DomainLayer.Enums.PaymentMethod;
+import DomainLayer.Interfaces.IOrder;
+import DomainLayer.Interfaces.IOrderRepository;
+import DomainLayer.Model.Order;
+import DomainLayer.Model.OrderedProduct;
+import DomainLayer.Model.ProductSalesDay;
+import DomainLayer.Model.StoreBuyerDay;
+import DomainLayer.Model.StoreSalesDay;
+import DomainLayer.Model.helpers.ProductSalesTotal;
+import InfrastructureLayer.Repositories.SalesRollupRepository;
+
+@SpringBootTest(classes = FakezoneApplication.class)
+public class SalesRollupRepositoryTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Autowired
+    private SalesRollupRepository repository;
+
+    @Autowired
+    private IOrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        repository.clearAllData();
+    }
+
+    private static StoreSalesDay storeDay(int storeId, LocalDate date, double revenue, long units, long orders) {
+        StoreSalesDay day = new StoreSalesDay(storeId, date);
+        day.add(revenue, units, orders, 0);
+        return day;
+    }
+
+    private static ProductSalesDay productDay(int storeId, LocalDate date, int productId, String name, double revenue, long units) {
+        ProductSalesDay day = new ProductSalesDay(storeId, date, productId, name);
+        day.add(name, revenue, units, 1);
+        return day;
+    }
+
+    @Test
+    void givenTwoBatches_WhenAddSales_ThenDayRowsAccumulate() {
+        repository.addSales(List.of(storeDay(1, DAY, 30.0, 3, 2)), List.of(productDay(1, DAY, 100, "Mug", 30.0, 3)),
+                List.of(new StoreBuyerDay(1, DAY, 7)), List.of());
+        repository.addSales(List.of(storeDay(1, DAY, 10.0, 1, 1)), List.of(productDay(1, DAY, 100, "Big Mug", 10.0, 1)),
+                List.of(new StoreBuyerDay(1, DAY, 7), new StoreBuyerDay(1, DAY, 8)), List.of());
+
+        List<StoreSalesDay> days = repository.getStoreSalesDays(1, DAY, DAY);
+        assertEquals(1, days.size());
+        assertEquals(40.0, days.get(0).getRevenue(), 1e-9);
+        assertEquals(4, days.get(0).getUnits());
+        assertEquals(3, days.get(0).getOrderCount());
+        assertEquals(2, days.get(0).getBuyerCount()); // user 7 counted once
+
+        List<ProductSalesTotal> products = repository.getTopProducts(1, DAY, DAY, 10);
+        assertEquals(1, products.size());
+        assertEquals("Big Mug", products.get(0).getProductName());
+        assertEquals(4, products.get(0).getUnits());
+        assertEquals(2, products.get(0).getOrderCount());
+    }
+
+    @Test
+    void givenSalesOnSeveralDays_WhenQueryRange_ThenOnlyDaysInRangeAndDistinctBuyers() {
+        repository.addSales(
+                List.of(storeDay(1, DAY, 10.0, 1, 1), storeDay(1, DAY.plusDays(1), 20.0, 2, 1),
+                        storeDay(1, DAY.plusDays(5), 50.0, 5, 1), storeDay(2, DAY, 99.0, 9, 1)),
+                List.of(productDay(1, DAY, 100, "Mug", 10.0, 1), productDay(1, DAY.plusDays(1), 101, "Tea", 20.0, 2),
+                        productDay(1, DAY.plusDays(5), 102, "Pot", 50.0, 5)),
+                List.of(new StoreBuyerDay(1, DAY, 7), new StoreBuyerDay(1, DAY.plusDays(1), 7),
+                        new StoreBuyerDay(1, DAY.plusDays(5), 8), new StoreBuyerDay(2, DAY, 9)), List.of());
+
+        List<StoreSalesDay> days = repository.getStoreSalesDays(1, DAY, DAY.plusDays(1));
+        assertEquals(List.of(DAY, DAY.plusDays(1)), days.stream().map(StoreSalesDay::getSalesDate).toList());
+        assertEquals(1, repository.countBuyers(1, DAY, DAY.plusDays(1)));
+        assertEquals(2, repository.countBuyers(1, DAY, DAY.plusDays(5)));
+
+        List<ProductSalesTotal> top = repository.getTopProducts(1, DAY, DAY.plusDays(5), 2);
+        assertEquals(List.of(102, 101), top.stream().map(ProductSalesTotal::getProductId).toList());
+        assertTrue(repository.getStoreSalesDays(3, DAY, DAY.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void givenPendingOrders_WhenRolledUp_ThenRemovedInTheSameWrite() {
+        repository.addPendingOrders(List.of(11, 12, 13));
+        assertEquals(1, repository.recordFailedAttempt(13));
+        assertEquals(2, repository.recordFailedAttempt(13));
+
+        assertEquals(List.of(11, 12), repository.getPendingOrderIds(10, 2)); // 13 failed twice
+        assertEquals(List.of(11), repository.getPendingOrderIds(1, 3));
+
+        repository.addSales(List.of(storeDay(1, DAY, 10.0, 1, 1)), List.of(), List.of(), List.of(11, 12));
+
+        assertEquals(List.of(13), repository.getPendingOrderIds(10, 3));
+        assertEquals(1, repository.countPendingOrders());
+    }
+
+    @Test
+    void givenOrdersNeverRolledUp_WhenBackfill_ThenQueuedOnce() {
+        List<OrderedProduct> products = new ArrayList<>(List.of(new OrderedProduct(100, "Mug", 10.0, 2)));
+        Order order = new Order(7, 1, OrderState.SHIPPED, products, "Main St", PaymentMethod.CREDIT_CARD, 20.0, 1, 1);
+        orderRepository.addOrder(order);
+        try {
+            assertTrue(repository.backfillPendingOrders() >= 1);
+            assertTrue(repository.getPendingOrderIds(Integer.MAX_VALUE, 3).contains(order.getId()));
+            assertEquals(0, repository.backfillPendingOrders()); // already queued
+
+            List<IOrder> orders = repository.getOrders(List.of(order.getId(), -1));
+            assertEquals(1, orders.size());
+            assertEquals(2, orders.get(0).getProducts().get(0).getQuantity()); // products loaded with the order
+        } finally {
+            orderRepository.deleteOrder(order.getId());
+        }
+    }
+}
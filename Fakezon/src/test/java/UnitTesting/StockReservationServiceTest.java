@@ -0,0 +1,85 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import ApplicationLayer.Services.StockReservationService;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.StoreProductKey;
+
+public class StockReservationServiceTest {
+
+    private IStoreRepository storeRepository;
+    private StockReservationService stockReservation;
+
+    @BeforeEach
+    void setUp() {
+        storeRepository = mock(IStoreRepository.class);
+        stockReservation = new StockReservationService(storeRepository);
+    }
+
+    @Test
+    void reserve_AllLinesAvailable_AllReserved() {
+        when(storeRepository.decrementStockIfAvailable(anyInt(), anyInt(), anyInt())).thenReturn(true);
+        Map<Integer, Map<Integer, Integer>> cart = Map.of(1, Map.of(10, 2, 11, 1), 2, Map.of(20, 3));
+
+        Map<StoreProductKey, Boolean> result = stockReservation.reserve(cart);
+
+        assertEquals(3, result.size());
+        assertTrue(result.values().stream().allMatch(Boolean::booleanValue));
+        verify(storeRepository).decrementStockIfAvailable(1, 10, 2);
+        verify(storeRepository).decrementStockIfAvailable(1, 11, 1);
+        verify(storeRepository).decrementStockIfAvailable(2, 20, 3);
+        verify(storeRepository, never()).incrementStock(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void reserve_OneLineOutOfStock_ReleasesReservedLines() {
+        when(storeRepository.decrementStockIfAvailable(1, 10, 2)).thenReturn(true);
+        when(storeRepository.decrementStockIfAvailable(2, 20, 3)).thenReturn(false);
+        Map<Integer, Map<Integer, Integer>> cart = Map.of(1, Map.of(10, 2), 2, Map.of(20, 3));
+
+        Map<StoreProductKey, Boolean> result = stockReservation.reserve(cart);
+
+        assertTrue(result.get(new StoreProductKey(1, 10)));
+        assertFalse(result.get(new StoreProductKey(2, 20)));
+        verify(storeRepository).incrementStock(1, 10, 2);
+        verify(storeRepository, never()).incrementStock(2, 20, 3);
+    }
+
+    @Test
+    void reserve_LinesLockedInStoreThenProductOrder() {
+        when(storeRepository.decrementStockIfAvailable(anyInt(), anyInt(), anyInt())).thenReturn(true);
+        Map<Integer, Map<Integer, Integer>> cart = new HashMap<>();
+        cart.put(3, Map.of(5, 1));
+        cart.put(1, Map.of(9, 1, 2, 1));
+
+        stockReservation.reserve(cart);
+
+        InOrder inOrder = inOrder(storeRepository);
+        inOrder.verify(storeRepository).decrementStockIfAvailable(1, 2, 1);
+        inOrder.verify(storeRepository).decrementStockIfAvailable(1, 9, 1);
+        inOrder.verify(storeRepository).decrementStockIfAvailable(3, 5, 1);
+    }
+
+    @Test
+    void reserve_NonPositiveQuantity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> stockReservation.reserve(Map.of(1, Map.of(10, 0))));
+    }
+
+    @Test
+    void release_IncrementsEveryLine() {
+        stockReservation.release(Map.of(1, Map.of(10, 2), 2, Map.of(20, 3)));
+
+        verify(storeRepository).incrementStock(1, 10, 2);
+        verify(storeRepository).incrementStock(2, 20, 3);
+    }
+}
@@ -1,5 +1,6 @@
 package UnitTesting;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -16,6 +18,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,6 +33,7 @@ import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Interfaces.ISystemService;
@@ -382,6 +386,32 @@ class StoreControllerTest {
         verify(systemService, times(1)).getTopRatedProducts(limit);
     }
 
+    @Test
+    void testGetTopRatedStores_Success() {
+        int limit = 3;
+        String token = "valid-token";
+        List<StoreDTO> stores = List.of(mock(StoreDTO.class));
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.getTopRatedStores(limit))
+                .thenReturn(new Response<>(stores, "Success", true, null, null));
+
+        ResponseEntity<Response<List<StoreDTO>>> response = storeController.getTopRatedStores(limit, token);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(stores, response.getBody().getData());
+        verify(systemService, times(1)).getTopRatedStores(limit);
+    }
+
+    @Test
+    void testGetTopRatedStores_InvalidToken() {
+        when(authenticatorAdapter.isValid("invalid-token")).thenReturn(false);
+
+        ResponseEntity<Response<List<StoreDTO>>> response = storeController.getTopRatedStores(3, "invalid-token");
+
+        assertEquals(401, response.getStatusCodeValue());
+        verify(systemService, never()).getTopRatedStores(anyInt());
+    }
+
     @Test
     void testGetTopRatedProducts_InvalidToken() {
         int limit = 5;
@@ -1512,6 +1542,65 @@ class StoreControllerTest {
         verify(systemService, times(1)).getAllStoreOrders(storeId, userId);
     }
     
+    @Test
+    void testGetStoreOrders_Success() {
+        int storeId = 1;
+        int userId = 1;
+        String token = "valid-token";
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.getAllStoreOrders(storeId, userId, 2, 20))
+                .thenReturn(new Response<>(List.of(), "success", true, null, null));
+    
+        ResponseEntity<Response<List<OrderDTO>>> response = storeController.getStoreOrders(storeId, userId, 2, 20, token);
+    
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(response.getBody().isSuccess());
+        verify(systemService, never()).getAllStoreOrders(storeId, userId);
+    }
+    
+    @Test
+    void testGetStoreOrders_InvalidPage() {
+        int storeId = 1;
+        int userId = 1;
+        String token = "valid-token";
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.getAllStoreOrders(storeId, userId, 0, 500))
+                .thenReturn(new Response<>(null, "Page size must be between 1 and 100", false, ErrorType.INVALID_INPUT, null));
+    
+        ResponseEntity<Response<List<OrderDTO>>> response = storeController.getStoreOrders(storeId, userId, 0, 500, token);
+    
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals(ErrorType.INVALID_INPUT, response.getBody().getErrorType());
+    }
+    
+    @Test
+    void testGetStoreSales_Success() {
+        int storeId = 1;
+        int userId = 1;
+        String token = "valid-token";
+        LocalDate from = LocalDate.of(2025, 3, 1), to = LocalDate.of(2025, 3, 31);
+        StoreSalesDTO sales = new StoreSalesDTO(storeId, from, to, 60.0, 7, 4, 2, List.of(), List.of());
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+        when(systemService.getStoreSales(storeId, userId, from, to))
+                .thenReturn(new Response<>(sales, "success", true, null, null));
+    
+        ResponseEntity<Response<StoreSalesDTO>> response = storeController.getStoreSales(storeId, userId, from, to, token);
+    
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(sales, response.getBody().getData());
+    }
+    
+    @Test
+    void testGetStoreSales_InvalidToken() {
+        String token = "invalid-token";
+        when(authenticatorAdapter.isValid(token)).thenReturn(false);
+    
+        ResponseEntity<Response<StoreSalesDTO>> response = storeController.getStoreSales(1, 1, LocalDate.now(), LocalDate.now(), token);
+    
+        assertEquals(401, response.getStatusCodeValue());
+        verify(systemService, never()).getStoreSales(anyInt(), anyInt(), any(), any());
+    }
+    
     @Test
     void testGetAllStoreOrders_ExceptionHandling() {
         int storeId = 1;
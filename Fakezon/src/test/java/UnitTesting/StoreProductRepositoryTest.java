@@ -0,0 +1,131 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fakezone.fakezone.FakezoneApplication;
+
+import ApplicationLayer.Enums.PCategory;
+import DomainLayer.Enums.StoreFetchProfile;
+import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.Model.Store;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Model.helpers.StoreProductView;
+import InfrastructureLayer.Repositories.StoreProductRepository;
+
+@SpringBootTest(classes = FakezoneApplication.class)
+public class StoreProductRepositoryTest {
+
+    @Autowired
+    private StoreProductRepository repository;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int storeA;
+    private int storeB;
+
+    @BeforeEach
+    void setUp() {
+        storeRepository.clearAllData();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        storeA = transaction.execute(status -> store("Store A", 1, 101, 102).getId());
+        storeB = transaction.execute(status -> {
+            Store store = store("Store B", 2, 201);
+            store.addStoreProductRating(5, 201, 4.0, "good");
+            store.closeStore(2);
+            storeRepository.save(store);
+            return store.getId();
+        });
+    }
+
+    private Store store(String name, int founder, int... productIds) {
+        Store store = new Store(name, founder, event -> { });
+        storeRepository.addStore(store); // products are keyed by the store ID, so it needs one first
+        for (int productId : productIds) {
+            store.addStoreProduct(founder, productId, "product " + productId, productId / 10.0, productId % 7, PCategory.BOOKS);
+        }
+        storeRepository.save(store);
+        return store;
+    }
+
+    @Test
+    void givenStoreProduct_WhenFindByKey_ThenRowIsReturned() {
+        StoreProductView view = repository.findByKey(storeA, 102);
+
+        assertEquals(102, view.getProductId());
+        assertEquals(storeA, view.getStoreId());
+        assertEquals("product 102", view.getName());
+        assertEquals(10.2, view.getBasePrice(), 1e-9);
+        assertEquals(102 % 7, view.getQuantity());
+        assertEquals(PCategory.BOOKS, view.getCategory());
+        assertTrue(Double.isNaN(view.getAverageRating())); // unrated, as StoreProduct reports it
+    }
+
+    @Test
+    void givenProductOfAnotherStore_WhenFindByKey_ThenNull() {
+        assertNull(repository.findByKey(storeA, 201));
+        assertNull(repository.findByKey(storeA, 999));
+    }
+
+    @Test
+    void givenKeysAcrossStores_WhenFindAllByKeys_ThenOnlyExistingPairsAreReturned() {
+        Map<StoreProductKey, StoreProductView> views = repository.findAllByKeys(List.of(
+                new StoreProductKey(storeA, 101),
+                new StoreProductKey(storeB, 201),
+                new StoreProductKey(storeB, 101), // product of store A asked for under store B
+                new StoreProductKey(storeA, 999)));
+
+        assertEquals(2, views.size());
+        assertEquals("product 101", views.get(new StoreProductKey(storeA, 101)).getName());
+        assertEquals(4.0, views.get(new StoreProductKey(storeB, 201)).getAverageRating(), 1e-9);
+        assertTrue(repository.findAllByKeys(List.of()).isEmpty());
+    }
+
+    @Test
+    void givenStores_WhenIsStoreOpen_ThenFlagOrNullForUnknown() {
+        assertTrue(repository.isStoreOpen(storeA));
+        assertFalse(repository.isStoreOpen(storeB));
+        assertNull(repository.isStoreOpen(storeB + 1000));
+    }
+
+    @Test
+    void givenCachedRows_WhenEvicted_ThenTheNextReadSeesTheWrite() {
+        repository.evictAll();
+        assertEquals(102 % 7, repository.findByKey(storeA, 102).getQuantity());
+        assertTrue(repository.isStoreOpen(storeA));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Store store = storeRepository.findById(storeA, StoreFetchProfile.PRODUCTS);
+            store.setPublisher(event -> { });
+            store.editStoreProduct(1, 102, "product 102", 1.0, 40);
+            store.closeStore(1);
+            storeRepository.save(store);
+        });
+        assertEquals(10.2, repository.findByKey(storeA, 102).getBasePrice(), 1e-9); // still cached
+        StoreProductKey key = new StoreProductKey(storeA, 102);
+        assertEquals(40, repository.findAllByKeys(List.of(key)).get(key).getQuantity()); // the cart read never is
+
+        repository.evictStore(storeA);
+
+        assertEquals(1.0, repository.findByKey(storeA, 102).getBasePrice(), 1e-9);
+        assertEquals(40, repository.findByKey(storeA, 102).getQuantity());
+        assertFalse(repository.isStoreOpen(storeA));
+        assertTrue(repository.getProductCache().getHitCount() > 0);
+    }
+}
@@ -85,4 +85,18 @@ class StoreProductTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> product.setQuantity(-1));
         assertEquals("Quantity cannot be negative", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRatingTotals_FollowUpdatedRatings() {
+        StoreProduct product = new StoreProduct(7, 70, "TotalsProduct", 10.0, 1, PCategory.ELECTRONICS);
+        assertTrue(Double.isNaN(product.getAverageRating()));
+
+        product.addRating(1, 4.0, "Nice");
+        product.addRating(2, 2.0, "Bad");
+        product.addRating(2, 5.0, "Changed my mind");
+
+        assertEquals(2, product.getRatingCount());
+        assertEquals(9.0, product.getRatingSum());
+        assertEquals(4.5, product.getAverageRating());
+    }
+}
@@ -3,22 +3,33 @@ package UnitTesting;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
 
+import ApplicationLayer.Services.StockReservationService;
 import ApplicationLayer.Services.StoreService;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.Enums.PCategory;
+import DomainLayer.Model.StoreProduct;
+import DomainLayer.Model.StoreProductKey;
+import DomainLayer.Enums.StoreFetchProfile;
 import DomainLayer.Enums.StoreManagerPermission;
 import DomainLayer.IRepository.IStoreRepository;
+import DomainLayer.IRepository.IStoreProductRepository;
+import DomainLayer.Model.Cart;
 import DomainLayer.Model.Store;
+import DomainLayer.Model.helpers.StoreProductView;
 
 public class StoreServiceTest {
 
@@ -33,12 +44,17 @@ public class StoreServiceTest {
         storeService = new StoreService(storeRepository, eventPublisher);
     }
 
+    private StoreService withReadRepository(IStoreProductRepository reads) {
+        return new StoreService(storeRepository, eventPublisher, null, new StockReservationService(storeRepository),
+                Runnable::run, reads, null);
+    }
+
     @Test
     void testViewStore_Success() {
         // Arrange
         int storeId = 1;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
         when(mockStore.getId()).thenReturn(storeId);
         when(mockStore.getName()).thenReturn("Test Store");
         when(mockStore.getStoreFounderID()).thenReturn(10);
@@ -56,14 +72,14 @@ public class StoreServiceTest {
         assertEquals("Test Store", result.getName());
         assertEquals(10, result.getFounderId());
         assertTrue(result.isOpen());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
     void testViewStore_StoreNotFound_ThrowsException() {
         // Arrange
         int storeId = 999;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -71,7 +87,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
@@ -226,13 +242,13 @@ public class StoreServiceTest {
         int storeId = 1;
         int requesterId = 10;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
 
         // Act
         storeService.closeStore(storeId, requesterId);
 
         // Assert
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).closeStore(requesterId);
         verify(storeRepository, times(1)).save(mockStore);
     }
@@ -242,7 +258,7 @@ public class StoreServiceTest {
         // Arrange
         int storeId = 999;
         int requesterId = 10;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -250,7 +266,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(storeRepository, never()).save(any(Store.class));
     }
 
@@ -260,13 +276,13 @@ public class StoreServiceTest {
         int storeId = 1;
         int adminId = 100;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
 
         // Act
         storeService.closeStoreByAdmin(storeId, adminId);
 
         // Assert
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).closeStoreByAdmin(adminId);
         verify(storeRepository, times(1)).save(mockStore);
     }
@@ -276,7 +292,7 @@ public class StoreServiceTest {
         // Arrange
         int storeId = 999;
         int adminId = 100;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -284,7 +300,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(storeRepository, never()).save(any(Store.class));
     }
 
@@ -295,13 +311,13 @@ public class StoreServiceTest {
         int requesterId = 10;
         int newOwnerId = 20;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
 
         // Act
         storeService.addStoreOwner(storeId, requesterId, newOwnerId);
 
         // Assert
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).addStoreOwner(requesterId, newOwnerId);
         verify(storeRepository, times(1)).save(mockStore);
     }
@@ -312,7 +328,7 @@ public class StoreServiceTest {
         int storeId = 999;
         int requesterId = 10;
         int newOwnerId = 20;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -320,7 +336,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(storeRepository, never()).save(any(Store.class));
     }
 
@@ -331,7 +347,7 @@ public class StoreServiceTest {
         int requesterId = 10;
         Store mockStore = mock(Store.class);
         List<Integer> expectedOwners = List.of(10, 20, 30);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
         when(mockStore.getStoreOwners(requesterId)).thenReturn(expectedOwners);
 
         // Act
@@ -340,7 +356,7 @@ public class StoreServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedOwners, result);
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).getStoreOwners(requesterId);
     }
 
@@ -349,7 +365,7 @@ public class StoreServiceTest {
         // Arrange
         int storeId = 999;
         int requesterId = 10;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -357,7 +373,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
@@ -368,7 +384,7 @@ public class StoreServiceTest {
         Store mockStore = mock(Store.class);
         HashMap<Integer, List<StoreManagerPermission>> expectedManagers = new HashMap<>();
         expectedManagers.put(30, List.of(StoreManagerPermission.INVENTORY));
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
         when(mockStore.getStoreManagers(requesterId)).thenReturn(expectedManagers);
 
         // Act
@@ -377,7 +393,7 @@ public class StoreServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedManagers, result);
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).getStoreManagers(requesterId);
     }
 
@@ -386,7 +402,7 @@ public class StoreServiceTest {
         // Arrange
         int storeId = 999;
         int requesterId = 10;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -394,7 +410,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
@@ -410,7 +426,7 @@ public class StoreServiceTest {
         Store mockStore = mock(Store.class);
         StoreProductDTO expectedProductDTO = mock(StoreProductDTO.class);
         
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
         when(mockStore.addStoreProduct(requesterId, productId, name, basePrice, quantity, category))
                 .thenReturn(expectedProductDTO);
 
@@ -420,7 +436,7 @@ public class StoreServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedProductDTO, result);
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).addStoreProduct(requesterId, productId, name, basePrice, quantity, category);
         verify(storeRepository, times(1)).save(mockStore);
     }
@@ -436,7 +452,7 @@ public class StoreServiceTest {
         int quantity = 50;
         PCategory category = PCategory.ELECTRONICS;
         
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -444,7 +460,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(storeRepository, never()).save(any(Store.class));
     }
 
@@ -453,7 +469,7 @@ public class StoreServiceTest {
         // Arrange
         int storeId = 1;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
         when(mockStore.isOpen()).thenReturn(true);
 
         // Act
@@ -461,7 +477,7 @@ public class StoreServiceTest {
 
         // Assert
         assertTrue(result);
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).isOpen();
     }
 
@@ -469,7 +485,7 @@ public class StoreServiceTest {
     void testIsStoreOpen_StoreNotFound_ThrowsException() {
         // Arrange
         int storeId = 999;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -477,7 +493,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
     }
 
     @Test
@@ -487,13 +503,13 @@ public class StoreServiceTest {
         int requesterId = 10;
         int ownerId = 20;
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
 
         // Act
         storeService.removeStoreOwner(storeId, requesterId, ownerId);
 
         // Assert
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).removeStoreOwner(requesterId, ownerId);
         verify(storeRepository, times(1)).save(mockStore);
     }
@@ -504,7 +520,7 @@ public class StoreServiceTest {
         int storeId = 999;
         int requesterId = 10;
         int ownerId = 20;
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -512,7 +528,7 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(storeRepository, never()).save(any(Store.class));
     }
 
@@ -524,15 +540,16 @@ public class StoreServiceTest {
         double rating = 4.5;
         String comment = "Great store!";
         Store mockStore = mock(Store.class);
-        when(storeRepository.findById(storeId)).thenReturn(mockStore);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(mockStore);
 
         // Act
         storeService.addStoreRating(storeId, userId, rating, comment);
 
         // Assert
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
         verify(mockStore, times(1)).addRating(userId, rating, comment);
         verify(storeRepository, times(1)).save(mockStore);
+        verify(storeRepository, times(1)).updateStoreRanking(eq(storeId), anyDouble());
     }
 
     @Test
@@ -542,7 +559,7 @@ public class StoreServiceTest {
         int userId = 10;
         double rating = 4.5;
         String comment = "Great store!";
-        when(storeRepository.findById(storeId)).thenReturn(null);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -550,7 +567,283 @@ public class StoreServiceTest {
         });
 
         assertEquals("Store not found", exception.getMessage());
-        verify(storeRepository, times(1)).findById(storeId);
+        verify(storeRepository, times(1)).findById(eq(storeId), any(StoreFetchProfile.class));
+        verify(storeRepository, never()).save(any(Store.class));
+    }
+
+    @Test
+    void testDecrementProductsInStores_ReservesThroughRepository_WithoutSavingStore() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher, storeId);
+        store.addStoreProduct(10, 100, "Reserved", 20.0, 5, PCategory.BOOKS);
+        when(storeRepository.findAllById(eq(List.of(storeId)), any(StoreFetchProfile.class))).thenReturn(List.of(store));
+        when(storeRepository.decrementStockIfAvailable(storeId, 100, 2)).thenReturn(true);
+
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = storeService.decrementProductsInStores(10,
+                Map.of(storeId, Map.of(100, 2)));
+
+        Map<StoreProductDTO, Boolean> lines = result.values().iterator().next();
+        assertTrue(lines.values().iterator().next());
+        assertEquals(2, lines.keySet().iterator().next().getQuantity());
+        verify(storeRepository).decrementStockIfAvailable(storeId, 100, 2);
+        verify(storeRepository, never()).save(any(Store.class));
+    }
+
+    @Test
+    void testDecrementProductsInStores_OutOfStock_MarksLineAndReleases() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher, storeId);
+        store.addStoreProduct(10, 100, "Reserved", 20.0, 5, PCategory.BOOKS);
+        store.addStoreProduct(10, 101, "Sold out", 20.0, 1, PCategory.BOOKS);
+        when(storeRepository.findAllById(eq(List.of(storeId)), any(StoreFetchProfile.class))).thenReturn(List.of(store));
+        when(storeRepository.decrementStockIfAvailable(storeId, 100, 2)).thenReturn(true);
+        when(storeRepository.decrementStockIfAvailable(storeId, 101, 3)).thenReturn(false);
+
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = storeService.decrementProductsInStores(10,
+                Map.of(storeId, Map.of(100, 2, 101, 3)));
+
+        Map<StoreProductDTO, Boolean> lines = result.values().iterator().next();
+        assertTrue(lines.entrySet().stream().anyMatch(e -> e.getKey().getProductId() == 101 && !e.getValue()));
+        verify(storeRepository).incrementStock(storeId, 100, 2);
+    }
+
+    @Test
+    void testDecrementProductsInStores_ProductNotInStore_Throws() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher, storeId);
+        when(storeRepository.findAllById(eq(List.of(storeId)), any(StoreFetchProfile.class))).thenReturn(List.of(store));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> storeService.decrementProductsInStores(10, Map.of(storeId, Map.of(100, 2))));
+        verify(storeRepository, never()).decrementStockIfAvailable(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testDecrementProductsInStores_AuctionNotWonOrStillOpen_Throws() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher, storeId);
+        store.addStoreProduct(10, 100, "Auctioned", 20.0, 5, PCategory.BOOKS);
+        store.addAuctionProduct(10, 100, 20.0, 60);
+        store.getAuctionProduct(100).addBid(7, 30.0);
+        when(storeRepository.findAllById(eq(List.of(storeId)), any(StoreFetchProfile.class))).thenReturn(List.of(store));
+
+        // the highest bidder of an open auction, and another user once it is over
+        assertThrows(IllegalArgumentException.class,
+                () -> storeService.decrementProductsInStores(7, Map.of(storeId, Map.of(100, 1))));
+        store.getAuctionProduct(100).setIsDone(true);
+        assertThrows(IllegalArgumentException.class,
+                () -> storeService.decrementProductsInStores(8, Map.of(storeId, Map.of(100, 1))));
+        verify(storeRepository, never()).decrementStockIfAvailable(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testDecrementProductsInStores_WonAuction_Reserved() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher, storeId);
+        store.addStoreProduct(10, 100, "Auctioned", 20.0, 5, PCategory.BOOKS);
+        store.addAuctionProduct(10, 100, 20.0, 60);
+        store.getAuctionProduct(100).addBid(7, 30.0);
+        store.getAuctionProduct(100).setIsDone(true);
+        when(storeRepository.findAllById(eq(List.of(storeId)), any(StoreFetchProfile.class))).thenReturn(List.of(store));
+        when(storeRepository.decrementStockIfAvailable(storeId, 100, 1)).thenReturn(true);
+
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = storeService.decrementProductsInStores(7,
+                Map.of(storeId, Map.of(100, 1)));
+
+        assertTrue(result.values().iterator().next().values().iterator().next());
+    }
+
+    @Test
+    void testDecrementProductsInStores_UnknownStore_Throws() {
+        when(storeRepository.findAllById(eq(List.of(1)), any(StoreFetchProfile.class))).thenReturn(List.of());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> storeService.decrementProductsInStores(10, Map.of(1, Map.of(100, 2))));
+
+        assertEquals("Store not found", exception.getMessage());
+        verify(storeRepository, never()).decrementStockIfAvailable(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testCalcAmount_LoadsAllStoresOnceAndPricesInParallel() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            StoreService parallelService = new StoreService(storeRepository, eventPublisher, null,
+                    new StockReservationService(storeRepository), pool);
+            Cart cart = new Cart();
+            List<Store> stores = new ArrayList<>();
+            for (int storeId = 1; storeId <= 5; storeId++) {
+                Store store = new Store("Store " + storeId, 10, eventPublisher, storeId);
+                store.addStoreProduct(10, 100 + storeId, "Product " + storeId, 10.0 * storeId, 5, PCategory.BOOKS);
+                stores.add(store);
+                cart.addProduct(storeId, 100 + storeId, 2);
+            }
+            when(storeRepository.findAllById(anyCollection(), any(StoreFetchProfile.class))).thenReturn(stores);
+
+            Map<Integer, Double> prices = parallelService.calcAmount(20, cart, LocalDate.of(2000, 1, 1));
+
+            assertEquals(5, prices.size());
+            for (int storeId = 1; storeId <= 5; storeId++) {
+                assertEquals(20.0 * storeId, prices.get(storeId), 1e-9);
+            }
+            verify(storeRepository, times(1)).findAllById(anyCollection(), any(StoreFetchProfile.class));
+            verify(storeRepository, never()).findById(anyInt(), any(StoreFetchProfile.class));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCalcAmount_BasketFails_ThrowsItsException() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            StoreService parallelService = new StoreService(storeRepository, eventPublisher, null,
+                    new StockReservationService(storeRepository), pool);
+            Store open = new Store("Open", 10, eventPublisher, 1);
+            open.addStoreProduct(10, 100, "Open product", 10.0, 5, PCategory.BOOKS);
+            Store closed = new Store("Closed", 10, eventPublisher, 2);
+            closed.addStoreProduct(10, 200, "Closed product", 10.0, 5, PCategory.BOOKS);
+            closed.closeStore(10);
+            Cart cart = new Cart();
+            cart.addProduct(1, 100, 1);
+            cart.addProduct(2, 200, 1);
+            when(storeRepository.findAllById(anyCollection(), any(StoreFetchProfile.class))).thenReturn(List.of(open, closed));
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> parallelService.calcAmount(20, cart, LocalDate.of(2000, 1, 1)));
+
+            assertEquals("Store is closed, can not purchase products", exception.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testConfirmProductsInStores_NoDeals_StoreNotSaved() {
+        int storeId = 1;
+        Store store = new Store("Reserve Store", 10, eventPublisher);
+        store.addStoreProduct(10, 100, "Reserved", 20.0, 5, PCategory.BOOKS);
+        when(storeRepository.findById(eq(storeId), any(StoreFetchProfile.class))).thenReturn(store);
+
+        storeService.confirmProductsInStores(20, Map.of(storeId, Map.of(100, 1)));
+
         verify(storeRepository, never()).save(any(Store.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testReturnProductsToStores_ReleasesStock() {
+        storeService.returnProductsToStores(20, Map.of(1, Map.of(100, 2)));
+
+        verify(storeRepository).incrementStock(1, 100, 2);
+    }
+
+    @Test
+    void testAddStoreProductRating_UpdatesRanking() {
+        Store store = new Store("Ranked Store", 10, eventPublisher, 5);
+        store.addStoreProduct(10, 50, "Ranked", 10.0, 3, PCategory.BOOKS);
+        when(storeRepository.findById(eq(5), any(StoreFetchProfile.class))).thenReturn(store);
+
+        storeService.addStoreProductRating(5, 50, 20, 4.0, "good");
+
+        verify(storeRepository).updateProductRanking(5, 50, 4.0);
+    }
+
+    @Test
+    void testGetTopRatedProducts_MapsRepositoryOrder() {
+        StoreProduct best = new StoreProduct(1, 1, "Best", 10.0, 1, PCategory.BOOKS);
+        best.addRating(1, 5.0, "");
+        StoreProduct unrated = new StoreProduct(2, 1, "Unrated", 10.0, 1, PCategory.BOOKS);
+        when(storeRepository.findTopRatedProducts(2)).thenReturn(List.of(best, unrated));
+
+        List<StoreProductDTO> top = storeService.getTopRatedProducts(2);
+
+        assertEquals(2, top.size());
+        assertEquals(1, top.get(0).getProductId());
+        assertEquals(5.0, top.get(0).getAverageRating());
+        assertTrue(Double.isNaN(top.get(1).getAverageRating()));
+    }
+
+    @Test
+    void testGetTopRatedStores_ListingsSkipPerUserRatings() {
+        Store store = mock(Store.class);
+        when(store.getId()).thenReturn(3);
+        when(store.getName()).thenReturn("Top");
+        when(store.getStoreProducts()).thenReturn(new HashMap<>());
+        when(store.getAverageRating()).thenReturn(4.8);
+        when(storeRepository.findTopRatedStores(1)).thenReturn(List.of(store));
+
+        List<StoreDTO> top = storeService.getTopRatedStores(1);
+
+        assertEquals(1, top.size());
+        assertEquals(4.8, top.get(0).getAverageRating());
+        verify(store, never()).getRatings();
+    }
+
+    @Test
+    void testGetProductFromStore_WithReadRepository_StoreNotLoaded() {
+        IStoreProductRepository reads = mock(IStoreProductRepository.class);
+        storeService = withReadRepository(reads);
+        when(reads.findByKey(1, 7)).thenReturn(new StoreProductView(7, 1, "Mug", 12.5, 3, PCategory.BOOKS, 9.0, 2));
+
+        StoreProductDTO product = storeService.getProductFromStore(7, 1);
+
+        assertEquals("Mug", product.getName());
+        assertEquals(3, product.getQuantity());
+        assertEquals(4.5, product.getAverageRating());
+        verify(storeRepository, never()).findById(anyInt(), any(StoreFetchProfile.class));
+    }
+
+    @Test
+    void testGetProductFromStore_WithReadRepository_TellsMissingStoreFromMissingProduct() {
+        IStoreProductRepository reads = mock(IStoreProductRepository.class);
+        storeService = withReadRepository(reads);
+        when(reads.isStoreOpen(1)).thenReturn(true);
+        when(reads.isStoreOpen(2)).thenReturn(null);
+
+        Exception noProduct = assertThrows(IllegalArgumentException.class, () -> storeService.getProductFromStore(7, 1));
+        Exception noStore = assertThrows(IllegalArgumentException.class, () -> storeService.getProductFromStore(7, 2));
+
+        assertTrue(noProduct.getMessage().contains("does not exist in store"));
+        assertEquals("Store not found", noStore.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> storeService.isStoreOpen(2));
+    }
+
+    @Test
+    void testCheckIfProductsInStores_WithReadRepository_OneLookupForTheCart() {
+        IStoreProductRepository reads = mock(IStoreProductRepository.class);
+        storeService = withReadRepository(reads);
+        Store store = mock(Store.class);
+        when(store.getId()).thenReturn(1);
+        when(store.getName()).thenReturn("Shop");
+        when(storeRepository.findAllById(anyCollection(), eq(StoreFetchProfile.HEADER))).thenReturn(List.of(store));
+        when(reads.findAllByKeys(anyCollection())).thenReturn(Map.of(
+                new StoreProductKey(1, 7), new StoreProductView(7, 1, "Mug", 12.5, 3, PCategory.BOOKS, 0, 0)));
+
+        Map<StoreDTO, Map<StoreProductDTO, Boolean>> result = storeService.checkIfProductsInStores(5, Map.of(1, Map.of(7, 5, 8, 1)));
+
+        Map<StoreProductDTO, Boolean> products = result.values().iterator().next();
+        assertEquals(1, products.size()); // product 8 is not in the store
+        StoreProductDTO mug = products.keySet().iterator().next();
+        assertEquals(3, mug.getQuantity()); // capped at the stock
+        assertFalse(products.get(mug));
+        assertEquals("Shop", result.keySet().iterator().next().getName());
+        verify(reads, times(1)).findAllByKeys(anyCollection());
+        verify(store, never()).checkIfProductsInStore(anyInt(), anyMap());
+    }
+
+    @Test
+    void testWrites_WithReadRepository_EvictWhatTheyChanged() {
+        IStoreProductRepository reads = mock(IStoreProductRepository.class);
+        storeService = withReadRepository(reads);
+        Store store = mock(Store.class);
+        when(storeRepository.findById(eq(1), any(StoreFetchProfile.class))).thenReturn(store);
+
+        storeService.updateProductInStore(1, 10, 7, "Mug", 12.5, 4);
+        storeService.closeStore(1, 10);
+        storeService.clearAllData();
+
+        verify(reads).evictProduct(1, 7);
+        verify(reads).evictStore(1);
+        verify(reads).evictAll();
+    }
+}
@@ -19,7 +19,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.locks.Condition;
 import org.springframework.context.ApplicationEventPublisher;
@@ -98,6 +97,18 @@ public class StoreTest {
         assertEquals(rating, store.getStoreRatingByUser(userId).getRating(), "Rating should be added successfully");
     }
 
+    @Test
+    void addRating_ReRating_ShouldKeepAverageConsistent() {
+        assertEquals(0, store.getAverageRating(), "Unrated store should average 0");
+
+        store.addRating(1, 4.0, "ok");
+        store.addRating(2, 2.0, "meh");
+        store.addRating(2, 5.0, "better now");
+
+        assertEquals(2, store.getRatingCount());
+        assertEquals(4.5, store.getAverageRating());
+    }
+
     @Test
     void addStoreProductRating_ValidRating_ShouldSucceed() {
         int userId = 1;
@@ -480,46 +491,6 @@ public class StoreTest {
                 "Product quantity should be increased after return");
     }
     
-    @Test
-    void decrementProductsInStore_ValidPurchase_ShouldSucceed() {
-        int userId = 1;
-        int productId = 101;
-        int originalQuantity = 20;
-        int purchaseQuantity = 5;
-    
-        store.addStoreProduct(founderId, productId, "Another Product", 15.0, originalQuantity, PCategory.ELECTRONICS);
-        
-        Map<Integer, Integer> toBuy = new HashMap<>();
-        toBuy.put(productId, purchaseQuantity);
-    
-        Map<StoreProductDTO, Boolean> result = store.decrementProductsInStore(userId, toBuy);
-    
-        StoreProduct updatedProduct = store.getStoreProduct(productId);
-    
-        assertEquals(originalQuantity - purchaseQuantity, updatedProduct.getQuantity(),
-                "Product quantity should decrease after purchase");
-        
-        StoreProductDTO dto = result.keySet().iterator().next();
-        assertEquals(purchaseQuantity, dto.getQuantity(), "DTO should reflect purchase quantity");
-        assertTrue(result.get(dto), "Should return true when full quantity was available and purchased");
-    }
-    
-    @Test
-    void decrementProductsInStore_ProductNotExist_ShouldThrowException() {
-        int userId = 1;
-        int nonExistentProductId = 999;
-    
-            Map<Integer, Integer> toBuy = new HashMap<>();
-            toBuy.put(nonExistentProductId, 1);
-        
-            Exception exception = assertThrows(IllegalArgumentException.class, () -> {
-                store.decrementProductsInStore(userId, toBuy);
-            });
-        
-            String expectedMessage = "Product with ID: " + nonExistentProductId + " does not exist";
-            assertTrue(exception.getMessage().contains(expectedMessage), "Exception message should indicate missing product");
-        }
-
     @Test
     void testStoreCtorWithId() {
         Store s = new Store("Another Store", founderId, publisher, 42);
@@ -670,6 +641,33 @@ public class StoreTest {
         assertTrue(store.canViewOrders(founderId));
     }
 
+    @Test
+    void testCanViewOrders_FollowsManagerPermissionsAndAppointer() {
+        int owner2 = 2222;
+        store.addStoreOwner(founderId, owner2);
+        store.acceptAssignment(owner2);
+        int viewer = 3333;
+        int stocker = 4444;
+        store.addStoreManager(owner2, viewer, List.of(StoreManagerPermission.VIEW_PURCHASES));
+        store.acceptAssignment(viewer);
+        store.addStoreManager(owner2, stocker, List.of(StoreManagerPermission.INVENTORY));
+        store.acceptAssignment(stocker);
+
+        assertTrue(store.canViewOrders(owner2));
+        assertTrue(store.canViewOrders(viewer));
+        assertFalse(store.canViewOrders(stocker));
+        assertFalse(store.canViewOrders(5555));
+
+        store.addManagerPermissions(owner2, stocker, List.of(StoreManagerPermission.VIEW_PURCHASES));
+        assertTrue(store.canViewOrders(stocker));
+
+        store.removeStoreOwner(founderId, owner2); // takes the managers owner2 appointed with it
+        assertFalse(store.canViewOrders(owner2));
+        assertFalse(store.canViewOrders(viewer));
+        assertFalse(store.canViewOrders(stocker));
+        assertTrue(store.getStoreManagers(founderId).isEmpty());
+    }
+
     @Test
     void testHandleReceivedHigherBid() {
         int productId = 600;
@@ -693,6 +691,27 @@ public class StoreTest {
         assertFalse(store.getStoreOwners(founderId).contains(owner2));
     }
 
+    @Test
+    void testRemoveStoreOwner_RemovedDescendantCanBeReappointed() {
+        int owner2 = 2222;
+        store.addStoreOwner(founderId, owner2);
+        store.acceptAssignment(owner2);
+        int manager = 3333;
+        store.addStoreManager(owner2, manager, List.of(StoreManagerPermission.INVENTORY));
+        store.acceptAssignment(manager);
+        store.removeStoreOwner(founderId, owner2);
+        assertFalse(store.isManager(manager));
+
+        store.addStoreManager(founderId, manager, List.of(StoreManagerPermission.VIEW_ROLES));
+        store.acceptAssignment(manager);
+        store.addManagerPermissions(founderId, manager, List.of(StoreManagerPermission.INVENTORY));
+
+        assertEquals(List.of(StoreManagerPermission.INVENTORY, StoreManagerPermission.VIEW_ROLES),
+                store.isManagerAndGetPerms(manager));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.removeStoreOwner(manager, owner2));
+    }
+
     @Test
     void testHandleAuctionEnd() {
         int productId = 700;
@@ -702,15 +721,6 @@ public class StoreTest {
         // This is private, so you can test via public API or use reflection if needed
     }
 
-    @Test
-    void testDecrementProductsInStore() {
-        int productId = 900;
-        store.addStoreProduct(founderId, productId, "Decrement", 10.0, 5, PCategory.ELECTRONICS);
-        Map<Integer, Integer> toBuy = Map.of(productId, 2);
-        Map<StoreProductDTO, Boolean> result = store.decrementProductsInStore(founderId, toBuy);
-        assertFalse(result.isEmpty());
-    }
-    
     @Test
     void testGetPendingOwners_PermissionChecks() {
         int newOwner = 12345;
@@ -774,31 +784,21 @@ public class StoreTest {
     }
     
     @Test
-    void testIsManagerAndGetPerms_ManagerExists_ReturnsCopy() throws Exception {
-        // 1) Inject directly into the private storeManagers map via reflection
-        Field managersField = Store.class.getDeclaredField("storeManagers");
-        managersField.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        Map<Integer, List<StoreManagerPermission>> managers =
-            (Map<Integer, List<StoreManagerPermission>>) managersField.get(store);
-
-        // Prepare and put a list for managerId
-        List<StoreManagerPermission> originalPerms =
-            new ArrayList<>(List.of(StoreManagerPermission.VIEW_PURCHASES, StoreManagerPermission.VIEW_ROLES));
-        managers.put(managerId, originalPerms);
+    void testIsManagerAndGetPerms_ManagerExists_ReturnsCopy() {
+        store.addStoreManager(founderId, managerId,
+            new ArrayList<>(List.of(StoreManagerPermission.VIEW_PURCHASES, StoreManagerPermission.VIEW_ROLES)));
+        store.acceptAssignment(managerId);
 
-        // 2) Call the method under test
         List<StoreManagerPermission> returned = store.isManagerAndGetPerms(managerId);
 
-        // 3) Verify we got back an equal list, but not the same instance
+        // Permissions come back in declaration order
         assertNotNull(returned, "Should not return null when manager exists");
-        assertEquals(originalPerms, returned, "Permissions should match what was stored");
-        assertNotSame(originalPerms, returned, "Should return a defensive copy, not the same list");
+        assertEquals(List.of(StoreManagerPermission.VIEW_ROLES, StoreManagerPermission.VIEW_PURCHASES), returned,
+            "Permissions should match what was stored");
 
-        // 4) Mutating the returned list must NOT affect the internal map
+        // Mutating the returned list must NOT affect the stored permissions
         returned.clear();
-        @SuppressWarnings("unchecked")
-        List<StoreManagerPermission> stillStored = managers.get(managerId);
+        List<StoreManagerPermission> stillStored = store.isManagerAndGetPerms(managerId);
         assertFalse(stillStored.isEmpty(), "Clearing the returned list must not clear the internal one");
     }
 
@@ -874,9 +874,20 @@ public class StoreTest {
     
         assertEquals(before, after, "Should not add discount if not owner or manager");
     }
-    
-}
-    
-    
-    
 
+    @Test
+    void calcAmount_DiscountFollowsPriceAndPolicyChanges() {
+        Cart cart = new Cart();
+        cart.addProduct(store.getId(), productId, 2);
+        Map<Integer, Integer> toBuy = Map.of(productId, 2);
+        LocalDate dob = LocalDate.of(2000, 1, 1);
+
+        assertEquals(200.0, store.calcAmount(1, toBuy, dob, cart), 1e-9);
+
+        store.addSimpleDiscountWithStoreScope(founderId, 10);
+        assertEquals(180.0, store.calcAmount(1, toBuy, dob, cart), 1e-9);
+
+        store.editStoreProduct(founderId, productId, "Test Product", 50.0, 5);
+        assertEquals(90.0, store.calcAmount(1, toBuy, dob, cart), 1e-9);
+    }
+}
@@ -0,0 +1,110 @@
+package UnitTesting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fakezone.fakezone.ui.SystemServiceGateway;
+
+import ApplicationLayer.Response;
+import ApplicationLayer.DTO.StoreDTO;
+import ApplicationLayer.DTO.StoreProductDTO;
+import ApplicationLayer.Enums.ErrorType;
+import ApplicationLayer.Interfaces.ISystemService;
+import ApplicationLayer.RequestDataTypes.PurchaseRequest;
+import DomainLayer.Enums.PaymentMethod;
+import InfrastructureLayer.Adapters.AuthenticatorAdapter;
+
+class SystemServiceGatewayTest {
+
+    @Mock
+    private ISystemService systemService;
+
+    @Mock
+    private AuthenticatorAdapter authenticatorAdapter;
+
+    private SystemServiceGateway gateway;
+
+    private final String token = "valid-token";
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        gateway = new SystemServiceGateway(systemService, authenticatorAdapter);
+        when(authenticatorAdapter.isValid(token)).thenReturn(true);
+    }
+
+    @Test
+    void testInvalidToken_ReturnsUnauthorizedWithoutCallingService() {
+        when(authenticatorAdapter.isValid("bad-token")).thenReturn(false);
+
+        Response<List<StoreProductDTO>> response = gateway.getTopRatedProducts("bad-token", 4);
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.UNAUTHORIZED, response.getErrorType());
+        assertEquals("Invalid token", response.getMessage());
+        verify(systemService, never()).getTopRatedProducts(anyInt());
+    }
+
+    @Test
+    void testValidToken_ReturnsServiceResponseAsIs() {
+        Response<StoreDTO> expected = new Response<>(null, "Store not found", false, ErrorType.INVALID_INPUT, null);
+        when(systemService.userAccessStore(7)).thenReturn(expected);
+
+        Response<StoreDTO> response = gateway.viewStore(token, 7);
+
+        assertSame(expected, response);
+    }
+
+    @Test
+    void testArgumentsAreMappedToServiceOrder() {
+        Response<Void> ok = new Response<>(null, "ok", true, null, null);
+        when(systemService.addToBasket(1, 30, 20, 2)).thenReturn(ok);
+        when(systemService.removeFromBasket(1, 30, 20)).thenReturn(ok);
+        when(systemService.getProductFromStore(30, 20)).thenReturn(new Response<>(null, "ok", true, null, null));
+
+        assertTrue(gateway.addToBasket(token, 1, 20, 30, 2).isSuccess());
+        assertTrue(gateway.removeFromBasket(token, 1, 20, 30).isSuccess());
+        assertTrue(gateway.getProductFromStore(token, 20, 30).isSuccess());
+    }
+
+    @Test
+    void testPurchaseCart_UnpacksRequest() {
+        LocalDate dob = LocalDate.of(2000, 1, 1);
+        PurchaseRequest request = new PurchaseRequest(1, "IL", dob, PaymentMethod.CREDIT_CARD, "standard",
+                "1234", "holder", "01/30", "123", "address", "recipient", "details");
+        when(systemService.purchaseCart(1, "IL", dob, PaymentMethod.CREDIT_CARD, "standard",
+                "1234", "holder", "01/30", "123", "address", "recipient", "details"))
+                .thenReturn(new Response<>("Cart purchased successfully", null, true, null, null));
+
+        Response<String> response = gateway.purchaseCart(token, request);
+
+        assertTrue(response.isSuccess());
+        assertEquals("Cart purchased successfully", response.getData());
+    }
+
+    @Test
+    void testServiceException_ReturnsInternalError() {
+        when(systemService.getCartFinalPrice(1, LocalDate.of(2000, 1, 1))).thenThrow(new RuntimeException("boom"));
+
+        Response<Double> response = gateway.getCartFinalPrice(token, 1, LocalDate.of(2000, 1, 1));
+
+        assertFalse(response.isSuccess());
+        assertNull(response.getData());
+        assertEquals(ErrorType.INTERNAL_ERROR, response.getErrorType());
+    }
+}
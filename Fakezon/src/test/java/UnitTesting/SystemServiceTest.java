@@ -2,6 +2,7 @@ package UnitTesting;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -14,11 +15,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,15 +35,18 @@ import ApplicationLayer.DTO.CartItemInfoDTO;
 import ApplicationLayer.DTO.OrderDTO;
 import ApplicationLayer.DTO.ProductDTO;
 import ApplicationLayer.DTO.ProductRatingDTO;
+import ApplicationLayer.DTO.ProductSearchResultDTO;
 import ApplicationLayer.DTO.StoreDTO;
 import ApplicationLayer.DTO.StoreProductDTO;
 import ApplicationLayer.DTO.StoreRolesDTO;
+import ApplicationLayer.DTO.StoreSalesDTO;
 import ApplicationLayer.DTO.UserDTO;
 import ApplicationLayer.Enums.ErrorType;
 import ApplicationLayer.Enums.PCategory;
 import ApplicationLayer.Interfaces.INotificationWebSocketHandler;
 import ApplicationLayer.Interfaces.IOrderService;
 import ApplicationLayer.Interfaces.IProductService;
+import ApplicationLayer.Interfaces.ISalesAnalyticsService;
 import ApplicationLayer.Interfaces.IStoreService;
 import ApplicationLayer.Interfaces.ISystemService;
 import ApplicationLayer.Interfaces.IUserService;
@@ -63,6 +69,7 @@ import DomainLayer.Model.StoreFounder;
 import DomainLayer.Model.StoreManager;
 import DomainLayer.Model.StoreOwner;
 import DomainLayer.Model.User;
+import DomainLayer.Model.helpers.ProductSearchCriteria;
 import InfrastructureLayer.Adapters.AuthenticatorAdapter;
 import InfrastructureLayer.Adapters.DeliveryAdapter;
 import InfrastructureLayer.Adapters.PaymentAdapter;
@@ -115,9 +122,9 @@ class SystemServiceTest {
         when(storeService.getProductFromStore(anyInt(), anyInt())).thenReturn(mock(StoreProductDTO.class));
         when(storeService.checkIfProductsInStores(eq(userId), any())).thenReturn(new HashMap<>());
         IPayment paymentService = mock(IPayment.class);
-        when(paymentService.pay(anyString(), anyString(), anyString(), anyString(), anyDouble(), anyInt())).thenReturn(12345);
+        when(paymentService.payAsync(anyString(), anyString(), anyString(), anyString(), anyDouble(), anyInt())).thenReturn(CompletableFuture.completedFuture(12345));
         IDelivery deliveryService = mock(IDelivery.class);
-        when(deliveryService.deliver(anyString(), anyString(), anyString(), anyString())).thenReturn(67890);
+        when(deliveryService.deliverAsync(anyString(), anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(67890));
 
         // inject mocks for payment and delivery
         systemService = new SystemService(storeService, userService, productService, orderService, deliveryService, null, paymentService, publisher, notificationWebSocketHandler);
@@ -128,6 +135,79 @@ class SystemServiceTest {
         assertEquals("Cart purchased successfully", response.getMessage());
     }
 
+    private Cart stubReservedCart(int userId) {
+        Cart cart = mock(Cart.class);
+        when(userService.getUserCart(userId)).thenReturn(cart);
+        when(cart.getAllProducts()).thenReturn(Map.of(1, Map.of(2, 1)));
+        when(userService.getAnyUserById(userId)).thenReturn(Optional.of(mock(DomainLayer.Model.User.class)));
+        when(storeService.calcAmount(eq(userId), eq(cart), any())).thenReturn(Map.of(1, 10.0));
+        when(storeService.decrementProductsInStores(eq(userId), any())).thenReturn(new HashMap<>());
+        return cart;
+    }
+
+    @Test
+    void testPurchaseCart_PaymentFailed_ReturnsProductsWithoutDelivering() {
+        int userId = 1;
+        stubReservedCart(userId);
+        IPayment paymentService = mock(IPayment.class);
+        when(paymentService.payAsync(anyString(), anyString(), anyString(), anyString(), anyDouble(), anyInt())).thenReturn(CompletableFuture.completedFuture(-1));
+        IDelivery deliveryService = mock(IDelivery.class);
+        systemService = new SystemService(storeService, userService, productService, orderService, deliveryService, null, paymentService, publisher, notificationWebSocketHandler);
+
+        Response<String> response = systemService.purchaseCart(userId, "IL", LocalDate.now(), PaymentMethod.CREDIT_CARD, "deliver", "1234", "Test", "12/25", "123", "address", "rec", "details");
+
+        assertFalse(response.isSuccess());
+        assertEquals("Payment failed", response.getMessage());
+        verify(storeService).returnProductsToStores(eq(userId), any());
+        verify(deliveryService, never()).deliverAsync(anyString(), anyString(), anyString(), anyString());
+        verify(orderService, never()).addOrderCart(any(), any(), anyInt(), anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testPurchaseCart_DeliveryFailed_RefundsAndReturnsProducts() {
+        int userId = 1;
+        stubReservedCart(userId);
+        IPayment paymentService = mock(IPayment.class);
+        when(paymentService.payAsync(anyString(), anyString(), anyString(), anyString(), anyDouble(), anyInt())).thenReturn(CompletableFuture.completedFuture(12345));
+        when(paymentService.refundAsync(12345)).thenReturn(CompletableFuture.completedFuture(1));
+        IDelivery deliveryService = mock(IDelivery.class);
+        when(deliveryService.deliverAsync(anyString(), anyString(), anyString(), anyString())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("timeout")));
+        systemService = new SystemService(storeService, userService, productService, orderService, deliveryService, null, paymentService, publisher, notificationWebSocketHandler);
+
+        Response<String> response = systemService.purchaseCart(userId, "IL", LocalDate.now(), PaymentMethod.CREDIT_CARD, "deliver", "1234", "Test", "12/25", "123", "address", "rec", "details");
+
+        assertFalse(response.isSuccess());
+        assertEquals("Delivery failed", response.getMessage());
+        verify(paymentService).refundAsync(12345);
+        verify(deliveryService, never()).cancelAsync(anyInt());
+        verify(storeService).returnProductsToStores(eq(userId), any());
+        verify(storeService, never()).confirmProductsInStores(anyInt(), any());
+        verify(userService, never()).clearUserCart(userId);
+    }
+
+    @Test
+    void testPurchaseCart_OrderFailed_CancelsDeliveryRefundsAndReturnsProducts() {
+        int userId = 1;
+        stubReservedCart(userId);
+        IPayment paymentService = mock(IPayment.class);
+        when(paymentService.payAsync(anyString(), anyString(), anyString(), anyString(), anyDouble(), anyInt())).thenReturn(CompletableFuture.completedFuture(12345));
+        when(paymentService.refundAsync(12345)).thenReturn(CompletableFuture.completedFuture(1));
+        IDelivery deliveryService = mock(IDelivery.class);
+        when(deliveryService.deliverAsync(anyString(), anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(67890));
+        when(deliveryService.cancelAsync(67890)).thenReturn(CompletableFuture.completedFuture(1));
+        doThrow(new RuntimeException("db down")).when(orderService).addOrderCart(any(), any(), anyInt(), anyString(), any(), anyInt(), anyInt());
+        systemService = new SystemService(storeService, userService, productService, orderService, deliveryService, null, paymentService, publisher, notificationWebSocketHandler);
+
+        Response<String> response = systemService.purchaseCart(userId, "IL", LocalDate.now(), PaymentMethod.CREDIT_CARD, "deliver", "1234", "Test", "12/25", "123", "address", "rec", "details");
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.INTERNAL_ERROR, response.getErrorType());
+        verify(deliveryService).cancelAsync(67890);
+        verify(paymentService).refundAsync(12345);
+        verify(storeService).returnProductsToStores(eq(userId), any());
+        verify(userService, never()).clearUserCart(userId);
+    }
+
     @Test
     void testPurchaseCart_CartEmpty() {
         int userId = 1;
@@ -1100,6 +1180,84 @@ class SystemServiceTest {
         assertEquals(1, response.getData().size());
         assertEquals("success", response.getMessage());
     }
+    @Test
+    void testGetAllStoreOrdersPage_Success() {
+        int storeId = 1, requesterId = 2;
+        List<IOrder> orders = List.of(mock(IOrder.class));
+        OrderDTO orderDTO = mock(OrderDTO.class);
+
+        when(storeService.canViewOrders(storeId, requesterId)).thenReturn(true);
+        when(orderService.getOrdersByStoreId(storeId, 3, 20)).thenReturn(orders);
+
+        SystemService spyService = spy((SystemService) systemService);
+        doReturn(orderDTO).when(spyService).createOrderDTO(any());
+
+        Response<List<OrderDTO>> response = spyService.getAllStoreOrders(storeId, requesterId, 3, 20);
+
+        assertTrue(response.isSuccess());
+        assertEquals(1, response.getData().size());
+        verify(orderService, never()).getOrdersByStoreId(storeId);
+    }
+
+    @Test
+    void testGetAllStoreOrdersPage_InvalidPageSize() {
+        int storeId = 1, requesterId = 2;
+        when(storeService.canViewOrders(storeId, requesterId)).thenReturn(true);
+        when(orderService.getOrdersByStoreId(storeId, 0, 500))
+                .thenThrow(new IllegalArgumentException("Page size must be between 1 and 100"));
+
+        Response<List<OrderDTO>> response = systemService.getAllStoreOrders(storeId, requesterId, 0, 500);
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.INVALID_INPUT, response.getErrorType());
+    }
+
+    @Test
+    void testGetStoreSales_Success() {
+        int storeId = 1, requesterId = 2;
+        LocalDate from = LocalDate.of(2025, 3, 1), to = LocalDate.of(2025, 3, 31);
+        ISalesAnalyticsService salesAnalytics = mock(ISalesAnalyticsService.class);
+        StoreSalesDTO sales = new StoreSalesDTO(storeId, from, to, 60.0, 7, 4, 2, List.of(), List.of());
+        when(storeService.canViewOrders(storeId, requesterId)).thenReturn(true);
+        when(salesAnalytics.getStoreSales(storeId, from, to, 10)).thenReturn(sales);
+        systemService = new SystemService(storeService, userService, productService, orderService, null, null, null, publisher, notificationWebSocketHandler, salesAnalytics);
+
+        Response<StoreSalesDTO> response = systemService.getStoreSales(storeId, requesterId, from, to);
+
+        assertTrue(response.isSuccess());
+        assertEquals(sales, response.getData());
+    }
+
+    @Test
+    void testGetStoreSales_PermissionDenied() {
+        int storeId = 1, requesterId = 2;
+        ISalesAnalyticsService salesAnalytics = mock(ISalesAnalyticsService.class);
+        when(storeService.canViewOrders(storeId, requesterId)).thenReturn(false);
+        systemService = new SystemService(storeService, userService, productService, orderService, null, null, null, publisher, notificationWebSocketHandler, salesAnalytics);
+
+        Response<StoreSalesDTO> response = systemService.getStoreSales(storeId, requesterId, LocalDate.now(), LocalDate.now());
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.INVALID_INPUT, response.getErrorType());
+        verify(salesAnalytics, never()).getStoreSales(anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetStoreSales_InvalidRange() {
+        int storeId = 1, requesterId = 2;
+        LocalDate from = LocalDate.of(2025, 3, 31), to = LocalDate.of(2025, 3, 1);
+        ISalesAnalyticsService salesAnalytics = mock(ISalesAnalyticsService.class);
+        when(storeService.canViewOrders(storeId, requesterId)).thenReturn(true);
+        when(salesAnalytics.getStoreSales(storeId, from, to, 10)).thenThrow(new IllegalArgumentException("Invalid date range"));
+        systemService = new SystemService(storeService, userService, productService, orderService, null, null, null, publisher, notificationWebSocketHandler, salesAnalytics);
+
+        Response<StoreSalesDTO> response = systemService.getStoreSales(storeId, requesterId, from, to);
+
+        assertFalse(response.isSuccess());
+        assertEquals("Invalid date range", response.getMessage());
+        assertEquals(ErrorType.INVALID_INPUT, response.getErrorType());
+    }
+
     @Test
     void testUpdateProductInStore_StoreClosed() {
         int storeId = 1, productId = 2, requesterId = 3, quantity = 5;
@@ -1698,5 +1856,33 @@ class SystemServiceTest {
         assertEquals(ErrorType.INTERNAL_ERROR, response.getErrorType());
     }
 
-}
+    @Test
+    void testSearchStoreProducts_Success() {
+        ProductSearchResultDTO result = new ProductSearchResultDTO(List.of(), 0, 10, 0, Map.of(), Map.of(), null, null);
+        when(storeService.searchStoreProducts(any(ProductSearchCriteria.class))).thenReturn(result);
+
+        Response<ProductSearchResultDTO> response = systemService.searchStoreProducts("lamp", "books", 1.0, 5.0, null, null, null, 0, 10);
+
+        assertTrue(response.isSuccess());
+        assertEquals(result, response.getData());
+        verify(storeService).searchStoreProducts(argThat(c -> c.getCategory() == PCategory.BOOKS && "lamp".equals(c.getKeyword())));
+    }
 
+    @Test
+    void testSearchStoreProducts_InvalidCategory() {
+        Response<ProductSearchResultDTO> response = systemService.searchStoreProducts(null, "NOT_A_CATEGORY", null, null, null, null, null, 0, 10);
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.INVALID_INPUT, response.getErrorType());
+        verify(storeService, never()).searchStoreProducts(any());
+    }
+
+    @Test
+    void testSearchStoreProducts_InvalidPriceRange() {
+        Response<ProductSearchResultDTO> response = systemService.searchStoreProducts(null, null, 10.0, 5.0, null, null, null, 0, 10);
+
+        assertFalse(response.isSuccess());
+        assertEquals(ErrorType.INVALID_INPUT, response.getErrorType());
+    }
+
+}
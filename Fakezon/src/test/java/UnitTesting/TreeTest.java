@@ -43,4 +43,32 @@ class TreeTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> tree.addNode(99, 2));
         assertTrue(exception.getMessage().contains("appointor id: 99 not in rolesTree"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRemoveNode_RemovesSubtreeFromLookup() {
+        Tree tree = new Tree(1);
+        tree.addNode(1, 2);
+        tree.addNode(2, 3);
+        tree.addNode(1, 4);
+
+        tree.removeNode(tree.getNode(1), tree.getNode(2));
+
+        assertNull(tree.getNode(2));
+        assertNull(tree.getNode(3));
+        assertNotNull(tree.getNode(4));
+        assertEquals(1, tree.getRoot().getChildren().size());
+    }
+
+    @Test
+    void testGetNode_AfterSetRoot_FindsNodesOfNewRoot() {
+        Tree tree = new Tree(1);
+        tree.addNode(1, 2);
+        Node root = new Node(5);
+        root.addChild(new Node(6));
+
+        tree.setRoot(root);
+
+        assertNull(tree.getNode(2));
+        assertEquals(6, tree.getNode(6).getId());
+    }
+}
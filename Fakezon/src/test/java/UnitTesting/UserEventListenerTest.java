@@ -15,7 +15,9 @@ import DomainLayer.Model.helpers.AuctionEvents.AuctionDeclinedBidEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionEndedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionFailedToOwnersEvent;
 import DomainLayer.Model.helpers.AuctionEvents.AuctionGotHigherBidEvent;
-import InfrastructureLayer.Adapters.NotificationWebSocketHandler;
+import ApplicationLayer.Interfaces.INotificationPipeline;
+import DomainLayer.Enums.MessageBox;
+import DomainLayer.Model.helpers.UserNotification;
 import ApplicationLayer.DTO.StoreProductDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,12 +41,14 @@ import static org.mockito.Mockito.*;
 public class UserEventListenerTest {
 
     private IUserRepository userRepository;
+    private INotificationPipeline notifications;
     private UserEventListener userEventListener;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(IUserRepository.class);
-        userEventListener = new UserEventListener(userRepository, new NotificationWebSocketHandler());
+        notifications = mock(INotificationPipeline.class);
+        userEventListener = new UserEventListener(userRepository, notifications);
     }
 
     @Test
@@ -70,9 +74,11 @@ public class UserEventListenerTest {
             fail("Sleep was interrupted");
         }
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser).addAssignmentMessage(messageCaptor.capture());
-        StoreMsg capturedMessage = messageCaptor.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications).submit(notificationCaptor.capture());
+        assertEquals(MessageBox.ASSIGNMENT, notificationCaptor.getValue().getBox());
+        assertFalse(notificationCaptor.getValue().isPush());
+        StoreMsg capturedMessage = notificationCaptor.getValue().getMessage();
 
         assertEquals(storeId, capturedMessage.getStoreId());
         assertEquals("Please approve or decline this role: " + roleName + " for store " + storeId, capturedMessage.getMessage());
@@ -116,13 +122,15 @@ public class UserEventListenerTest {
         userEventListener.handleClosingStore(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor1 = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser1).addMessageFromStore(messageCaptor1.capture());
-        StoreMsg capturedMessage1 = messageCaptor1.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications, times(2)).submit(notificationCaptor.capture());
+        List<UserNotification> sent = notificationCaptor.getAllValues();
+        StoreMsg capturedMessage1 = sent.get(0).getMessage();
         assertEquals(storeId, capturedMessage1.getStoreId());
         assertEquals("Store " + storeId + " is now closed.", capturedMessage1.getMessage());
 
-        verify(mockRegisteredUser2).addMessageFromStore(any()); // No message added to logged-in user
+        assertFalse(sent.get(0).isPush());
+        assertTrue(sent.get(1).isPush()); // only the logged in user gets a web socket frame
     }
 
     @Test
@@ -159,9 +167,11 @@ public class UserEventListenerTest {
         userEventListener.handleResponseFromStore(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser).addMessageFromStore(messageCaptor.capture());
-        StoreMsg capturedMessage = messageCaptor.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications).submit(notificationCaptor.capture());
+        assertEquals(MessageBox.STORE, notificationCaptor.getValue().getBox());
+        assertFalse(notificationCaptor.getValue().isPush());
+        StoreMsg capturedMessage = notificationCaptor.getValue().getMessage();
 
         assertEquals(storeId, capturedMessage.getStoreId());
         assertEquals(message, capturedMessage.getMessage());
@@ -222,23 +232,21 @@ public class UserEventListenerTest {
         when(mockRegisteredUser2.isLoggedIn()).thenReturn(true);
 
         List<Registered> users = Arrays.asList(mockRegisteredUser1, mockRegisteredUser2);
-        when(userRepository.UsersWithRolesInStoreId(storeId)).thenReturn(users);
-        HashMap<Integer, IRegisteredRole> map = new HashMap<>();
-        map.put(101, new StoreOwner());
-        when(mockRegisteredUser1.getAllRoles()).thenReturn(map);
-        when(mockRegisteredUser2.getAllRoles()).thenReturn(map);
+        when(userRepository.findByStoreIdAndRole(eq(storeId), anyCollection())).thenReturn(users);
         // Act
         userEventListener.handleAuctionEndedToOwnersEvent(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor1 = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser1).addMessageFromStore(messageCaptor1.capture());
-        StoreMsg capturedMessage1 = messageCaptor1.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications, times(2)).submit(notificationCaptor.capture());
+        List<UserNotification> sent = notificationCaptor.getAllValues();
+        StoreMsg capturedMessage1 = sent.get(0).getMessage();
         assertEquals(storeId, capturedMessage1.getStoreId());
         assertEquals("Auction ended for product " + productId + ". Highest bid was " + currentHighestBid +
                 " by user " + userIdHighestBid + ".", capturedMessage1.getMessage());
 
-        verify(mockRegisteredUser2).addMessageFromStore(any());
+        assertFalse(sent.get(0).isPush());
+        assertTrue(sent.get(1).isPush()); // only the logged in user gets a web socket frame
     }
 
     @Test
@@ -257,22 +265,20 @@ public class UserEventListenerTest {
         when(mockRegisteredUser2.isLoggedIn()).thenReturn(true);
 
         List<Registered> users = Arrays.asList(mockRegisteredUser1, mockRegisteredUser2);
-        when(userRepository.UsersWithRolesInStoreId(storeId)).thenReturn(users);
-        HashMap<Integer, IRegisteredRole> map = new HashMap<>();
-        map.put(101, new StoreOwner());
-        when(mockRegisteredUser1.getAllRoles()).thenReturn(map);
-        when(mockRegisteredUser2.getAllRoles()).thenReturn(map);
+        when(userRepository.findByStoreIdAndRole(eq(storeId), anyCollection())).thenReturn(users);
         // Act
         userEventListener.handleAuctionFailedToOwnersEvent(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor1 = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser1).addMessageFromStore(messageCaptor1.capture());
-        StoreMsg capturedMessage1 = messageCaptor1.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications, times(2)).submit(notificationCaptor.capture());
+        List<UserNotification> sent = notificationCaptor.getAllValues();
+        StoreMsg capturedMessage1 = sent.get(0).getMessage();
         assertEquals(storeId, capturedMessage1.getStoreId());
         assertEquals("Auction failed for product " + productId + ". Base price was " + basePrice + ". " + message, capturedMessage1.getMessage());
 
-        verify(mockRegisteredUser2).addMessageFromStore(any());
+        assertFalse(sent.get(0).isPush());
+        assertTrue(sent.get(1).isPush()); // only the logged in user gets a web socket frame
     }
 
     @Test
@@ -295,9 +301,11 @@ public class UserEventListenerTest {
         userEventListener.handleApprovedBidOnAuctionEvent(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser).addMessageFromStore(messageCaptor.capture());
-        StoreMsg capturedMessage = messageCaptor.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications).submit(notificationCaptor.capture());
+        assertEquals(MessageBox.STORE, notificationCaptor.getValue().getBox());
+        assertFalse(notificationCaptor.getValue().isPush());
+        StoreMsg capturedMessage = notificationCaptor.getValue().getMessage();
 
         assertEquals(storeId, capturedMessage.getStoreId());
         assertEquals("We are pleased to inform you that your bid has won the auction on product: " + productId + ", at a price of: " + currentHighestBid + "! The product has been added to your shopping cart, please purchase it as soon as possible.", capturedMessage.getMessage());
@@ -325,7 +333,7 @@ public class UserEventListenerTest {
         userEventListener.handleApprovedBidOnAuctionEvent(event);
 
         // Assert
-        verify(mockRegisteredUser).addMessageFromStore(any());
+        verify(notifications).submit(argThat(UserNotification::isPush));
         verify(mockRegisteredUser).addToBasketQuantity(anyInt(), anyInt(), anyInt());
     }
 
@@ -347,9 +355,11 @@ public class UserEventListenerTest {
         userEventListener.handleAuctionGotHigherBidEvent(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser).addMessageFromStore(messageCaptor.capture());
-        StoreMsg capturedMessage = messageCaptor.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications).submit(notificationCaptor.capture());
+        assertEquals(MessageBox.STORE, notificationCaptor.getValue().getBox());
+        assertFalse(notificationCaptor.getValue().isPush());
+        StoreMsg capturedMessage = notificationCaptor.getValue().getMessage();
 
         assertEquals(storeId, capturedMessage.getStoreId());
         assertTrue(capturedMessage.getMessage().contains("Your auction bid on product: " + productId + " was rejected due to a higher bid of: " + currentHighestBid + "."));
@@ -374,7 +384,7 @@ public class UserEventListenerTest {
         userEventListener.handleAuctionGotHigherBidEvent(event);
 
         // Assert
-        verify(mockRegisteredUser).addMessageFromStore(any());
+        verify(notifications).submit(argThat(UserNotification::isPush));
     }
 
     @Test
@@ -396,9 +406,11 @@ public class UserEventListenerTest {
         userEventListener.handleDeclinedBidOnAuctionEvent(event);
 
         // Assert
-        ArgumentCaptor<StoreMsg> messageCaptor = ArgumentCaptor.forClass(StoreMsg.class);
-        verify(mockRegisteredUser).addMessageFromStore(messageCaptor.capture());
-        StoreMsg capturedMessage = messageCaptor.getValue();
+        ArgumentCaptor<UserNotification> notificationCaptor = ArgumentCaptor.forClass(UserNotification.class);
+        verify(notifications).submit(notificationCaptor.capture());
+        assertEquals(MessageBox.STORE, notificationCaptor.getValue().getBox());
+        assertFalse(notificationCaptor.getValue().isPush());
+        StoreMsg capturedMessage = notificationCaptor.getValue().getMessage();
 
         assertEquals(storeId, capturedMessage.getStoreId());
         assertEquals("We regret to inform you that the offer for product: " + productId + " was declined because product is out of store", capturedMessage.getMessage());
@@ -423,6 +435,6 @@ public class UserEventListenerTest {
         userEventListener.handleDeclinedBidOnAuctionEvent(event);
 
         // Assert
-        verify(mockRegisteredUser).addMessageFromStore(any());
+        verify(notifications).submit(argThat(UserNotification::isPush));
     }
 }
\ No newline at end of file
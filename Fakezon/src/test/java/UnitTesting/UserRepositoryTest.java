@@ -15,7 +15,10 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Mockito;
 
 import java.time.LocalDate;
+import DomainLayer.Enums.RoleName;
 import DomainLayer.Model.Registered;
+import DomainLayer.Model.StoreManager;
+import DomainLayer.Model.StoreOwner;
 import InfrastructureLayer.Repositories.UserJpaRepository;
 import InfrastructureLayer.Repositories.UserRepository;
 import DomainLayer.Model.User;
@@ -286,4 +289,47 @@ public class UserRepositoryTest {
         assertEquals(endDate, userRepository.getSuspensionEndDate(user.getUserId()));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUsersWithRolesInStoreId_LoadsHoldersOnceThenUsesIndex() {
+        int storeId = 42;
+        registedUser.addRole(storeId, new StoreOwner());
+        Mockito.when(userJpaRepository.findUserIdsByStoreId(storeId)).thenReturn(List.of(registedUser.getUserId()));
+        Mockito.when(userJpaRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of(registedUser));
+
+        assertEquals(List.of(registedUser), userRepository.UsersWithRolesInStoreId(storeId));
+        assertEquals(List.of(registedUser), userRepository.UsersWithRolesInStoreId(storeId));
+
+        Mockito.verify(userJpaRepository, Mockito.times(1)).findUserIdsByStoreId(storeId);
+        Mockito.verify(userJpaRepository, Mockito.never()).findAllRegistered();
+    }
+
+    @Test
+    void testUsersWithRolesInStoreId_IndexFollowsAddAndRemoveRole() {
+        int storeId = 42;
+        Mockito.when(userJpaRepository.findUserIdsByStoreId(storeId)).thenReturn(List.of());
+        assertTrue(userRepository.UsersWithRolesInStoreId(storeId).isEmpty());
+
+        registedUser.addRole(storeId, new StoreManager());
+        userRepository.save(registedUser);
+        Mockito.when(userJpaRepository.findAllById(List.of(registedUser.getUserId()))).thenReturn(List.of(registedUser));
+        assertEquals(List.of(registedUser), userRepository.UsersWithRolesInStoreId(storeId));
+
+        registedUser.removeRole(storeId);
+        userRepository.save(registedUser);
+        Mockito.when(userJpaRepository.findAllById(List.of())).thenReturn(List.of());
+        assertTrue(userRepository.UsersWithRolesInStoreId(storeId).isEmpty());
+
+        Mockito.verify(userJpaRepository, Mockito.times(1)).findUserIdsByStoreId(storeId);
+    }
+
+    @Test
+    void testFindByStoreIdAndRole_DelegatesToIndexedQuery() {
+        int storeId = 42;
+        List<RoleName> owners = List.of(RoleName.STORE_OWNER, RoleName.STORE_FOUNDER);
+        Mockito.when(userJpaRepository.findByStoreIdAndRole(storeId, owners)).thenReturn(List.of(registedUser));
+
+        assertEquals(List.of(registedUser), userRepository.findByStoreIdAndRole(storeId, owners));
+        assertTrue(userRepository.findByStoreIdAndRole(storeId, List.of()).isEmpty());
+    }
+
+}
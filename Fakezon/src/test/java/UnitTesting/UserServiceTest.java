@@ -69,7 +69,7 @@ public class UserServiceTest {
 
         userService.removeAssignmentMessage(storeId, userId);
 
-        verify(mockUser, times(1)).removeAssignmentMessage(storeId);
+        verify(userRepository, times(1)).removeAssignmentMessages(userId, storeId);
         verify(userRepository, times(1)).findRegisteredById(userId);
     }
 